@@ -3,17 +3,21 @@ package commons;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
-import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.util.Objects;
 
 import static org.apache.commons.lang3.builder.ToStringStyle.MULTI_LINE_STYLE;
 
 @Entity(name = "activity")
+// The activities are sampled by their position in this index, see ActivityDB
+@Table(indexes = @Index(name = "idx_activity_consumption", columnList = "consumption, id"))
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class Activity {
 
@@ -71,7 +75,14 @@ public class Activity {
      */
     @Override
     public boolean equals(Object obj) {
-        return EqualsBuilder.reflectionEquals(this, obj);
+        if(this == obj) return true;
+        if(obj == null || getClass() != obj.getClass()) return false;
+
+        Activity other = (Activity) obj;
+        return consumption == other.consumption &&
+                Objects.equals(id, other.id) &&
+                Objects.equals(imagePath, other.imagePath) &&
+                Objects.equals(title, other.title);
     }
 
     /**
@@ -81,7 +92,7 @@ public class Activity {
      */
     @Override
     public int hashCode() {
-        return HashCodeBuilder.reflectionHashCode(this);
+        return new HashCodeBuilder(17, 37).append(id).append(imagePath).append(title).append(consumption).toHashCode();
     }
 
     /**
@@ -91,7 +102,12 @@ public class Activity {
      */
     @Override
     public String toString() {
-        return ToStringBuilder.reflectionToString(this, MULTI_LINE_STYLE);
+        return new ToStringBuilder(this, MULTI_LINE_STYLE)
+                .append("consumption", consumption)
+                .append("id", id)
+                .append("imagePath", imagePath)
+                .append("title", title)
+                .toString();
     }
 
 }
@@ -1,6 +1,5 @@
 package commons;
 
-import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 
@@ -161,7 +160,14 @@ public class AnswerResponseEntity {
      */
     @Override
     public boolean equals(Object obj) {
-        return EqualsBuilder.reflectionEquals(this, obj);
+        if(this == obj) return true;
+        if(obj == null || getClass() != obj.getClass()) return false;
+
+        AnswerResponseEntity other = (AnswerResponseEntity) obj;
+        return correct == other.correct &&
+                proximity == other.proximity &&
+                answer == other.answer &&
+                points == other.points;
     }
 
     /**
@@ -171,7 +177,7 @@ public class AnswerResponseEntity {
      */
     @Override
     public int hashCode() {
-        return HashCodeBuilder.reflectionHashCode(this);
+        return new HashCodeBuilder(17, 37).append(correct).append(proximity).append(answer).append(points).toHashCode();
     }
 
     /**
@@ -181,7 +187,12 @@ public class AnswerResponseEntity {
      */
     @Override
     public String toString() {
-        return ToStringBuilder.reflectionToString(this, MULTI_LINE_STYLE);
+        return new ToStringBuilder(this, MULTI_LINE_STYLE)
+                .append("answer", answer)
+                .append("correct", correct)
+                .append("points", points)
+                .append("proximity", proximity)
+                .toString();
     }
 
 }
@@ -1,9 +1,10 @@
 package commons;
 
-import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 
+import java.util.Objects;
+
 import static org.apache.commons.lang3.builder.ToStringStyle.MULTI_LINE_STYLE;
 
 
@@ -86,7 +87,12 @@ public class Player {
      */
     @Override
     public boolean equals(Object o) {
-        return EqualsBuilder.reflectionEquals(this, o);
+        if(this == o) return true;
+        if(o == null || getClass() != o.getClass()) return false;
+
+        Player other = (Player) o;
+        return points == other.points &&
+                Objects.equals(username, other.username);
     }
 
 
@@ -97,7 +103,7 @@ public class Player {
      */
     @Override
     public int hashCode() {
-        return HashCodeBuilder.reflectionHashCode(this);
+        return new HashCodeBuilder(17, 37).append(username).append(points).toHashCode();
     }
 
     /**
@@ -107,7 +113,10 @@ public class Player {
      */
     @Override
     public String toString() {
-        return ToStringBuilder.reflectionToString(this, MULTI_LINE_STYLE);
+        return new ToStringBuilder(this, MULTI_LINE_STYLE)
+                .append("points", points)
+                .append("username", username)
+                .toString();
     }
 
 }
@@ -4,9 +4,11 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 
+import javax.persistence.CollectionTable;
 import javax.persistence.ElementCollection;
 import javax.persistence.Entity;
 import javax.persistence.Id;
+import javax.persistence.JoinColumn;
 import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
@@ -24,6 +26,7 @@ public abstract class Question {
     public String activityImagePath;
 
     @ElementCollection
+    @CollectionTable(name = "question_answer_options", joinColumns = @JoinColumn(name = "question_question_id"))
     public List<String> answerOptions;
     @JsonIgnore
     public long answer;
@@ -104,7 +107,13 @@ public abstract class Question {
      */
     @Override
     public String toString() {
-        return ToStringBuilder.reflectionToString(this, MULTI_LINE_STYLE);
+        return new ToStringBuilder(this, MULTI_LINE_STYLE)
+                .append("activityImagePath", activityImagePath)
+                .append("activityTitle", activityTitle)
+                .append("answer", answer)
+                .append("answerOptions", answerOptions)
+                .append("questionId", questionId)
+                .toString();
     }
 
 }
@@ -1,11 +1,11 @@
 package commons;
 
-import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 
 import javax.persistence.Entity;
 import javax.persistence.Id;
+import java.util.Objects;
 
 import static org.apache.commons.lang3.builder.ToStringStyle.MULTI_LINE_STYLE;
 
@@ -62,7 +62,12 @@ public class Score {
      */
     @Override
     public boolean equals(Object obj) {
-        return EqualsBuilder.reflectionEquals(this, obj);
+        if(this == obj) return true;
+        if(obj == null || getClass() != obj.getClass()) return false;
+
+        Score other = (Score) obj;
+        return score == other.score &&
+                Objects.equals(username, other.username);
     }
 
     /**
@@ -72,7 +77,7 @@ public class Score {
      */
     @Override
     public int hashCode() {
-        return HashCodeBuilder.reflectionHashCode(this);
+        return new HashCodeBuilder(17, 37).append(username).append(score).toHashCode();
     }
 
     /**
@@ -82,7 +87,10 @@ public class Score {
      */
     @Override
     public String toString() {
-        return ToStringBuilder.reflectionToString(this, MULTI_LINE_STYLE);
+        return new ToStringBuilder(this, MULTI_LINE_STYLE)
+                .append("score", score)
+                .append("username", username)
+                .toString();
     }
 
 }
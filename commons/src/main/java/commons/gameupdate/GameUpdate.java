@@ -1,8 +1,6 @@
 package commons.gameupdate;
 
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 
 import static org.apache.commons.lang3.builder.ToStringStyle.MULTI_LINE_STYLE;
@@ -16,14 +14,15 @@ import static org.apache.commons.lang3.builder.ToStringStyle.MULTI_LINE_STYLE;
 public abstract class GameUpdate {
 
     /**
-     * Checks if 2 game update objects are equal
+     * Checks if 2 game update objects are equal. Game updates without fields are equal if they are of the same type,
+     * game updates with fields override this method and compare their fields as well.
      *
      * @param obj the object that will be compared
      * @return true or false, whether the objects are equal or not
      */
     @Override
     public boolean equals(Object obj) {
-        return EqualsBuilder.reflectionEquals(this, obj);
+        return this == obj || obj != null && getClass() == obj.getClass();
     }
 
     /**
@@ -33,7 +32,7 @@ public abstract class GameUpdate {
      */
     @Override
     public int hashCode() {
-        return HashCodeBuilder.reflectionHashCode(this);
+        return getClass().getName().hashCode();
     }
 
     /**
@@ -43,7 +42,7 @@ public abstract class GameUpdate {
      */
     @Override
     public String toString() {
-        return ToStringBuilder.reflectionToString(this, MULTI_LINE_STYLE);
+        return new ToStringBuilder(this, MULTI_LINE_STYLE).toString();
     }
 
 }
@@ -2,9 +2,15 @@ package commons.gameupdate;
 
 import commons.Player;
 
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 
+import static org.apache.commons.lang3.builder.ToStringStyle.MULTI_LINE_STYLE;
+
 /**
  * This GameUpdate is sent to a client after joining the game, and gives it a list of all players currently in the
  * game, as well as the UUID of the game it joined.
@@ -57,4 +63,42 @@ public class GameUpdateFullPlayerList extends GameUpdate {
 
     }
 
+    /**
+     * Checks if 2 game update objects are equal
+     *
+     * @param obj the object that will be compared
+     * @return true or false, whether the objects are equal or not
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if(!super.equals(obj)) return false;
+
+        GameUpdateFullPlayerList other = (GameUpdateFullPlayerList) obj;
+        return Objects.equals(playerList, other.playerList) &&
+                Objects.equals(gameUUID, other.gameUUID);
+    }
+
+    /**
+     * Generate a hash code for this object
+     *
+     * @return hash code
+     */
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder(17, 37).appendSuper(super.hashCode()).append(playerList).append(gameUUID).toHashCode();
+    }
+
+    /**
+     * Creates a formatted string for this object
+     *
+     * @return a formatted string in multi line style
+     */
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this, MULTI_LINE_STYLE)
+                .append("gameUUID", gameUUID)
+                .append("playerList", playerList)
+                .toString();
+    }
+
 }
@@ -1,5 +1,10 @@
 package commons.gameupdate;
 
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import static org.apache.commons.lang3.builder.ToStringStyle.MULTI_LINE_STYLE;
+
 /**
  * This GameUpdate is sent to a client to inform it of the fact that the current game is moving on
  * to the next question
@@ -38,4 +43,40 @@ public class GameUpdateNextQuestion extends GameUpdate {
 
     }
 
+    /**
+     * Checks if 2 game update objects are equal
+     *
+     * @param obj the object that will be compared
+     * @return true or false, whether the objects are equal or not
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if(!super.equals(obj)) return false;
+
+        GameUpdateNextQuestion other = (GameUpdateNextQuestion) obj;
+        return questionIdx == other.questionIdx;
+    }
+
+    /**
+     * Generate a hash code for this object
+     *
+     * @return hash code
+     */
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder(17, 37).appendSuper(super.hashCode()).append(questionIdx).toHashCode();
+    }
+
+    /**
+     * Creates a formatted string for this object
+     *
+     * @return a formatted string in multi line style
+     */
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this, MULTI_LINE_STYLE)
+                .append("questionIdx", questionIdx)
+                .toString();
+    }
+
 }
@@ -1,5 +1,10 @@
 package commons.gameupdate;
 
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import static org.apache.commons.lang3.builder.ToStringStyle.MULTI_LINE_STYLE;
+
 public class GameUpdateQuestionJoker extends GameUpdate {
 
     private int buttonNumber;
@@ -30,4 +35,40 @@ public class GameUpdateQuestionJoker extends GameUpdate {
         return buttonNumber;
     }
 
+    /**
+     * Checks if 2 game update objects are equal
+     *
+     * @param obj the object that will be compared
+     * @return true or false, whether the objects are equal or not
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if(!super.equals(obj)) return false;
+
+        GameUpdateQuestionJoker other = (GameUpdateQuestionJoker) obj;
+        return buttonNumber == other.buttonNumber;
+    }
+
+    /**
+     * Generate a hash code for this object
+     *
+     * @return hash code
+     */
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder(17, 37).appendSuper(super.hashCode()).append(buttonNumber).toHashCode();
+    }
+
+    /**
+     * Creates a formatted string for this object
+     *
+     * @return a formatted string in multi line style
+     */
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this, MULTI_LINE_STYLE)
+                .append("buttonNumber", buttonNumber)
+                .toString();
+    }
+
 }
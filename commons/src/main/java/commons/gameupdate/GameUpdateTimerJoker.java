@@ -1,7 +1,13 @@
 package commons.gameupdate;
 
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 
+import static org.apache.commons.lang3.builder.ToStringStyle.MULTI_LINE_STYLE;
+
 public class GameUpdateTimerJoker extends GameUpdate {
 
     private ConcurrentHashMap<String, Long> time;
@@ -32,4 +38,40 @@ public class GameUpdateTimerJoker extends GameUpdate {
         return time;
     }
 
+    /**
+     * Checks if 2 game update objects are equal
+     *
+     * @param obj the object that will be compared
+     * @return true or false, whether the objects are equal or not
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if(!super.equals(obj)) return false;
+
+        GameUpdateTimerJoker other = (GameUpdateTimerJoker) obj;
+        return Objects.equals(time, other.time);
+    }
+
+    /**
+     * Generate a hash code for this object
+     *
+     * @return hash code
+     */
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder(17, 37).appendSuper(super.hashCode()).append(time).toHashCode();
+    }
+
+    /**
+     * Creates a formatted string for this object
+     *
+     * @return a formatted string in multi line style
+     */
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this, MULTI_LINE_STYLE)
+                .append("time", time)
+                .toString();
+    }
+
 }
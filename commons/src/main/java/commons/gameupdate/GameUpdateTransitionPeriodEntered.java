@@ -2,6 +2,13 @@ package commons.gameupdate;
 
 import commons.AnswerResponseEntity;
 
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.util.Objects;
+
+import static org.apache.commons.lang3.builder.ToStringStyle.MULTI_LINE_STYLE;
+
 /**
  * This GameUpdate is sent to a client to inform it of the fact that the current game is entering the transition
  * period between questions
@@ -43,4 +50,40 @@ public class GameUpdateTransitionPeriodEntered extends GameUpdate {
 
     }
 
+    /**
+     * Checks if 2 game update objects are equal
+     *
+     * @param obj the object that will be compared
+     * @return true or false, whether the objects are equal or not
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if(!super.equals(obj)) return false;
+
+        GameUpdateTransitionPeriodEntered other = (GameUpdateTransitionPeriodEntered) obj;
+        return Objects.equals(answerResponseEntity, other.answerResponseEntity);
+    }
+
+    /**
+     * Generate a hash code for this object
+     *
+     * @return hash code
+     */
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder(17, 37).appendSuper(super.hashCode()).append(answerResponseEntity).toHashCode();
+    }
+
+    /**
+     * Creates a formatted string for this object
+     *
+     * @return a formatted string in multi line style
+     */
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this, MULTI_LINE_STYLE)
+                .append("answerResponseEntity", answerResponseEntity)
+                .toString();
+    }
+
 }
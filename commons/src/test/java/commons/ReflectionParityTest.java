@@ -0,0 +1,121 @@
+package commons;
+
+import commons.gameupdate.*;
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.apache.commons.lang3.builder.ToStringStyle.MULTI_LINE_STYLE;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the explicit equals, hashCode and toString methods of the commons classes behave the same as the
+ * reflection based implementations they replaced
+ */
+class ReflectionParityTest {
+
+    /**
+     * Compares every pair of the given objects with both the explicit and the reflection based methods
+     *
+     * @param objects the objects to compare, including objects that only differ in a single field
+     */
+    private void assertParity(Object... objects) {
+
+        for(Object a : objects) {
+            assertEquals(ToStringBuilder.reflectionToString(a, MULTI_LINE_STYLE), a.toString());
+            assertFalse(a.equals(null));
+            assertFalse(a.equals(new Object()));
+            for(Object b : objects) {
+                boolean expected = EqualsBuilder.reflectionEquals(a, b);
+                assertEquals(expected, a.equals(b), a + " compared to " + b);
+                if(expected) {
+                    assertEquals(a.hashCode(), b.hashCode());
+                }
+            }
+        }
+
+    }
+
+    @Test
+    void testActivity() {
+        assertParity(new Activity("1", "/path", "Activity", 10),
+                new Activity("1", "/path", "Activity", 10),
+                new Activity("2", "/path", "Activity", 10),
+                new Activity("1", "/other", "Activity", 10),
+                new Activity("1", "/path", "Other", 10),
+                new Activity("1", "/path", "Activity", 11),
+                new Activity(null, null, null, 10),
+                new Activity());
+    }
+
+    @Test
+    void testPlayer() {
+        Player withPoints = new Player("P1");
+        withPoints.increasePoints(100);
+        assertParity(new Player("P1"), new Player("P1"), new Player("P2"), withPoints, new Player());
+    }
+
+    @Test
+    void testScore() {
+        assertParity(new Score("P1", 100), new Score("P1", 100), new Score("P2", 100), new Score("P1", 50),
+                new Score(null, 100));
+    }
+
+    @Test
+    void testAnswerResponseEntity() {
+        assertParity(new AnswerResponseEntity(true, 0, 1, 100),
+                new AnswerResponseEntity(true, 0, 1, 100),
+                new AnswerResponseEntity(false, 0, 1, 100),
+                new AnswerResponseEntity(true, 5, 1, 100),
+                new AnswerResponseEntity(true, 0, 2, 100),
+                new AnswerResponseEntity(true, 0, 1, 50));
+    }
+
+    @Test
+    void testQuestionToString() {
+        Activity activity = new Activity("1", "/path", "Activity", 10);
+        Question question = new GeneralQuestion(activity, List.of("1", "2", "3"), 1);
+        assertEquals(ToStringBuilder.reflectionToString(question, MULTI_LINE_STYLE), question.toString());
+    }
+
+    @Test
+    void testGameUpdatesWithoutFields() {
+        assertParity(new GameUpdateGameStarting(), new GameUpdateGameStarting(), new GameUpdateNameInUse(),
+                new GameUpdateNameTooLong(), new GameUpdateNoQuestions());
+    }
+
+    @Test
+    void testGameUpdatesWithFields() {
+        UUID uuid = UUID.randomUUID();
+        List<Score> scores = List.of(new Score("P1", 100));
+        ConcurrentHashMap<String, Long> time = new ConcurrentHashMap<>();
+        time.put("P1", 1000L);
+
+        assertParity(new GameUpdateDisplayLeaderboard(scores), new GameUpdateDisplayLeaderboard(List.of()),
+                new GameUpdateGameFinished(scores), new GameUpdateGameFinished(List.of(new Score("P1", 100))),
+                new GameUpdateFullPlayerList(List.of(new Player("P1")), uuid),
+                new GameUpdateFullPlayerList(List.of(new Player("P1")), UUID.randomUUID()),
+                new GameUpdateNextQuestion(1), new GameUpdateNextQuestion(2),
+                new GameUpdatePlayerJoined(new Player("P1")), new GameUpdatePlayerLeft(new Player("P1")),
+                new GameUpdatePlayerLeft(new Player("P2")),
+                new GameUpdateQuestionJoker(1), new GameUpdateQuestionJoker(2),
+                new GameUpdateTimerJoker(time), new GameUpdateTimerJoker(new ConcurrentHashMap<>()),
+                new GameUpdateTransitionPeriodEntered(new AnswerResponseEntity(true, 1)),
+                new GameUpdateTransitionPeriodEntered(new AnswerResponseEntity(false, 1)));
+    }
+
+    @Test
+    void testGameEmojiUpdateEquals() {
+        GameUpdate update = new GameEmojiUpdate("smile", "P1");
+        GameUpdate[] others = {new GameEmojiUpdate("smile", "P1"), new GameEmojiUpdate("smile", "P2"),
+            new GameEmojiUpdate("frown", "P1"), new GameUpdateGameStarting()};
+        for(GameUpdate other : others) {
+            assertEquals(EqualsBuilder.reflectionEquals(update, other), update.equals(other));
+        }
+    }
+
+}
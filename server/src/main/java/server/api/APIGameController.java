@@ -49,7 +49,7 @@ public class APIGameController {
 
         Game game = gameController.getGame(uuid);
 
-        if(game == null || game.equals(gameController.getCurrentGame())) {
+        if(game == null || game.isLobby()) {
             return ResponseEntity.badRequest().build();
         }
         List<Question> questions = game.getQuestions();
@@ -85,7 +85,7 @@ public class APIGameController {
         }
 
         Game game = gameController.getGame(uuid);
-        if(game == null || game.equals(gameController.getCurrentGame())) {
+        if(game == null || game.isLobby()) {
             result.setResult(ResponseEntity.badRequest().build());
             return result;
         }
@@ -130,7 +130,7 @@ public class APIGameController {
 
         Game game = gameController.getGame(gameID);
 
-        if(game == null || game.equals(gameController.getCurrentGame())) {
+        if(game == null || game.isLobby()) {
             return ResponseEntity.badRequest().build();
         }
 
@@ -162,7 +162,7 @@ public class APIGameController {
 
         Game game = gameController.getGame(uuid);
 
-        if(game == null || game.equals(gameController.getCurrentGame())) {
+        if(game == null || game.isLobby()) {
             return ResponseEntity.badRequest().build();
         }
 
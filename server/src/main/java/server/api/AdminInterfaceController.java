@@ -4,27 +4,38 @@ import commons.Activity;
 import commons.CommonUtils;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import server.database.ActivityDB;
 import server.database.ActivityDBController;
+import server.database.QuestionDBController;
+import server.database.QuestionRetention;
 
 import java.io.File;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/debug")
 public class AdminInterfaceController {
 
     private final ActivityDBController activityDBController;
+    private final QuestionDBController questionDBController;
+    private final QuestionRetention questionRetention;
 
     /**
      * Creates an admin interface with an activityDBController to retrieve the activities and images.
      * This admin interface is used for debugging purposes, or editing/adding/deleting activities.
      *
      * @param activityDBController An activityDBController to retrieve the activities and images
+     * @param questionDBController A questionDBController to retrieve the size of the question table
+     * @param questionRetention    The job that deletes old questions
      */
-    public AdminInterfaceController(ActivityDBController activityDBController) {
+    public AdminInterfaceController(ActivityDBController activityDBController,
+                                    QuestionDBController questionDBController,
+                                    QuestionRetention questionRetention) {
 
         this.activityDBController = activityDBController;
+        this.questionDBController = questionDBController;
+        this.questionRetention = questionRetention;
 
     }
 
@@ -51,8 +62,7 @@ public class AdminInterfaceController {
                 || activity.consumption == 0) {
             return ResponseEntity.badRequest().build();
         }
-        ActivityDB activityDB = activityDBController.getInternalDB();
-        Activity saved = activityDB.save(activity);
+        Activity saved = activityDBController.save(activity);
         return ResponseEntity.ok(saved);
     }
 
@@ -68,8 +78,7 @@ public class AdminInterfaceController {
         if(activity.id == null) {
             return ResponseEntity.badRequest().build();
         }
-        ActivityDB activityDB = activityDBController.getInternalDB();
-        activityDB.delete(activity);
+        activityDBController.delete(activity);
         return ResponseEntity.ok(activity);
     }
 
@@ -109,4 +118,41 @@ public class AdminInterfaceController {
 
     }
 
-}
\ No newline at end of file
+    /**
+     * Get the version of the activity catalog that new games are generated from. The version changes every time an
+     * activity is edited or deleted and every time activities are imported.
+     *
+     * @return the version of the catalog and the amount of activities in it
+     */
+    @GetMapping("/activities/version")
+    public ResponseEntity<Map<String, Long>> getCatalogVersion() {
+
+        Map<String, Long> version = new LinkedHashMap<>();
+        version.put("version", activityDBController.getCatalogVersion());
+        version.put("activities", activityDBController.getActivityCount());
+        return ResponseEntity.ok(version);
+
+    }
+
+    /**
+     * Get the size of the question table and the statistics of the deletion of old questions
+     *
+     * @return the amount of stored questions and answer options, the questions that still have to be written, and
+     *         the compactions of the question table
+     */
+    @GetMapping("/questions/stats")
+    public ResponseEntity<Map<String, Long>> getQuestionStats() {
+
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("questions", questionDBController.getQuestionCount());
+        stats.put("answerOptions", questionDBController.getAnswerOptionCount());
+        stats.put("pendingWrites", (long) questionDBController.getPendingWrites());
+        stats.put("droppedQuestions", questionDBController.getDroppedQuestions());
+        stats.put("compactions", questionRetention.getCompactions());
+        stats.put("deletedQuestions", questionRetention.getDeletedQuestions());
+        stats.put("lastCompactionDuration", questionRetention.getLastCompactionDuration());
+        return ResponseEntity.ok(stats);
+
+    }
+
+}
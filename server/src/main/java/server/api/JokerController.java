@@ -28,7 +28,7 @@ public class JokerController {
      *
      * @param username     the player who used the joker
      * @param gameIDString The UUID of the current game
-     * @return 400 Bad request: the UUID is wrong or the game does not exist, 200 OK: the username is returned to the client
+     * @return 400 Bad request: the UUID is wrong, the game does not exist (or has not started) or the player is not in it, 200 OK: the username is returned to the client
      */
     @PostMapping("/time")
     public ResponseEntity<String> useTimeJoker(@RequestParam("username") String username, @RequestParam("gameUUID") String gameIDString) {
@@ -40,7 +40,7 @@ public class JokerController {
         }
 
         Game game = gameController.getGame(uuid);
-        if(game == null) return ResponseEntity.badRequest().build();
+        if(game == null || game.isLobby() || !game.containsPlayer(username)) return ResponseEntity.badRequest().build();
 
         game.useTimeJoker(username);
 
@@ -52,7 +52,7 @@ public class JokerController {
      *
      * @param username     the player who used the joker
      * @param gameIDString The UUID of the current game
-     * @return 400 Bad request: the UUID is wrong or the game does not exist, 200 OK: the username is returned to the client
+     * @return 400 Bad request: the UUID is wrong, the game does not exist (or has not started) or the player is not in it, 200 OK: the username is returned to the client
      */
     @PostMapping("/question")
     public ResponseEntity<String> useAnswerJoker(@RequestParam("username") String username, @RequestParam("gameUUID") String gameIDString) {
@@ -64,7 +64,7 @@ public class JokerController {
         }
 
         Game game = gameController.getGame(uuid);
-        if(game == null) return ResponseEntity.badRequest().build();
+        if(game == null || game.isLobby() || !game.containsPlayer(username)) return ResponseEntity.badRequest().build();
 
         game.useQuestionJoker(username);
 
@@ -76,7 +76,7 @@ public class JokerController {
      *
      * @param username     the player who used the joker
      * @param gameIDString The UUID of the current game
-     * @return 400 Bad request: the UUID is wrong or the game does not exist, 200 OK: the username is returned to the client
+     * @return 400 Bad request: the UUID is wrong, the game does not exist (or has not started) or the player is not in it, 200 OK: the username is returned to the client
      */
     @PostMapping("/score")
     public ResponseEntity<String> useScoreJoker(@RequestParam("username") String username, @RequestParam("gameUUID") String gameIDString) {
@@ -88,7 +88,7 @@ public class JokerController {
         }
 
         Game game = gameController.getGame(uuid);
-        if(game == null) return ResponseEntity.badRequest().build();
+        if(game == null || game.isLobby() || !game.containsPlayer(username)) return ResponseEntity.badRequest().build();
 
         game.useScoreJoker(username);
 
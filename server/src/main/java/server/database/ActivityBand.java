@@ -0,0 +1,60 @@
+package server.database;
+
+import server.game.questions.QuestionGeneratorUtils;
+
+/**
+ * The consumption ranges around an activity in which the other activities of a question are searched. The bounds of
+ * every band only depend on the consumption of the activity, so the activity index can compute the activities in
+ * every band of an activity beforehand.
+ */
+public enum ActivityBand {
+
+    /**
+     * Within 5% of the consumption, the preferred answer of a comparison question
+     */
+    CLOSE,
+    /**
+     * Within 10% of the consumption, the answer of a comparison question if there is none within 5%
+     */
+    NEAR,
+    /**
+     * 20-40% below the consumption, the wrong answer options of a comparison question
+     */
+    LOWER,
+    /**
+     * 20-40% above the consumption, the wrong answer options of a comparison question
+     */
+    HIGHER,
+    /**
+     * The range of getLowerUpperBoundSmall, the other activities of a which is more question
+     */
+    SCALE;
+
+    private static final QuestionGeneratorUtils UTILS = new QuestionGeneratorUtils();
+
+    /**
+     * Returns the bounds of this band around a consumption
+     *
+     * @param consumption the consumption of the activity
+     * @return an array with two longs, the lower bound (incl., idx 0) and the upper bound (incl., idx 1)
+     */
+    public long[] getBounds(long consumption) {
+
+        switch(this) {
+            case CLOSE:
+                return new long[]{Math.round(consumption - consumption * 0.05),
+                    Math.round(consumption + consumption * 0.05)};
+            case NEAR:
+                return new long[]{Math.round(consumption - consumption * 0.1),
+                    Math.round(consumption + consumption * 0.1)};
+            case LOWER:
+                return new long[]{(long) (consumption * 0.6), (long) (consumption * 0.8)};
+            case HIGHER:
+                return new long[]{(long) (consumption * 1.2), (long) (consumption * 1.4)};
+            default:
+                return UTILS.getLowerUpperBoundSmall(consumption);
+        }
+
+    }
+
+}
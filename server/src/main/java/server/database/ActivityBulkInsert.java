@@ -0,0 +1,20 @@
+package server.database;
+
+import commons.Activity;
+
+import java.util.List;
+
+/**
+ * Inserts many new activities at once, which is used when activities are imported
+ */
+public interface ActivityBulkInsert {
+
+    /**
+     * Inserts new activities in a single transaction, with JDBC batches. The activities must not be in the database
+     * yet, as they are not checked.
+     *
+     * @param activities the activities to insert
+     */
+    void insertAll(List<Activity> activities);
+
+}
@@ -0,0 +1,50 @@
+package server.database;
+
+import commons.Activity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+
+/**
+ * The implementation of the bulk insert of ActivityDB. The activities are persisted instead of saved, as saving an
+ * activity with an id first selects it to check whether it exists. The persistence context is flushed and cleared
+ * after every JDBC batch, so it does not keep all imported activities.
+ */
+public class ActivityBulkInsertImpl implements ActivityBulkInsert {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final int batchSize;
+
+    /**
+     * Creates the bulk insert
+     *
+     * @param batchSize the amount of statements in a JDBC batch
+     */
+    public ActivityBulkInsertImpl(@Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize) {
+
+        this.batchSize = Math.max(1, batchSize);
+
+    }
+
+    @Override
+    @Transactional
+    public void insertAll(List<Activity> activities) {
+
+        for(int i = 0; i < activities.size(); i++) {
+            entityManager.persist(activities.get(i));
+            if((i + 1) % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+    }
+
+}
@@ -0,0 +1,89 @@
+package server.database;
+
+import commons.Activity;
+
+import java.util.Collection;
+import java.util.Random;
+
+/**
+ * A read-only view of the activities that questions are generated from. All questions of a game are generated from
+ * the same catalog, so they are not affected when the activities are reloaded in the meantime.
+ */
+public interface ActivityCatalog {
+
+    /**
+     * Selects a random activity
+     *
+     * @param random the random number generator to use
+     * @return a random activity, or null if there is none
+     */
+    Activity getRandomActivity(Random random);
+
+    /**
+     * Returns the consumption string of a consumption
+     *
+     * @param consumption the consumption in Wh
+     * @return the consumption string (rounded to 2 decimals, with an SI prefix), e.g. "1.23 kWh"
+     */
+    String getConsumptionString(long consumption);
+
+    /**
+     * Selects a random activity which consumption is in a specified range, while excluding specific activities and
+     * consumptions
+     *
+     * @param ids          the ids to exclude
+     * @param consumptions the consumptions to exclude
+     * @param lower        the lower bound (incl.)
+     * @param upper        the upper bound (incl.)
+     * @param random       the random number generator to use
+     * @return a random activity which fulfills the above requirements, or null if there is none
+     */
+    Activity getActivityExclAndInRange(Collection<String> ids,
+                                       Collection<Long> consumptions,
+                                       long lower,
+                                       long upper,
+                                       Random random);
+
+    /**
+     * Selects a random activity in a band of an activity, while excluding specific activities and consumptions
+     *
+     * @param activity     the activity around which the band is
+     * @param band         the band
+     * @param ids          the ids to exclude
+     * @param consumptions the consumptions to exclude
+     * @param random       the random number generator to use
+     * @return a random activity in the band which fulfills the above requirements, or null if there is none
+     */
+    Activity getActivityInBand(Activity activity,
+                               ActivityBand band,
+                               Collection<String> ids,
+                               Collection<Long> consumptions,
+                               Random random);
+
+    /**
+     * Selects a random activity from which a comparison question can be generated
+     *
+     * @param random the random number generator to use
+     * @return a random activity, or null if there is none
+     */
+    Activity getRandomComparisonActivity(Random random);
+
+    /**
+     * Selects the answer of a comparison question, i.e. a random activity within 5% (or, if there is none, 10%) of
+     * the main activity
+     *
+     * @param main   the main activity of the comparison question
+     * @param random the random number generator to use
+     * @return a random answer, or null if there is none
+     */
+    Activity getComparisonAnswer(Activity main, Random random);
+
+    /**
+     * Selects a random activity from which a which is more question can be generated
+     *
+     * @param random the random number generator to use
+     * @return a random activity, or null if there is none
+     */
+    Activity getRandomWhichIsMoreActivity(Random random);
+
+}
@@ -0,0 +1,47 @@
+package server.database;
+
+import java.util.Map;
+
+/**
+ * Keeps the fingerprints of the activities in the database, so that an imported file only changes the activities
+ * that are different
+ */
+public interface ActivityCatalogSync {
+
+    /**
+     * Returns the stored fingerprints of the activities
+     *
+     * @return the fingerprints by the id of their activity
+     */
+    Map<String, Long> findFingerprints();
+
+    /**
+     * Computes the fingerprints of the activities, which are read one at a time
+     *
+     * @return the fingerprints by the id of their activity
+     */
+    Map<String, Long> computeFingerprints();
+
+    /**
+     * Returns the checksum of the last imported file
+     *
+     * @return the checksum, or null if the activities were changed since the last import
+     */
+    Long findFileChecksum();
+
+    /**
+     * Applies a part of the changes of an import to the activities and their fingerprints. The part joins the
+     * transaction of the import if there is one, and is written and cleared from the persistence context before this
+     * returns. The checksum of the file is stored with the last part.
+     *
+     * @param changes the changes to apply
+     */
+    void applyChanges(ActivityChanges changes);
+
+    /**
+     * Deletes all fingerprints, which has to be done when the activities are changed without an import. The next
+     * import compares the file to the activities themselves.
+     */
+    void clearFingerprints();
+
+}
@@ -0,0 +1,162 @@
+package server.database;
+
+import commons.Activity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The implementation of the fingerprints of ActivityDB. Only the changed activities and fingerprints are written: the
+ * new ones are inserted with JDBC batches, the changed ones are updated with a statement each (without selecting them
+ * first), and the deleted ones are deleted with a statement per batch of ids.
+ */
+public class ActivityCatalogSyncImpl implements ActivityCatalogSync {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final int batchSize;
+
+    /**
+     * Creates the fingerprints
+     *
+     * @param batchSize the amount of statements in a JDBC batch
+     */
+    public ActivityCatalogSyncImpl(@Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize) {
+
+        this.batchSize = Math.max(1, batchSize);
+
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Long> findFingerprints() {
+
+        Map<String, Long> fingerprints = new HashMap<>();
+        entityManager.createQuery("SELECT f FROM activity_fingerprint f WHERE f.id <> :file",
+                        ActivityFingerprint.class)
+                .setParameter("file", ActivityFingerprint.FILE_CHECKSUM_ID)
+                .getResultStream()
+                .forEach(f -> fingerprints.put(f.id, f.fingerprint));
+        return fingerprints;
+
+    }
+
+    @Override
+    public Long findFileChecksum() {
+
+        ActivityFingerprint checksum = entityManager.find(ActivityFingerprint.class,
+                ActivityFingerprint.FILE_CHECKSUM_ID);
+        return checksum == null ? null : checksum.fingerprint;
+
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Long> computeFingerprints() {
+
+        // The activities are created by the query instead of loaded, so the persistence context does not keep them
+        Map<String, Long> fingerprints = new HashMap<>();
+        entityManager.createQuery("SELECT new commons.Activity(a.id, a.imagePath, a.title, a.consumption) " +
+                        "FROM activity a", Activity.class)
+                .getResultStream()
+                .forEach(a -> fingerprints.put(a.id, ActivityFingerprint.of(a)));
+        return fingerprints;
+
+    }
+
+    @Override
+    @Transactional
+    public void applyChanges(ActivityChanges changes) {
+
+        List<String> deletes = changes.getDeletes();
+        for(int from = 0; from < deletes.size(); from += batchSize) {
+            List<String> ids = deletes.subList(from, Math.min(deletes.size(), from + batchSize));
+            entityManager.createQuery("DELETE FROM activity a WHERE a.id IN :ids")
+                    .setParameter("ids", ids).executeUpdate();
+            entityManager.createQuery("DELETE FROM activity_fingerprint f WHERE f.id IN :ids")
+                    .setParameter("ids", ids).executeUpdate();
+        }
+
+        int written = 0;
+        for(Activity activity : changes.getInserts()) {
+            entityManager.persist(activity);
+            written = flushBatch(written + 1);
+        }
+        for(Map.Entry<String, Long> fingerprint : changes.getNewFingerprints().entrySet()) {
+            entityManager.persist(new ActivityFingerprint(fingerprint.getKey(), fingerprint.getValue()));
+            written = flushBatch(written + 1);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        // The changed rows are updated with statements, as merging them would select every row first
+        for(Activity activity : changes.getUpdates()) {
+            entityManager.createQuery("UPDATE activity a SET a.imagePath = :imagePath, a.title = :title, " +
+                            "a.consumption = :consumption WHERE a.id = :id")
+                    .setParameter("imagePath", activity.imagePath)
+                    .setParameter("title", activity.title)
+                    .setParameter("consumption", activity.consumption)
+                    .setParameter("id", activity.id)
+                    .executeUpdate();
+        }
+        for(Map.Entry<String, Long> fingerprint : changes.getChangedFingerprints().entrySet()) {
+            updateFingerprint(fingerprint.getKey(), fingerprint.getValue());
+        }
+        if(changes.isComplete()
+                && updateFingerprint(ActivityFingerprint.FILE_CHECKSUM_ID, changes.getFileChecksum()) == 0) {
+            entityManager.persist(new ActivityFingerprint(ActivityFingerprint.FILE_CHECKSUM_ID,
+                    changes.getFileChecksum()));
+            entityManager.flush();
+            entityManager.clear();
+        }
+
+    }
+
+    @Override
+    @Transactional
+    public void clearFingerprints() {
+
+        entityManager.createQuery("DELETE FROM activity_fingerprint f").executeUpdate();
+
+    }
+
+    /**
+     * Updates a stored fingerprint
+     *
+     * @param id          the id of the fingerprint
+     * @param fingerprint the new fingerprint
+     * @return the amount of updated fingerprints, which is 0 if the fingerprint is not stored
+     */
+    private int updateFingerprint(String id, long fingerprint) {
+
+        return entityManager.createQuery("UPDATE activity_fingerprint f SET f.fingerprint = :fingerprint " +
+                        "WHERE f.id = :id")
+                .setParameter("fingerprint", fingerprint)
+                .setParameter("id", id)
+                .executeUpdate();
+
+    }
+
+    /**
+     * Writes the pending statements when a JDBC batch is full, and clears the persistence context so that it does not
+     * keep all written entities
+     *
+     * @param written the amount of written entities since the last batch
+     * @return the amount of written entities since the last batch after this call
+     */
+    private int flushBatch(int written) {
+
+        if(written < batchSize) return written;
+        entityManager.flush();
+        entityManager.clear();
+        return 0;
+
+    }
+
+}
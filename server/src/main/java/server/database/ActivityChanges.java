@@ -0,0 +1,253 @@
+package server.database;
+
+import commons.Activity;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The changes that make the activity database equal to an imported file: the activities that are inserted, updated
+ * and deleted, and the fingerprints that are stored for them. The changes are written in parts while the file is
+ * read (all in the transaction of the import), so only the changes since the last written part are kept, together
+ * with the total amounts of changes.
+ */
+public class ActivityChanges {
+
+    private final long fileChecksum;
+    private final List<Activity> inserts;
+    private final List<Activity> updates;
+    private final List<String> deletes;
+    /**
+     * The fingerprints that are not stored yet, by the id of their activity
+     */
+    private final Map<String, Long> newFingerprints;
+    /**
+     * The stored fingerprints that have changed, by the id of their activity
+     */
+    private final Map<String, Long> changedFingerprints;
+
+    private boolean complete;
+    private int insertCount;
+    private int updateCount;
+    private int deleteCount;
+
+    /**
+     * Creates empty changes
+     *
+     * @param fileChecksum the checksum of the imported file
+     */
+    public ActivityChanges(long fileChecksum) {
+
+        this.fileChecksum = fileChecksum;
+        this.inserts = new ArrayList<>();
+        this.updates = new ArrayList<>();
+        this.deletes = new ArrayList<>();
+        this.newFingerprints = new HashMap<>();
+        this.changedFingerprints = new HashMap<>();
+        this.complete = false;
+
+    }
+
+    /**
+     * Adds an activity that is not in the database yet
+     *
+     * @param activity    the activity
+     * @param fingerprint the fingerprint of the activity
+     */
+    public void insert(Activity activity, long fingerprint) {
+
+        inserts.add(activity);
+        newFingerprints.put(activity.id, fingerprint);
+        insertCount++;
+
+    }
+
+    /**
+     * Adds an activity that is in the database with other fields
+     *
+     * @param activity    the activity
+     * @param fingerprint the fingerprint of the activity
+     * @param stored      whether a (different) fingerprint of the activity is stored
+     */
+    public void update(Activity activity, long fingerprint, boolean stored) {
+
+        updates.add(activity);
+        if(stored) {
+            changedFingerprints.put(activity.id, fingerprint);
+        } else {
+            newFingerprints.put(activity.id, fingerprint);
+        }
+        updateCount++;
+
+    }
+
+    /**
+     * Adds the fingerprint of an activity that does not change, but of which the fingerprint is not stored
+     *
+     * @param id          the id of the activity
+     * @param fingerprint the fingerprint of the activity
+     */
+    public void keep(String id, long fingerprint) {
+
+        newFingerprints.put(id, fingerprint);
+
+    }
+
+    /**
+     * Adds an activity that is not in the file anymore
+     *
+     * @param id the id of the activity
+     */
+    public void delete(String id) {
+
+        deletes.add(id);
+        deleteCount++;
+
+    }
+
+    /**
+     * Marks that all changes are added, so the checksum of the file is stored when the last part is applied
+     */
+    public void complete() {
+
+        complete = true;
+
+    }
+
+    /**
+     * Removes the changes that are applied, the total amounts of changes are kept
+     */
+    public void clear() {
+
+        inserts.clear();
+        updates.clear();
+        deletes.clear();
+        newFingerprints.clear();
+        changedFingerprints.clear();
+
+    }
+
+    /**
+     * Returns the amount of rows that are written when the changes that are not applied yet are applied
+     *
+     * @return the amount of rows
+     */
+    public int size() {
+
+        return inserts.size() + updates.size() + deletes.size() + newFingerprints.size() + changedFingerprints.size();
+
+    }
+
+    /**
+     * Returns whether all changes are added, i.e. whether these are the last changes of the import
+     *
+     * @return true if all changes are added
+     */
+    public boolean isComplete() {
+
+        return complete;
+
+    }
+
+    /**
+     * Returns the checksum of the imported file
+     *
+     * @return the checksum
+     */
+    public long getFileChecksum() {
+
+        return fileChecksum;
+
+    }
+
+    /**
+     * Returns the activities to insert that are not applied yet
+     *
+     * @return the activities
+     */
+    public List<Activity> getInserts() {
+
+        return inserts;
+
+    }
+
+    /**
+     * Returns the activities to update that are not applied yet
+     *
+     * @return the activities
+     */
+    public List<Activity> getUpdates() {
+
+        return updates;
+
+    }
+
+    /**
+     * Returns the ids of the activities to delete that are not applied yet
+     *
+     * @return the ids
+     */
+    public List<String> getDeletes() {
+
+        return deletes;
+
+    }
+
+    /**
+     * Returns the fingerprints to insert that are not applied yet, by the id of their activity
+     *
+     * @return the fingerprints
+     */
+    public Map<String, Long> getNewFingerprints() {
+
+        return newFingerprints;
+
+    }
+
+    /**
+     * Returns the fingerprints to update that are not applied yet, by the id of their activity
+     *
+     * @return the fingerprints
+     */
+    public Map<String, Long> getChangedFingerprints() {
+
+        return changedFingerprints;
+
+    }
+
+    /**
+     * Returns the total amount of inserted activities
+     *
+     * @return the amount of activities
+     */
+    public int getInsertCount() {
+
+        return insertCount;
+
+    }
+
+    /**
+     * Returns the total amount of updated activities
+     *
+     * @return the amount of activities
+     */
+    public int getUpdateCount() {
+
+        return updateCount;
+
+    }
+
+    /**
+     * Returns the total amount of deleted activities
+     *
+     * @return the amount of activities
+     */
+    public int getDeleteCount() {
+
+        return deleteCount;
+
+    }
+
+}
@@ -7,49 +7,214 @@ import org.springframework.data.repository.query.Param;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 
+/**
+ * The database of the activities. A random activity is selected by counting the activities that fulfill the
+ * requirements, drawing a random rank below that count, and reading the activity at that rank in the index on the
+ * consumption (and id). Every activity that fulfills the requirements has the same probability of being selected,
+ * and the table does not have to be sorted randomly. The index is scanned up to the rank, so the read is linear in
+ * the rank instead of the size of the table.
+ */
+public interface ActivityDB extends JpaRepository<Activity, String>, ActivityBulkInsert, ActivityCatalogSync {
 
-public interface ActivityDB extends JpaRepository<Activity, String> {
+    /**
+     * Returns which of the given ids are the ids of activities in the database, without loading the activities
+     *
+     * @param ids the ids to look for
+     * @return the ids that are in the database
+     */
+    @Query("SELECT a.id FROM activity a WHERE a.id IN :ids")
+    List<String> findExistingIds(@Param("ids") Collection<String> ids);
+
+    /**
+     * Returns the activity at a position in the order of the consumptions (and ids)
+     *
+     * @param rank the position of the activity
+     * @return the activity, or null if there are not that many activities
+     */
+    @Query(value = "SELECT * FROM ACTIVITY ORDER BY CONSUMPTION, ID LIMIT 1 OFFSET :rank", nativeQuery = true)
+    Activity findAtRank(@Param("rank") long rank);
+
+    /**
+     * Counts the activities which consumption is in a specified range, while excluding specific activities and
+     * consumptions
+     *
+     * @return the amount of activities fulfilling the above-mentioned requirements
+     */
+    @Query(value = "SELECT COUNT(*) FROM ACTIVITY\n" +
+            "WHERE CONSUMPTION BETWEEN :lower AND :upper\n" +
+            "AND ID NOT IN :ids\n" +
+            "AND CONSUMPTION NOT IN :consumptions", nativeQuery = true)
+    long countExclAndInRange(@Param("ids") Collection<String> ids,
+                             @Param("consumptions") Collection<Long> consumptions,
+                             @Param("lower") long lower,
+                             @Param("upper") long upper);
+
+    /**
+     * Counts the different consumptions in a specified range, while excluding specific consumptions
+     *
+     * @return the amount of consumptions fulfilling the above-mentioned requirements
+     */
+    @Query(value = "SELECT COUNT(DISTINCT CONSUMPTION) FROM ACTIVITY\n" +
+            "WHERE CONSUMPTION BETWEEN :lower AND :upper\n" +
+            "AND CONSUMPTION NOT IN :consumptions", nativeQuery = true)
+    long countConsumptionsExclAndInRange(@Param("consumptions") Collection<Long> consumptions,
+                                         @Param("lower") long lower,
+                                         @Param("upper") long upper);
+
+    /**
+     * Returns the activity at a position in the order of the consumptions (and ids), of the activities which
+     * consumption is in a specified range, while excluding specific activities and consumptions
+     *
+     * @return the activity, or null if there are not that many activities fulfilling the requirements
+     */
+    @Query(value = "SELECT * FROM ACTIVITY\n" +
+            "WHERE CONSUMPTION BETWEEN :lower AND :upper\n" +
+            "AND ID NOT IN :ids\n" +
+            "AND CONSUMPTION NOT IN :consumptions\n" +
+            "ORDER BY CONSUMPTION, ID LIMIT 1 OFFSET :rank", nativeQuery = true)
+    Activity findExclAndInRangeAtRank(@Param("ids") Collection<String> ids,
+                                      @Param("consumptions") Collection<Long> consumptions,
+                                      @Param("lower") long lower,
+                                      @Param("upper") long upper,
+                                      @Param("rank") long rank);
 
     /**
-     * Uses query to generate 5 random activities from database
+     * Generates 5 random activities from database
      *
      * @return List of 5 random activities from the database
      */
-    @Query(value = "SELECT * FROM activity Order By RAND() LIMIT 5", nativeQuery = true)
-    ArrayList<Activity> getFiveRandomActivities();
+    default ArrayList<Activity> getFiveRandomActivities() {
+        return getRandomActivities(5, ThreadLocalRandom.current());
+    }
 
 
     /**
-     * Uses query to generate 3 random activities from database
+     * Generates 3 random activities from database
      *
      * @return List of 3 random activities from the database
      */
-    @Query(value = "SELECT * FROM activity Order By RAND() LIMIT 3", nativeQuery = true)
-    ArrayList<Activity> getThreeRandomActivities();
+    default ArrayList<Activity> getThreeRandomActivities() {
+        return getRandomActivities(3, ThreadLocalRandom.current());
+    }
 
     /**
-     * Uses query to generate one random activity from database
+     * Generates one random activity from database
      *
      * @return A random activity from the database
      */
-    @Query(value = "SELECT * FROM activity Order By RAND() LIMIT 1", nativeQuery = true)
-    Activity getRandomActivity();
+    default Activity getRandomActivity() {
+        return getRandomActivity(ThreadLocalRandom.current());
+    }
 
     /**
-     * Uses query to generate one random activity from database, which consumption is in a specified range,
+     * Generates one random activity from database, which consumption is in a specified range,
      * while excluding specific activities and consumptions
      *
      * @return A random activity from the database fulfilling the above-mentioned requirements
      */
-    @Query(value = "SELECT * FROM ACTIVITY\n" +
-            "WHERE CONSUMPTION BETWEEN :lower AND :upper\n" +
-            "AND ID NOT IN :ids\n" +
-            "AND CONSUMPTION NOT IN :consumptions\n" +
-            "ORDER BY RAND() LIMIT 1", nativeQuery = true)
-    Activity getActivityExclAndInRange(@Param("ids") Collection<String> ids,
-                                       @Param("consumptions") Collection<Long> consumptions,
-                                       @Param("lower") long lower,
-                                       @Param("upper") long upper);
+    default Activity getActivityExclAndInRange(Collection<String> ids,
+                                               Collection<Long> consumptions,
+                                               long lower,
+                                               long upper) {
+        return getActivityExclAndInRange(ids, consumptions, lower, upper, ThreadLocalRandom.current());
+    }
+
+    /**
+     * Selects distinct random activities from the database, every activity is read at a random rank
+     *
+     * @param amount the amount of activities to select
+     * @param random the random number generator to use
+     * @return a list of the selected activities, which is shorter than amount if the database has less activities
+     */
+    default ArrayList<Activity> getRandomActivities(int amount, Random random) {
+
+        long count = count();
+        int selected = (int) Math.max(0, Math.min(amount, count));
+
+        // Floyd's algorithm selects distinct ranks without a list of all ranks
+        Set<Long> ranks = new LinkedHashSet<>();
+        for(long j = count - selected; j < count; j++) {
+            long rank = randomRank(random, j + 1);
+            ranks.add(ranks.contains(rank) ? j : rank);
+        }
+
+        ArrayList<Activity> result = new ArrayList<>(selected);
+        for(long rank : ranks) {
+            // The activity is missing if the table shrank since it was counted
+            Activity activity = findAtRank(rank);
+            if(activity != null) result.add(activity);
+        }
+        return result;
+
+    }
+
+    /**
+     * Selects a random activity from the database, every activity has the same probability of being selected
+     *
+     * @param random the random number generator to use
+     * @return a random activity, or null if the database is empty
+     */
+    default Activity getRandomActivity(Random random) {
+
+        long count = count();
+        if(count == 0) return null;
+        Activity activity = findAtRank(randomRank(random, count));
+        // If the table shrank since it was counted, the first activity is selected
+        return activity != null ? activity : findAtRank(0);
+
+    }
+
+    /**
+     * Selects a random activity from the database which consumption is in a specified range, while excluding specific
+     * activities and consumptions. Every activity that fulfills the requirements has the same probability of being
+     * selected.
+     *
+     * @param ids          the ids to exclude
+     * @param consumptions the consumptions to exclude
+     * @param lower        the lower bound (incl.)
+     * @param upper        the upper bound (incl.)
+     * @param random       the random number generator to use
+     * @return a random activity which fulfills the above requirements, or null if there is none
+     */
+    default Activity getActivityExclAndInRange(Collection<String> ids,
+                                               Collection<Long> consumptions,
+                                               long lower,
+                                               long upper,
+                                               Random random) {
+
+        if(lower > upper) return null;
+        long count = countExclAndInRange(ids, consumptions, lower, upper);
+        if(count == 0) return null;
+        Activity activity = findExclAndInRangeAtRank(ids, consumptions, lower, upper, randomRank(random, count));
+        // If the table shrank since it was counted, the first activity that fulfills the requirements is selected
+        return activity != null ? activity : findExclAndInRangeAtRank(ids, consumptions, lower, upper, 0);
+
+    }
+
+    /**
+     * Draws a random rank between 0 (incl.) and a count (excl.), every rank has the same probability
+     *
+     * @param random the random number generator to use
+     * @param count  the amount of ranks, which has to be positive
+     * @return the random rank
+     */
+    private static long randomRank(Random random, long count) {
+
+        if(count <= Integer.MAX_VALUE) return random.nextInt((int) count);
+        // Random.nextLong(bound) is not available in Java 16, rejection sampling on the high bits keeps it uniform
+        long mask = Long.highestOneBit(count - 1) * 2 - 1;
+        long rank;
+        do {
+            rank = random.nextLong() & mask;
+        } while(rank >= count);
+        return rank;
+
+    }
 
 }
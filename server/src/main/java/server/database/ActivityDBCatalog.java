@@ -0,0 +1,129 @@
+package server.database;
+
+import commons.Activity;
+import server.game.questions.ConsumptionFormatter;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The activity catalog that selects the random activities with queries on the database, which is used when the
+ * activities are not kept in an in-memory index. It always reads the current activities.
+ */
+class ActivityDBCatalog implements ActivityCatalog {
+
+    /**
+     * The amount of random activities that are checked before giving up on finding one with the other activities
+     * that a question needs
+     */
+    private static final int MAX_PARTNER_ATTEMPTS = 20;
+
+    private final ActivityDB activityDB;
+    private final ConsumptionFormatter formatter;
+
+    /**
+     * Creates the catalog of the activities in a database
+     *
+     * @param activityDB the database that the activities are selected from
+     */
+    ActivityDBCatalog(ActivityDB activityDB) {
+
+        this.activityDB = activityDB;
+        this.formatter = new ConsumptionFormatter();
+
+    }
+
+    @Override
+    public Activity getRandomActivity(Random random) {
+
+        return activityDB.getRandomActivity(random);
+
+    }
+
+    @Override
+    public String getConsumptionString(long consumption) {
+
+        return formatter.format(consumption, 2);
+
+    }
+
+    @Override
+    public Activity getActivityExclAndInRange(Collection<String> ids,
+                                              Collection<Long> consumptions,
+                                              long lower,
+                                              long upper,
+                                              Random random) {
+
+        return activityDB.getActivityExclAndInRange(ids, consumptions, lower, upper, random);
+
+    }
+
+    @Override
+    public Activity getActivityInBand(Activity activity,
+                                      ActivityBand band,
+                                      Collection<String> ids,
+                                      Collection<Long> consumptions,
+                                      Random random) {
+
+        long[] bounds = band.getBounds(activity.consumption);
+        return activityDB.getActivityExclAndInRange(ids, consumptions, bounds[0], bounds[1], random);
+
+    }
+
+    /**
+     * Selects a random activity that has an answer within 10% of its consumption, i.e. which can be the main activity
+     * of a comparison question. The database does not know these activities, so random activities are counted until
+     * one has an answer.
+     *
+     * @param random the random number generator to use
+     * @return a random activity, or null if none was found within the maximum amount of attempts
+     */
+    @Override
+    public Activity getRandomComparisonActivity(Random random) {
+
+        for(int attempt = 0; attempt < MAX_PARTNER_ATTEMPTS; attempt++) {
+            Activity activity = activityDB.getRandomActivity(random);
+            if(activity == null) return null;
+            long[] bounds = ActivityBand.NEAR.getBounds(activity.consumption);
+            if(activityDB.countExclAndInRange(List.of(activity.id), List.of(), bounds[0], bounds[1]) > 0) {
+                return activity;
+            }
+        }
+        return null;
+
+    }
+
+    @Override
+    public Activity getComparisonAnswer(Activity main, Random random) {
+
+        Activity answer = getActivityInBand(main, ActivityBand.CLOSE, List.of(main.id), List.of(), random);
+        if(answer != null) return answer;
+        return getActivityInBand(main, ActivityBand.NEAR, List.of(main.id), List.of(), random);
+
+    }
+
+    /**
+     * Selects a random activity that has at least two other consumptions in its range, i.e. which can be the first
+     * activity of a which is more question. The database does not know these activities, so random activities are
+     * counted until one has them.
+     *
+     * @param random the random number generator to use
+     * @return a random activity, or null if none was found within the maximum amount of attempts
+     */
+    @Override
+    public Activity getRandomWhichIsMoreActivity(Random random) {
+
+        for(int attempt = 0; attempt < MAX_PARTNER_ATTEMPTS; attempt++) {
+            Activity activity = activityDB.getRandomActivity(random);
+            if(activity == null) return null;
+            long[] bounds = ActivityBand.SCALE.getBounds(activity.consumption);
+            if(activityDB.countConsumptionsExclAndInRange(List.of(activity.consumption), bounds[0], bounds[1]) >= 2) {
+                return activity;
+            }
+        }
+        return null;
+
+    }
+
+}
@@ -6,31 +6,98 @@ package server.database;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import commons.Activity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
 
 @Component
 public class ActivityDBController {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(ActivityDBController.class);
+
+    /**
+     * The amount of activities that is written in a single transaction when activities are imported
+     */
+    private static final int IMPORT_TRANSACTION_SIZE = 5000;
+    /**
+     * The amount of changed rows that is kept in memory when the activities are synchronized, before they are
+     * written to the database in the transaction of the synchronization
+     */
+    private static final int SYNCHRONIZE_FLUSH_SIZE = 5000;
+
     private final ActivityDB activityDB;
+    private final TransactionOperations transactions;
+    private final boolean inMemoryIndex;
 
     private File jsonSource;
 
     /**
-     * Creates a controller for the activity database
+     * The in-memory index that the random activities are selected from, or null if it has to be (re)built because
+     * the activities in the database might have changed. An index is never changed, every change of the activities
+     * swaps in a new index with a new version.
+     */
+    private final AtomicReference<ActivityIndex> index;
+    /**
+     * The version of the activity catalog, which is incremented every time the activities change
+     */
+    private final AtomicLong versions;
+    /**
+     * The catalog that selects the random activities with queries on the database, if there is no in-memory index
+     */
+    private final ActivityCatalog databaseCatalog;
+
+    /**
+     * Creates a controller for the activity database, that selects the random activities from an in-memory index
      *
      * @param activityDB database that will be used to store the activities
      */
     public ActivityDBController(ActivityDB activityDB) {
 
+        this(activityDB, TransactionOperations.withoutTransaction(), true);
+
+    }
+
+    /**
+     * Creates a controller for the activity database
+     *
+     * @param activityDB    database that will be used to store the activities
+     * @param transactions  the transactions in which the activities are synchronized
+     * @param inMemoryIndex whether the random activities are selected from an in-memory index, or with queries on
+     *                      the database
+     */
+    @Autowired
+    public ActivityDBController(ActivityDB activityDB,
+                                TransactionOperations transactions,
+                                @Value("${game.activities.in-memory-index:true}") boolean inMemoryIndex) {
+
         this.activityDB = activityDB;
+        this.transactions = transactions;
+        this.inMemoryIndex = inMemoryIndex;
         this.jsonSource = null;
+        this.index = new AtomicReference<>();
+        this.versions = new AtomicLong();
+        this.databaseCatalog = new ActivityDBCatalog(activityDB);
 
     }
 
@@ -43,14 +110,14 @@ public class ActivityDBController {
         try {
             f = new File(Objects.requireNonNull(ActivityDBController.class.getClassLoader().getResource("activities/activities.json")).toURI());
         } catch(URISyntaxException e) {
-            e.printStackTrace();
+            LOGGER.error("Could not find the activity file", e);
         }
         this.jsonSource = f;
 
     }
 
     /**
-     * Reload the database with the same json file (delete everything and then update the database)
+     * Reload the database with the same json file, so that it contains exactly the activities of the file
      */
     public void forceReload() {
 
@@ -59,15 +126,134 @@ public class ActivityDBController {
     }
 
     /**
-     * Reload the database with a different json file (delete everything and then update the database)
+     * Reload the database with a different json file, so that it contains exactly the activities of the file. Only
+     * the activities that changed are written, see synchronize.
      *
      * @param file a new json file with activities
      */
     public void forceReload(File file) {
 
-        activityDB.deleteAll();
+        synchronize(file);
 
-        update(file);
+    }
+
+    /**
+     * Makes the database contain exactly the activities of a json file, by only inserting, updating and deleting the
+     * activities that are different. The activities of the file are compared to the stored fingerprints of the
+     * activities in the database. All changes are made in a single transaction, but they are written to the database
+     * in parts while the file is read, so the changes of a large file are never all in memory. If the file cannot be
+     * read completely, the transaction is rolled back. If the file did not change since the last synchronization,
+     * nothing is done at all.
+     *
+     * @param file a json file with activities
+     * @return the applied changes, or null if the file did not change or could not be read completely
+     */
+    public ActivityChanges synchronize(File file) {
+
+        try {
+
+            long start = System.currentTimeMillis();
+            long checksum = ActivityFingerprint.ofFile(file);
+            Long previous = activityDB.findFileChecksum();
+            if(previous != null && previous == checksum) {
+                LOGGER.info("The activity file did not change since the last import");
+                return null;
+            }
+
+            ActivityChanges changes = new ActivityChanges(checksum);
+            boolean complete = Boolean.TRUE.equals(transactions.execute(status -> {
+                // Deleting the activities after an error would empty a large part of the catalog
+                if(diff(file, changes)) return true;
+                status.setRollbackOnly();
+                return false;
+            }));
+            if(!complete) {
+                LOGGER.warn("The activity file could not be read completely, no activities are changed");
+                return null;
+            }
+            rebuildIndex();
+
+            LOGGER.info("Synchronized the activities in {} ms: {} inserted, {} updated, {} deleted",
+                    System.currentTimeMillis() - start, changes.getInsertCount(), changes.getUpdateCount(),
+                    changes.getDeleteCount());
+            return changes;
+
+        } catch(IOException | UncheckedIOException e) {
+            LOGGER.error("Could not synchronize the activities with {}", file, e);
+            return null;
+        }
+
+    }
+
+    /**
+     * Compares the activities of a json file to the fingerprints of the activities in the database, and writes the
+     * changes every time a part is full. This has to be called in the transaction of the synchronization.
+     *
+     * @param file    a json file with activities
+     * @param changes the changes, of which the total amounts are kept
+     * @return whether the file could be read completely, otherwise the transaction has to be rolled back
+     * @throws UncheckedIOException if the file cannot be read
+     */
+    private boolean diff(File file, ActivityChanges changes) {
+
+        Map<String, Long> fingerprints = activityDB.findFingerprints();
+        boolean stored = fingerprints.size() == activityDB.count();
+        if(!stored) {
+            // The activities were changed without an import, so their fingerprints are computed again
+            activityDB.clearFingerprints();
+            fingerprints = activityDB.computeFingerprints();
+        }
+
+        try(ActivityStreamReader reader = new ActivityStreamReader(file, new ObjectMapper())) {
+
+            // The first activity with an id is used, like in update
+            Set<String> seen = new HashSet<>();
+            Activity a;
+            while((a = reader.next()) != null) {
+
+                if(!seen.add(a.id)) continue;
+
+                long fingerprint = ActivityFingerprint.of(a);
+                Long previous = fingerprints.remove(a.id);
+                if(previous == null) {
+                    changes.insert(a, fingerprint);
+                } else if(previous != fingerprint) {
+                    changes.update(a, fingerprint, stored);
+                } else if(!stored) {
+                    changes.keep(a.id, fingerprint);
+                }
+                applyIfFull(changes);
+
+            }
+
+            // The file changed while it was read
+            if(!reader.isComplete()) return false;
+
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        for(String id : fingerprints.keySet()) {
+            changes.delete(id);
+            applyIfFull(changes);
+        }
+        changes.complete();
+        activityDB.applyChanges(changes);
+        changes.clear();
+        return true;
+
+    }
+
+    /**
+     * Writes the changes that are not written yet if they fill a part
+     *
+     * @param changes the changes
+     */
+    private void applyIfFull(ActivityChanges changes) {
+
+        if(changes.size() < SYNCHRONIZE_FLUSH_SIZE) return;
+        activityDB.applyChanges(changes);
+        changes.clear();
 
     }
 
@@ -81,37 +267,90 @@ public class ActivityDBController {
     }
 
     /**
-     * Update the database with activities from a new json file (try to read the file, then save every activity to the database)
+     * Update the database with activities from a new json file (try to read the file, then insert every activity
+     * that is not in the database yet). The file is read one activity at a time, and the new activities are inserted
+     * in large transactions with JDBC batches, so only a single transaction of activities is in memory. Activities
+     * that cannot be read are reported and skipped.
      *
      * @param file a new json file with activities
+     * @return the amount of inserted activities
      */
-    public void update(File file) {
-
-        try {
-
-            ObjectMapper mapper = new ObjectMapper();
-            Activity[] activities = mapper.readValue(file, Activity[].class);
+    public int update(File file) {
 
-            for(Activity a : activities) {
+        int inserted = 0;
+        long start = System.currentTimeMillis();
+        try(ActivityStreamReader reader = new ActivityStreamReader(file, new ObjectMapper())) {
 
-                if(activityDB.findById(a.id).isPresent()) continue;
+            // An activity is skipped if its id is in the database, or if it is in the file more than once
+            Map<String, Activity> transaction = new LinkedHashMap<>();
+            Activity a;
+            while((a = reader.next()) != null) {
 
-                activityDB.save(a);
+                transaction.putIfAbsent(a.id, a);
+                if(transaction.size() == IMPORT_TRANSACTION_SIZE) {
+                    inserted += insertNew(transaction);
+                    transaction.clear();
+                }
 
             }
+            inserted += insertNew(transaction);
+
+            long duration = Math.max(1, System.currentTimeMillis() - start);
+            LOGGER.info("Imported {} activities in {} ms ({} activities/s), skipped {} activities that could not "
+                    + "be read", inserted, duration, inserted * 1000L / duration, reader.getSkipped());
 
         } catch(IOException e) {
-            e.printStackTrace();
+            LOGGER.error("Could not import the activities of {}", file, e);
         }
 
+        activityDB.clearFingerprints();
+        rebuildIndex();
+        return inserted;
+
+    }
+
+    /**
+     * Inserts the activities that are not in the database yet, in a single transaction
+     *
+     * @param activities the activities by their id, the activities that are in the database are removed
+     * @return the amount of inserted activities
+     */
+    private int insertNew(Map<String, Activity> activities) {
+
+        if(activities.isEmpty()) return 0;
+        activityDB.findExistingIds(activities.keySet()).forEach(activities::remove);
+        if(activities.isEmpty()) return 0;
+        activityDB.insertAll(new ArrayList<>(activities.values()));
+        return activities.size();
+
+    }
+
+    /**
+     * Saves an activity to the database, an activity with the same id is replaced. The activity index is updated
+     * with only this activity.
+     *
+     * @param activity the activity to save
+     * @return the saved activity
+     */
+    public Activity save(Activity activity) {
+
+        Activity saved = activityDB.save(activity);
+        activityDB.clearFingerprints();
+        updateIndex((current, version) -> current.withActivity(saved, version));
+        return saved;
+
     }
 
     /**
-     * Print every activity from the database to the console
+     * Deletes an activity from the database. The activity index is updated with only this activity.
+     *
+     * @param activity the activity to delete
      */
-    public void printAll() {
+    public void delete(Activity activity) {
 
-        activityDB.findAll().forEach(System.out::println);
+        activityDB.delete(activity);
+        activityDB.clearFingerprints();
+        updateIndex((current, version) -> current.withoutActivity(activity.id, version));
 
     }
 
@@ -127,7 +366,8 @@ public class ActivityDBController {
     }
 
     /**
-     * Method for returning the database
+     * Method for returning the database. If the activities are changed through the returned database, invalidate
+     * has to be called afterwards.
      *
      * @return the activity database
      */
@@ -137,13 +377,136 @@ public class ActivityDBController {
 
     }
 
+    /**
+     * Discards the activity index and the stored fingerprints, after the activities were changed directly in the
+     * database. The index is rebuilt the next time it is used, and the next import compares the file with the
+     * activities themselves.
+     */
+    public void invalidate() {
+
+        activityDB.clearFingerprints();
+        invalidateIndex();
+
+    }
+
+    /**
+     * Returns the index of the activities in the database, it is built from the database if the activities might
+     * have changed since it was built the last time. The index is read without locking, a reload swaps in the new
+     * index once it is complete. The index is built without locking as well, and it is only used if the activities
+     * did not change while it was built, otherwise it is built again.
+     *
+     * @return the activity index
+     */
+    public ActivityIndex getIndex() {
+
+        while(true) {
+            ActivityIndex current = index.get();
+            if(current != null) return current;
+
+            // The version is read first, so that a change during findAll makes the built index outdated
+            long version = versions.get();
+            ActivityIndex built = new ActivityIndex(activityDB.findAll(), version);
+            synchronized(this) {
+                if(versions.get() == version && index.compareAndSet(null, built)) return built;
+            }
+        }
+
+    }
+
+    /**
+     * Returns the catalog that the random activities are selected from. With the in-memory index, this is the current
+     * index, which does not change when the activities are changed or reloaded afterwards. Otherwise, the activities
+     * are always selected from the database.
+     *
+     * @return the catalog of the activities
+     */
+    public ActivityCatalog getCatalog() {
+
+        if(!inMemoryIndex) return databaseCatalog;
+        return getIndex();
+
+    }
+
+    /**
+     * Returns the version of the activity catalog, which changes every time an activity is saved or deleted and
+     * every time the activities are reloaded
+     *
+     * @return the version of the catalog
+     */
+    public long getCatalogVersion() {
+
+        return versions.get();
+
+    }
+
+    /**
+     * Returns the amount of activities in the current version of the catalog
+     *
+     * @return the amount of activities
+     */
+    public long getActivityCount() {
+
+        if(inMemoryIndex) return getIndex().size();
+        return activityDB.count();
+
+    }
+
+    /**
+     * Replaces the activity index by an updated one with a new version, if it is built
+     *
+     * @param update the update of the index, which gets the current index and the new version
+     */
+    private synchronized void updateIndex(BiFunction<ActivityIndex, Long, ActivityIndex> update) {
+
+        long version = versions.incrementAndGet();
+        ActivityIndex current = index.get();
+        if(current != null) {
+            index.set(update.apply(current, version));
+        }
+
+    }
+
+    /**
+     * Builds a new activity index from the database after a reload and swaps it in. The previous index stays in use
+     * while the new one is built, so games never wait for the reload. If the activities change while the index is
+     * built, it is built again.
+     */
+    private void rebuildIndex() {
+
+        while(true) {
+            long version = versions.incrementAndGet();
+            if(index.get() == null) return;
+
+            ActivityIndex rebuilt = new ActivityIndex(activityDB.findAll(), version);
+            synchronized(this) {
+                if(versions.get() == version) {
+                    index.set(rebuilt);
+                    return;
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Discards the activity index, so that it is rebuilt from the database the next time it is used. This has to be
+     * called after the activities in the database have changed.
+     */
+    public synchronized void invalidateIndex() {
+
+        versions.incrementAndGet();
+        index.set(null);
+
+    }
+
     /**
      * Gets a list of 5 random activities from the database
      *
      * @return list of 5 random activities
      */
     public ArrayList<Activity> getFiveRandomActivities() {
-        return activityDB.getFiveRandomActivities();
+        if(!inMemoryIndex) return activityDB.getRandomActivities(5, ThreadLocalRandom.current());
+        return getIndex().getRandomActivities(5, ThreadLocalRandom.current());
     }
 
 
@@ -153,7 +516,8 @@ public class ActivityDBController {
      * @return list of 3 random activities
      */
     public ArrayList<Activity> getThreeRandomActivities() {
-        return activityDB.getThreeRandomActivities();
+        if(!inMemoryIndex) return activityDB.getRandomActivities(3, ThreadLocalRandom.current());
+        return getIndex().getRandomActivities(3, ThreadLocalRandom.current());
     }
 
     /**
@@ -162,7 +526,27 @@ public class ActivityDBController {
      * @return a random activity
      */
     public Activity getRandomActivity() {
-        return activityDB.getRandomActivity();
+        return getRandomActivity(ThreadLocalRandom.current());
+    }
+
+    /**
+     * Gets a random activity from the database, chosen with a given random number generator
+     *
+     * @param random the random number generator to use
+     * @return a random activity
+     */
+    public Activity getRandomActivity(Random random) {
+        return getCatalog().getRandomActivity(random);
+    }
+
+    /**
+     * Gets the consumption string of a consumption, which is cached for the consumptions of the activities
+     *
+     * @param consumption the consumption in Wh
+     * @return the consumption string (rounded to 2 decimals, with an SI prefix)
+     */
+    public String getConsumptionString(long consumption) {
+        return getCatalog().getConsumptionString(consumption);
     }
 
     /**
@@ -179,7 +563,76 @@ public class ActivityDBController {
                                               List<Long> consumptions,
                                               long lower,
                                               long upper) {
-        return activityDB.getActivityExclAndInRange(ids, consumptions, lower, upper);
+        return getActivityExclAndInRange(ids, consumptions, lower, upper, ThreadLocalRandom.current());
+    }
+
+    /**
+     * Gets a random activity from the database which consumption is in a specified range, while excluding specific
+     * activities and consumptions, chosen with a given random number generator
+     *
+     * @param ids          The ids to exclude
+     * @param consumptions Consumptions to exclude
+     * @param lower        The lower bound (incl.)
+     * @param upper        The upper bound (incl.)
+     * @param random       The random number generator to use
+     * @return a random activity which fulfills the above requirements
+     */
+    public Activity getActivityExclAndInRange(List<String> ids,
+                                              List<Long> consumptions,
+                                              long lower,
+                                              long upper,
+                                              Random random) {
+        return getCatalog().getActivityExclAndInRange(ids, consumptions, lower, upper, random);
+    }
+
+    /**
+     * Gets a random activity from which a comparison question can be generated
+     *
+     * @param random the random number generator to use
+     * @return a random activity, or null if there is none
+     */
+    public Activity getRandomComparisonActivity(Random random) {
+        return getCatalog().getRandomComparisonActivity(random);
+    }
+
+    /**
+     * Gets a random activity from which a which is more question can be generated
+     *
+     * @param random the random number generator to use
+     * @return a random activity, or null if there is none
+     */
+    public Activity getRandomWhichIsMoreActivity(Random random) {
+        return getCatalog().getRandomWhichIsMoreActivity(random);
+    }
+
+    /**
+     * Gets the answer of a comparison question, i.e. a random activity within 5% (or, if there is none, 10%) of the
+     * main activity. With the in-memory index, only answers for which there are enough answer options are selected.
+     *
+     * @param main   the main activity of the comparison question
+     * @param random the random number generator to use
+     * @return a random answer, or null if there is none
+     */
+    public Activity getComparisonAnswer(Activity main, Random random) {
+        return getCatalog().getComparisonAnswer(main, random);
+    }
+
+    /**
+     * Gets a random activity in a band around an activity, while excluding specific activities and consumptions
+     *
+     * @param activity     the activity around which the band is
+     * @param band         the band
+     * @param ids          the ids to exclude
+     * @param consumptions the consumptions to exclude
+     * @param random       the random number generator to use
+     * @return a random activity which fulfills the above requirements, or null if there is none
+     */
+    public Activity getActivityInBand(Activity activity,
+                                      ActivityBand band,
+                                      List<String> ids,
+                                      List<Long> consumptions,
+                                      Random random) {
+        return getCatalog().getActivityInBand(activity, band, ids, consumptions, random);
     }
 
 }
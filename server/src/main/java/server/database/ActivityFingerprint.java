@@ -0,0 +1,126 @@
+package server.database;
+
+import commons.Activity;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * The fingerprint of an activity in the database, i.e. a hash of all its fields, so that an imported activity can be
+ * compared to the stored one without loading it. The checksum of the last imported file is stored as a fingerprint
+ * as well, with a reserved id.
+ */
+@Entity(name = "activity_fingerprint")
+public class ActivityFingerprint {
+
+    /**
+     * The id of the fingerprint that holds the checksum of the last imported file
+     */
+    public static final String FILE_CHECKSUM_ID = "#catalog-file";
+
+    @Id
+    public String id;
+
+    public long fingerprint;
+
+    /**
+     * Empty constructor used by JPA
+     */
+    @SuppressWarnings("unused")
+    public ActivityFingerprint() {
+
+    }
+
+    /**
+     * Creates a fingerprint
+     *
+     * @param id          the id of the activity
+     * @param fingerprint the fingerprint of the activity
+     */
+    public ActivityFingerprint(String id, long fingerprint) {
+
+        this.id = id;
+        this.fingerprint = fingerprint;
+
+    }
+
+    /**
+     * Computes the fingerprint of an activity, which changes when any of its fields changes
+     *
+     * @param activity the activity
+     * @return the first 8 bytes of the SHA-256 hash of the fields of the activity
+     */
+    public static long of(Activity activity) {
+
+        MessageDigest digest = sha256();
+        update(digest, activity.id);
+        update(digest, activity.imagePath);
+        update(digest, activity.title);
+        digest.update(ByteBuffer.allocate(8).putLong(activity.consumption).array());
+        return ByteBuffer.wrap(digest.digest()).getLong();
+
+    }
+
+    /**
+     * Computes the checksum of a file, which is read in small parts
+     *
+     * @param file the file
+     * @return the first 8 bytes of the SHA-256 hash of the file
+     * @throws IOException if the file cannot be read
+     */
+    public static long ofFile(File file) throws IOException {
+
+        MessageDigest digest = sha256();
+        byte[] buffer = new byte[65536];
+        try(InputStream in = Files.newInputStream(file.toPath())) {
+            int read;
+            while((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return ByteBuffer.wrap(digest.digest()).getLong();
+
+    }
+
+    /**
+     * Adds a field to a hash, with its length so that the fields cannot be shifted into each other
+     *
+     * @param digest the hash
+     * @param value  the value of the field, which can be null
+     */
+    private static void update(MessageDigest digest, String value) {
+
+        if(value == null) {
+            digest.update(ByteBuffer.allocate(4).putInt(-1).array());
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update(ByteBuffer.allocate(4).putInt(bytes.length).array());
+        digest.update(bytes);
+
+    }
+
+    /**
+     * Creates a SHA-256 hash, which every Java platform supports
+     *
+     * @return the hash
+     */
+    private static MessageDigest sha256() {
+
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch(NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+
+    }
+
+}
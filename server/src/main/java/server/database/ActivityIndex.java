@@ -0,0 +1,717 @@
+package server.database;
+
+import commons.Activity;
+import server.game.questions.ConsumptionFormatter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.Random;
+import java.util.function.IntPredicate;
+
+/**
+ * An immutable, in-memory snapshot of the activity catalog that is used to select random activities for questions
+ * without querying the database. The activities are sorted by their consumption, so the activities with a
+ * consumption in a specific range are a contiguous part of the arrays, which is found with a binary search.
+ * The consumption strings of the catalog are created once as well, as they are used for every question.
+ * For every activity, the index also keeps which activities are in each of its bands (as a range of positions), and
+ * whether the activity can be used for a comparison or which is more question at all. So the activities of these
+ * questions are selected without searching, and activities that cannot produce a valid question are never selected.
+ * A changed catalog needs a new index, which can be derived from the previous one when a single activity changes.
+ * Every index has the version of the catalog it was created from, so an index can be used as a snapshot of the
+ * catalog while a new version is created.
+ */
+public class ActivityIndex implements ActivityCatalog {
+
+    /**
+     * The amount of random picks that is tried before all activities in the range are checked for exclusions
+     */
+    private static final int MAX_RANDOM_PICKS = 8;
+    /**
+     * Below this consumption, the main activity of a comparison question might be in the answer option bands of its
+     * answer, so the answers are checked one by one
+     */
+    private static final long SMALL_CONSUMPTION = 32;
+
+    private static final ConsumptionFormatter FORMATTER = new ConsumptionFormatter();
+    private static final ActivityBand[] BANDS = ActivityBand.values();
+    private static final ActivityBand[] OPTION_BANDS = {ActivityBand.LOWER, ActivityBand.HIGHER};
+
+    private final long version;
+    private final Activity[] activities;
+    private final long[] consumptions;
+    private final String[] consumptionStrings;
+
+    /**
+     * The activities in a band of the activity at a position are at the positions bandStarts[band][position] (incl.)
+     * to bandEnds[band][position] (excl.), i.e. the amount of activities below and up to the bounds of the band
+     */
+    private final int[][] bandStarts;
+    private final int[][] bandEnds;
+    /**
+     * The amount of wrong answer options that are available when the activity is the answer of a comparison question
+     */
+    private final int[] optionCounts;
+    /**
+     * The amount of activities before a position that can be the answer of a comparison question
+     */
+    private final int[] answersBefore;
+    /**
+     * The amount of different consumptions before a position
+     */
+    private final int[] consumptionsBefore;
+    /**
+     * The positions of the activities that can be the main activity of a comparison or which is more question
+     */
+    private final int[] comparisonActivities;
+    private final int[] whichIsMoreActivities;
+
+    /**
+     * Creates an index of the given activities, with version 0
+     *
+     * @param activities the activities of the catalog
+     */
+    public ActivityIndex(Collection<Activity> activities) {
+
+        this(activities, 0);
+
+    }
+
+    /**
+     * Creates an index of the given activities
+     *
+     * @param activities the activities of the catalog
+     * @param version    the version of the catalog
+     */
+    public ActivityIndex(Collection<Activity> activities, long version) {
+
+        this.version = version;
+        this.activities = activities.toArray(new Activity[0]);
+        Arrays.sort(this.activities, Comparator.comparingLong((Activity a) -> a.consumption));
+        this.consumptions = new long[this.activities.length];
+        this.consumptionStrings = new String[this.activities.length];
+        for(int i = 0; i < this.activities.length; i++) {
+            this.consumptions[i] = this.activities[i].consumption;
+            if(i > 0 && consumptions[i] == consumptions[i - 1]) {
+                consumptionStrings[i] = consumptionStrings[i - 1];
+            } else if(consumptions[i] >= 0) {
+                consumptionStrings[i] = FORMATTER.format(consumptions[i], 2);
+            }
+        }
+
+        this.bandStarts = new int[BANDS.length][this.activities.length];
+        this.bandEnds = new int[BANDS.length][this.activities.length];
+        for(int i = 0; i < this.activities.length; i++) {
+            computeBands(i);
+        }
+
+        this.optionCounts = computeOptionCounts();
+        this.answersBefore = computeAnswersBefore();
+        this.consumptionsBefore = computeConsumptionsBefore();
+        this.comparisonActivities = findComparisonActivities();
+        this.whichIsMoreActivities = findWhichIsMoreActivities();
+
+    }
+
+    /**
+     * Creates an index from a previous index in which at most one activity is removed and one is added. The bands of
+     * the other activities are shifted instead of searched again, as only the changed activities can enter or leave
+     * them.
+     *
+     * @param previous the previous index
+     * @param removed  the position of the removed activity in the previous index, or -1 if none is removed
+     * @param added    the added activity, or null if none is added
+     * @param version  the version of the catalog
+     */
+    private ActivityIndex(ActivityIndex previous, int removed, Activity added, long version) {
+
+        this.version = version;
+        int size = previous.activities.length - (removed >= 0 ? 1 : 0) + (added != null ? 1 : 0);
+        this.activities = new Activity[size];
+        this.consumptions = new long[size];
+        this.consumptionStrings = new String[size];
+        this.bandStarts = new int[BANDS.length][size];
+        this.bandEnds = new int[BANDS.length][size];
+
+        // The added activity is placed after the activities with the same consumption
+        int addedPosition = -1;
+        if(added != null) {
+            addedPosition = previous.firstIndexAbove(added.consumption);
+            if(removed >= 0 && removed < addedPosition) addedPosition--;
+        }
+
+        int position = 0;
+        for(int i = 0; i < previous.activities.length; i++) {
+            if(position == addedPosition) position++;
+            if(i == removed) continue;
+            activities[position] = previous.activities[i];
+            consumptions[position] = previous.consumptions[i];
+            consumptionStrings[position] = previous.consumptionStrings[i];
+            for(ActivityBand band : BANDS) {
+                shiftBand(previous, i, position, band, removed, added);
+            }
+            position++;
+        }
+
+        if(added != null) {
+            activities[addedPosition] = added;
+            consumptions[addedPosition] = added.consumption;
+            if(addedPosition > 0 && consumptions[addedPosition - 1] == added.consumption) {
+                consumptionStrings[addedPosition] = consumptionStrings[addedPosition - 1];
+            } else if(added.consumption >= 0) {
+                consumptionStrings[addedPosition] = FORMATTER.format(added.consumption, 2);
+            }
+            computeBands(addedPosition);
+        }
+
+        this.optionCounts = computeOptionCounts();
+        this.answersBefore = computeAnswersBefore();
+        this.consumptionsBefore = computeConsumptionsBefore();
+        this.comparisonActivities = findComparisonActivities();
+        this.whichIsMoreActivities = findWhichIsMoreActivities();
+
+    }
+
+    /**
+     * Returns an index in which an activity is added, or replaced if the index has an activity with the same id
+     *
+     * @param activity the activity to add
+     * @param version  the version of the changed catalog
+     * @return the new index, this index is not changed
+     */
+    public ActivityIndex withActivity(Activity activity, long version) {
+
+        return new ActivityIndex(this, findById(activity.id), activity, version);
+
+    }
+
+    /**
+     * Returns an index in which an activity is removed
+     *
+     * @param id      the id of the activity to remove
+     * @param version the version of the changed catalog
+     * @return the new index, or this index if it does not have an activity with this id
+     */
+    public ActivityIndex withoutActivity(String id, long version) {
+
+        int removed = findById(id);
+        if(removed < 0) return this;
+        return new ActivityIndex(this, removed, null, version);
+
+    }
+
+    /**
+     * Returns the version of the catalog that this index was created from
+     *
+     * @return the version
+     */
+    public long getVersion() {
+
+        return version;
+
+    }
+
+    /**
+     * Returns the amount of activities in this index
+     *
+     * @return the amount of activities
+     */
+    public int size() {
+
+        return activities.length;
+
+    }
+
+    /**
+     * Selects a random activity
+     *
+     * @param random the random number generator to use
+     * @return a random activity, or null if the index is empty
+     */
+    @Override
+    public Activity getRandomActivity(Random random) {
+
+        if(activities.length == 0) return null;
+        return activities[random.nextInt(activities.length)];
+
+    }
+
+    /**
+     * Selects distinct random activities
+     *
+     * @param amount the amount of activities to select
+     * @param random the random number generator to use
+     * @return a list of the selected activities, which is shorter than amount if the index has less activities
+     */
+    public ArrayList<Activity> getRandomActivities(int amount, Random random) {
+
+        // Partial Fisher-Yates shuffle of the positions, only the first positions are shuffled
+        int[] positions = new int[activities.length];
+        for(int i = 0; i < positions.length; i++) {
+            positions[i] = i;
+        }
+
+        int count = Math.max(0, Math.min(amount, activities.length));
+        ArrayList<Activity> result = new ArrayList<>(count);
+        for(int i = 0; i < count; i++) {
+            int j = i + random.nextInt(positions.length - i);
+            int position = positions[j];
+            positions[j] = positions[i];
+            positions[i] = position;
+            result.add(activities[position]);
+        }
+        return result;
+
+    }
+
+    /**
+     * Selects a random activity which consumption is in a specified range, while excluding specific activities and
+     * consumptions. Every activity that fulfills the requirements has the same probability of being selected.
+     *
+     * @param ids          the ids to exclude
+     * @param consumptions the consumptions to exclude
+     * @param lower        the lower bound (incl.)
+     * @param upper        the upper bound (incl.)
+     * @param random       the random number generator to use
+     * @return a random activity which fulfills the above requirements, or null if there is none
+     */
+    @Override
+    public Activity getActivityExclAndInRange(Collection<String> ids,
+                                              Collection<Long> consumptions,
+                                              long lower,
+                                              long upper,
+                                              Random random) {
+
+        if(lower > upper) return null;
+        return select(firstIndexAtLeast(lower), firstIndexAbove(upper),
+                idx -> !isExcluded(idx, ids, consumptions), random);
+
+    }
+
+    /**
+     * Selects a random activity in a band of an activity, while excluding specific activities and consumptions
+     *
+     * @param activity     the activity around which the band is
+     * @param band         the band
+     * @param ids          the ids to exclude
+     * @param consumptions the consumptions to exclude
+     * @param random       the random number generator to use
+     * @return a random activity in the band which fulfills the above requirements, or null if there is none
+     */
+    @Override
+    public Activity getActivityInBand(Activity activity,
+                                      ActivityBand band,
+                                      Collection<String> ids,
+                                      Collection<Long> consumptions,
+                                      Random random) {
+
+        int position = positionOf(activity);
+        if(position < 0) {
+            // The activity is not in this index, so its band is searched
+            long[] bounds = band.getBounds(activity.consumption);
+            return getActivityExclAndInRange(ids, consumptions, bounds[0], bounds[1], random);
+        }
+        return select(bandStarts[band.ordinal()][position], bandEnds[band.ordinal()][position],
+                idx -> !isExcluded(idx, ids, consumptions), random);
+
+    }
+
+    /**
+     * Returns the amount of activities in a band of an activity
+     *
+     * @param activity the activity around which the band is
+     * @param band     the band
+     * @return the amount of activities, or -1 if the activity is not in this index
+     */
+    int getBandSize(Activity activity, ActivityBand band) {
+
+        int position = positionOf(activity);
+        if(position < 0) return -1;
+        return Math.max(0, bandEnds[band.ordinal()][position] - bandStarts[band.ordinal()][position]);
+
+    }
+
+    /**
+     * Selects a random activity that can be the main activity of a comparison question
+     *
+     * @param random the random number generator to use
+     * @return a random activity, or null if no comparison question can be generated from this index
+     */
+    @Override
+    public Activity getRandomComparisonActivity(Random random) {
+
+        if(comparisonActivities.length == 0) return null;
+        return activities[comparisonActivities[random.nextInt(comparisonActivities.length)]];
+
+    }
+
+    /**
+     * Selects the answer of a comparison question, i.e. a random activity that is within 5% (or, if there is none,
+     * 10%) of the main activity and for which there are enough wrong answer options
+     *
+     * @param main   the main activity of the comparison question
+     * @param random the random number generator to use
+     * @return a random answer, or null if there is none
+     */
+    @Override
+    public Activity getComparisonAnswer(Activity main, Random random) {
+
+        int mainPosition = positionOf(main);
+        if(mainPosition < 0) return null;
+
+        IntPredicate isAnswer = idx -> isAnswerFor(mainPosition, idx);
+        int close = ActivityBand.CLOSE.ordinal();
+        Activity answer = select(bandStarts[close][mainPosition], bandEnds[close][mainPosition], isAnswer, random);
+        if(answer != null) return answer;
+        int near = ActivityBand.NEAR.ordinal();
+        return select(bandStarts[near][mainPosition], bandEnds[near][mainPosition], isAnswer, random);
+
+    }
+
+    /**
+     * Selects a random activity that can be the first activity of a which is more question, i.e. for which there
+     * are two activities with different consumptions in its range
+     *
+     * @param random the random number generator to use
+     * @return a random activity, or null if no which is more question can be generated from this index
+     */
+    @Override
+    public Activity getRandomWhichIsMoreActivity(Random random) {
+
+        if(whichIsMoreActivities.length == 0) return null;
+        return activities[whichIsMoreActivities[random.nextInt(whichIsMoreActivities.length)]];
+
+    }
+
+    /**
+     * Selects a random valid activity from a range of positions. Every valid activity has the same probability of
+     * being selected.
+     *
+     * @param from   the first position of the range (incl.)
+     * @param to     the last position of the range (excl.)
+     * @param valid  the check whether the activity at a position can be selected
+     * @param random the random number generator to use
+     * @return a random valid activity, or null if there is none
+     */
+    private Activity select(int from, int to, IntPredicate valid, Random random) {
+
+        int rangeSize = to - from;
+        if(rangeSize <= 0) return null;
+
+        // Only a few activities are excluded, so a random pick in the range is almost always valid
+        for(int i = 0; i < MAX_RANDOM_PICKS; i++) {
+            int idx = from + random.nextInt(rangeSize);
+            if(valid.test(idx)) return activities[idx];
+        }
+
+        // Most of the range is excluded, select uniformly among the remaining activities (reservoir sampling)
+        Activity chosen = null;
+        int amount = 0;
+        for(int idx = from; idx < to; idx++) {
+            if(!valid.test(idx)) continue;
+            amount++;
+            if(random.nextInt(amount) == 0) {
+                chosen = activities[idx];
+            }
+        }
+        return chosen;
+
+    }
+
+    /**
+     * Finds the position of the first activity with at least the given consumption
+     *
+     * @param consumption the consumption to search for
+     * @return the position of the first activity with a consumption >= the given one, or the amount of activities
+     *         if there is no such activity
+     */
+    private int firstIndexAtLeast(long consumption) {
+
+        int low = 0;
+        int high = consumptions.length;
+        while(low < high) {
+            int mid = (low + high) >>> 1;
+            if(consumptions[mid] < consumption) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+
+    }
+
+    /**
+     * Finds the position of the first activity with a higher consumption than the given one
+     *
+     * @param consumption the consumption to search for
+     * @return the position of the first activity with a consumption > the given one, or the amount of activities
+     *         if there is no such activity
+     */
+    private int firstIndexAbove(long consumption) {
+
+        return consumption == Long.MAX_VALUE ? consumptions.length : firstIndexAtLeast(consumption + 1);
+
+    }
+
+    /**
+     * Finds the position of an activity, which is found by its consumption and id
+     *
+     * @param activity the activity to search for
+     * @return the position of the activity, or -1 if it is not in this index
+     */
+    private int positionOf(Activity activity) {
+
+        for(int idx = firstIndexAtLeast(activity.consumption);
+            idx < activities.length && consumptions[idx] == activity.consumption; idx++) {
+            if(Objects.equals(activities[idx].id, activity.id)) return idx;
+        }
+        return -1;
+
+    }
+
+    /**
+     * Finds the position of the activity with an id, which checks every activity
+     *
+     * @param id the id to search for
+     * @return the position of the activity, or -1 if it is not in this index
+     */
+    private int findById(String id) {
+
+        for(int idx = 0; idx < activities.length; idx++) {
+            if(Objects.equals(activities[idx].id, id)) return idx;
+        }
+        return -1;
+
+    }
+
+    /**
+     * Searches the activities in every band of the activity at a position
+     *
+     * @param position the position of the activity
+     */
+    private void computeBands(int position) {
+
+        for(ActivityBand band : BANDS) {
+            long[] bounds = band.getBounds(consumptions[position]);
+            bandStarts[band.ordinal()][position] = firstIndexAtLeast(bounds[0]);
+            bandEnds[band.ordinal()][position] = firstIndexAbove(bounds[1]);
+        }
+
+    }
+
+    /**
+     * Copies a band of an activity from the previous index, and shifts it by the removed and added activity
+     *
+     * @param previous the previous index
+     * @param i        the position of the activity in the previous index
+     * @param position the position of the activity in this index
+     * @param band     the band to copy
+     * @param removed  the position of the removed activity in the previous index, or -1 if none is removed
+     * @param added    the added activity, or null if none is added
+     */
+    private void shiftBand(ActivityIndex previous, int i, int position, ActivityBand band, int removed,
+                           Activity added) {
+
+        long[] bounds = band.getBounds(consumptions[position]);
+        int start = previous.bandStarts[band.ordinal()][i];
+        int end = previous.bandEnds[band.ordinal()][i];
+        if(removed >= 0) {
+            if(previous.consumptions[removed] < bounds[0]) start--;
+            if(previous.consumptions[removed] <= bounds[1]) end--;
+        }
+        if(added != null) {
+            if(added.consumption < bounds[0]) start++;
+            if(added.consumption <= bounds[1]) end++;
+        }
+        bandStarts[band.ordinal()][position] = start;
+        bandEnds[band.ordinal()][position] = end;
+
+    }
+
+    /**
+     * Returns the amount of activities in a band of an activity that have another consumption than the activity
+     *
+     * @param band     the band
+     * @param position the position of the activity
+     * @param runSize  the amount of activities with the consumption of the activity
+     * @return the amount of activities
+     */
+    private int countOthersInBand(ActivityBand band, int position, int runSize) {
+
+        int start = bandStarts[band.ordinal()][position];
+        int end = bandEnds[band.ordinal()][position];
+        if(end <= start) return 0;
+        // The band either contains all activities with the consumption of the activity, or none of them
+        boolean containsOwn = start <= position && position < end;
+        return end - start - (containsOwn ? runSize : 0);
+
+    }
+
+    /**
+     * Counts the wrong answer options of every activity as the answer of a comparison question, i.e. the activities
+     * in its lower and higher band with another consumption
+     *
+     * @return the amount of options of the activity at every position
+     */
+    private int[] computeOptionCounts() {
+
+        int[] counts = new int[activities.length];
+        int runStart = 0;
+        while(runStart < activities.length) {
+            int runEnd = runStart + 1;
+            while(runEnd < activities.length && consumptions[runEnd] == consumptions[runStart]) runEnd++;
+            for(int idx = runStart; idx < runEnd; idx++) {
+                counts[idx] = countOthersInBand(ActivityBand.LOWER, idx, runEnd - runStart)
+                        + countOthersInBand(ActivityBand.HIGHER, idx, runEnd - runStart);
+            }
+            runStart = runEnd;
+        }
+        return counts;
+
+    }
+
+    /**
+     * Counts the activities before every position that have at least two wrong answer options
+     *
+     * @return the amount of activities before every position, and the total amount at the end
+     */
+    private int[] computeAnswersBefore() {
+
+        int[] before = new int[activities.length + 1];
+        for(int idx = 0; idx < activities.length; idx++) {
+            before[idx + 1] = before[idx] + (optionCounts[idx] >= 2 ? 1 : 0);
+        }
+        return before;
+
+    }
+
+    /**
+     * Counts the different consumptions before every position
+     *
+     * @return the amount of different consumptions before every position, and the total amount at the end
+     */
+    private int[] computeConsumptionsBefore() {
+
+        int[] before = new int[activities.length + 1];
+        for(int idx = 0; idx < activities.length; idx++) {
+            boolean newConsumption = idx == 0 || consumptions[idx] != consumptions[idx - 1];
+            before[idx + 1] = before[idx] + (newConsumption ? 1 : 0);
+        }
+        return before;
+
+    }
+
+    /**
+     * Checks whether the activity at a position can be the answer of a comparison question with a main activity,
+     * i.e. whether there are at least two wrong answer options without the consumption of the main activity
+     *
+     * @param main   the position of the main activity
+     * @param answer the position of the answer
+     * @return true if a comparison question can be generated with this answer, false otherwise
+     */
+    private boolean isAnswerFor(int main, int answer) {
+
+        if(main == answer || optionCounts[answer] < 2) return false;
+        if(consumptions[main] >= SMALL_CONSUMPTION || consumptions[main] == consumptions[answer]) return true;
+
+        int options = optionCounts[answer];
+        int mainRunSize = firstIndexAbove(consumptions[main]) - firstIndexAtLeast(consumptions[main]);
+        for(ActivityBand band : OPTION_BANDS) {
+            int start = bandStarts[band.ordinal()][answer];
+            int end = bandEnds[band.ordinal()][answer];
+            if(start <= main && main < end) options -= mainRunSize;
+        }
+        return options >= 2;
+
+    }
+
+    /**
+     * Finds the activities that can be the main activity of a comparison question, i.e. that have an answer
+     *
+     * @return the positions of the activities
+     */
+    private int[] findComparisonActivities() {
+
+        int near = ActivityBand.NEAR.ordinal();
+        int[] found = new int[activities.length];
+        int amount = 0;
+        for(int idx = 0; idx < activities.length; idx++) {
+            int start = bandStarts[near][idx];
+            int end = bandEnds[near][idx];
+            boolean hasAnswer = false;
+            if(consumptions[idx] >= SMALL_CONSUMPTION) {
+                int answers = answersBefore[end] - answersBefore[start];
+                if(start <= idx && idx < end && optionCounts[idx] >= 2) answers--;
+                hasAnswer = answers > 0;
+            } else {
+                for(int answer = start; answer < end && !hasAnswer; answer++) {
+                    hasAnswer = isAnswerFor(idx, answer);
+                }
+            }
+            if(hasAnswer) found[amount++] = idx;
+        }
+        return Arrays.copyOf(found, amount);
+
+    }
+
+    /**
+     * Finds the activities that can be the first activity of a which is more question, i.e. for which there are at
+     * least two other consumptions in its range
+     *
+     * @return the positions of the activities
+     */
+    private int[] findWhichIsMoreActivities() {
+
+        int scale = ActivityBand.SCALE.ordinal();
+        int[] found = new int[activities.length];
+        int amount = 0;
+        for(int idx = 0; idx < activities.length; idx++) {
+            int start = bandStarts[scale][idx];
+            int end = bandEnds[scale][idx];
+            if(end <= start) continue;
+            // A range never starts in the middle of the activities with the same consumption
+            int different = consumptionsBefore[end] - consumptionsBefore[start];
+            if(start <= idx && idx < end) different--;
+            if(different >= 2) found[amount++] = idx;
+        }
+        return Arrays.copyOf(found, amount);
+
+    }
+
+    /**
+     * Checks whether the activity at a position is excluded by its id or consumption
+     *
+     * @param idx          the position of the activity
+     * @param ids          the ids to exclude
+     * @param consumptions the consumptions to exclude
+     * @return true if the activity is excluded, false otherwise
+     */
+    private boolean isExcluded(int idx, Collection<String> ids, Collection<Long> consumptions) {
+
+        for(Long excluded : consumptions) {
+            if(excluded != null && excluded == this.consumptions[idx]) return true;
+        }
+        return ids.contains(activities[idx].id);
+
+    }
+
+    /**
+     * Returns the consumption string (rounded to 2 decimals, with an SI prefix) of a consumption, which is cached if
+     * an activity in the catalog has this consumption
+     *
+     * @param consumption the consumption in Wh
+     * @return the consumption string, e.g. "1.23 kWh"
+     */
+    @Override
+    public String getConsumptionString(long consumption) {
+
+        int position = Arrays.binarySearch(consumptions, consumption);
+        if(position >= 0 && consumptionStrings[position] != null) return consumptionStrings[position];
+        return FORMATTER.format(consumption, 2);
+
+    }
+
+}
@@ -0,0 +1,129 @@
+package server.database;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import commons.Activity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Reads the activities of a json file one at a time, so that only a single activity is in memory, no matter how
+ * large the file is. The file has to be an array of activities. An activity that cannot be read (e.g. a
+ * consumption that is not a number, or a missing id) is reported with its byte offset and skipped. If the file
+ * itself is not valid json, the activities after the error cannot be found anymore, so reading stops there.
+ */
+public class ActivityStreamReader implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ActivityStreamReader.class);
+
+    private final ObjectMapper mapper;
+    private final JsonParser parser;
+    private int skipped;
+    private boolean complete;
+
+    /**
+     * Opens a json file of activities
+     *
+     * @param file   the json file, which contains an array of activities
+     * @param mapper the mapper that converts the json of an activity to an activity
+     * @throws IOException if the file cannot be read, or does not contain an array
+     */
+    public ActivityStreamReader(File file, ObjectMapper mapper) throws IOException {
+
+        this.mapper = mapper;
+        this.parser = mapper.getFactory().createParser(file);
+        this.skipped = 0;
+        this.complete = false;
+        if(parser.nextToken() != JsonToken.START_ARRAY) {
+            parser.close();
+            throw new IOException("The activity file " + file + " does not contain an array");
+        }
+
+    }
+
+    /**
+     * Reads the next activity of the file, skipping the activities that cannot be read
+     *
+     * @return the next activity, or null if there are no more activities
+     * @throws IOException if the file cannot be read
+     */
+    public Activity next() throws IOException {
+
+        while(true) {
+            JsonToken token;
+            long offset = parser.getCurrentLocation().getByteOffset();
+            try {
+                token = parser.nextToken();
+                if(token == null || token == JsonToken.END_ARRAY) {
+                    complete = token != null;
+                    return null;
+                }
+                offset = parser.getTokenLocation().getByteOffset();
+
+                JsonNode node = mapper.readTree(parser);
+                Activity activity = mapper.treeToValue(node, Activity.class);
+                if(activity != null && activity.id != null) return activity;
+                report(offset, "the activity has no id");
+            } catch(JsonProcessingException e) {
+                if(e instanceof JsonParseException) {
+                    // The json itself is broken, so the start of the next activity cannot be found
+                    report(offset, e.getOriginalMessage() + ", the rest of the file is skipped");
+                    return null;
+                }
+                report(offset, e.getOriginalMessage());
+            }
+        }
+
+    }
+
+    /**
+     * Reports an activity that cannot be read
+     *
+     * @param offset  the byte offset of the activity in the file
+     * @param message the reason why the activity cannot be read
+     */
+    private void report(long offset, String message) {
+
+        skipped++;
+        LOGGER.warn("Skipped the activity at byte {}: {}", offset, message);
+
+    }
+
+    /**
+     * Returns the amount of activities that could not be read
+     *
+     * @return the amount of skipped activities
+     */
+    public int getSkipped() {
+
+        return skipped;
+
+    }
+
+    /**
+     * Returns whether the whole file was read, i.e. whether the end of the array was reached
+     *
+     * @return true if every activity of the file was read or skipped, false otherwise
+     */
+    public boolean isComplete() {
+
+        return complete;
+
+    }
+
+    @Override
+    public void close() throws IOException {
+
+        parser.close();
+
+    }
+
+}
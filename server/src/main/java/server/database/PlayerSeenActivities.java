@@ -0,0 +1,41 @@
+package server.database;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Lob;
+
+/**
+ * The activities that a player has seen recently, stored as the bytes of a SeenActivityFilter. They are only used by
+ * the server, so they are stored in their own table instead of with the score of the player.
+ */
+@Entity(name = "seen_activities")
+public class PlayerSeenActivities {
+
+    @Id
+    public String username;
+
+    @Lob
+    public byte[] filter;
+
+    /**
+     * Empty constructor used by JPA
+     */
+    @SuppressWarnings("unused")
+    public PlayerSeenActivities() {
+
+    }
+
+    /**
+     * Creates the seen activities of a player
+     *
+     * @param username the username of the player
+     * @param filter   the bytes of the filter of the player
+     */
+    public PlayerSeenActivities(String username, byte[] filter) {
+
+        this.username = username;
+        this.filter = filter;
+
+    }
+
+}
@@ -0,0 +1,46 @@
+package server.database;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.util.UUID;
+
+/**
+ * The time at which a question was stored. It is only used by the server to delete old questions, so it is stored in
+ * its own table instead of with the question, which is shared with the client.
+ */
+@Entity(name = "question_creation")
+@Table(indexes = @Index(name = "idx_question_creation_created_at", columnList = "created_at"))
+public class QuestionCreation {
+
+    @Id
+    @Column(name = "question_id")
+    public UUID questionId;
+
+    @Column(name = "created_at")
+    public long createdAt;
+
+    /**
+     * Empty constructor used by JPA
+     */
+    @SuppressWarnings("unused")
+    public QuestionCreation() {
+
+    }
+
+    /**
+     * Creates the creation time of a question
+     *
+     * @param questionId the id of the question
+     * @param createdAt  the time in milliseconds at which the question was stored
+     */
+    public QuestionCreation(UUID questionId, long createdAt) {
+
+        this.questionId = questionId;
+        this.createdAt = createdAt;
+
+    }
+
+}
@@ -2,9 +2,36 @@ package server.database;
 
 import commons.Question;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.UUID;
 
-public interface QuestionDB extends JpaRepository<Question, UUID> {
+public interface QuestionDB extends JpaRepository<Question, UUID>, QuestionExpiry {
+
+    /**
+     * Deletes all answer options with a single statement
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "TRUNCATE TABLE question_answer_options", nativeQuery = true)
+    void truncateAnswerOptions();
+
+    /**
+     * Deletes the creation times of all questions with a single statement
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "TRUNCATE TABLE question_creation", nativeQuery = true)
+    void truncateCreationTimes();
+
+    /**
+     * Counts the answer options of all questions
+     *
+     * @return the amount of answer options
+     */
+    @Query(value = "SELECT COUNT(*) FROM question_answer_options", nativeQuery = true)
+    long countAnswerOptions();
 
 }
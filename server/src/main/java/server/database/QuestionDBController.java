@@ -1,32 +1,181 @@
 package server.database;
 
 import commons.Question;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 @Component
 public class QuestionDBController {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(QuestionDBController.class);
+
+    /**
+     * How the questions that are added are written to the database
+     */
+    public enum PersistenceMode {
+        /**
+         * Questions are saved before add returns
+         */
+        SYNCHRONOUS,
+        /**
+         * Questions are queued and saved in batches by a background thread
+         */
+        WRITE_BEHIND,
+        /**
+         * Questions are not saved at all
+         */
+        DISABLED
+    }
+
+    /**
+     * What happens to a question that is added while the write-behind queue is full
+     */
+    public enum OverflowPolicy {
+        /**
+         * The question is saved on the calling thread
+         */
+        WRITE_THROUGH,
+        /**
+         * The question is not saved
+         */
+        DROP
+    }
+
+    /**
+     * The time in milliseconds the background thread waits for new questions before checking if it should stop
+     */
+    private static final long POLL_TIMEOUT_MILLISECONDS = 100L;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5L;
+
     private final QuestionDB questionDB;
 
+    private final PersistenceMode mode;
+    private final OverflowPolicy overflowPolicy;
+    private final int batchSize;
+    private final BlockingQueue<Question> queue;
+    private final ExecutorService writer;
+    private volatile boolean running;
+    // Writes hold the read lock, so they can be executed at the same time, but not while the tables are truncated
+    private final ReadWriteLock truncateLock;
+
+    private final AtomicLong droppedQuestions;
+
     /**
-     * Creates a controller for the question database
+     * Creates a controller for the question database, that saves the added questions synchronously
      *
      * @param questionDB the question database to be used by this controller
      */
     public QuestionDBController(QuestionDB questionDB) {
 
+        this(questionDB, PersistenceMode.SYNCHRONOUS, 1, 1, OverflowPolicy.WRITE_THROUGH);
+
+    }
+
+    /**
+     * Creates a controller for the question database
+     *
+     * @param questionDB     the question database to be used by this controller
+     * @param mode           how the added questions are written to the database
+     * @param queueCapacity  the maximum amount of questions that wait to be written in write-behind mode
+     * @param batchSize      the maximum amount of questions that are written together in write-behind mode
+     * @param overflowPolicy what happens to questions that are added while the write-behind queue is full
+     */
+    @Autowired
+    public QuestionDBController(QuestionDB questionDB,
+                                @Value("${game.question-persistence.mode:WRITE_BEHIND}") PersistenceMode mode,
+                                @Value("${game.question-persistence.queue-capacity:1000}") int queueCapacity,
+                                @Value("${game.question-persistence.batch-size:50}") int batchSize,
+                                @Value("${game.question-persistence.overflow:WRITE_THROUGH}") OverflowPolicy overflowPolicy) {
+
         this.questionDB = questionDB;
+        this.mode = mode;
+        this.overflowPolicy = overflowPolicy;
+        this.batchSize = Math.max(1, batchSize);
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.truncateLock = new ReentrantReadWriteLock();
+        this.droppedQuestions = new AtomicLong();
+
+        if(mode == PersistenceMode.WRITE_BEHIND) {
+            this.running = true;
+            this.writer = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "question-writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.writer.execute(this::writeLoop);
+        } else {
+            this.writer = null;
+        }
 
     }
 
     /**
-     * Deletes all entries in the question database
+     * Deletes all entries in the question database, including the questions that have not been written yet. The
+     * tables are emptied with bulk statements, so the questions are not loaded.
      */
     public void clear() {
 
-        questionDB.deleteAll();
+        truncateLock.writeLock().lock();
+        try {
+            queue.clear();
+            questionDB.truncateAnswerOptions();
+            questionDB.truncateCreationTimes();
+            questionDB.deleteAllInBatch();
+        } finally {
+            truncateLock.writeLock().unlock();
+        }
+
+    }
+
+    /**
+     * Deletes the questions that were created before a given time with bulk statements in a single transaction, so
+     * the questions are not loaded
+     *
+     * @param cutoff the time in milliseconds before which the questions were created
+     * @return the amount of deleted questions
+     */
+    public int deleteCreatedBefore(long cutoff) {
+
+        return questionDB.deleteCreatedBefore(cutoff);
+
+    }
+
+    /**
+     * Returns the amount of questions in the database, which does not include the questions that have not been
+     * written yet
+     *
+     * @return the amount of stored questions
+     */
+    public long getQuestionCount() {
+
+        return questionDB.count();
+
+    }
+
+    /**
+     * Returns the amount of answer options of the questions in the database
+     *
+     * @return the amount of stored answer options
+     */
+    public long getAnswerOptionCount() {
+
+        return questionDB.countAnswerOptions();
 
     }
 
@@ -38,6 +187,10 @@ public class QuestionDBController {
      */
     public Question getById(UUID uuid) {
 
+        // A question that has not been written yet is still returned
+        for(Question question : queue) {
+            if(question.questionId.equals(uuid)) return question;
+        }
         return questionDB.findById(uuid).orElse(null);
 
     }
@@ -49,18 +202,160 @@ public class QuestionDBController {
      */
     public void deleteById(UUID uuid) {
 
+        queue.removeIf(question -> question.questionId.equals(uuid));
         questionDB.deleteById(uuid);
 
     }
 
     /**
-     * Adds a question to the database
+     * Adds a question to the database. In write-behind mode, the question is only queued, so this does not wait for
+     * the database.
      *
      * @param question the question to add to the database
      */
     public void add(Question question) {
 
-        questionDB.save(question);
+        switch(mode) {
+            case SYNCHRONOUS -> save(question);
+            case WRITE_BEHIND -> {
+                if(!running || !queue.offer(question)) {
+                    addOverflow(question);
+                }
+            }
+            default -> {
+                // Persistence is disabled
+            }
+        }
+
+    }
+
+    /**
+     * Handles a question that could not be queued, because the queue is full or the writer has been stopped
+     *
+     * @param question the question that could not be queued
+     */
+    private void addOverflow(Question question) {
+
+        if(overflowPolicy == OverflowPolicy.WRITE_THROUGH) {
+            save(question);
+        } else {
+            droppedQuestions.incrementAndGet();
+        }
+
+    }
+
+    /**
+     * Writes the queued questions in batches until the controller is stopped, executed by the background thread
+     */
+    private void writeLoop() {
+
+        List<Question> batch = new ArrayList<>(batchSize);
+        while(running) {
+            try {
+                Question first = queue.poll(POLL_TIMEOUT_MILLISECONDS, TimeUnit.MILLISECONDS);
+                if(first == null) continue;
+                batch.add(first);
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            queue.drainTo(batch, batchSize - 1);
+            write(batch);
+            batch.clear();
+        }
+
+    }
+
+    /**
+     * Writes the queued questions until the queue is empty, on the calling thread
+     */
+    public void flush() {
+
+        List<Question> batch = new ArrayList<>(batchSize);
+        while(queue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+
+    }
+
+    /**
+     * Saves a batch of questions and their creation times in a single transaction, so that they can be inserted with
+     * JDBC batches
+     *
+     * @param batch the questions to save
+     */
+    private void write(List<Question> batch) {
+
+        truncateLock.readLock().lock();
+        try {
+            questionDB.saveWithCreationTime(batch);
+        } catch(RuntimeException e) {
+            droppedQuestions.addAndGet(batch.size());
+            LOGGER.warn("Could not write {} questions, they are dropped", batch.size(), e);
+        } finally {
+            truncateLock.readLock().unlock();
+        }
+
+    }
+
+    /**
+     * Saves a single question on the calling thread
+     *
+     * @param question the question to save
+     */
+    private void save(Question question) {
+
+        truncateLock.readLock().lock();
+        try {
+            questionDB.saveWithCreationTime(List.of(question));
+        } finally {
+            truncateLock.readLock().unlock();
+        }
+
+    }
+
+    /**
+     * Returns the amount of questions that are queued but have not been written yet
+     *
+     * @return the amount of pending writes
+     */
+    public int getPendingWrites() {
+
+        return queue.size();
+
+    }
+
+    /**
+     * Returns the amount of questions that were not written, because the queue was full or the write failed
+     *
+     * @return the amount of dropped questions
+     */
+    public long getDroppedQuestions() {
+
+        return droppedQuestions.get();
+
+    }
+
+    /**
+     * Stops the background thread and writes the questions that are still queued
+     */
+    @PreDestroy
+    public void shutdown() {
+
+        if(writer == null) return;
+
+        running = false;
+        writer.shutdown();
+        try {
+            if(!writer.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                writer.shutdownNow();
+            }
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
 
     }
 
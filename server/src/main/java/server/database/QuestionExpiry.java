@@ -0,0 +1,28 @@
+package server.database;
+
+import commons.Question;
+
+import java.util.List;
+
+/**
+ * Keeps the time at which every question was stored, so that the questions can be deleted after some time
+ */
+public interface QuestionExpiry {
+
+    /**
+     * Saves questions together with the current time as their creation time, in a single transaction
+     *
+     * @param questions the questions to save
+     */
+    void saveWithCreationTime(List<Question> questions);
+
+    /**
+     * Deletes the questions that were created before a given time, together with their answer options and creation
+     * times, in a single transaction. Every table is changed with a single statement, so no question is loaded.
+     *
+     * @param cutoff the time in milliseconds before which the questions were created
+     * @return the amount of deleted questions
+     */
+    int deleteCreatedBefore(long cutoff);
+
+}
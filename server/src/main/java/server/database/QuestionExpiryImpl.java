@@ -0,0 +1,50 @@
+package server.database;
+
+import commons.Question;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+
+/**
+ * The implementation of the creation times of QuestionDB. The questions are merged like save does, as a question that
+ * is added again keeps its id.
+ */
+public class QuestionExpiryImpl implements QuestionExpiry {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public void saveWithCreationTime(List<Question> questions) {
+
+        long now = System.currentTimeMillis();
+        for(Question question : questions) {
+            entityManager.merge(question);
+            entityManager.merge(new QuestionCreation(question.questionId, now));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+    }
+
+    @Override
+    @Transactional
+    public int deleteCreatedBefore(long cutoff) {
+
+        // The answer options reference the questions, so they are deleted first
+        entityManager.createNativeQuery("DELETE FROM question_answer_options WHERE question_question_id IN " +
+                        "(SELECT question_id FROM question_creation WHERE created_at < :cutoff)")
+                .setParameter("cutoff", cutoff).executeUpdate();
+        int deleted = entityManager.createNativeQuery("DELETE FROM question WHERE question_id IN " +
+                        "(SELECT question_id FROM question_creation WHERE created_at < :cutoff)")
+                .setParameter("cutoff", cutoff).executeUpdate();
+        entityManager.createNativeQuery("DELETE FROM question_creation WHERE created_at < :cutoff")
+                .setParameter("cutoff", cutoff).executeUpdate();
+        return deleted;
+
+    }
+
+}
@@ -0,0 +1,148 @@
+package server.database;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the question table bounded. Every generated question is stored, but no question is needed anymore once its
+ * game is over, so a background job periodically deletes the questions that are older than the retention time, with
+ * bulk statements instead of loading and deleting every question.
+ */
+@Component
+public class QuestionRetention {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(QuestionRetention.class);
+
+    private final QuestionDBController questionDBController;
+    private final long retentionMilliseconds;
+    private final long compactionIntervalMilliseconds;
+    private final ScheduledExecutorService executor;
+
+    private final AtomicLong compactions;
+    private final AtomicLong deletedQuestions;
+    private volatile long lastCompactionDurationMilliseconds;
+
+    /**
+     * Creates the retention job
+     *
+     * @param questionDBController           the interface with the question database
+     * @param retentionMilliseconds          the time in milliseconds after which a question is deleted, if this is
+     *                                       not positive, no questions are deleted
+     * @param compactionIntervalMilliseconds the time in milliseconds between two compactions
+     */
+    public QuestionRetention(QuestionDBController questionDBController,
+                             @Value("${game.question-retention.ttl:86400000}") long retentionMilliseconds,
+                             @Value("${game.question-retention.interval:600000}") long compactionIntervalMilliseconds) {
+
+        this.questionDBController = questionDBController;
+        this.retentionMilliseconds = retentionMilliseconds;
+        this.compactionIntervalMilliseconds = compactionIntervalMilliseconds;
+        this.executor = retentionMilliseconds > 0 && compactionIntervalMilliseconds > 0
+                ? Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "question-retention");
+                    thread.setDaemon(true);
+                    return thread;
+                })
+                : null;
+
+        this.compactions = new AtomicLong();
+        this.deletedQuestions = new AtomicLong();
+
+    }
+
+    /**
+     * Starts the periodic compaction in the background
+     */
+    @PostConstruct
+    public void start() {
+
+        if(executor == null) return;
+        executor.scheduleWithFixedDelay(this::runCompaction, compactionIntervalMilliseconds,
+                compactionIntervalMilliseconds, TimeUnit.MILLISECONDS);
+
+    }
+
+    /**
+     * Deletes the questions that are older than the retention time
+     *
+     * @return the amount of deleted questions
+     */
+    public int compact() {
+
+        long start = System.currentTimeMillis();
+        int deleted = questionDBController.deleteCreatedBefore(start - retentionMilliseconds);
+        lastCompactionDurationMilliseconds = System.currentTimeMillis() - start;
+        compactions.incrementAndGet();
+        deletedQuestions.addAndGet(deleted);
+        return deleted;
+
+    }
+
+    /**
+     * Runs a compaction on the background thread, a failed compaction is simply tried again the next time
+     */
+    private void runCompaction() {
+
+        try {
+            compact();
+        } catch(RuntimeException e) {
+            LOGGER.warn("Could not delete the old questions, this is tried again at the next compaction", e);
+        }
+
+    }
+
+    /**
+     * Returns the amount of compactions that have been executed
+     *
+     * @return the amount of compactions
+     */
+    public long getCompactions() {
+
+        return compactions.get();
+
+    }
+
+    /**
+     * Returns the amount of questions that have been deleted by the compactions
+     *
+     * @return the amount of deleted questions
+     */
+    public long getDeletedQuestions() {
+
+        return deletedQuestions.get();
+
+    }
+
+    /**
+     * Returns how long the last compaction took
+     *
+     * @return the duration of the last compaction in milliseconds
+     */
+    public long getLastCompactionDuration() {
+
+        return lastCompactionDurationMilliseconds;
+
+    }
+
+    /**
+     * Stops the background compaction
+     */
+    @PreDestroy
+    public void shutdown() {
+
+        if(executor != null) {
+            executor.shutdownNow();
+        }
+
+    }
+
+}
@@ -0,0 +1,7 @@
+package server.database;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface SeenActivitiesDB extends JpaRepository<PlayerSeenActivities, String> {
+
+}
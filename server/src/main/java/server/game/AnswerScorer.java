@@ -0,0 +1,121 @@
+package server.game;
+
+import commons.AnswerResponseEntity;
+import commons.EstimationQuestion;
+import commons.Question;
+
+/**
+ * Scores all answers to a question at once when the transition period starts. The points are the same as the points
+ * of AnswerResponseEntity.generateAnswerResponseEntity: the time decay of the points is precomputed for every answer
+ * time within a question, and the bell curve of estimation questions uses the same expression with its constant
+ * factor precomputed. The AnswerResponseEntity objects are only created when they are sent to the players.
+ */
+public final class AnswerScorer {
+
+    private static final int QUESTION_TIME_MILLISECONDS = 15000;
+
+    /**
+     * The points for a correct multiple choice answer by answer time in milliseconds
+     */
+    private static final int[] TIME_POINTS = new int[QUESTION_TIME_MILLISECONDS + 1];
+
+    private static final double BELL_FACTOR = 1 / (0.4 * Math.sqrt(2 * Math.PI));
+
+    static {
+        for(int time = 0; time <= QUESTION_TIME_MILLISECONDS; time++) {
+            TIME_POINTS[time] = AnswerResponseEntity.dynamicPointsMultipleChoice(true, time);
+        }
+    }
+
+    /**
+     * Private constructor, as this class only has static methods
+     */
+    private AnswerScorer() {
+
+    }
+
+    /**
+     * Scores the answers of all slots to a question, slots that did not answer are scored like an answer of -1
+     * after 0 milliseconds, just like the players that did not answer before
+     *
+     * @param question    the question that was answered
+     * @param answered    whether the slot answered the question
+     * @param answers     the answer of every slot
+     * @param answerTimes the time in milliseconds it took every slot to answer
+     * @param count       the amount of slots to score
+     * @param points      the array in which the points of every slot are stored
+     */
+    public static void score(Question question, boolean[] answered, long[] answers, int[] answerTimes, int count,
+                             int[] points) {
+
+        long correctAnswer = question.answer;
+
+        if(question instanceof EstimationQuestion) {
+            for(int slot = 0; slot < count; slot++) {
+                long answer = answered[slot] ? answers[slot] : -1;
+                int time = answered[slot] ? answerTimes[slot] : 0;
+                points[slot] = estimationPoints(correctAnswer - answer, answer, time);
+            }
+        } else {
+            for(int slot = 0; slot < count; slot++) {
+                long answer = answered[slot] ? answers[slot] : -1;
+                int time = answered[slot] ? answerTimes[slot] : 0;
+                points[slot] = multipleChoicePoints(answer == correctAnswer, time);
+            }
+        }
+
+    }
+
+    /**
+     * Returns the points for a multiple choice answer, equal to AnswerResponseEntity.dynamicPointsMultipleChoice
+     *
+     * @param correct whether the answer is correct
+     * @param time    the time in milliseconds it took to answer
+     * @return the points for the answer
+     */
+    public static int multipleChoicePoints(boolean correct, int time) {
+
+        if(!correct) return 0;
+        if(time >= 0 && time <= QUESTION_TIME_MILLISECONDS) return TIME_POINTS[time];
+        return AnswerResponseEntity.dynamicPointsMultipleChoice(true, time);
+
+    }
+
+    /**
+     * Returns the points for an estimation answer, equal to AnswerResponseEntity.dynamicPointsEstimation
+     *
+     * @param proximity the difference between the correct answer and the answer
+     * @param answer    the answer
+     * @param time      the time in milliseconds it took to answer
+     * @return the points for the answer
+     */
+    public static int estimationPoints(long proximity, long answer, int time) {
+
+        if(proximity == 0) {
+            return 100;
+        }
+        double percentagePassed = Math.abs(((double) proximity) / answer);
+        if(percentagePassed < 0.21) {
+            percentagePassed = Math.abs(1 - ((double) proximity) / answer);
+            int bell = (int) (BELL_FACTOR * Math.exp(-0.5 * Math.pow(((percentagePassed - 1) / 0.14), 2)) * 100 + 1);
+            return (bell + multipleChoicePoints(true, time)) / 2;
+        }
+        return 0;
+
+    }
+
+    /**
+     * Creates the answer response that is sent to a player
+     *
+     * @param question the question that was answered
+     * @param answer   the answer of the player, or -1 if the player did not answer
+     * @param points   the points of the player for the answer
+     * @return the answer response for the player
+     */
+    public static AnswerResponseEntity createResponse(Question question, long answer, int points) {
+
+        return new AnswerResponseEntity(answer == question.answer, question.answer - answer, question.answer, points);
+
+    }
+
+}
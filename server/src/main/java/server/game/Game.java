@@ -3,49 +3,61 @@ package server.game;
 import commons.*;
 import commons.gameupdate.*;
 import org.apache.commons.lang3.builder.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Scope;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
-import org.springframework.util.StopWatch;
 import org.springframework.web.context.request.async.DeferredResult;
 import server.api.ScoreController;
-import server.game.questions.QuestionGenerator;
+import server.game.questions.QuestionSet;
+import server.game.questions.QuestionSetPool;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
 
 import static org.apache.commons.lang3.builder.ToStringStyle.MULTI_LINE_STYLE;
 
 @Component
 @Scope("prototype")
-public class Game extends Thread {
+public class Game {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Game.class);
 
     private static final long INITIAL_GAME_START_DELAY_MILLISECONDS = 1000L;
     private static final long QUESTION_TIME_MILLISECONDS = 15000L;
     private static final long TRANSITION_TIME_MILLISECONDS = 5000L;
     private static final long LEADERBOARD_TIME_MILLISECONDS = 10000L;
+    private static final double FIRST_TIME_JOKER_FACTOR = 0.5;
+    private static final double TIME_JOKER_FACTOR = 0.65;
 
     private UUID uuid;
     private GameType gameType;
 
-    private final ConcurrentHashMap<String, Player> players;
-    private List<Question> questions;
+    // The players and their state during the current question (answers, deadlines and jokers), indexed by slot
+    private final PlayerTable players;
+    private volatile List<Question> questions;
+    // The questions of the game can be generated again from this seed
+    private volatile long seed;
     private Question currentQuestion;
     private int currentQuestionIdx;
-    private boolean done;
-
-    private final ConcurrentHashMap<String, DeferredResult<ResponseEntity<GameUpdate>>> deferredResultMap;
+    private volatile boolean done;
 
-    private final ConcurrentHashMap<String, AnswerResponseEntity> answerMap;
+    // The long polls and timing of the current question are only accessed by the commands that are
+    // executed from the mailbox of this game, so they do not need to be thread-safe
+    private final HashMap<String, DeferredResult<ResponseEntity<GameUpdate>>> deferredResultMap;
 
-    private final StopWatch stopWatch;
-    private long lastTime;
+    private long questionStartTime;
+    private boolean timeJokerUsed;
+    @HashCodeExclude
+    @EqualsExclude
+    @ToStringExclude
+    private Random random;
 
     private ScoreController scoreController;
-    private final ConcurrentHashMap<String, Score> leaderboard;
-
-    private final ConcurrentHashMap<String, Long> timeJoker;
-    private final ConcurrentHashMap<String, Boolean> scoreJoker;
+    private final Leaderboard leaderboard;
 
     @HashCodeExclude
     @EqualsExclude
@@ -55,65 +67,210 @@ public class Game extends Thread {
     @HashCodeExclude
     @EqualsExclude
     @ToStringExclude
-    private final QuestionGenerator questionGenerator;
+    private final QuestionSetPool questionSetPool;
+
+    @HashCodeExclude
+    @EqualsExclude
+    @ToStringExclude
+    private GameScheduler scheduler;
+
+    @HashCodeExclude
+    @EqualsExclude
+    @ToStringExclude
+    private GameMailbox mailbox;
+
+    // Executes the work that waits for the database or the question generation, instead of the thread of the shard
+    @HashCodeExclude
+    @EqualsExclude
+    @ToStringExclude
+    private Executor blockingExecutor;
+
+    @HashCodeExclude
+    @EqualsExclude
+    @ToStringExclude
+    private volatile ScheduledFuture<?> pendingPhase;
+    private volatile boolean stopped;
+
+    @HashCodeExclude
+    @EqualsExclude
+    private volatile GameState state;
+    @HashCodeExclude
+    @EqualsExclude
+    @ToStringExclude
+    private volatile long finishedTime;
+    @HashCodeExclude
+    @EqualsExclude
+    @ToStringExclude
+    private volatile long lastLongPollTime;
 
     /**
      * Creates a new game
      *
      * @param gameUpdateManager the game update manager used by this game to send messages to the client
-     * @param questionGenerator the question generator
+     * @param questionSetPool   the pool that provides the questions of the game
      */
-    public Game(GameUpdateManager gameUpdateManager, QuestionGenerator questionGenerator) {
+    public Game(GameUpdateManager gameUpdateManager, QuestionSetPool questionSetPool) {
         this.gameUpdateManager = gameUpdateManager;
-        this.questionGenerator = questionGenerator;
-        this.players = new ConcurrentHashMap<>();
+        this.questionSetPool = questionSetPool;
+        this.players = new PlayerTable();
         this.questions = new ArrayList<>(); // questions are "loaded" when game is started
         this.done = false;
-        this.deferredResultMap = new ConcurrentHashMap<>();
-        this.answerMap = new ConcurrentHashMap<>();
+        this.deferredResultMap = new HashMap<>();
+
+        this.questionStartTime = -1L;
 
-        this.stopWatch = new StopWatch();
-        this.lastTime = 0;
+        this.state = GameState.LOBBY;
+        this.lastLongPollTime = now();
 
-        this.leaderboard = new ConcurrentHashMap<>();
-        this.timeJoker = new ConcurrentHashMap<>();
-        this.scoreJoker = new ConcurrentHashMap<>();
+        this.leaderboard = new Leaderboard();
+        this.blockingExecutor = Runnable::run;
 
     }
 
     /**
-     * Starts the game and initializes the questions.
+     * Starts this game on the game scheduler
      */
-    @Override
-    public void run() {
-        // Minimum amount of questions per question type is set to 2 here
-        try {
-            questions = questionGenerator.generateGameQuestions(2);
-        } catch(IllegalArgumentException e) {
-            // This will only be the case, if minPerQuestionType is not valid.
-            return;
+    public void start() {
+
+        start(0L);
+
+    }
+
+    /**
+     * Starts this game on the game scheduler after a delay
+     *
+     * @param delayInMilliseconds the delay in milliseconds after which the game is started
+     */
+    public void start(long delayInMilliseconds) {
+
+        this.state = GameState.RUNNING;
+        schedulePhase(this::run, delayInMilliseconds);
+
+    }
+
+    /**
+     * Stops this game: the next phase of the game is cancelled and no new phases are scheduled anymore
+     */
+    public void cancel() {
+
+        this.stopped = true;
+        this.state = GameState.REAPED;
+
+        ScheduledFuture<?> phase = this.pendingPhase;
+        if(phase != null) {
+            phase.cancel(false);
+        }
+
+    }
+
+    /**
+     * Schedules the next phase of this game on the game scheduler, unless this game has been stopped. When the timer
+     * fires, the phase is queued in the mailbox of this game like any other command.
+     *
+     * @param phase               the phase to execute
+     * @param delayInMilliseconds the delay in milliseconds after which the phase is executed
+     */
+    private void schedulePhase(Runnable phase, long delayInMilliseconds) {
+
+        if(stopped) return;
+
+        this.pendingPhase = scheduler.schedule(() -> mailbox.execute(() -> {
+            if(!stopped) phase.run();
+        }), delayInMilliseconds);
+
+    }
+
+    /**
+     * Marks this game as finished, unless it has already been reaped
+     */
+    private void finish() {
+
+        this.finishedTime = now();
+        if(state != GameState.REAPED) {
+            this.state = GameState.FINISHED;
+        }
+
+    }
+
+    /**
+     * Returns the current time of the monotonic clock that is used to time the questions and the lifecycle of games
+     *
+     * @return the current time in milliseconds
+     */
+    static long now() {
+
+        return System.nanoTime() / 1000000L;
+
+    }
+
+    /**
+     * Starts the game and initializes the questions. Taking the questions generates them if the pool is empty, so
+     * it is done by the blocking executor, and the game continues from its mailbox once the questions are there.
+     */
+    private void run() {
+        // The questions are usually generated in advance, so this only generates them if the pool is empty. The
+        // players get the questions with the fewest activities they have seen recently.
+        List<String> usernames = new ArrayList<>();
+        for(Player player : getPlayers()) {
+            usernames.add(player.getUsername());
         }
+        inBackground(() -> {
+            try {
+                QuestionSet set = questionSetPool.take(usernames);
+                mailbox.execute(() -> startQuestions(set));
+            } catch(IllegalArgumentException e) {
+                // This will only be the case, if minPerQuestionType is not valid.
+                mailbox.execute(this::finish);
+            }
+        });
+    }
+
+    /**
+     * Initializes the questions of the game and schedules the first question
+     *
+     * @param set the questions of the game, or null if they could not be generated
+     */
+    private void startQuestions(QuestionSet set) {
+        if(stopped) return;
 
         // Something went wrong when trying to generate the questions -> send message to clients
-        if(questions == null) {
+        if(set == null) {
+            questions = null;
             gameUpdateManager.noQuestionsGenerated(this.uuid);
+            finish();
             return;
         }
+        seed = set.getSeed();
+        questions = set.getQuestions();
+        // The jokers use their own stream of the game, so they do not change the questions of the seed
+        random = new GameRandom(seed).split();
 
         // Set first question
         currentQuestionIdx = -1;
-        initializeTimeJoker();
         initializeScoreJoker();
         gameUpdateManager.startGame(this.uuid);
 
-        this.stopWatch.start();
+        schedulePhase(this::gameLoop, Game.INITIAL_GAME_START_DELAY_MILLISECONDS);
+
+    }
+
+    /**
+     * Executes work that blocks (e.g. on the database) on the blocking executor, unless this game has been stopped.
+     * The work hands its results back to the game through the mailbox.
+     *
+     * @param work the work to execute
+     */
+    private void inBackground(Runnable work) {
+
+        if(stopped) return;
 
-        (new Timer()).schedule(new TimerTask() {
-            @Override
-            public void run() {
-                gameLoop();
+        blockingExecutor.execute(() -> {
+            try {
+                work.run();
+            } catch(RuntimeException e) {
+                LOGGER.error("Background work of game {} failed", uuid, e);
             }
-        }, Game.INITIAL_GAME_START_DELAY_MILLISECONDS);
+        });
 
     }
 
@@ -122,38 +279,31 @@ public class Game extends Thread {
      */
     private void gameLoop() {
 
-        stopWatch.stop();
-
         if(currentQuestionIdx == 19) {
 
             currentQuestionIdx++;
             done = true;
+            finish();
 
-            List<Score> list;
             if(gameType == GameType.SINGLEPLAYER) {
-                saveScores();
-                list = sendDatabase();
+                // The scores are collected here, and saved and loaded by the blocking executor
+                List<Score> scores = collectScores();
+                inBackground(() -> {
+                    saveScores(scores);
+                    List<Score> list = sendDatabase();
+                    mailbox.execute(() -> sendGameFinished(list));
+                });
             } else if(gameType == GameType.MULTIPLAYER) {
-                list = createLeaderboardList();
+                sendGameFinished(createLeaderboardList());
             } else {
-                list = new ArrayList<>();
+                sendGameFinished(new ArrayList<>());
             }
 
-            deferredResultMap.forEach((username, res) -> res.setResult(ResponseEntity.ok(
-                    new GameUpdateGameFinished(
-                            list
-                    )
-            )));
-            deferredResultMap.clear();
-
             return;
 
         }
 
-        initializeTimeJoker();
-
-        lastTime = stopWatch.getTotalTimeMillis();
-        stopWatch.start();
+        startQuestionAt(now());
 
         currentQuestionIdx++;
         this.currentQuestion = questions.get(currentQuestionIdx);
@@ -161,38 +311,54 @@ public class Game extends Thread {
         deferredResultMap.forEach((username, res) -> res.setResult(ResponseEntity.ok(new GameUpdateNextQuestion(currentQuestionIdx))));
         deferredResultMap.clear();
 
-        (new Timer()).schedule(new TimerTask() {
-            @Override
-            public void run() {
-                sendTransitionPeriod();
-            }
-        }, Game.QUESTION_TIME_MILLISECONDS);
+        schedulePhase(this::sendTransitionPeriod, Game.QUESTION_TIME_MILLISECONDS);
 
     }
 
     /**
-     * sets the answer in the ConcurrentHashMap
+     * Informs all registered long polls that the game is finished
+     *
+     * @param list the scores to display
+     */
+    private void sendGameFinished(List<Score> list) {
+
+        deferredResultMap.forEach((username, res) -> res.setResult(ResponseEntity.ok(new GameUpdateGameFinished(list))));
+        deferredResultMap.clear();
+
+    }
+
+    /**
+     * Queues the answer of a player in the mailbox of this game. The time at which the answer was received is
+     * recorded immediately, so the time it waits in the mailbox does not count as answering time.
      *
      * @param username the username of the Player
      * @param answer   the answer the user chose for the question
      */
-
     public void saveAnswer(String username, long answer) {
-        long timeClicked = getElapsedTimeThisQuestion();
-        long remainingTime = QUESTION_TIME_MILLISECONDS - getElapsedTimeThisQuestion();
-        long oldTime = 0L;
-        for(Map.Entry<String, Long> player : timeJoker.entrySet()) {
-            if(oldTime < player.getValue()) {
-                oldTime = player.getValue();
-            }
-        }
-        long elapsedTime = oldTime - remainingTime;
-        for(Map.Entry<String, Long> player : timeJoker.entrySet()) {
-            player.setValue(player.getValue() - elapsedTime);
-        }
-        if(timeJoker.get(username) >= 0) {
-            this.answerMap.put(username, AnswerResponseEntity.generateAnswerResponseEntity(currentQuestion, answer, (int) timeClicked));
-        }
+
+        long receivedAt = now();
+        mailbox.execute(() -> applyAnswer(username, answer, receivedAt));
+
+    }
+
+    /**
+     * saves the answer in the slot of the player, if it was received before the deadline of the player
+     *
+     * @param username   the username of the Player
+     * @param answer     the answer the user chose for the question
+     * @param receivedAt the time at which the answer was received
+     * @return true if the answer was saved, false if the player is not in this game or the answer was too late
+     */
+    protected boolean applyAnswer(String username, long answer, long receivedAt) {
+        int slot = players.getSlot(username);
+        if(slot == PlayerTable.NO_SLOT) return false;
+
+        long timeClicked = getElapsedTimeAt(receivedAt);
+        // Only the deadline of this player is needed, the time jokers of others already moved it when they were used
+        if(receivedAt > players.getDeadline(slot)) return false;
+
+        players.saveAnswer(slot, answer, (int) timeClicked);
+        return true;
     }
 
 
@@ -201,42 +367,40 @@ public class Game extends Thread {
      */
     private void sendTransitionPeriod() {
 
+        // Every player with a long poll needs a slot before the answers of all slots are scored in one batch
+        for(String username : deferredResultMap.keySet()) {
+            players.getOrCreateSlot(username);
+        }
+        players.scoreAnswers(currentQuestion);
+
         for(Map.Entry<String, DeferredResult<ResponseEntity<GameUpdate>>> openRequest : deferredResultMap.entrySet()) {
 
             String username = openRequest.getKey();
             DeferredResult<ResponseEntity<GameUpdate>> req = openRequest.getValue();
-            deferredResultMap.remove(username);
 
-            AnswerResponseEntity answer;
-            answer = answerMap.getOrDefault(username, AnswerResponseEntity.generateAnswerResponseEntity(currentQuestion, -1, 0));
+            int slot = players.getSlot(username);
 
-            if(scoreJoker.containsKey(username) && scoreJoker.get(username)) {
+            // The response is only created here, the points were already calculated for all players at once
+            long givenAnswer = players.hasAnswered(slot) ? players.getAnswer(slot) : -1;
+            AnswerResponseEntity answer = AnswerScorer.createResponse(currentQuestion, givenAnswer, players.getPoints(slot));
+
+            if(players.useScoreJoker(slot)) {
                 answer.doublePoints();
-                scoreJoker.remove(username);
             }
 
             req.setResult(ResponseEntity.ok(new GameUpdateTransitionPeriodEntered(answer)));
 
-            saveScoreToLeaderboard(answer.getPoints(), username);
+            leaderboard.addScore(slot, username, answer.getPoints());
 
         }
 
-        answerMap.clear();
+        deferredResultMap.clear();
+        players.clearAnswers();
 
         if(currentQuestionIdx == 9) {
-            (new Timer()).schedule(new TimerTask() {
-                @Override
-                public void run() {
-                    sendLeaderboard();
-                }
-            }, Game.TRANSITION_TIME_MILLISECONDS);
+            schedulePhase(this::sendLeaderboard, Game.TRANSITION_TIME_MILLISECONDS);
         } else {
-            (new Timer()).schedule(new TimerTask() {
-                @Override
-                public void run() {
-                    gameLoop();
-                }
-            }, Game.TRANSITION_TIME_MILLISECONDS);
+            schedulePhase(this::gameLoop, Game.TRANSITION_TIME_MILLISECONDS);
         }
 
     }
@@ -248,35 +412,37 @@ public class Game extends Thread {
      * @param username name of the player
      */
     public void saveScoreToLeaderboard(int score, String username) {
-        if(!leaderboard.containsKey(username)) {
-            leaderboard.put(username, new Score(username, score));
-        } else {
-            int currentScore = leaderboard.get(username).getScore();
-            leaderboard.put(username, new Score(username, score + currentScore));
-        }
+        leaderboard.addScore(players.getOrCreateSlot(username), username, score);
     }
 
     /**
-     * Informs all registered long polls that the intermediate leaderboard should be displayed
+     * Informs all registered long polls that the intermediate leaderboard should be displayed. The leaderboard of a
+     * single player game is loaded from the database by the blocking executor.
      */
     private void sendLeaderboard() {
-        List<Score> listOfScores;
-        if(gameType == GameType.MULTIPLAYER) {
-            listOfScores = createLeaderboardList();
-        }
         // if the game is singleplayer the leaderboard is not needed
-        else {
-            listOfScores = sendDatabase();
+        if(gameType == GameType.MULTIPLAYER) {
+            displayLeaderboard(createLeaderboardList());
+        } else {
+            inBackground(() -> {
+                List<Score> listOfScores = sendDatabase();
+                mailbox.execute(() -> displayLeaderboard(listOfScores));
+            });
         }
+    }
+
+    /**
+     * Sends the intermediate leaderboard to all registered long polls, and schedules the next question
+     *
+     * @param listOfScores the scores to display
+     */
+    private void displayLeaderboard(List<Score> listOfScores) {
+        if(stopped) return;
+
         deferredResultMap.forEach((username, res) -> res.setResult(ResponseEntity.ok(new GameUpdateDisplayLeaderboard(listOfScores))));
         deferredResultMap.clear();
 
-        (new Timer()).schedule(new TimerTask() {
-            @Override
-            public void run() {
-                gameLoop();
-            }
-        }, Game.LEADERBOARD_TIME_MILLISECONDS);
+        schedulePhase(this::gameLoop, Game.LEADERBOARD_TIME_MILLISECONDS);
 
     }
 
@@ -290,28 +456,39 @@ public class Game extends Thread {
     }
 
     /**
-     * when the leaderboard is supposed to be shown the scores from that game have to be stored to the database
+     * Collects the scores of the players of this game from its leaderboard
+     *
+     * @return the score of every player
      */
-    private void saveScores() {
-        ConcurrentHashMap<String, Score> leaderboard = getLeaderboard();
-        List<Player> players = getPlayers();
-        for(Player p : players) {
+    private List<Score> collectScores() {
+        List<Score> scores = new ArrayList<>();
+        for(Player p : getPlayers()) {
             String username = p.getUsername();
-            Score score = leaderboard.get(username);
-            scoreController.addScore(username, score.getScore());
+            scores.add(new Score(username, getScore(username)));
         }
+        return scores;
     }
 
     /**
-     * Creates a list of Scores from the internal HashMap used to hold the scores by this game, sorted by scores descending
+     * when the leaderboard is supposed to be shown the scores from that game have to be stored to the database
+     *
+     * @param scores the scores of the players of this game
+     */
+    private void saveScores(List<Score> scores) {
+        for(Score score : scores) {
+            scoreController.addScore(score.getUsername(), score.getScore());
+        }
+    }
+
+    /**
+     * Creates a list of Scores from the leaderboard of this game, sorted by scores descending. The leaderboard is
+     * always kept in this order, so it does not have to be sorted.
      *
      * @return a list of scores for players in this game sorted by scores descending
      */
     public List<Score> createLeaderboardList() {
 
-        List<Score> result = new ArrayList<>(leaderboard.values().stream().sorted(Comparator.comparingInt(s -> s.score)).toList());
-        Collections.reverse(result);
-        return result;
+        return leaderboard.toList();
 
     }
 
@@ -322,13 +499,21 @@ public class Game extends Thread {
      */
     public long getElapsedTimeThisQuestion() {
 
-        if(!stopWatch.isRunning()) return 0L;
+        return getElapsedTimeAt(now());
+
+    }
+
+    /**
+     * Returns the amount of time that the current question had already been the current question at the given time
+     *
+     * @param time the time (of the monotonic question clock) at which to calculate the elapsed time
+     * @return the elapsed time in this round of the game at the given time
+     */
+    private long getElapsedTimeAt(long time) {
 
-        stopWatch.stop();
-        long ret = stopWatch.getTotalTimeMillis() - lastTime;
-        stopWatch.start();
+        if(questionStartTime < 0) return 0L;
 
-        return ret;
+        return time - questionStartTime;
 
     }
 
@@ -341,7 +526,8 @@ public class Game extends Thread {
      */
     public void runDeferredResult(String username, DeferredResult<ResponseEntity<GameUpdate>> deferredResult) {
 
-        this.deferredResultMap.put(username, deferredResult);
+        this.lastLongPollTime = now();
+        mailbox.execute(() -> this.deferredResultMap.put(username, deferredResult));
 
     }
 
@@ -354,6 +540,15 @@ public class Game extends Thread {
         return questions;
     }
 
+    /**
+     * Gets the seed of the questions, with which the same questions can be generated again
+     *
+     * @return the seed of the questions
+     */
+    public long getSeed() {
+        return seed;
+    }
+
     /**
      * Returns whether this game is done, i.e. all 20 questions have been answered/displayed
      *
@@ -414,47 +609,53 @@ public class Game extends Thread {
      */
     public List<Player> getPlayers() {
 
-        List<Player> list = new ArrayList<>();
-        list.addAll(players.values());
+        return players.getPlayers();
 
-        return list;
+    }
+
+    /**
+     * Returns the amount of players in this game
+     *
+     * @return the amount of players in this game
+     */
+    public int getPlayerCount() {
+
+        return players.getPlayerCount();
 
     }
 
     /**
-     * Informs all registered long polls that a time joker has been used
+     * Queues the time joker of a player in the mailbox of this game
      *
      * @param username the username of the player that initiated the time joker
      */
     public void useTimeJoker(String username) {
 
-        long remainingTime = QUESTION_TIME_MILLISECONDS - getElapsedTimeThisQuestion();
+        long receivedAt = now();
+        mailbox.execute(() -> applyTimeJoker(username, receivedAt));
 
-        if(timeJoker.get(username) == 15000L) {
-            long newTime = (long) (0.5 * remainingTime);
-            for(Map.Entry<String, Long> player : timeJoker.entrySet()) {
-                if(!player.getKey().equals(username)) {
-                    player.setValue(newTime);
-                } else player.setValue(remainingTime);
-            }
-        } else {
+    }
 
-            long oldTime = 0L;
-            for(Map.Entry<String, Long> player : timeJoker.entrySet()) {
-                if(oldTime < player.getValue()) {
-                    oldTime = player.getValue();
-                }
-            }
-            long elapsedTime = oldTime - remainingTime;
-            for(Map.Entry<String, Long> player : timeJoker.entrySet()) {
-                player.setValue(player.getValue() - elapsedTime);
-                long newTime = (long) (0.65 * player.getValue());
-                if(!player.getKey().equals(username)) player.setValue(newTime);
-            }
-        }
+    /**
+     * Informs all registered long polls that a time joker has been used
+     *
+     * @param username   the username of the player that initiated the time joker
+     * @param receivedAt the time at which the time joker was received
+     * @return the remaining time of every player after the time joker
+     */
+    protected Map<String, Long> applyTimeJoker(String username, long receivedAt) {
+
+        // The first time joker of a question halves the remaining time of the other players, later ones take a
+        // smaller part of it
+        double factor = timeJokerUsed ? TIME_JOKER_FACTOR : FIRST_TIME_JOKER_FACTOR;
+        timeJokerUsed = true;
 
-        deferredResultMap.forEach((user, res) -> res.setResult(ResponseEntity.ok(new GameUpdateTimerJoker(timeJoker))));
+        // The deadlines are moved and the remaining times for the update are collected in a single pass
+        ConcurrentHashMap<String, Long> times = players.shortenDeadlines(players.getSlot(username), receivedAt, factor);
+
+        deferredResultMap.forEach((user, res) -> res.setResult(ResponseEntity.ok(new GameUpdateTimerJoker(times))));
         deferredResultMap.clear();
+        return times;
 
     }
 
@@ -465,29 +666,50 @@ public class Game extends Thread {
      */
     public void useQuestionJoker(String username) {
 
+        mailbox.execute(() -> applyQuestionJoker(username));
+
+    }
+
+    /**
+     * Informs the long poll of the player that used the question joker which answer option is removed
+     *
+     * @param username the name of the player that initiated the question joker
+     */
+    private void applyQuestionJoker(String username) {
+
+        DeferredResult<ResponseEntity<GameUpdate>> deferredResult = deferredResultMap.remove(username);
+        if(deferredResult == null) return;
+
         Question question = getCurrentQuestion();
         long answer = question.answer;
-        Random random = new Random();
         int returnValue = switch((int) answer) {
             case 1 -> random.nextBoolean() ? 2 : 3;
             case 2 -> random.nextBoolean() ? 1 : 3;
             case 3 -> random.nextBoolean() ? 1 : 2;
             default -> 0;
         };
-        deferredResultMap.get(username).setResult(ResponseEntity.ok(new GameUpdateQuestionJoker(returnValue)));
+        deferredResult.setResult(ResponseEntity.ok(new GameUpdateQuestionJoker(returnValue)));
 
     }
 
     /**
-     * Server-side handling of the double points joker, maps true to the username in scoreJoker
+     * Server-side handling of the double points joker, arms the joker in the slot of the player
      *
      * @param username the name of the player that initiated the double points joker
      */
     public void useScoreJoker(String username) {
-        if(scoreJoker.containsKey(username)) {
-            if(!scoreJoker.get(username)) {
-                scoreJoker.put(username, true);
-            }
+        mailbox.execute(() -> applyScoreJoker(username));
+    }
+
+    /**
+     * Arms the double points joker of a player for the current question
+     *
+     * @param username the name of the player that initiated the double points joker
+     */
+    private void applyScoreJoker(String username) {
+        int slot = players.getSlot(username);
+        if(slot != PlayerTable.NO_SLOT) {
+            players.armScoreJoker(slot);
         }
     }
 
@@ -499,7 +721,7 @@ public class Game extends Thread {
      */
     public Player getPlayer(String username) {
 
-        return this.players.getOrDefault(username, null);
+        return this.players.getPlayer(username);
 
     }
 
@@ -521,31 +743,33 @@ public class Game extends Thread {
      */
     protected void addPlayer(Player player) {
 
-        this.players.put(player.getUsername(), player);
+        this.players.addPlayer(player);
 
     }
 
     /**
-     * This method will initialize the ConcurrentHashMap with the usernames of all players.
+     * Starts the time of the current question
+     *
+     * @param startTime the time (of the monotonic question clock) at which the question starts
      */
-    protected void initializeTimeJoker() {
-        for(Map.Entry<String, Player> player : players.entrySet()) {
-            timeJoker.remove(player.getKey());
-        }
-        for(Map.Entry<String, Player> player : players.entrySet()) {
-            timeJoker.put(player.getKey(), 15000L);
-        }
+    protected void startQuestionAt(long startTime) {
+        questionStartTime = startTime;
+        initializeTimeJoker();
+    }
 
+    /**
+     * Sets the deadline of all players to the end of the current question, and resets the time jokers
+     */
+    protected void initializeTimeJoker() {
+        timeJokerUsed = false;
+        players.resetDeadlines(questionStartTime + QUESTION_TIME_MILLISECONDS);
     }
 
+    /**
+     * Makes the double points joker available for all players
+     */
     protected void initializeScoreJoker() {
-        for(Map.Entry<String, Player> player : players.entrySet()) {
-            scoreJoker.remove(player.getKey());
-        }
-        for(Map.Entry<String, Player> player : players.entrySet()) {
-            scoreJoker.put(player.getKey(), false);
-        }
-
+        players.resetScoreJokers();
     }
 
     /**
@@ -557,7 +781,7 @@ public class Game extends Thread {
 
         if(player == null) return;
 
-        this.players.remove(player.getUsername());
+        this.players.removePlayer(player.getUsername());
 
         // It is not checked here, whether a game has 0 players. This is checked in the GameController,
         // because in that case this Game has to be removed, this cannot be done from here.
@@ -571,7 +795,7 @@ public class Game extends Thread {
      */
     public void removePlayer(String username) {
 
-        this.players.remove(username);
+        this.players.removePlayer(username);
 
     }
 
@@ -583,7 +807,7 @@ public class Game extends Thread {
      */
     public boolean containsPlayer(Player player) {
 
-        return this.players.containsKey(player.getUsername());
+        return this.players.containsPlayer(player.getUsername());
 
     }
 
@@ -595,12 +819,13 @@ public class Game extends Thread {
      */
     public boolean containsPlayer(String username) {
 
-        return this.players.containsKey(username);
+        return this.players.containsPlayer(username);
 
     }
 
     /**
-     * Checks if 2 game objects are equal
+     * Checks if 2 game objects are equal, which is the case if they have the same UUID. The players and questions
+     * change while the game runs, so they are not compared.
      *
      * @param obj the object that will be compared
      * @return true or false, whether the objects are equal or not
@@ -612,37 +837,75 @@ public class Game extends Thread {
         }
         if(obj instanceof Game) {
             Game other = (Game) obj;
-            return this.uuid.equals(other.uuid) &&
-                    this.gameType.equals(other.gameType) &&
-                    this.players.equals(other.players) &&
-                    (done == other.done) &&
-                    this.questions.equals(other.questions) &&
-                    Objects.equals(this.currentQuestion, other.currentQuestion);
+            return Objects.equals(this.uuid, other.uuid);
         }
         return false;
     }
 
 
     /**
-     * Generate a hash code for this object
+     * Generate a hash code for this object, from its UUID
      *
      * @return hash code
      */
     @Override
     public int hashCode() {
 
-        return uuid.hashCode() ^ gameType.hashCode() ^ players.hashCode() ^ Boolean.hashCode(done) ^ questions.hashCode();
+        return Objects.hashCode(uuid);
 
     }
 
     /**
-     * Creates a formatted string for this object
+     * Creates a formatted string for this object, with the fields that identify the game and its progress
      *
      * @return a formatted string in multi line style
      */
     @Override
     public String toString() {
-        return ToStringBuilder.reflectionToString(this, MULTI_LINE_STYLE);
+        return new ToStringBuilder(this, MULTI_LINE_STYLE)
+                .append("uuid", uuid)
+                .append("gameType", gameType)
+                .append("state", state)
+                .append("playerCount", getPlayerCount())
+                .append("currentQuestionIdx", currentQuestionIdx)
+                .toString();
+    }
+
+    /**
+     * Returns the lifecycle state of this game
+     *
+     * @return the state of this game
+     */
+    public GameState getState() {
+        return state;
+    }
+
+    /**
+     * Returns whether this game is in the waiting room, which only requires a check of its lifecycle state
+     *
+     * @return true if this game has not been started yet, false otherwise
+     */
+    public boolean isLobby() {
+        return state == GameState.LOBBY;
+    }
+
+    /**
+     * Returns the time (of the monotonic game clock) at which this game finished
+     *
+     * @return the time at which this game finished, only meaningful if the game is finished
+     */
+    public long getFinishedTime() {
+        return finishedTime;
+    }
+
+    /**
+     * Returns the time (of the monotonic game clock) at which the last long poll of this game was registered, or at
+     * which this game was created if no long poll has been registered yet
+     *
+     * @return the time of the last long poll
+     */
+    public long getLastLongPollTime() {
+        return lastLongPollTime;
     }
 
     /**
@@ -650,10 +913,40 @@ public class Game extends Thread {
      *
      * @return leaderboard
      */
-    public ConcurrentHashMap<String, Score> getLeaderboard() {
+    public Leaderboard getLeaderboard() {
         return leaderboard;
     }
 
+    /**
+     * Returns the score of a player on the leaderboard of this game
+     *
+     * @param username the username of the player
+     * @return the score of the player, or 0 if the player has no score
+     */
+    public int getScore(String username) {
+        return leaderboard.getScore(players.getSlot(username));
+    }
+
+    /**
+     * Sets the scheduler that executes the phase transitions of this game
+     *
+     * @param scheduler the game scheduler
+     */
+    public void setScheduler(GameScheduler scheduler) {
+        this.scheduler = scheduler;
+        this.mailbox = new GameMailbox(scheduler);
+    }
+
+    /**
+     * Sets the executor that executes the work of this game that blocks, e.g. generating the questions or saving the
+     * scores. Without it, this work is executed on the thread of the game.
+     *
+     * @param blockingExecutor the executor for blocking work
+     */
+    public void setBlockingExecutor(Executor blockingExecutor) {
+        this.blockingExecutor = blockingExecutor;
+    }
+
     /**
      * set the Score Leaderboard to server database
      *
@@ -12,15 +12,15 @@ import server.api.ScoreController;
 
 import javax.annotation.PostConstruct;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class GameController implements ApplicationContextAware {
 
-    private final ConcurrentHashMap<UUID, Game> runningGames;
-    private Game currentGame;
+    private final GameShards gameShards;
+    private volatile Game currentGame;
     private final GameUpdateManager gameUpdateManager;
     private final ScoreController scoreController;
+    private final GameLifecycleManager lifecycleManager;
 
     private ApplicationContext context;
 
@@ -40,24 +40,48 @@ public class GameController implements ApplicationContextAware {
      *
      * @param gameUpdateManager the update manager for WebSocket messages
      * @param scoreController   the score controller to save scores
+     * @param gameShards        the shards that own the games (including the current game) of this server
+     * @param lifecycleManager  the lifecycle manager that reaps finished and abandoned games
      */
-    public GameController(GameUpdateManager gameUpdateManager, ScoreController scoreController) {
+    public GameController(GameUpdateManager gameUpdateManager, ScoreController scoreController, GameShards gameShards,
+                          GameLifecycleManager lifecycleManager) {
 
-        this.runningGames = new ConcurrentHashMap<>();
+        this.gameShards = gameShards;
         this.gameUpdateManager = gameUpdateManager;
         this.scoreController = scoreController;
+        this.lifecycleManager = lifecycleManager;
 
     }
 
     /**
-     * Initializes the current game
+     * Initializes the current game and starts reaping finished and abandoned games
      */
     @PostConstruct
     public void init() {
 
-        this.currentGame = context.getBean(Game.class);
-        this.currentGame.setUUID(UUID.randomUUID());
-        this.currentGame.setGameType(GameType.MULTIPLAYER);
+        this.currentGame = createGame(GameType.MULTIPLAYER);
+        this.lifecycleManager.start(this::stopGame);
+
+    }
+
+    /**
+     * Creates a new game bean on the least loaded shard. The game gets a UUID that belongs to that shard, uses the
+     * scheduler and the threads for blocking work of that shard, and is registered in it.
+     *
+     * @param gameType the game type of the new game
+     * @return the new game
+     */
+    private Game createGame(GameType gameType) {
+
+        GameShard shard = gameShards.getLeastLoadedShard();
+
+        Game game = context.getBean(Game.class);
+        game.setUUID(gameShards.createUUID(shard));
+        game.setGameType(gameType);
+        game.setScheduler(shard.getScheduler());
+        game.setBlockingExecutor(shard.getBlockingExecutor());
+        shard.addGame(game);
+        return game;
 
     }
 
@@ -91,13 +115,7 @@ public class GameController implements ApplicationContextAware {
      */
     public Game getGame(UUID uuid) {
 
-        if(this.runningGames.containsKey(uuid)) {
-            return this.runningGames.get(uuid);
-        } else if(this.currentGame.getUUID().equals(uuid)) {
-            return this.currentGame;
-        } else {
-            return null;
-        }
+        return gameShards.getGame(uuid);
 
     }
 
@@ -143,14 +161,10 @@ public class GameController implements ApplicationContextAware {
      */
     public void startCurrentGame() {
 
-        UUID currentGameUUID = currentGame.getUUID();
-
+        // The current game is already registered in its shard, so it only has to be started
         this.currentGame.start();
-        runningGames.put(currentGameUUID, currentGame);
 
-        this.currentGame = context.getBean(Game.class);
-        this.currentGame.setUUID(UUID.randomUUID());
-        this.currentGame.setGameType(GameType.MULTIPLAYER);
+        this.currentGame = createGame(GameType.MULTIPLAYER);
 
     }
 
@@ -197,7 +211,7 @@ public class GameController implements ApplicationContextAware {
         // Check if all players left, in that case stop the game. It also has to be checked whether this is the
         // current game in the waiting room, if that is the case, the game does not have to be stopped as it has
         // not started yet.
-        if(game != currentGame && game.getPlayers().size() == 0) {
+        if(!game.isLobby() && game.getPlayerCount() == 0) {
             stopGame(game);
         }
 
@@ -228,33 +242,38 @@ public class GameController implements ApplicationContextAware {
         // Check if all players left, in that case stop the game. It also has to be checked whether this is the
         // current game in the waiting room, if that is the case, the game does not have to be stopped as it has
         // not started yet.
-        if(game != currentGame && game.getPlayers().size() == 0) {
+        if(!game.isLobby() && game.getPlayerCount() == 0) {
             stopGame(game);
         }
 
     }
 
     /**
-     * Stops a game (removes it from the runningGames, and handles saving the scores)
+     * Stops a game (removes it from its shard, and handles saving the scores in the background). This is done when
+     * all players left the game, or when the lifecycle manager reaps it. The current game in the waiting room cannot
+     * be stopped.
      *
      * @param game the game to stop
      */
     public void stopGame(Game game) {
-        if(game == null || !runningGames.containsKey(game.getUUID())) {
-            return;
-        }
-        runningGames.remove(game.getUUID());
-        // Check if the game was stopped before it actually ended, in that case only interrupt the thread, otherwise
+        if(game == null || game.isLobby()) return;
+        GameShard shard = gameShards.shardOf(game.getUUID());
+        if(!shard.removeGame(game.getUUID())) return;
+        // Check if the game was stopped before it actually ended, in that case only cancel its timers, otherwise
         // save all the scores.
         if(game.isDone()) {
-            // If the game ended after 20 questions, save all players scores
+            // If the game ended after 20 questions, save all players scores. This is done by the executor for
+            // blocking work of the shard, as the lifecycle manager stops games on the thread of their shard.
             List<Player> players = game.getPlayers();
-            for(Player p : players) {
-                scoreController.addScore(p.getUsername(), p.getPoints());
-            }
+            shard.getBlockingExecutor().execute(() -> {
+                for(Player p : players) {
+                    scoreController.addScore(p.getUsername(), p.getPoints());
+                }
+            });
         }
-        // Interrupt the game thread
-        game.interrupt();
+        // Cancel the pending phase of the game, so that no timer of it stays behind in the scheduler
+        game.cancel();
+        lifecycleManager.gameReaped();
     }
 
     /**
@@ -292,22 +311,12 @@ public class GameController implements ApplicationContextAware {
      */
     public GameUpdate createSinglePlayerGame(Player player) {
 
-        UUID uuid = UUID.randomUUID();
-        Game singlePlayerGame = context.getBean(Game.class);
-        singlePlayerGame.setUUID(uuid);
-        singlePlayerGame.setGameType(GameType.SINGLEPLAYER);
+        Game singlePlayerGame = createGame(GameType.SINGLEPLAYER);
         singlePlayerGame.setScoreController(scoreController);
 
         singlePlayerGame.addPlayer(player);
 
-        this.runningGames.put(uuid, singlePlayerGame);
-
-        (new Timer()).schedule(new TimerTask() {
-            @Override
-            public void run() {
-                singlePlayerGame.start();
-            }
-        }, 1500);
+        singlePlayerGame.start(1500);
 
         return new GameUpdateFullPlayerList(singlePlayerGame.getPlayers(), singlePlayerGame.getUUID());
 
@@ -322,4 +331,31 @@ public class GameController implements ApplicationContextAware {
         return scoreController;
     }
 
+    /**
+     * Returns the amount of phase transitions of all games that are scheduled but have not been executed yet
+     *
+     * @return the amount of pending game timers
+     */
+    public int getPendingTimers() {
+        return gameShards.getPendingTimers();
+    }
+
+    /**
+     * Returns the shards of the games of this server, which can be used to inspect their load
+     *
+     * @return the game shards
+     */
+    public List<GameShard> getShards() {
+        return gameShards.getShards();
+    }
+
+    /**
+     * Returns the lifecycle manager, which keeps the counters of live, finished and reaped games
+     *
+     * @return the lifecycle manager
+     */
+    public GameLifecycleManager getLifecycleManager() {
+        return lifecycleManager;
+    }
+
 }
@@ -0,0 +1,170 @@
+package server.game;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the amount of games in memory bounded. Every shard periodically checks its games: finished games are removed
+ * after a retention period, and running games whose clients stopped long polling (e.g. because they closed the
+ * window) are removed as abandoned. It also keeps the counters of live, finished and reaped games.
+ */
+@Component
+public class GameLifecycleManager {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GameLifecycleManager.class);
+
+    private final GameShards gameShards;
+    private final long finishedRetentionMilliseconds;
+    private final long abandonedTimeoutMilliseconds;
+    private final long reapIntervalMilliseconds;
+
+    private final AtomicLong reapedGames;
+
+    /**
+     * Creates the lifecycle manager
+     *
+     * @param gameShards                    the shards that contain the games
+     * @param finishedRetentionMilliseconds the time in milliseconds that a finished game is kept
+     * @param abandonedTimeoutMilliseconds  the time in milliseconds without long polls after which a running game is
+     *                                      considered to be abandoned
+     * @param reapIntervalMilliseconds      the time in milliseconds between two checks of the games of a shard
+     */
+    public GameLifecycleManager(GameShards gameShards,
+                                @Value("${game.lifecycle.finished-retention:60000}") long finishedRetentionMilliseconds,
+                                @Value("${game.lifecycle.abandoned-timeout:120000}") long abandonedTimeoutMilliseconds,
+                                @Value("${game.lifecycle.reap-interval:10000}") long reapIntervalMilliseconds) {
+
+        this.gameShards = gameShards;
+        this.finishedRetentionMilliseconds = finishedRetentionMilliseconds;
+        this.abandonedTimeoutMilliseconds = abandonedTimeoutMilliseconds;
+        this.reapIntervalMilliseconds = reapIntervalMilliseconds;
+        this.reapedGames = new AtomicLong();
+
+    }
+
+    /**
+     * Starts checking the games of every shard periodically on the scheduler of that shard
+     *
+     * @param reaper removes a game that should be reaped from the server
+     */
+    public void start(Consumer<Game> reaper) {
+
+        for(GameShard shard : gameShards.getShards()) {
+            shard.getScheduler().scheduleAtFixedRate(() -> reap(shard, reaper), reapIntervalMilliseconds);
+        }
+
+    }
+
+    /**
+     * Removes all games of a shard that should be reaped
+     *
+     * @param shard  the shard to check
+     * @param reaper removes a game from the server
+     */
+    public void reap(GameShard shard, Consumer<Game> reaper) {
+
+        long now = Game.now();
+        for(Game game : shard.getGames()) {
+            if(shouldReap(game, now)) {
+                try {
+                    reaper.accept(game);
+                } catch(RuntimeException e) {
+                    // A game that cannot be removed should not stop the other games from being checked
+                    LOGGER.error("Could not remove game {}", game.getUUID(), e);
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Checks whether a game should be reaped at the specified time
+     *
+     * @param game the game to check
+     * @param now  the current time of the monotonic game clock
+     * @return true if the game should be removed, false otherwise
+     */
+    public boolean shouldReap(Game game, long now) {
+
+        switch(game.getState()) {
+            case RUNNING:
+                return now - game.getLastLongPollTime() > abandonedTimeoutMilliseconds;
+            case FINISHED:
+                return now - game.getFinishedTime() > finishedRetentionMilliseconds;
+            case REAPED:
+                return true;
+            default:
+                // The game in the waiting room is never reaped
+                return false;
+        }
+
+    }
+
+    /**
+     * Counts a game that has been removed from the server
+     */
+    public void gameReaped() {
+
+        reapedGames.incrementAndGet();
+
+    }
+
+    /**
+     * Returns the amount of games that are in the waiting room or running
+     *
+     * @return the amount of live games
+     */
+    public int getLiveGames() {
+
+        return countGames(GameState.LOBBY) + countGames(GameState.RUNNING);
+
+    }
+
+    /**
+     * Returns the amount of finished games that are still kept
+     *
+     * @return the amount of finished games
+     */
+    public int getFinishedGames() {
+
+        return countGames(GameState.FINISHED);
+
+    }
+
+    /**
+     * Returns the amount of games that have been removed since the server started
+     *
+     * @return the amount of reaped games
+     */
+    public long getReapedGames() {
+
+        return reapedGames.get();
+
+    }
+
+    /**
+     * Counts the games in all shards that are in the specified state
+     *
+     * @param state the state of the games to count
+     * @return the amount of games in that state
+     */
+    private int countGames(GameState state) {
+
+        int count = 0;
+        for(GameShard shard : gameShards.getShards()) {
+            for(Game game : shard.getGames()) {
+                if(game.getState() == state) {
+                    count++;
+                }
+            }
+        }
+        return count;
+
+    }
+
+}
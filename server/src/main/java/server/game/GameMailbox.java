@@ -0,0 +1,105 @@
+package server.game;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The mailbox of a game. All commands that change the state of a game (answers, jokers, long poll registrations and
+ * phase transitions) are queued in its mailbox and are executed one after another, in the order in which they were
+ * submitted. At most one command of a game is executed at any time, so the game state only has a single writer. The
+ * mailboxes of many games share a small, fixed pool of carrier threads: whenever a mailbox has queued commands,
+ * one task that drains it is submitted to the carrier.
+ */
+public class GameMailbox implements Executor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GameMailbox.class);
+
+    /**
+     * The maximum amount of commands that is executed before the carrier thread is released to other games
+     */
+    private static final int MAX_COMMANDS_PER_DRAIN = 64;
+
+    private final Executor carrier;
+    private final Queue<Runnable> commands;
+    private final AtomicBoolean drainScheduled;
+
+    /**
+     * Creates a new mailbox
+     *
+     * @param carrier the executor (shared by many mailboxes) that executes the commands
+     */
+    public GameMailbox(Executor carrier) {
+
+        this.carrier = carrier;
+        this.commands = new ConcurrentLinkedQueue<>();
+        this.drainScheduled = new AtomicBoolean(false);
+
+    }
+
+    /**
+     * Queues a command, it is executed after all previously queued commands of this mailbox
+     *
+     * @param command the command to queue
+     */
+    @Override
+    public void execute(Runnable command) {
+
+        commands.add(command);
+        scheduleDrain();
+
+    }
+
+    /**
+     * Returns whether this mailbox has commands that have not been executed yet
+     *
+     * @return true if there are queued commands, false otherwise
+     */
+    public boolean hasPendingCommands() {
+
+        return !commands.isEmpty();
+
+    }
+
+    /**
+     * Submits a drain task to the carrier, unless one is already submitted or running
+     */
+    private void scheduleDrain() {
+
+        if(drainScheduled.compareAndSet(false, true)) {
+            carrier.execute(this::drain);
+        }
+
+    }
+
+    /**
+     * Executes the queued commands on the current (carrier) thread. If there are still commands left afterwards,
+     * a new drain task is submitted so that other mailboxes get their turn in between.
+     */
+    private void drain() {
+
+        try {
+            for(int i = 0; i < MAX_COMMANDS_PER_DRAIN; i++) {
+                Runnable command = commands.poll();
+                if(command == null) break;
+                try {
+                    command.run();
+                } catch(RuntimeException e) {
+                    // A failing command should not stop the following commands of this game
+                    LOGGER.error("A command of a game failed", e);
+                }
+            }
+        } finally {
+            drainScheduled.set(false);
+            if(!commands.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,80 @@
+package server.game;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * The random number generator of a single game, backed by a SplittableRandom. Unlike a shared Random, it is not
+ * synchronized, so it should only be used by one thread at a time; split creates an independent generator for
+ * another thread. It extends Random, so that it can be passed to everything that uses a Random.
+ */
+public class GameRandom extends Random {
+
+    private final SplittableRandom random;
+
+    /**
+     * Creates the random number generator of a game
+     *
+     * @param seed the seed of the game, the same seed always gives the same numbers
+     */
+    public GameRandom(long seed) {
+
+        this(new SplittableRandom(seed));
+
+    }
+
+    /**
+     * Creates a random number generator from a SplittableRandom
+     *
+     * @param random the SplittableRandom that generates the numbers
+     */
+    private GameRandom(SplittableRandom random) {
+
+        super(0L);
+        this.random = random;
+
+    }
+
+    /**
+     * Creates a new generator that does not share its state with this one. The numbers it generates only depend on
+     * the state of this generator when it is split.
+     *
+     * @return the new generator
+     */
+    public GameRandom split() {
+
+        return new GameRandom(random.split());
+
+    }
+
+    @Override
+    protected int next(int bits) {
+        return random.nextInt() >>> (32 - bits);
+    }
+
+    @Override
+    public int nextInt() {
+        return random.nextInt();
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+
+    @Override
+    public long nextLong() {
+        return random.nextLong();
+    }
+
+    @Override
+    public double nextDouble() {
+        return random.nextDouble();
+    }
+
+    @Override
+    public boolean nextBoolean() {
+        return random.nextBoolean();
+    }
+
+}
@@ -0,0 +1,132 @@
+package server.game;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RunnableScheduledFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Schedules the phase transitions (next question, transition period, leaderboard...) of games on a small,
+ * fixed amount of threads. This replaces creating a new Timer (and therefore a new thread) for every phase change of
+ * every game, so that the amount of threads stays the same no matter how many games are running. The same threads are
+ * the carrier threads that execute the commands in the game mailboxes. Every game shard has its own scheduler.
+ */
+public class GameScheduler implements Executor {
+
+    private final ScheduledThreadPoolExecutor executor;
+
+    /**
+     * Creates the game scheduler
+     *
+     * @param threads the amount of threads that execute the scheduled tasks, if this is not positive, the amount of
+     *                available processors is used
+     */
+    public GameScheduler(int threads) {
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ScheduledThreadPoolExecutor(poolSize, new GameThreadFactory());
+        // Cancelled tasks (e.g. of games that were stopped) should not stay in the queue until their delay is over
+        this.executor.setRemoveOnCancelPolicy(true);
+
+    }
+
+    /**
+     * Schedules a task to be executed once after the given delay
+     *
+     * @param task                the task to execute
+     * @param delayInMilliseconds the delay in milliseconds after which the task is executed
+     * @return the future of the scheduled task, which can be used to cancel it
+     */
+    public ScheduledFuture<?> schedule(Runnable task, long delayInMilliseconds) {
+
+        return executor.schedule(task, delayInMilliseconds, TimeUnit.MILLISECONDS);
+
+    }
+
+    /**
+     * Schedules a task to be executed repeatedly, until it is cancelled or this scheduler is stopped
+     *
+     * @param task                 the task to execute
+     * @param periodInMilliseconds the time in milliseconds between two executions, the first execution is after one
+     *                             period as well
+     * @return the future of the scheduled task, which can be used to cancel it
+     */
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, long periodInMilliseconds) {
+
+        return executor.scheduleAtFixedRate(task, periodInMilliseconds, periodInMilliseconds, TimeUnit.MILLISECONDS);
+
+    }
+
+    /**
+     * Executes a task on one of the threads of this scheduler as soon as possible
+     *
+     * @param task the task to execute
+     */
+    @Override
+    public void execute(Runnable task) {
+
+        executor.execute(task);
+
+    }
+
+    /**
+     * Returns the amount of one-shot timers that are scheduled but have not been executed yet, periodic tasks (which
+     * are always pending) are not counted
+     *
+     * @return the amount of pending timers
+     */
+    public int getPendingTimers() {
+
+        int count = 0;
+        for(Runnable task : executor.getQueue()) {
+            if(!(task instanceof RunnableScheduledFuture) || !((RunnableScheduledFuture<?>) task).isPeriodic()) {
+                count++;
+            }
+        }
+        return count;
+
+    }
+
+    /**
+     * Returns the amount of threads currently used by this scheduler
+     *
+     * @return the amount of threads of this scheduler
+     */
+    public int getThreadCount() {
+
+        return executor.getPoolSize();
+
+    }
+
+    /**
+     * Stops the scheduler, pending timers are not executed anymore
+     */
+    public void shutdown() {
+
+        executor.shutdownNow();
+
+    }
+
+    /**
+     * Creates the (daemon) threads of the game scheduler, so that they can be recognized in thread dumps and do not
+     * keep the server alive
+     */
+    private static class GameThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger threadCount = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+
+            Thread thread = new Thread(runnable, "game-scheduler-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+
+        }
+
+    }
+
+}
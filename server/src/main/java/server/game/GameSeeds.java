@@ -0,0 +1,53 @@
+package server.game;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.SplittableRandom;
+
+/**
+ * Hands out the seeds of the games. The seeds are drawn from a single stream that starts at the server seed, so the
+ * seeds of all games follow from the server seed, and the questions of a game can be generated again from its seed.
+ */
+@Component
+public class GameSeeds {
+
+    private final long serverSeed;
+    private final SplittableRandom seeds;
+
+    /**
+     * Creates the source of the game seeds
+     *
+     * @param serverSeed the seed from which the seeds of the games are drawn, or 0 to use a different seed every time
+     *                   the server starts
+     */
+    public GameSeeds(@Value("${game.seed:0}") long serverSeed) {
+
+        this.serverSeed = serverSeed != 0 ? serverSeed : new SplittableRandom().nextLong();
+        this.seeds = new SplittableRandom(this.serverSeed);
+
+    }
+
+    /**
+     * Returns the seed for a new game
+     *
+     * @return the seed of the game
+     */
+    public synchronized long next() {
+
+        return seeds.nextLong();
+
+    }
+
+    /**
+     * Returns the seed from which the seeds of the games are drawn
+     *
+     * @return the server seed
+     */
+    public long getServerSeed() {
+
+        return serverSeed;
+
+    }
+
+}
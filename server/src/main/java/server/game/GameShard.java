@@ -0,0 +1,164 @@
+package server.game;
+
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * One partition of the games on this server. A shard owns its games and has its own single-threaded game scheduler,
+ * which executes the phase transitions and the mailboxes of all of its games, and its own threads for the work of its
+ * games that blocks. Games in different shards therefore never wait on each other.
+ */
+public class GameShard {
+
+    private final int index;
+    private final ConcurrentHashMap<UUID, Game> games;
+    private final GameScheduler scheduler;
+    private final ExecutorService blockingExecutor;
+
+    /**
+     * Creates a new shard
+     *
+     * @param index            the index of this shard
+     * @param scheduler        the scheduler that executes the phase transitions and commands of the games of this
+     *                         shard
+     * @param blockingExecutor the executor for the work of the games of this shard that blocks
+     */
+    public GameShard(int index, GameScheduler scheduler, ExecutorService blockingExecutor) {
+
+        this.index = index;
+        this.games = new ConcurrentHashMap<>();
+        this.scheduler = scheduler;
+        this.blockingExecutor = blockingExecutor;
+
+    }
+
+    /**
+     * Returns the index of this shard
+     *
+     * @return the index of this shard
+     */
+    public int getIndex() {
+
+        return index;
+
+    }
+
+    /**
+     * Returns the scheduler of this shard
+     *
+     * @return the scheduler of this shard
+     */
+    public GameScheduler getScheduler() {
+
+        return scheduler;
+
+    }
+
+    /**
+     * Returns the executor for the work of the games of this shard that blocks, e.g. generating questions or saving
+     * scores. The results are handed back to a game through its mailbox.
+     *
+     * @return the executor for blocking work
+     */
+    public ExecutorService getBlockingExecutor() {
+
+        return blockingExecutor;
+
+    }
+
+    /**
+     * Adds a game to this shard
+     *
+     * @param game the game to add
+     */
+    public void addGame(Game game) {
+
+        games.put(game.getUUID(), game);
+
+    }
+
+    /**
+     * Gets a game of this shard by its UUID
+     *
+     * @param uuid the UUID of the game
+     * @return the game with the specified UUID, or null if this shard does not contain it
+     */
+    public Game getGame(UUID uuid) {
+
+        return games.get(uuid);
+
+    }
+
+    /**
+     * Removes a game from this shard
+     *
+     * @param uuid the UUID of the game to remove
+     * @return true if the game was removed, false if this shard did not contain it
+     */
+    public boolean removeGame(UUID uuid) {
+
+        return games.remove(uuid) != null;
+
+    }
+
+    /**
+     * Returns all games of this shard
+     *
+     * @return the games of this shard
+     */
+    public Collection<Game> getGames() {
+
+        return games.values();
+
+    }
+
+    /**
+     * Returns the amount of games in this shard
+     *
+     * @return the amount of games
+     */
+    public int getGameCount() {
+
+        return games.size();
+
+    }
+
+    /**
+     * Returns the amount of players in all games of this shard, which is used as the load of this shard
+     *
+     * @return the amount of players
+     */
+    public int getPlayerCount() {
+
+        int count = 0;
+        for(Game game : games.values()) {
+            count += game.getPlayerCount();
+        }
+        return count;
+
+    }
+
+    /**
+     * Returns the amount of phase transitions of the games of this shard that have not been executed yet
+     *
+     * @return the amount of pending timers
+     */
+    public int getPendingTimers() {
+
+        return scheduler.getPendingTimers();
+
+    }
+
+    /**
+     * Stops the scheduler and the threads for blocking work of this shard
+     */
+    public void shutdown() {
+
+        scheduler.shutdown();
+        blockingExecutor.shutdown();
+
+    }
+
+}
@@ -0,0 +1,186 @@
+package server.game;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Partitions the games on this server by their UUID into a fixed amount of shards (by default one per available
+ * processor). The shard of a game is determined by the hash of its UUID, so finding a game only looks in a single
+ * shard. New games are placed on the least loaded shard by giving them a UUID that hashes to that shard.
+ * The work of the games that waits for something else (the database or the question generation) is executed by a
+ * separate pool of threads of every shard, so it never stalls the single thread of a shard and the other games on it,
+ * and slow work of one shard never delays the games of another shard.
+ */
+@Component
+public class GameShards {
+
+    private final List<GameShard> shards;
+
+    /**
+     * Creates the game shards, each shard gets its own single-threaded scheduler, and the blocking work of the games
+     * of each shard is executed by 2 threads of that shard
+     *
+     * @param shardCount the amount of shards, if this is not positive, the amount of available processors is used
+     */
+    public GameShards(int shardCount) {
+
+        this(shardCount, 2);
+
+    }
+
+    /**
+     * Creates the game shards, each shard gets its own single-threaded scheduler and its own threads for blocking
+     * work
+     *
+     * @param shardCount      the amount of shards, if this is not positive, the amount of available processors is
+     *                        used
+     * @param blockingThreads the amount of threads of every shard that execute the blocking work of its games
+     */
+    @Autowired
+    public GameShards(@Value("${game.shards:0}") int shardCount,
+                      @Value("${game.blocking-threads-per-shard:2}") int blockingThreads) {
+
+        int count = shardCount > 0 ? shardCount : Runtime.getRuntime().availableProcessors();
+
+        List<GameShard> shards = new ArrayList<>(count);
+        for(int i = 0; i < count; i++) {
+            shards.add(new GameShard(i, new GameScheduler(1), createBlockingExecutor(i, blockingThreads)));
+        }
+        this.shards = Collections.unmodifiableList(shards);
+
+    }
+
+    /**
+     * Creates the executor for the blocking work of the games of a shard, its threads are named after the shard
+     *
+     * @param index   the index of the shard
+     * @param threads the amount of threads
+     * @return the executor
+     */
+    private static ExecutorService createBlockingExecutor(int index, int threads) {
+
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "game-blocking-" + index + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+    }
+
+    /**
+     * Returns the shard that the game with the specified UUID belongs to
+     *
+     * @param uuid the UUID of the game
+     * @return the shard of the game
+     */
+    public GameShard shardOf(UUID uuid) {
+
+        return shards.get(Math.floorMod(uuid.hashCode(), shards.size()));
+
+    }
+
+    /**
+     * Gets a game by its UUID
+     *
+     * @param uuid the UUID of the game
+     * @return the game with the specified UUID, or null if it does not exist
+     */
+    public Game getGame(UUID uuid) {
+
+        return shardOf(uuid).getGame(uuid);
+
+    }
+
+    /**
+     * Returns the shard with the least players, if several shards have the same amount of players, the one with
+     * the least games is returned
+     *
+     * @return the least loaded shard
+     */
+    public GameShard getLeastLoadedShard() {
+
+        GameShard leastLoaded = null;
+        int leastPlayers = Integer.MAX_VALUE;
+        int leastGames = Integer.MAX_VALUE;
+
+        for(GameShard shard : shards) {
+            int players = shard.getPlayerCount();
+            int games = shard.getGameCount();
+            if(players < leastPlayers || (players == leastPlayers && games < leastGames)) {
+                leastLoaded = shard;
+                leastPlayers = players;
+                leastGames = games;
+            }
+        }
+
+        return leastLoaded;
+
+    }
+
+    /**
+     * Creates a random UUID for a new game that belongs to the specified shard. On average, this takes as many tries
+     * as there are shards.
+     *
+     * @param shard the shard the new game should belong to
+     * @return a random UUID that belongs to the shard
+     */
+    public UUID createUUID(GameShard shard) {
+
+        UUID uuid = UUID.randomUUID();
+        while(shardOf(uuid) != shard) {
+            uuid = UUID.randomUUID();
+        }
+        return uuid;
+
+    }
+
+    /**
+     * Returns all shards
+     *
+     * @return the shards, ordered by their index
+     */
+    public List<GameShard> getShards() {
+
+        return shards;
+
+    }
+
+    /**
+     * Returns the amount of phase transitions of all games that are scheduled but have not been executed yet
+     *
+     * @return the amount of pending timers of all shards
+     */
+    public int getPendingTimers() {
+
+        int count = 0;
+        for(GameShard shard : shards) {
+            count += shard.getPendingTimers();
+        }
+        return count;
+
+    }
+
+    /**
+     * Stops the schedulers of all shards and the threads for blocking work
+     */
+    @PreDestroy
+    public void shutdown() {
+
+        for(GameShard shard : shards) {
+            shard.shutdown();
+        }
+
+    }
+
+}
@@ -0,0 +1,28 @@
+package server.game;
+
+/**
+ * The states a game goes through during its lifetime
+ */
+public enum GameState {
+
+    /**
+     * The game is the current game in the waiting room, players can still join
+     */
+    LOBBY,
+
+    /**
+     * The game has been started and is asking questions
+     */
+    RUNNING,
+
+    /**
+     * The game has ended (or could not be started), its results can still be retrieved
+     */
+    FINISHED,
+
+    /**
+     * The game has been removed from the server
+     */
+    REAPED
+
+}
@@ -0,0 +1,405 @@
+package server.game;
+
+import commons.Score;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The leaderboard of a game. It keeps the players ordered by their score (descending, players with the same score
+ * are ordered by their username) while the scores change, so the ranking never has to be sorted. The ranking is a
+ * treap whose nodes are stored in parallel arrays, every node also stores the size of its subtree. The node of a
+ * player is the slot of that player in the player table of the game. Adding points, and looking up the rank of a
+ * player are O(log n) (expected) and do not allocate once a player has been added.
+ * This class is not thread-safe, it is only used by the commands of a single game.
+ */
+public class Leaderboard {
+
+    private static final int NONE = -1;
+    private static final int INITIAL_CAPACITY = 8;
+
+    private String[] usernames;
+    private boolean[] present;
+    private int[] scores;
+    private int[] priorities;
+    private int[] left;
+    private int[] right;
+    private int[] sizes;
+
+    private int root;
+    private int count;
+
+    /**
+     * Creates an empty leaderboard
+     */
+    public Leaderboard() {
+
+        this.usernames = new String[INITIAL_CAPACITY];
+        this.present = new boolean[INITIAL_CAPACITY];
+        this.scores = new int[INITIAL_CAPACITY];
+        this.priorities = new int[INITIAL_CAPACITY];
+        this.left = new int[INITIAL_CAPACITY];
+        this.right = new int[INITIAL_CAPACITY];
+        this.sizes = new int[INITIAL_CAPACITY];
+        this.root = NONE;
+        this.count = 0;
+
+    }
+
+    /**
+     * Adds points to the score of a player, a player that is not on the leaderboard yet is added with these points
+     *
+     * @param slot     the slot of the player
+     * @param username the username of the player
+     * @param points   the amount of points to add
+     */
+    public void addScore(int slot, String username, int points) {
+
+        if(!contains(slot)) {
+            createNode(slot, username, points);
+            root = insert(root, slot);
+            return;
+        }
+
+        // The position of the player in the ranking changes, so the node is taken out and inserted again
+        root = remove(root, slot);
+        scores[slot] += points;
+        left[slot] = NONE;
+        right[slot] = NONE;
+        sizes[slot] = 1;
+        root = insert(root, slot);
+
+    }
+
+    /**
+     * Returns whether a player is on the leaderboard
+     *
+     * @param slot the slot of the player
+     * @return true if the player has a score, false otherwise
+     */
+    public boolean contains(int slot) {
+
+        return slot >= 0 && slot < present.length && present[slot];
+
+    }
+
+    /**
+     * Returns the score of a player
+     *
+     * @param slot the slot of the player
+     * @return the score of the player, or 0 if the player is not on the leaderboard
+     */
+    public int getScore(int slot) {
+
+        return contains(slot) ? scores[slot] : 0;
+
+    }
+
+    /**
+     * Returns the rank of a player, the player with the highest score has rank 1
+     *
+     * @param slot the slot of the player
+     * @return the rank of the player, or 0 if the player is not on the leaderboard
+     */
+    public int getRank(int slot) {
+
+        if(!contains(slot)) return 0;
+
+        int rank = 1;
+        int current = root;
+        while(current != slot) {
+            if(compare(slot, current) < 0) {
+                current = left[current];
+            } else {
+                rank += size(left[current]) + 1;
+                current = right[current];
+            }
+        }
+        return rank + size(left[slot]);
+
+    }
+
+    /**
+     * Returns the scores of the best players, ordered by score descending
+     *
+     * @param amount the maximum amount of scores to return
+     * @return the scores of at most amount best players
+     */
+    public List<Score> getTopScores(int amount) {
+
+        List<Score> result = new ArrayList<>(Math.max(0, Math.min(amount, count)));
+        collect(root, amount, result);
+        return result;
+
+    }
+
+    /**
+     * Returns the scores of all players, ordered by score descending
+     *
+     * @return the scores of all players
+     */
+    public List<Score> toList() {
+
+        return getTopScores(count);
+
+    }
+
+    /**
+     * Returns the amount of players on the leaderboard
+     *
+     * @return the amount of players
+     */
+    public int size() {
+
+        return count;
+
+    }
+
+    /**
+     * Creates the node of a slot, the priority of the node is derived from the slot with a hash function, as it only
+     * has to look random to keep the treap balanced
+     *
+     * @param node     the slot of the player of the node
+     * @param username the username of the player of the node
+     * @param score    the score of the player of the node
+     */
+    private void createNode(int node, String username, int score) {
+
+        if(node >= usernames.length) {
+            int capacity = Math.max(usernames.length * 2, node + 1);
+            usernames = Arrays.copyOf(usernames, capacity);
+            present = Arrays.copyOf(present, capacity);
+            scores = Arrays.copyOf(scores, capacity);
+            priorities = Arrays.copyOf(priorities, capacity);
+            left = Arrays.copyOf(left, capacity);
+            right = Arrays.copyOf(right, capacity);
+            sizes = Arrays.copyOf(sizes, capacity);
+        }
+
+        count++;
+        int hash = (node + 1) * 0x9E3779B9;
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+
+        usernames[node] = username;
+        present[node] = true;
+        scores[node] = score;
+        priorities[node] = hash;
+        left[node] = NONE;
+        right[node] = NONE;
+        sizes[node] = 1;
+
+    }
+
+    /**
+     * Compares the positions of two nodes in the ranking
+     *
+     * @param a the first node
+     * @param b the second node
+     * @return a negative number if a is ranked before b, a positive number if a is ranked after b
+     */
+    private int compare(int a, int b) {
+
+        if(scores[a] != scores[b]) {
+            return scores[a] > scores[b] ? -1 : 1;
+        }
+        return usernames[a].compareTo(usernames[b]);
+
+    }
+
+    /**
+     * Returns the size of a subtree
+     *
+     * @param node the root of the subtree
+     * @return the amount of nodes in the subtree
+     */
+    private int size(int node) {
+
+        return node == NONE ? 0 : sizes[node];
+
+    }
+
+    /**
+     * Recalculates the size of the subtree of a node from its children
+     *
+     * @param node the node to update
+     */
+    private void update(int node) {
+
+        sizes[node] = size(left[node]) + size(right[node]) + 1;
+
+    }
+
+    /**
+     * Inserts a node (without children) into a subtree
+     *
+     * @param subtree the root of the subtree
+     * @param node    the node to insert
+     * @return the new root of the subtree
+     */
+    private int insert(int subtree, int node) {
+
+        if(subtree == NONE) return node;
+
+        if(compare(node, subtree) < 0) {
+            left[subtree] = insert(left[subtree], node);
+            if(priorities[left[subtree]] > priorities[subtree]) {
+                subtree = rotateRight(subtree);
+            }
+        } else {
+            right[subtree] = insert(right[subtree], node);
+            if(priorities[right[subtree]] > priorities[subtree]) {
+                subtree = rotateLeft(subtree);
+            }
+        }
+
+        update(subtree);
+        return subtree;
+
+    }
+
+    /**
+     * Removes a node from a subtree
+     *
+     * @param subtree the root of the subtree
+     * @param node    the node to remove
+     * @return the new root of the subtree
+     */
+    private int remove(int subtree, int node) {
+
+        if(subtree == node) {
+            return merge(left[node], right[node]);
+        }
+
+        if(compare(node, subtree) < 0) {
+            left[subtree] = remove(left[subtree], node);
+        } else {
+            right[subtree] = remove(right[subtree], node);
+        }
+
+        update(subtree);
+        return subtree;
+
+    }
+
+    /**
+     * Merges two subtrees, all nodes of the first subtree have to be ranked before the nodes of the second subtree
+     *
+     * @param first  the root of the first subtree
+     * @param second the root of the second subtree
+     * @return the root of the merged subtree
+     */
+    private int merge(int first, int second) {
+
+        if(first == NONE) return second;
+        if(second == NONE) return first;
+
+        if(priorities[first] > priorities[second]) {
+            right[first] = merge(right[first], second);
+            update(first);
+            return first;
+        }
+
+        left[second] = merge(first, left[second]);
+        update(second);
+        return second;
+
+    }
+
+    /**
+     * Rotates a subtree to the right, so its left child becomes its root
+     *
+     * @param node the root of the subtree
+     * @return the new root of the subtree
+     */
+    private int rotateRight(int node) {
+
+        int newRoot = left[node];
+        left[node] = right[newRoot];
+        right[newRoot] = node;
+        update(node);
+        update(newRoot);
+        return newRoot;
+
+    }
+
+    /**
+     * Rotates a subtree to the left, so its right child becomes its root
+     *
+     * @param node the root of the subtree
+     * @return the new root of the subtree
+     */
+    private int rotateLeft(int node) {
+
+        int newRoot = right[node];
+        right[node] = left[newRoot];
+        left[newRoot] = node;
+        update(node);
+        update(newRoot);
+        return newRoot;
+
+    }
+
+    /**
+     * Adds the scores of a subtree in ranking order to a list, until the list contains the specified amount of scores
+     *
+     * @param subtree the root of the subtree
+     * @param amount  the maximum amount of scores in the list
+     * @param result  the list to add the scores to
+     */
+    private void collect(int subtree, int amount, List<Score> result) {
+
+        if(subtree == NONE || result.size() >= amount) return;
+
+        collect(left[subtree], amount, result);
+        if(result.size() < amount) {
+            result.add(new Score(usernames[subtree], scores[subtree]));
+        }
+        collect(right[subtree], amount, result);
+
+    }
+
+    /**
+     * Checks if two leaderboards contain the same players with the same scores, regardless of their slots
+     *
+     * @param obj the object to which this one will be compared
+     * @return true, if the objects are equal, else false
+     */
+    @Override
+    public boolean equals(Object obj) {
+
+        if(this == obj) return true;
+        if(!(obj instanceof Leaderboard)) return false;
+
+        Leaderboard other = (Leaderboard) obj;
+        return toList().equals(other.toList());
+
+    }
+
+    /**
+     * Generates the hashCode for this object
+     *
+     * @return the hashcode for this object
+     */
+    @Override
+    public int hashCode() {
+
+        return toList().hashCode();
+
+    }
+
+    /**
+     * Generates a string representation of this object
+     *
+     * @return a string representation of this object
+     */
+    @Override
+    public String toString() {
+
+        return toList().toString();
+
+    }
+
+}
@@ -0,0 +1,427 @@
+package server.game;
+
+import commons.Player;
+import commons.Question;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The players of a game and their state during the current question. Every username gets an int slot the first time
+ * it takes part in the game (normally when the player joins), all state of that player is kept in primitive arrays at
+ * that index. The slot of a player that left is kept, so its score stays on the leaderboard and it gets the same slot
+ * back when it joins again. The slots are handed out in the order in which the players joined.
+ * The table is accessed by the commands of the game as well as by the REST controllers, so all methods are
+ * synchronized.
+ */
+public class PlayerTable {
+
+    /**
+     * The slot that is returned for a username that has no slot
+     */
+    public static final int NO_SLOT = -1;
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private final Map<String, Integer> slots;
+
+    private String[] usernames;
+    private Player[] players;
+    private long[] deadlines;
+    private boolean[] answered;
+    private long[] answers;
+    private int[] answerTimes;
+    private int[] points;
+    private boolean[] scoreJokerArmed;
+    private boolean[] scoreJokerUsed;
+
+    private int slotCount;
+    private int playerCount;
+
+    /**
+     * Creates an empty player table
+     */
+    public PlayerTable() {
+
+        this.slots = new HashMap<>();
+        this.usernames = new String[INITIAL_CAPACITY];
+        this.players = new Player[INITIAL_CAPACITY];
+        this.deadlines = new long[INITIAL_CAPACITY];
+        this.answered = new boolean[INITIAL_CAPACITY];
+        this.answers = new long[INITIAL_CAPACITY];
+        this.answerTimes = new int[INITIAL_CAPACITY];
+        this.points = new int[INITIAL_CAPACITY];
+        this.scoreJokerArmed = new boolean[INITIAL_CAPACITY];
+        this.scoreJokerUsed = new boolean[INITIAL_CAPACITY];
+
+    }
+
+    /**
+     * Adds a player, a player with the same username is replaced
+     *
+     * @param player the player to add
+     * @return the slot of the player
+     */
+    public synchronized int addPlayer(Player player) {
+
+        int slot = getOrCreateSlot(player.getUsername());
+        if(players[slot] == null) {
+            playerCount++;
+        }
+        players[slot] = player;
+        return slot;
+
+    }
+
+    /**
+     * Removes a player, its slot (and score) is kept
+     *
+     * @param username the username of the player to remove
+     * @return true if the player was removed, false if there was no player with that username
+     */
+    public synchronized boolean removePlayer(String username) {
+
+        int slot = getSlot(username);
+        if(slot == NO_SLOT || players[slot] == null) return false;
+
+        players[slot] = null;
+        playerCount--;
+        return true;
+
+    }
+
+    /**
+     * Returns a player by its username
+     *
+     * @param username the username of the player
+     * @return the player, or null if there is no player with that username
+     */
+    public synchronized Player getPlayer(String username) {
+
+        int slot = getSlot(username);
+        return slot == NO_SLOT ? null : players[slot];
+
+    }
+
+    /**
+     * Checks whether there is a player with the specified username
+     *
+     * @param username the username to check
+     * @return true if there is a player with that username, false otherwise
+     */
+    public synchronized boolean containsPlayer(String username) {
+
+        return getPlayer(username) != null;
+
+    }
+
+    /**
+     * Returns all players, in the order in which they joined
+     *
+     * @return a list of all players
+     */
+    public synchronized List<Player> getPlayers() {
+
+        List<Player> list = new ArrayList<>(playerCount);
+        for(int slot = 0; slot < slotCount; slot++) {
+            if(players[slot] != null) {
+                list.add(players[slot]);
+            }
+        }
+        return list;
+
+    }
+
+    /**
+     * Returns the amount of players
+     *
+     * @return the amount of players
+     */
+    public synchronized int getPlayerCount() {
+
+        return playerCount;
+
+    }
+
+    /**
+     * Returns the slot of a username
+     *
+     * @param username the username
+     * @return the slot of the username, or NO_SLOT if it has no slot
+     */
+    public synchronized int getSlot(String username) {
+
+        Integer slot = slots.get(username);
+        return slot == null ? NO_SLOT : slot;
+
+    }
+
+    /**
+     * Returns the slot of a username, the username gets a new slot if it does not have one yet
+     *
+     * @param username the username
+     * @return the slot of the username
+     */
+    public synchronized int getOrCreateSlot(String username) {
+
+        Integer slot = slots.get(username);
+        if(slot != null) return slot;
+
+        if(slotCount == usernames.length) {
+            grow();
+        }
+
+        int newSlot = slotCount++;
+        usernames[newSlot] = username;
+        slots.put(username, newSlot);
+        return newSlot;
+
+    }
+
+    /**
+     * Sets the deadline of all slots
+     *
+     * @param deadline the time (of the monotonic game clock) until which the current question can be answered
+     */
+    public synchronized void resetDeadlines(long deadline) {
+
+        Arrays.fill(deadlines, 0, slotCount, deadline);
+
+    }
+
+    /**
+     * Returns the deadline of a slot
+     *
+     * @param slot the slot
+     * @return the time until which the player of the slot can answer the current question
+     */
+    public synchronized long getDeadline(int slot) {
+
+        return deadlines[slot];
+
+    }
+
+    /**
+     * Moves the deadlines of all players except one to the specified part of their remaining time, and returns the
+     * remaining time of every player afterwards
+     *
+     * @param exceptSlot the slot of the player whose deadline is not changed
+     * @param now        the current time of the monotonic game clock
+     * @param factor     the part of the remaining time that the other players keep
+     * @return the remaining time of every player by username, as it is sent in the time joker update
+     */
+    public synchronized ConcurrentHashMap<String, Long> shortenDeadlines(int exceptSlot, long now, double factor) {
+
+        ConcurrentHashMap<String, Long> remainingTimes = new ConcurrentHashMap<>();
+        for(int slot = 0; slot < slotCount; slot++) {
+            if(players[slot] == null) continue;
+
+            long remainingTime = Math.max(0L, deadlines[slot] - now);
+            if(slot != exceptSlot) {
+                remainingTime = (long) (factor * remainingTime);
+                deadlines[slot] = now + remainingTime;
+            }
+            remainingTimes.put(usernames[slot], remainingTime);
+        }
+        return remainingTimes;
+
+    }
+
+    /**
+     * Saves the answer of a slot for the current question
+     *
+     * @param slot       the slot
+     * @param answer     the answer
+     * @param answerTime the time in milliseconds it took to answer
+     */
+    public synchronized void saveAnswer(int slot, long answer, int answerTime) {
+
+        answered[slot] = true;
+        answers[slot] = answer;
+        answerTimes[slot] = answerTime;
+
+    }
+
+    /**
+     * Returns whether a slot has answered the current question
+     *
+     * @param slot the slot
+     * @return true if there is an answer of the slot, false otherwise
+     */
+    public synchronized boolean hasAnswered(int slot) {
+
+        return answered[slot];
+
+    }
+
+    /**
+     * Returns the answer of a slot to the current question
+     *
+     * @param slot the slot
+     * @return the answer, only meaningful if the slot has answered
+     */
+    public synchronized long getAnswer(int slot) {
+
+        return answers[slot];
+
+    }
+
+    /**
+     * Returns the time it took a slot to answer the current question
+     *
+     * @param slot the slot
+     * @return the answer time in milliseconds, only meaningful if the slot has answered
+     */
+    public synchronized int getAnswerTime(int slot) {
+
+        return answerTimes[slot];
+
+    }
+
+    /**
+     * Scores the answers of all slots to a question in one batch, the points can be retrieved with getPoints
+     *
+     * @param question the question that was answered
+     */
+    public synchronized void scoreAnswers(Question question) {
+
+        AnswerScorer.score(question, answered, answers, answerTimes, slotCount, points);
+
+    }
+
+    /**
+     * Returns the points of a slot for the current question, as calculated by the last call of scoreAnswers
+     *
+     * @param slot the slot
+     * @return the points of the slot
+     */
+    public synchronized int getPoints(int slot) {
+
+        return points[slot];
+
+    }
+
+    /**
+     * Removes the answers of all slots
+     */
+    public synchronized void clearAnswers() {
+
+        Arrays.fill(answered, 0, slotCount, false);
+
+    }
+
+    /**
+     * Makes the double points joker available again for all slots
+     */
+    public synchronized void resetScoreJokers() {
+
+        Arrays.fill(scoreJokerArmed, 0, slotCount, false);
+        Arrays.fill(scoreJokerUsed, 0, slotCount, false);
+
+    }
+
+    /**
+     * Arms the double points joker of a slot for the current question, unless it has already been used
+     *
+     * @param slot the slot
+     */
+    public synchronized void armScoreJoker(int slot) {
+
+        if(!scoreJokerUsed[slot]) {
+            scoreJokerArmed[slot] = true;
+        }
+
+    }
+
+    /**
+     * Uses the double points joker of a slot if it is armed, after that it cannot be armed again
+     *
+     * @param slot the slot
+     * @return true if the points of the slot should be doubled, false otherwise
+     */
+    public synchronized boolean useScoreJoker(int slot) {
+
+        if(!scoreJokerArmed[slot]) return false;
+
+        scoreJokerArmed[slot] = false;
+        scoreJokerUsed[slot] = true;
+        return true;
+
+    }
+
+    /**
+     * Doubles the capacity of all arrays
+     */
+    private void grow() {
+
+        int capacity = usernames.length * 2;
+        usernames = Arrays.copyOf(usernames, capacity);
+        players = Arrays.copyOf(players, capacity);
+        deadlines = Arrays.copyOf(deadlines, capacity);
+        answered = Arrays.copyOf(answered, capacity);
+        answers = Arrays.copyOf(answers, capacity);
+        answerTimes = Arrays.copyOf(answerTimes, capacity);
+        points = Arrays.copyOf(points, capacity);
+        scoreJokerArmed = Arrays.copyOf(scoreJokerArmed, capacity);
+        scoreJokerUsed = Arrays.copyOf(scoreJokerUsed, capacity);
+
+    }
+
+    /**
+     * Checks if two player tables contain the same players, regardless of their slots
+     *
+     * @param obj the object to which this one will be compared
+     * @return true, if the objects are equal, else false
+     */
+    @Override
+    public boolean equals(Object obj) {
+
+        if(this == obj) return true;
+        if(!(obj instanceof PlayerTable)) return false;
+
+        PlayerTable other = (PlayerTable) obj;
+        List<Player> players = getPlayers();
+        if(players.size() != other.getPlayerCount()) return false;
+
+        for(Player player : players) {
+            if(!player.equals(other.getPlayer(player.getUsername()))) {
+                return false;
+            }
+        }
+        return true;
+
+    }
+
+    /**
+     * Generates the hashCode for this object
+     *
+     * @return the hashcode for this object
+     */
+    @Override
+    public int hashCode() {
+
+        int hash = 0;
+        for(Player player : getPlayers()) {
+            hash += player.getUsername().hashCode() ^ player.hashCode();
+        }
+        return hash;
+
+    }
+
+    /**
+     * Generates a string representation of this object
+     *
+     * @return a string representation of this object
+     */
+    @Override
+    public String toString() {
+
+        return getPlayers().toString();
+
+    }
+
+}
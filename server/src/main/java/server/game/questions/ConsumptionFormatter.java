@@ -0,0 +1,185 @@
+package server.game.questions;
+
+import java.util.Locale;
+
+/**
+ * Formats consumptions in Wh with SI prefixes, e.g. "1.23 kWh", without String.format. The digits are written into a
+ * buffer that is reused by every thread, so formatting only allocates the resulting string. Whether two consumptions
+ * have the same string can be checked without creating the strings at all.
+ */
+public class ConsumptionFormatter {
+
+    private static final String[] SI_PREFIXES = {"", "k", "M", "G", "T"};
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L, 1000000000L, 10000000000L,
+            100000000000L, 1000000000000L, 10000000000000L, 100000000000000L, 1000000000000000L
+    };
+    /**
+     * Up to this amount of digits, the rounded number is printed exactly like String.format would print it
+     */
+    private static final long EXACT_DIGITS_LIMIT = 1000000000000000L;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(32));
+
+    /**
+     * Creates a string from a given consumption in Wh that is rounded to the provided amount of decimals and uses SI
+     * prefixes such as k (kilo, i.e. 1 000) and M (Mega, i.e. 1 000 000) to make it easier to read
+     *
+     * @param consumption      the consumption in Wh
+     * @param amountOfDecimals the amount of decimals
+     * @return a string of the consumption using SI prefixes and rounded to the provided amount of decimals, or an
+     * IllegalArgumentException if the amount of decimals or the consumption is negative
+     */
+    public String format(long consumption, int amountOfDecimals) throws IllegalArgumentException {
+
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        appendTo(buffer, consumption, amountOfDecimals);
+        return buffer.toString();
+
+    }
+
+    /**
+     * Appends the string of a given consumption, as created by format, to a string builder
+     *
+     * @param builder          the string builder to append to
+     * @param consumption      the consumption in Wh
+     * @param amountOfDecimals the amount of decimals
+     */
+    public void appendTo(StringBuilder builder, long consumption, int amountOfDecimals) {
+
+        if(amountOfDecimals < 0) throw new IllegalArgumentException("Amount of decimals cannot be negative!");
+        if(consumption < 0) throw new IllegalArgumentException("Consumption cannot be negative!");
+
+        if(consumption < 1000) {
+            builder.append(consumption).append(" Wh");
+            return;
+        }
+
+        int steps = getSteps(consumption);
+        long digits = getRoundedDigits(consumption, steps, amountOfDecimals);
+        if(digits >= EXACT_DIGITS_LIMIT) {
+            // The double of the rounded number might not be printed as these digits, so it is printed like before
+            double rounded = ((double) digits) / Math.pow(10, amountOfDecimals);
+            builder.append(String.format(Locale.ENGLISH, "%." + amountOfDecimals + "f", rounded));
+        } else {
+            // There are less than 15 digits, so the amount of decimals is less than 15 too
+            long factor = POWERS_OF_TEN[amountOfDecimals];
+            builder.append(digits / factor);
+            if(amountOfDecimals > 0) {
+                builder.append('.');
+                long fraction = digits % factor;
+                for(long power = factor / 10; power > fraction && power > 1; power /= 10) {
+                    builder.append('0');
+                }
+                builder.append(fraction);
+            }
+        }
+        builder.append(' ').append(SI_PREFIXES[steps]).append("Wh");
+
+    }
+
+    /**
+     * Returns whether two consumptions have the same string, without creating the strings
+     *
+     * @param first            the first consumption in Wh (non-negative)
+     * @param second           the second consumption in Wh (non-negative)
+     * @param amountOfDecimals the amount of decimals of the strings
+     * @return true if format gives the same string for both consumptions, false otherwise
+     */
+    public boolean haveSameString(long first, long second, int amountOfDecimals) {
+
+        if(first == second) return true;
+        if(first < 1000 || second < 1000) return false;
+
+        // The string only depends on the prefix and the rounded digits
+        int steps = getSteps(first);
+        return steps == getSteps(second)
+                && getRoundedDigits(first, steps, amountOfDecimals) == getRoundedDigits(second, steps, amountOfDecimals);
+
+    }
+
+    /**
+     * Returns the range of consumptions that have the same string as a given consumption
+     *
+     * @param consumption      the consumption in Wh (non-negative)
+     * @param amountOfDecimals the amount of decimals of the strings
+     * @return an array with the lowest (idx 0) and highest (idx 1) consumption with the same string
+     */
+    public long[] getRange(long consumption, int amountOfDecimals) {
+
+        if(consumption < 1000) return new long[]{consumption, consumption};
+
+        // The consumptions with the same string are consecutive, and at most half of the last decimal away, so the
+        // first and last of them can be found with a binary search
+        double scale = Math.pow(1000, getSteps(consumption));
+        long radius = (long) Math.ceil(scale * 0.5 / Math.pow(10, amountOfDecimals)) + 1;
+
+        long low = Math.max(0, consumption - radius);
+        long high = consumption;
+        while(low < high) {
+            long middle = low + (high - low) / 2;
+            if(haveSameString(middle, consumption, amountOfDecimals)) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        long min = low;
+
+        low = consumption;
+        high = consumption > Long.MAX_VALUE - radius ? Long.MAX_VALUE : consumption + radius;
+        while(low < high) {
+            long middle = low + (high - low + 1) / 2;
+            if(haveSameString(middle, consumption, amountOfDecimals)) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return new long[]{min, low};
+
+    }
+
+    /**
+     * Returns the amount of divisions by 1 000 that are used for the SI prefix of a consumption (at most 4)
+     *
+     * @param consumption the consumption in Wh
+     * @return the amount of division steps
+     */
+    private int getSteps(long consumption) {
+
+        double value = (double) consumption;
+        int steps = 0;
+        while(value >= 1000.0 && steps < 4) {
+            value /= 1000.0;
+            steps++;
+        }
+        return steps;
+
+    }
+
+    /**
+     * Returns the digits of a consumption that is divided by 1 000 a number of times and rounded to an amount of
+     * decimals, e.g. 123 for 1 234 Wh (1.23 kWh)
+     *
+     * @param consumption      the consumption in Wh
+     * @param steps            the amount of division steps
+     * @param amountOfDecimals the amount of decimals
+     * @return the rounded digits
+     */
+    private long getRoundedDigits(long consumption, int steps, int amountOfDecimals) {
+
+        // Divides step by step, exactly like the rounding has always been done, so that the result is the same
+        double value = (double) consumption;
+        for(int i = 0; i < steps; i++) {
+            value /= 1000.0;
+        }
+        double roundingFactor = amountOfDecimals < POWERS_OF_TEN.length
+                ? (double) POWERS_OF_TEN[amountOfDecimals]
+                : Math.pow(10, amountOfDecimals);
+        return Math.round(value * roundingFactor);
+
+    }
+
+}
@@ -0,0 +1,157 @@
+package server.game.questions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The whole numbers in a range, without some excluded ranges, stored as sorted and disjoint intervals. A number is
+ * drawn uniformly from all allowed numbers with a single random double, instead of drawing from the whole range and
+ * trying again until the number is not excluded. Because the amount of allowed numbers is known, this also tells
+ * how likely it would be to draw an allowed number from the whole range.
+ */
+public class IntervalSampler {
+
+    private final long upper;
+    private final long rangeSize;
+
+    // The allowed numbers are [starts[i], ends[i]), sorted and disjoint
+    private final long[] starts;
+    private final long[] ends;
+    // The combined length of all allowed intervals before interval i
+    private final long[] offsets;
+    private final long allowedSize;
+
+    /**
+     * Creates the sampler for a range, in which numbers are drawn like lower + random * (upper - lower), so the upper
+     * bound itself is not included, unless both bounds are equal.
+     *
+     * @param lower    the lower bound of the range (inclusive)
+     * @param upper    the upper bound of the range
+     * @param excluded the ranges that should be excluded, as arrays of a minimum and maximum (both inclusive),
+     *                 ranges that are empty or outside the range are ignored
+     */
+    public IntervalSampler(long lower, long upper, List<long[]> excluded) {
+
+        if(lower > upper) throw new IllegalArgumentException("The lower bound cannot be greater than the upper bound!");
+
+        this.upper = upper;
+        // If both bounds are equal, the bound is the only number in the range
+        long end = upper > lower ? upper : lower + 1;
+        this.rangeSize = end - lower;
+
+        long[][] sorted = excluded.stream()
+                .filter(range -> range[0] <= range[1] && range[1] >= lower && range[0] < end)
+                .sorted(Comparator.comparingLong(range -> range[0]))
+                .toArray(long[][]::new);
+
+        // Every excluded range can split the range once more
+        long[] allowedStarts = new long[sorted.length + 1];
+        long[] allowedEnds = new long[sorted.length + 1];
+        int count = 0;
+        long position = lower;
+        for(long[] range : sorted) {
+            if(range[0] > position) {
+                allowedStarts[count] = position;
+                allowedEnds[count] = range[0];
+                count++;
+            }
+            // The maximum is cropped to the range first, so adding one cannot overflow
+            position = Math.max(position, Math.min(range[1], end - 1) + 1);
+        }
+        if(position < end) {
+            allowedStarts[count] = position;
+            allowedEnds[count] = end;
+            count++;
+        }
+
+        this.starts = Arrays.copyOf(allowedStarts, count);
+        this.ends = Arrays.copyOf(allowedEnds, count);
+        this.offsets = new long[count];
+        long size = 0;
+        for(int i = 0; i < count; i++) {
+            offsets[i] = size;
+            size += ends[i] - starts[i];
+        }
+        this.allowedSize = size;
+
+    }
+
+    /**
+     * Draws a random number from the allowed numbers. Every allowed number is equally likely, just like drawing from
+     * the whole range until an allowed number is found, but only a single random double is used.
+     *
+     * @param random the random number generator to use
+     * @return a random allowed number
+     */
+    public long sample(Random random) {
+
+        if(allowedSize == 0) throw new IllegalStateException("All numbers in the range are excluded!");
+
+        double position = random.nextDouble() * allowedSize;
+        if(position >= allowedSize) {
+            // Only happens when the generator returns 1.0, which gives the upper bound for the whole range too
+            int last = ends.length - 1;
+            return ends[last] == upper ? upper : ends[last] - 1;
+        }
+
+        int interval = Arrays.binarySearch(offsets, (long) position);
+        if(interval < 0) interval = -interval - 2;
+        long value = starts[interval] + (long) (position - offsets[interval]);
+        // Rounding of large doubles must not move the number into the next (excluded) range
+        return Math.min(value, ends[interval] - 1);
+
+    }
+
+    /**
+     * Returns whether all numbers in the range are excluded
+     *
+     * @return true if no number can be drawn, false otherwise
+     */
+    public boolean isEmpty() {
+
+        return allowedSize == 0;
+
+    }
+
+    /**
+     * Returns the amount of numbers that can be drawn
+     *
+     * @return the amount of allowed numbers
+     */
+    public long getAllowedSize() {
+
+        return allowedSize;
+
+    }
+
+    /**
+     * Returns the fraction of the range that is allowed, i.e. the probability that a number drawn from the whole range
+     * would not be excluded
+     *
+     * @return the fraction of allowed numbers, between 0 and 1
+     */
+    public double getAllowedFraction() {
+
+        return (double) allowedSize / rangeSize;
+
+    }
+
+    /**
+     * Returns the allowed intervals, as arrays of a minimum and maximum (both inclusive)
+     *
+     * @return the sorted and disjoint allowed intervals
+     */
+    public List<long[]> getAllowedIntervals() {
+
+        List<long[]> intervals = new ArrayList<>();
+        for(int i = 0; i < starts.length; i++) {
+            intervals.add(new long[]{starts[i], ends[i] - 1});
+        }
+        return intervals;
+
+    }
+
+}
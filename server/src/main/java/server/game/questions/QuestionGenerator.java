@@ -1,22 +1,60 @@
 package server.game.questions;
 
 import commons.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import server.database.ActivityBand;
+import server.database.ActivityCatalog;
 import server.database.ActivityDBController;
 import server.database.QuestionDBController;
+import server.game.GameRandom;
+import server.game.GameSeeds;
 
+import javax.annotation.PreDestroy;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.function.Predicate;
 
 @Component
 public class QuestionGenerator {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(QuestionGenerator.class);
+
+    /**
+     * The amount of activities that are tried before giving up on generating a question of a type
+     */
+    private static final int MAX_QUESTION_ATTEMPTS = 100;
+    /**
+     * The amount of duplicate questions in a row after which a question type is considered to be out of questions
+     */
+    private static final int MAX_DUPLICATE_ATTEMPTS = 50;
+    /**
+     * The amount of questions per question type that are skipped because the players have seen their activity,
+     * after which such questions are used anyway
+     */
+    private static final int MAX_SEEN_SKIPS = 20;
+    private static final int QUESTION_TYPES = 4;
+    private static final int QUESTIONS_PER_GAME = 20;
+
     private final Random random;
     private final ActivityDBController activityDBController;
     private final QuestionDBController questionDBController;
     private final QuestionGeneratorUtils utils;
+    private final GameSeeds gameSeeds;
+    /**
+     * The pool that the question types of a game are generated on, or null if they are generated one after another.
+     * The generation waits for the databases, so it has its own pool instead of the common fork-join pool.
+     */
+    private final ForkJoinPool generationPool;
 
     /**
-     * Creates the question generator
+     * Creates the question generator, which generates the questions of a game one after another
      *
      * @param random               the random number generator to be used by this controller
      * @param activityDBController the interface with the activity database to be used for generation
@@ -28,10 +66,63 @@ public class QuestionGenerator {
                              QuestionDBController questionDBController,
                              QuestionGeneratorUtils utils) {
 
+        this(random, activityDBController, questionDBController, utils, new GameSeeds(0), false);
+
+    }
+
+    /**
+     * Creates the question generator, with a thread per question type if the question types are generated at the
+     * same time
+     *
+     * @param random               the random number generator to be used by this controller
+     * @param activityDBController the interface with the activity database to be used for generation
+     * @param questionDBController the interface with the question database to be used for generation
+     * @param utils                instance of utility class for question generation
+     * @param gameSeeds            the source of the seeds of the question sets of the games
+     * @param parallel             whether the question types of a game are generated at the same time
+     */
+    public QuestionGenerator(Random random,
+                             ActivityDBController activityDBController,
+                             QuestionDBController questionDBController,
+                             QuestionGeneratorUtils utils,
+                             GameSeeds gameSeeds,
+                             boolean parallel) {
+
+        this(random, activityDBController, questionDBController, utils, gameSeeds, parallel, QUESTION_TYPES);
+
+    }
+
+    /**
+     * Creates the question generator
+     *
+     * @param random               the random number generator to be used by this controller
+     * @param activityDBController the interface with the activity database to be used for generation
+     * @param questionDBController the interface with the question database to be used for generation
+     * @param utils                instance of utility class for question generation
+     * @param gameSeeds            the source of the seeds of the question sets of the games
+     * @param parallel             whether the question types of a game are generated at the same time, on the
+     *                             generation pool of this generator
+     * @param parallelism          the amount of threads of the generation pool, which is shared by all games
+     */
+    @Autowired
+    public QuestionGenerator(Random random,
+                             ActivityDBController activityDBController,
+                             QuestionDBController questionDBController,
+                             QuestionGeneratorUtils utils,
+                             GameSeeds gameSeeds,
+                             @Value("${game.question-generation.parallel:true}") boolean parallel,
+                             @Value("${game.question-generation.parallelism:4}") int parallelism) {
+
         this.random = random;
         this.activityDBController = activityDBController;
         this.questionDBController = questionDBController;
         this.utils = utils;
+        this.gameSeeds = gameSeeds;
+        this.generationPool = parallel ? new ForkJoinPool(Math.max(1, parallelism), pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("question-generation-" + thread.getPoolIndex());
+            return thread;
+        }, null, false) : null;
 
     }
 
@@ -42,12 +133,41 @@ public class QuestionGenerator {
      */
     public Question getRandomQuestion() {
 
-        int type = random.nextInt(4);
+        return store(getQuestion(random.nextInt(QUESTION_TYPES), random, activityDBController.getCatalog()));
+
+    }
+
+    /**
+     * Saves a question that is generated on its own. The questions of a game are only saved once all of them are
+     * generated, so the questions that are not used are never saved.
+     *
+     * @param question The question, or null if no question could be generated
+     * @return The question
+     */
+    private Question store(Question question) {
+
+        if(question != null) {
+            questionDBController.add(question);
+        }
+        return question;
+
+    }
+
+    /**
+     * Returns a question of a given type generated from a random activity selected from the database
+     *
+     * @param type    The question type: 0 for general, 1 for which is more, 2 for comparison and 3 for estimation
+     * @param random  The random number generator to use
+     * @param catalog The catalog to select the activities from
+     * @return A Question, or null if no question can be generated
+     */
+    private Question getQuestion(int type, Random random, ActivityCatalog catalog) {
+
         return switch(type) {
-            case 0 -> getGeneralQuestion();
-            case 1 -> getWhichIsMoreQuestion();
-            case 2 -> getComparisonQuestion();
-            case 3 -> getEstimationQuestion();
+            case 0 -> getGeneralQuestion(random, catalog);
+            case 1 -> getWhichIsMoreQuestion(random, catalog);
+            case 2 -> getComparisonQuestion(random, catalog);
+            case 3 -> getEstimationQuestion(random, catalog);
             default -> null;
         };
 
@@ -60,130 +180,154 @@ public class QuestionGenerator {
      */
     public Question getGeneralQuestion() {
 
+        return store(getGeneralQuestion(random, activityDBController.getCatalog()));
+
+    }
+
+    /**
+     * Returns a random general question generated from a random activity selected from the database
+     *
+     * @param random  The random number generator to use
+     * @param catalog The catalog to select the activities from
+     * @return A GeneralQuestion, or null if no question can be generated
+     */
+    private Question getGeneralQuestion(Random random, ActivityCatalog catalog) {
+
         try {
-            // First retrieve a random activity from the database.
-            Activity a = activityDBController.getRandomActivity();
-            if(a == null) {
-                return null; // Something went wrong when trying to retrieve an activity.
-            }
+            for(int attempt = 0; attempt < MAX_QUESTION_ATTEMPTS; attempt++) {
+                // First retrieve a random activity from the database.
+                Activity a = catalog.getRandomActivity(random);
+                if(a == null) {
+                    return null; // Something went wrong when trying to retrieve an activity.
+                }
 
-            String mainConsumptionString = utils.createConsumptionString(a.consumption);
-            long[] consumptions = new long[2];
-            // Use "smart" bound generation
-            long[] bounds = utils.getBoundsGeneralQuestion(a.consumption);
-
-            // Generate the first answer option, while excluding the real answer and a range around it.
-            // Check if a number can be generated. If the probability of randomly selecting a valid number is under 30%,
-            // a new general question should be generated, as otherwise StackOverflow errors might be thrown.
-            if(!utils.checkIfGeneratable(List.of(a.consumption), 0.1, bounds[0], bounds[1])) {
-                // Might generate StackOverFlowErrors, try again
-                return getGeneralQuestion();
-            }
-            // Generate the consumption, while taking the conditions (bounds, exclusion...) into account.
-            consumptions[0] = utils.randomLongInRangeExcl(
-                    bounds[0],
-                    bounds[1],
-                    random,
-                    List.of(mainConsumptionString),
-                    List.of(a.consumption),
-                    0.1
-            );
-            String secondConsumptionString = utils.createConsumptionString(consumptions[0]);
-
-            // Generate the second answer option, while excluding the previous answer options and a ranges around them.
-            // Check if a number can be generated. If the probability of randomly selecting a valid number is under 30%,
-            // a new general question should be generated, as otherwise StackOverflow errors might be thrown.
-            if(!utils.checkIfGeneratable(List.of(a.consumption, consumptions[0]), 0.1, bounds[0], bounds[1])) {
-                // Might generate StackOverFlowErrors, try again
-                return getGeneralQuestion();
+                Question toReturn = getGeneralQuestion(a, random, catalog);
+                if(toReturn != null) {
+                    return toReturn;
+                }
             }
-            // Generate the consumption, while taking the conditions (bounds, exclusion...) into account.
-            consumptions[1] = utils.randomLongInRangeExcl(
-                    bounds[0],
-                    bounds[1],
-                    random,
-                    List.of(mainConsumptionString, secondConsumptionString),
-                    List.of(a.consumption, consumptions[0]),
-                    0.1
-            );
-
-            // Create the answer option list using the SI strings.
-            List<String> aw = new ArrayList<>();
-            aw.add(mainConsumptionString);
-            aw.add(secondConsumptionString);
-            aw.add(utils.createConsumptionString(consumptions[1]));
-            Collections.shuffle(aw);
-
-            // Return and save generated question.
-            Question toReturn = new GeneralQuestion(a, aw, aw.indexOf(mainConsumptionString) + 1);
-            questionDBController.add(toReturn);
-            return toReturn;
-        } catch(StackOverflowError e) {
-            // StackOverflowError: No good number could be found in the generated range, many times in a row.
-            // This should not be the case, as the safety check should prohibit this. So, if this is the case,
-            // it is because no question can be generated from the database (at all).
-            System.out.println("Error: No valid question could be generated from the database.");
+            // No good numbers could be generated for many activities in a row, so it is assumed that no question can
+            // be generated from the database (at all).
             return null;
         } catch(Exception e) {
-            e.printStackTrace();
+            LOGGER.warn("Could not generate a general question", e);
             return null;
         }
 
     }
 
+    /**
+     * Returns a general question generated from a given activity
+     *
+     * @param a       The activity to generate the question from
+     * @param random  The random number generator to use
+     * @param catalog The catalog that caches the consumption strings of the activities
+     * @return A GeneralQuestion, or null if the range around the consumption is too small to generate answer options
+     */
+    private Question getGeneralQuestion(Activity a, Random random, ActivityCatalog catalog) {
+
+        // The string of the consumption of an activity is cached
+        String mainConsumptionString = catalog.getConsumptionString(a.consumption);
+        long[] consumptions = new long[2];
+        // Use "smart" bound generation
+        long[] bounds = utils.getBoundsGeneralQuestion(a.consumption);
+
+        // Generate the first answer option, while excluding the real answer and a range around it.
+        // If the probability of randomly selecting a valid number is under 50%, the options would be too close to
+        // each other, so another activity should be used.
+        // The SI strings of the excluded consumptions are excluded too, which is done by comparing consumptions.
+        IntervalSampler sampler = utils.createConsumptionSampler(bounds[0], bounds[1], List.of(a.consumption), 0.1);
+        if(sampler.getAllowedFraction() < 0.5) {
+            return null;
+        }
+        consumptions[0] = sampler.sample(random);
+        String secondConsumptionString = utils.createConsumptionString(consumptions[0]);
+
+        // Generate the second answer option, while excluding the previous answer options and a ranges around them.
+        sampler = utils.createConsumptionSampler(bounds[0], bounds[1], List.of(a.consumption, consumptions[0]), 0.1);
+        if(sampler.getAllowedFraction() < 0.5) {
+            return null;
+        }
+        consumptions[1] = sampler.sample(random);
+
+        // Create the answer option list using the SI strings.
+        List<String> aw = new ArrayList<>();
+        aw.add(mainConsumptionString);
+        aw.add(secondConsumptionString);
+        aw.add(utils.createConsumptionString(consumptions[1]));
+        Collections.shuffle(aw, random);
+
+        return new GeneralQuestion(a, aw, aw.indexOf(mainConsumptionString) + 1);
+
+    }
+
     /**
      * Returns a which is more question generated from a random activities selected from the database
      *
      * @return A WhichIsMoreQuestion, or null if no question can be generated
      */
     public Question getWhichIsMoreQuestion() {
+
+        return store(getWhichIsMoreQuestion(random, activityDBController.getCatalog()));
+
+    }
+
+    /**
+     * Returns a which is more question generated from a random activities selected from the database
+     *
+     * @param random  The random number generator to use
+     * @param catalog The catalog to select the activities from
+     * @return A WhichIsMoreQuestion, or null if no question can be generated
+     */
+    private Question getWhichIsMoreQuestion(Random random, ActivityCatalog catalog) {
         try {
-            List<Activity> activities = new ArrayList<>();
-            // Get first activity: No conditions.
-            Activity first = activityDBController.getRandomActivity();
-            if(first == null) {
-                return null; // Something went wrong when trying to retrieve an activity.
-            }
-            activities.add(first);
-            // Second activity: Bounds depend on first activity added. The id and consumption of the first activity are
-            // excluded.
-            long[] bounds = utils.getLowerUpperBoundSmall(first.consumption);
-            activities.add(activityDBController.getActivityExclAndInRange(
-                    List.of(first.id),
-                    List.of(first.consumption),
-                    bounds[0],
-                    bounds[1]
-            ));
-            if(activities.get(1) == null) {
-                return getWhichIsMoreQuestion(); // The boundaries did not include a fitting activity. Try again.
-            }
-            // Third activity: Bounds would depend on the average of the first and second activity, those are already
-            // in the correct range, however. The ids and consumptions of the previous activities are excluded.
-            activities.add(activityDBController.getActivityExclAndInRange(
-                    List.of(first.id, activities.get(1).id),
-                    List.of(first.consumption, activities.get(1).consumption),
-                    bounds[0],
-                    bounds[1]
-            ));
-            if(activities.get(2) == null) {
-                return getWhichIsMoreQuestion(); // The boundaries did not include a fitting activity. Try again.
-            }
+            for(int attempt = 0; attempt < MAX_QUESTION_ATTEMPTS; attempt++) {
+                List<Activity> activities = new ArrayList<>();
+                // Get first activity: Only activities for which there are two other activities in range are selected.
+                Activity first = catalog.getRandomWhichIsMoreActivity(random);
+                if(first == null) {
+                    return null; // Something went wrong when trying to retrieve an activity.
+                }
+                activities.add(first);
+                // Second activity: Bounds depend on first activity added. The id and consumption of the first activity
+                // are excluded.
+                activities.add(catalog.getActivityInBand(
+                        first,
+                        ActivityBand.SCALE,
+                        List.of(first.id),
+                        List.of(first.consumption),
+                        random
+                ));
+                if(activities.get(1) == null) {
+                    continue; // The boundaries did not include a fitting activity. Try again.
+                }
+                // Third activity: Bounds would depend on the average of the first and second activity, those are
+                // already in the correct range, however. The ids and consumptions of the previous activities are
+                // excluded.
+                activities.add(catalog.getActivityInBand(
+                        first,
+                        ActivityBand.SCALE,
+                        List.of(first.id, activities.get(1).id),
+                        List.of(first.consumption, activities.get(1).consumption),
+                        random
+                ));
+                if(activities.get(2) == null) {
+                    continue; // The boundaries did not include a fitting activity. Try again.
+                }
 
-            Activity a1 = activities.get(0);
-            for(int i = 1; i < 3; i++) {
-                if(a1.consumption < activities.get(i).consumption) {
-                    a1 = activities.get(i);
+                Activity a1 = activities.get(0);
+                for(int i = 1; i < 3; i++) {
+                    if(a1.consumption < activities.get(i).consumption) {
+                        a1 = activities.get(i);
+                    }
                 }
-            }
 
-            Question toReturn = new WhichIsMoreQuestion(activities, activities.indexOf(a1) + 1);
-            questionDBController.add(toReturn);
-            return toReturn;
-        } catch(StackOverflowError e) {
-            System.out.println("Error: No valid question could be generated from the database.");
+                return new WhichIsMoreQuestion(activities, activities.indexOf(a1) + 1);
+            }
+            // No fitting activities were found for many activities in a row
             return null;
         } catch(Exception e) {
-            e.printStackTrace();
+            LOGGER.warn("Could not generate a which is more question", e);
             return null;
         }
     }
@@ -194,66 +338,67 @@ public class QuestionGenerator {
      * @return A ComparisonQuestion, or null if no question can be generated
      */
     public Question getComparisonQuestion() {
+
+        return store(getComparisonQuestion(random, activityDBController.getCatalog()));
+
+    }
+
+    /**
+     * Returns a comparison question generated from a random activity selected from the database
+     *
+     * @param random  The random number generator to use
+     * @param catalog The catalog to select the activities from
+     * @return A ComparisonQuestion, or null if no question can be generated
+     */
+    private Question getComparisonQuestion(Random random, ActivityCatalog catalog) {
         try {
+            for(int attempt = 0; attempt < MAX_QUESTION_ATTEMPTS; attempt++) {
 
-            // First we retrieve a random activity -> main activity
-            Activity main = activityDBController.getRandomActivity();
+                // First we retrieve a random activity for which an answer exists -> main activity
+                Activity main = catalog.getRandomComparisonActivity(random);
 
-            if(main == null) {
-                return null; // Something went wrong
-            }
+                if(main == null) {
+                    return null; // Something went wrong
+                }
 
-            // Get a second activity which is in a small range, i.e. 5%, around the actual one
-            Activity answer = activityDBController.getActivityExclAndInRange(
-                    List.of(main.id), List.of(), // no values need to be excluded
-                    Math.round(main.consumption - main.consumption * 0.05),
-                    Math.round(main.consumption + main.consumption * 0.05)
-            );
+                // Get a second activity which is in a small range, i.e. 5%, around the actual one. If there is none,
+                // one in a "higher" range of 10% is used.
+                Activity answer = catalog.getComparisonAnswer(main, random);
 
-            if(answer == null) {
-                // We can only find activities with a difference bigger than 5% of the original activity, we
-                // need to search again. First we try to find one with a "higher" range, of 10%:
-                answer = activityDBController.getActivityExclAndInRange(
-                        List.of(main.id), List.of(), // no values need to be excluded
-                        Math.round(main.consumption - main.consumption * 0.1),
-                        Math.round(main.consumption + main.consumption * 0.1)
-                );
                 if(answer == null) {
                     // No answer could be generated, try to find another activity
-                    return getComparisonQuestion();
+                    continue;
                 }
-            }
 
-            List<Activity> chosenActivities = getAnswerOptionsComparisonQuestion(main, answer);
-            if(chosenActivities == null) {
-                // If it does not have any elements (or less than 2), no/not enough fitting activities could be
-                // found, so try again.
-                return getComparisonQuestion();
-            }
+                List<Activity> chosenActivities = getAnswerOptionsComparisonQuestion(main, answer, random, catalog);
+                if(chosenActivities == null) {
+                    // If it does not have any elements (or less than 2), no/not enough fitting activities could be
+                    // found, so try again.
+                    continue;
+                }
 
-            // Create answer option list and add the actual answer.
-            List<Activity> answerOptions = new ArrayList<>();
-            answerOptions.add(answer);
+                // Create answer option list and add the actual answer.
+                List<Activity> answerOptions = new ArrayList<>();
+                answerOptions.add(answer);
 
-            // Now we can get 2 random activities from the generated list, and add those as answer options.
-            int idx = random.nextInt(chosenActivities.size());
-            answerOptions.add(chosenActivities.remove(idx));
-            idx = random.nextInt(chosenActivities.size());
-            answerOptions.add(chosenActivities.remove(idx));
+                // Now we can get 2 random activities from the generated list, and add those as answer options.
+                int idx = random.nextInt(chosenActivities.size());
+                answerOptions.add(chosenActivities.remove(idx));
+                idx = random.nextInt(chosenActivities.size());
+                answerOptions.add(chosenActivities.remove(idx));
 
-            // Shuffle for random order
-            Collections.shuffle(answerOptions);
+                // Shuffle for random order
+                Collections.shuffle(answerOptions, random);
 
-            //We return the question
-            Question toReturn = new ComparisonQuestion(main, answerOptions, answerOptions.indexOf(answer) + 1);
-            questionDBController.add(toReturn);
-            return toReturn;
+                //We return the question
+                return new ComparisonQuestion(main, answerOptions, answerOptions.indexOf(answer) + 1);
 
-        } catch(StackOverflowError e) {
-            System.out.println("Error: No valid question could be generated from the database.");
+            }
+            // No fitting answer (options) were found for many activities in a row
             return null;
+
         } catch(Exception e) {
-            e.printStackTrace();
+            LOGGER.warn("Could not generate a comparison question", e);
             return null;
         }
     }
@@ -267,6 +412,22 @@ public class QuestionGenerator {
      */
     public List<Activity> getAnswerOptionsComparisonQuestion(Activity main, Activity answer) {
 
+        return getAnswerOptionsComparisonQuestion(main, answer, random, activityDBController.getCatalog());
+
+    }
+
+    /**
+     * Returns a list of activities that can be used as answer options, or null if less than 2 could be generated.
+     *
+     * @param main    The main activity of the comparison question, i.e. the title
+     * @param answer  The answer of the comparison question
+     * @param random  The random number generator to use
+     * @param catalog The catalog to select the activities from
+     * @return a list of activities that can be used as answer options, or null if less than 2 could be generated.
+     */
+    private List<Activity> getAnswerOptionsComparisonQuestion(Activity main, Activity answer, Random random,
+                                                              ActivityCatalog catalog) {
+
         List<Activity> chosenActivities = new ArrayList<>();
         // Now two new activities are needed: Get 2 that are 20-40% below the answer, and 2 that are 20-40% above.
         // Those are put into a list, null values are filtered out.
@@ -274,21 +435,19 @@ public class QuestionGenerator {
         List<String> exclIds = new ArrayList<>(List.of(main.id, answer.id)); // use this so that it is not immutable
         List<Long> exclConsumptions = List.of(main.consumption, answer.consumption);
         // Get 2 activities in the "lower" part, i.e. 20-40% below the answer
-        // Use the answer for the bound calculation, as we want to distinguish the answer options
-        long lowerBound = (long) (answer.consumption * 0.6);
-        long upperBound = (long) (answer.consumption * 0.8);
+        // Use the answer for the bands, as we want to distinguish the answer options
+        ActivityBand band = ActivityBand.LOWER;
         for(int i = 0; i < 4; i++) {
-            Activity chosen = activityDBController.getActivityExclAndInRange(
-                    exclIds, exclConsumptions, lowerBound, upperBound // exclude main and answer consumption
+            Activity chosen = catalog.getActivityInBand(
+                    answer, band, exclIds, exclConsumptions, random // exclude main and answer consumption
             );
             if(chosen != null) {
                 chosenActivities.add(chosen);
                 exclIds.add(chosen.id);
             }
             if(i == 1) {
-                // Use other bounds, now to get 2 activities in the "upper" part, i.e. 20-40% above the answer
-                lowerBound = (long) (answer.consumption * 1.2);
-                upperBound = (long) (answer.consumption * 1.4);
+                // Use the other band, now to get 2 activities in the "upper" part, i.e. 20-40% above the answer
+                band = ActivityBand.HIGHER;
             }
         }
 
@@ -308,11 +467,27 @@ public class QuestionGenerator {
      */
     public Question getEstimationQuestion() {
 
+        return store(getEstimationQuestion(random, activityDBController.getCatalog()));
+
+    }
+
+    /**
+     * Returns a random estimation question generated from a random activity selected from the database
+     *
+     * @param random  The random number generator to use
+     * @param catalog The catalog to select the activities from
+     * @return An EstimationQuestion, or null if no question can be generated
+     */
+    private Question getEstimationQuestion(Random random, ActivityCatalog catalog) {
+
         try {
             // The consumption of the activity should be < 1000000, so we search for an activity with a consumption between
             // 0 and 999999 Wh. The reasons for this bound are that the user can more easily estimate "lower" consumptions
             // and that higher SI units cannot be used here, as they would make the slideBar difficult to configure.
-            Activity a = activityDBController.getActivityExclAndInRange(List.of(), List.of(), 0, 999999);
+            Activity a = catalog.getActivityExclAndInRange(List.of(), List.of(), 0, 999999, random);
+            if(a == null) {
+                return null; // There is no activity with a consumption in the range.
+            }
 
             // Get the bounds for the input range for the estimation question. The consumption can now be safely cast
             // to an integer, as the above condition needs to be fulfilled.
@@ -322,13 +497,9 @@ public class QuestionGenerator {
             List<String> questionInfo = new ArrayList<>();
             questionInfo.add(Integer.toString(bounds[0]));
             questionInfo.add(Integer.toString(bounds[1]));
-            Question toReturn = new EstimationQuestion(a, questionInfo);
-
-            // Return/save the question
-            questionDBController.add(toReturn);
-            return toReturn;
+            return new EstimationQuestion(a, questionInfo);
         } catch(Exception e) {
-            e.printStackTrace();
+            LOGGER.warn("Could not generate an estimation question", e);
             return null;
         }
 
@@ -343,55 +514,182 @@ public class QuestionGenerator {
      *                                  is not valid (i.e. > 5 because we only have 20 questions, or < 0)
      */
     public List<Question> generateGameQuestions(int minPerQuestionType) throws IllegalArgumentException {
+
+        return generateGameQuestions(minPerQuestionType, gameSeeds.next());
+
+    }
+
+    /**
+     * Generates the 20 questions for a new game with a new seed, with a minimum amount of questions per question type.
+     *
+     * @param minPerQuestionType The minimum amount of questions per question type
+     * @return The generated questions and their seed, or null if something went wrong
+     * @throws IllegalArgumentException Throws an exception if the minimum amount of questions per type
+     *                                  is not valid (i.e. > 5 because we only have 20 questions, or < 0)
+     */
+    public QuestionSet generateQuestionSet(int minPerQuestionType) throws IllegalArgumentException {
+
+        return generateQuestionSet(minPerQuestionType, question -> false);
+
+    }
+
+    /**
+     * Generates the 20 questions for a new game with a new seed, with a minimum amount of questions per question type,
+     * while avoiding the activities that the players have seen.
+     *
+     * @param minPerQuestionType The minimum amount of questions per question type
+     * @param seen               Whether the players have seen the activity of a question
+     * @return The generated questions and their seed, or null if something went wrong
+     * @throws IllegalArgumentException Throws an exception if the minimum amount of questions per type
+     *                                  is not valid (i.e. > 5 because we only have 20 questions, or < 0)
+     */
+    public QuestionSet generateQuestionSet(int minPerQuestionType, Predicate<Question> seen)
+            throws IllegalArgumentException {
+
+        long seed = gameSeeds.next();
+        List<Question> questions = generateGameQuestions(minPerQuestionType, seed, seen);
+        return questions == null ? null : new QuestionSet(seed, questions);
+
+    }
+
+    /**
+     * Generates 20 questions for a game from a seed, with a minimum amount of questions per question type. As long as
+     * the activities do not change, the same seed gives the same questions (with other ids), also in parallel mode.
+     *
+     * @param minPerQuestionType The minimum amount of questions per question type
+     * @param seed               The seed of the game
+     * @return The generated list of questions, or null if something went wrong
+     * @throws IllegalArgumentException Throws an exception if the minimum amount of questions per type
+     *                                  is not valid (i.e. > 5 because we only have 20 questions, or < 0)
+     */
+    public List<Question> generateGameQuestions(int minPerQuestionType, long seed) throws IllegalArgumentException {
+
+        return generateGameQuestions(minPerQuestionType, seed, question -> false);
+
+    }
+
+    /**
+     * Generates 20 questions for a game from a seed, with a minimum amount of questions per question type, while
+     * avoiding the activities that the players have seen. The same seed gives the same questions as long as the
+     * activities and the activities that the players have seen do not change. All questions are generated from the
+     * same catalog of the activities, so a reload during the generation does not affect them.
+     *
+     * @param minPerQuestionType The minimum amount of questions per question type
+     * @param seed               The seed of the game
+     * @param seen               Whether the players have seen the activity of a question
+     * @return The generated list of questions, or null if something went wrong
+     * @throws IllegalArgumentException Throws an exception if the minimum amount of questions per type
+     *                                  is not valid (i.e. > 5 because we only have 20 questions, or < 0)
+     */
+    public List<Question> generateGameQuestions(int minPerQuestionType, long seed, Predicate<Question> seen)
+            throws IllegalArgumentException {
         if(minPerQuestionType > 5 || minPerQuestionType < 0) {
             throw new IllegalArgumentException();
         }
 
-        List<Question> questions = new ArrayList<>();
+        // All questions of a game come from the same version of the activities, even if they are reloaded meanwhile
+        ActivityCatalog catalog = activityDBController.getCatalog();
+        GameRandom random = new GameRandom(seed);
+        // The minimum amount of questions per question type, and the types of the other questions are random
+        int[] amounts = new int[QUESTION_TYPES];
+        Arrays.fill(amounts, minPerQuestionType);
+        for(int i = 0; i < QUESTIONS_PER_GAME - QUESTION_TYPES * minPerQuestionType; i++) {
+            amounts[random.nextInt(QUESTION_TYPES)]++;
+        }
 
-        // Generate the minimum amount of questions per question type
-        for(int i = 0; i < 4; i++) {
-            for(int j = 0; j < minPerQuestionType; j++) {
-                Question generated = switch(i) {
-                    case 0 -> getGeneralQuestion();
-                    case 1 -> getComparisonQuestion();
-                    case 2 -> getEstimationQuestion();
-                    case 3 -> getWhichIsMoreQuestion();
-                    default -> null; // This is only executed if something went wrong, it should not be called.
-                };
-                if(generated == null) {
-                    // Something went wrong
-                    return null;
-                }
-                // Note that the cyclomatic complexity of this COULD be very bad. However, it is important to note
-                // that it is very unlikely that questions are ever equal.
-                if(questions.contains(generated)) {
-                    j--;
-                    continue;
-                }
-                questions.add(generated);
+        // Questions are equal if they have the same type and main activity, so a hash set finds duplicates
+        Set<Question> generated = ConcurrentHashMap.newKeySet();
+        List<ForkJoinTask<List<Question>>> tasks = new ArrayList<>();
+        for(int type = 0; type < QUESTION_TYPES; type++) {
+            int questionType = type;
+            // Every type gets its own stream, which is split off in a fixed order, so the questions do not depend on
+            // the order in which the types are generated
+            GameRandom typeRandom = random.split();
+            tasks.add(ForkJoinTask.adapt(() -> generateQuestions(questionType, amounts[questionType], generated, seen,
+                    typeRandom, catalog)));
+        }
+        if(generationPool != null) {
+            for(ForkJoinTask<List<Question>> task : tasks) {
+                generationPool.execute(task);
             }
         }
 
-        // Generate the questions with random types
-        for(int i = 0; i < 20 - (4 * minPerQuestionType); i++) {
-            Question generated = getRandomQuestion();
-            if(generated == null) {
-                // Something went wrong
-                return null;
+        List<Question> questions = new ArrayList<>(QUESTIONS_PER_GAME);
+        for(ForkJoinTask<List<Question>> task : tasks) {
+            questions.addAll(generationPool != null ? task.join() : task.invoke());
+        }
+
+        // If a type ran out of (different) questions (e.g. if there are only a few activities), the remaining
+        // questions get other random types
+        int attempts = 0;
+        while(questions.size() < QUESTIONS_PER_GAME && attempts++ < MAX_DUPLICATE_ATTEMPTS) {
+            questions.addAll(generateQuestions(random.nextInt(QUESTION_TYPES), 1, generated, seen, random,
+                    catalog));
+        }
+        if(questions.size() < QUESTIONS_PER_GAME) {
+            // There are not enough different questions
+            return null;
+        }
+
+        // The questions are ordered per type, so shuffle the question list
+        Collections.shuffle(questions, random);
+        // Only the questions of the game are saved, not the duplicates and questions of seen activities
+        questions.forEach(questionDBController::add);
+        return questions;
+    }
+
+    /**
+     * Generates questions of a single type, which are not equal to the questions that are generated before (by any
+     * thread). It stops early if only duplicates are generated for a while, or if no question of the type can be
+     * generated, and returns the questions so far. Questions of which the players have seen the activity are skipped,
+     * unless too many of them are generated.
+     *
+     * @param type      The question type, see getQuestion
+     * @param amount    The amount of questions to generate
+     * @param generated The questions that are generated before, the new questions are added to it
+     * @param seen      Whether the players have seen the activity of a question
+     * @param random    The random number generator of the question type
+     * @param catalog   The catalog to select the activities from
+     * @return The generated questions, which are less than the amount if the type ran out of questions
+     */
+    private List<Question> generateQuestions(int type, int amount, Set<Question> generated,
+                                             Predicate<Question> seen, Random random, ActivityCatalog catalog) {
+
+        List<Question> questions = new ArrayList<>(amount);
+        int duplicates = 0;
+        int seenSkips = 0;
+        while(questions.size() < amount && duplicates < MAX_DUPLICATE_ATTEMPTS) {
+            Question question = getQuestion(type, random, catalog);
+            if(question == null) {
+                // No question of this type can be generated, the other types fill the game
+                break;
             }
-            // Note that the cyclomatic complexity of this COULD be very bad. However, it is important to note
-            // that it is very unlikely that questions are ever equal.
-            if(questions.contains(generated)) {
-                i--;
+            if(seenSkips < MAX_SEEN_SKIPS && seen.test(question)) {
+                seenSkips++;
                 continue;
             }
-            questions.add(generated);
+            // Note that it is very unlikely that questions are ever equal, so this is hardly ever repeated.
+            if(generated.add(question)) {
+                questions.add(question);
+                duplicates = 0;
+            } else {
+                duplicates++;
+            }
         }
-
-        // The first questions are ordered per type, so shuffle the question list
-        Collections.shuffle(questions);
         return questions;
+
+    }
+
+    /**
+     * Stops the threads of the generation pool
+     */
+    @PreDestroy
+    public void shutdown() {
+
+        if(generationPool != null) {
+            generationPool.shutdown();
+        }
+
     }
 
 }
@@ -1,16 +1,18 @@
 package server.game.questions;
 
-import org.apache.commons.lang3.tuple.Pair;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Locale;
 import java.util.Random;
 
 @Component
 public class QuestionGeneratorUtils {
 
+    private final ConsumptionFormatter formatter = new ConsumptionFormatter();
+
     /**
      * Empty constructor, creates an instance of the QuestionGeneratorUtils
      */
@@ -90,26 +92,7 @@ public class QuestionGeneratorUtils {
      */
     public String createConsumptionString(long consumption, int amountOfDecimals) throws IllegalArgumentException {
 
-        if(amountOfDecimals < 0) throw new IllegalArgumentException("Amount of decimals cannot be negative!");
-        if(consumption < 0) throw new IllegalArgumentException("Consumption cannot be negative!");
-
-        if(consumption < 1000) return consumption + " Wh";
-
-        StringBuilder stringBuilder = new StringBuilder();
-
-        double doubleConsumption = (double) consumption;
-        int steps = 0;
-        while(doubleConsumption >= 1000.0 && steps < 4) {
-            doubleConsumption /= 1000.0;
-            steps++;
-        }
-
-        double roundingFactor = Math.pow(10, amountOfDecimals);
-        double rounded = ((double) Math.round(doubleConsumption * roundingFactor)) / roundingFactor;
-
-        String formatString = "%." + amountOfDecimals + "f";
-        stringBuilder.append(String.format(Locale.ENGLISH, formatString, rounded)).append(" ").append(getSIPrefix(steps)).append("Wh");
-        return stringBuilder.toString();
+        return formatter.format(consumption, amountOfDecimals);
 
     }
 
@@ -149,14 +132,53 @@ public class QuestionGeneratorUtils {
      * @return random number in given range (number is rounded to first decimal place)
      */
     public double getRandomWithExclusion(Random rnd, double start, double end, int... exclude) {
-        double random = start + (end - start) * rnd.nextDouble();
-        random = (double) Math.round(random * 10) / 10;
-        for(int ex : exclude) {
-            if(random == (double) ex) {
-                return getRandomWithExclusion(rnd, start, end, exclude);
+
+        // The number is drawn in tenths, in which a number is rounded to an excluded number ex if it is in
+        // [10 * ex - 0.5, 10 * ex + 0.5). Those ranges are removed first, so a single draw is always allowed.
+        double low = Math.min(start, end) * 10;
+        double high = Math.max(start, end) * 10;
+        int[] excluded = Arrays.stream(exclude).distinct().sorted().toArray();
+
+        List<double[]> allowed = new ArrayList<>();
+        double position = low;
+        double allowedSize = 0;
+        for(int ex : excluded) {
+            double from = Math.max(ex * 10 - 0.5, low);
+            double to = Math.min(ex * 10 + 0.5, high);
+            if(to <= from) continue;
+            if(from > position) {
+                allowed.add(new double[]{position, from});
+                allowedSize += from - position;
             }
+            position = Math.max(position, to);
+        }
+        if(high > position) {
+            allowed.add(new double[]{position, high});
+            allowedSize += high - position;
         }
-        return random;
+
+        if(allowed.isEmpty()) {
+            // Either the whole range is excluded, or the range is a single number
+            double random = (double) Math.round(low) / 10;
+            if(high > low || Arrays.stream(excluded).anyMatch(ex -> ex == random)) {
+                throw new IllegalArgumentException("All numbers in the range are excluded!");
+            }
+            return random;
+        }
+
+        double target = rnd.nextDouble() * allowedSize;
+        double[] range = allowed.get(allowed.size() - 1);
+        for(double[] interval : allowed) {
+            if(target < interval[1] - interval[0]) {
+                range = interval;
+                break;
+            }
+            target -= interval[1] - interval[0];
+        }
+        // Stay below the end of the range, as the end itself is rounded to an excluded number
+        double random = Math.min(range[0] + target, Math.nextDown(range[1]));
+        return (double) Math.round(random) / 10;
+
     }
 
     /**
@@ -185,40 +207,30 @@ public class QuestionGeneratorUtils {
         if(excluded.size() == 0) return true;
 
         // Crop all ranges with their exclusion percentages to fit withing the bounds provided
-        // Converts the single exclusion point into a pair of min, max = bounds of the exclusion range
-        List<Pair<Long, Long>> excludedCropped = new ArrayList<>();
-        excluded.forEach(l -> {
-            long min = Math.round(l - l * percentExcl);
-            long max = Math.round(l + l * percentExcl);
-            if(min < lower) min = lower;
-            if(max > upper) max = upper;
-            excludedCropped.add(Pair.of(min, max));
-        });
-
-        // Converts the exclusion ranges into independent ranges that are non-overlapping
-        List<Pair<Long, Long>> excludedCroppedNonOverlapping = new ArrayList<>();
-        excludedCroppedNonOverlapping.add(excludedCropped.get(0));
-        excludedCropped.forEach(range -> {
-            long min = range.getLeft();
-            long max = range.getRight();
-            boolean overlapDetected = false;
-            for(int i = 0; i < excludedCroppedNonOverlapping.size(); i++) {
-                Pair<Long, Long> finalRange = excludedCroppedNonOverlapping.get(i);
-                long fMin = finalRange.getLeft();
-                long fMax = finalRange.getRight();
-                if(!(min > fMax || max < fMin)) {
-                    overlapDetected = true;
-                } else continue;
-                excludedCroppedNonOverlapping.set(i, Pair.of(Math.min(min, fMin), Math.max(max, fMax)));
-            }
-            if(!overlapDetected) excludedCroppedNonOverlapping.add(range);
-        });
+        // Converts the single exclusion point into an array of min, max = bounds of the exclusion range
+        List<long[]> excludedCropped = new ArrayList<>();
+        for(long l : excluded) {
+            long min = Math.max(Math.round(l - l * percentExcl), lower);
+            long max = Math.min(Math.round(l + l * percentExcl), upper);
+            // Exclusion ranges outside the bounds do not matter
+            if(min <= max) excludedCropped.add(new long[]{min, max});
+        }
+        if(excludedCropped.isEmpty()) return true;
 
-        // Calculate the total size of all the non-overlapping exclusion zones combined
+        // Merges the exclusion ranges, sorted by their lower bound, into non-overlapping ranges and calculates the
+        // total size of all the non-overlapping exclusion zones combined
+        excludedCropped.sort(Comparator.comparingLong(range -> range[0]));
         long totalExclusionRangeSize = 0;
-        for(Pair<Long, Long> range : excludedCroppedNonOverlapping) {
-            totalExclusionRangeSize += range.getRight() - range.getLeft();
+        long min = excludedCropped.get(0)[0];
+        long max = excludedCropped.get(0)[1];
+        for(long[] range : excludedCropped) {
+            if(range[0] > max) {
+                totalExclusionRangeSize += max - min;
+                min = range[0];
+            }
+            max = Math.max(max, range[1]);
         }
+        totalExclusionRangeSize += max - min;
 
         // Calculate the total size of the range
         long totalRangeSize = upper - lower;
@@ -230,6 +242,7 @@ public class QuestionGeneratorUtils {
     /**
      * Returns a random long in a given range, with both the lower and upper bound inclusive.
      * If the bounds are equal, this method simply returns the lower bound. Some numbers can be excluded.
+     * Every number that is not excluded is equally likely, and only a single random number is drawn.
      *
      * @param lower           The lower bound (inclusive)
      * @param upper           The upper bound (inclusive)
@@ -237,7 +250,8 @@ public class QuestionGeneratorUtils {
      * @param excludeSIString SI Strings that should be excluded
      * @param excludedNumbers Values that values should be excluded around (in a certain percentage range)
      * @param percentExcl     The percentage range in which values should be excluded
-     * @return A random long in the given range (both bounds inclusive) which is not equal to the excluded values.
+     * @return A random long in the given range (both bounds inclusive) which is not equal to the excluded values,
+     * or an IllegalArgumentException if the lower bound is greater than the upper bound or all values are excluded
      */
     public long randomLongInRangeExcl(
             long lower,
@@ -253,39 +267,124 @@ public class QuestionGeneratorUtils {
             throw new IllegalArgumentException();
         }
 
-        // Special cases where the upper bound equals the lower bound
-        if(lower == upper) {
-            // If the bound is excluded, no number can be generated at all
-            // Theoretically it would aldo be necessary to check all excluded bounds, however checkIfGeneratable
-            // should make sure that this is only called when it really is generatable
-            // So we can assume that this should in fact never even be the case
-            if(excludedNumbers.contains(lower) || excludeSIString.contains(createConsumptionString(lower))) {
-                throw new IllegalArgumentException();
-            }
-            // Otherwise, we can simply return one of the bounds - this is valid, because both bounds are inclusive
-            return lower;
+        IntervalSampler sampler = createConsumptionSampler(lower, upper, excludeSIString, excludedNumbers, percentExcl);
+        // If every number is excluded, no number can be generated at all
+        if(sampler.isEmpty()) {
+            throw new IllegalArgumentException();
         }
+        return sampler.sample(r);
 
-        // We use the lower bound as an offset for this range to give us the desired range.
-        // Random.nextDouble() has to be used as there is no method for longs that 1. can have a limit and 2. returns
-        // all possible long values.
-        long random = (long) (r.nextDouble() * (upper - lower) + lower);
+    }
+
+    /**
+     * Creates a sampler for consumptions in a given range, which excludes some consumption strings and ranges around
+     * some consumptions. The sampler draws numbers like randomLongInRangeExcl, and also gives the probability that a
+     * number in the range is not excluded, which can be used to check if it is feasible to generate numbers in it.
+     *
+     * @param lower           The lower bound (inclusive)
+     * @param upper           The upper bound
+     * @param excludeSIString SI Strings that should be excluded
+     * @param excludedNumbers Values that values should be excluded around (in a certain percentage range)
+     * @param percentExcl     The percentage range in which values should be excluded
+     * @return The sampler for the allowed consumptions in the range
+     */
+    public IntervalSampler createConsumptionSampler(
+            long lower,
+            long upper,
+            List<String> excludeSIString,
+            List<Long> excludedNumbers,
+            double percentExcl
+    ) {
 
-        // Check excluded SI Strings
+        List<long[]> excluded = new ArrayList<>();
         for(String ex : excludeSIString) {
-            if(createConsumptionString(random).equals(ex)) {
-                return randomLongInRangeExcl(lower, upper, r, excludeSIString, excludedNumbers, percentExcl);
-            }
+            long[] range = getConsumptionRange(ex);
+            if(range != null) excluded.add(range);
         }
+        for(Long ex : excludedNumbers) {
+            excluded.add(new long[]{(long) Math.ceil(ex - ex * percentExcl), (long) Math.floor(ex + ex * percentExcl)});
+        }
+        return new IntervalSampler(lower, upper, excluded);
+
+    }
+
+    /**
+     * Creates a sampler for consumptions in a given range, which excludes the consumption strings of some consumptions
+     * and ranges around them. This is the same as createConsumptionSampler with the strings of these consumptions,
+     * but the strings are compared by the consumptions instead of creating them.
+     *
+     * @param lower           The lower bound (inclusive)
+     * @param upper           The upper bound
+     * @param excludedNumbers Values of which the SI String and the values around (in a certain percentage range)
+     *                        should be excluded
+     * @param percentExcl     The percentage range in which values should be excluded
+     * @return The sampler for the allowed consumptions in the range
+     */
+    public IntervalSampler createConsumptionSampler(
+            long lower,
+            long upper,
+            List<Long> excludedNumbers,
+            double percentExcl
+    ) {
 
-        // Check excluded values in ranges
+        List<long[]> excluded = new ArrayList<>();
         for(Long ex : excludedNumbers) {
-            if(random <= (ex + ex * percentExcl) && random >= (ex - ex * percentExcl)) {
-                return randomLongInRangeExcl(lower, upper, r, excludeSIString, excludedNumbers, percentExcl);
+            if(ex >= 0) excluded.add(formatter.getRange(ex, 2));
+            excluded.add(new long[]{(long) Math.ceil(ex - ex * percentExcl), (long) Math.floor(ex + ex * percentExcl)});
+        }
+        return new IntervalSampler(lower, upper, excluded);
+
+    }
+
+    /**
+     * Returns the range of consumptions for which createConsumptionString gives the provided string
+     *
+     * @param consumptionString A string as created by createConsumptionString
+     * @return An array with the lowest (idx 0) and highest (idx 1) consumption with this string, or null if no
+     * consumption has this string
+     */
+    public long[] getConsumptionRange(String consumptionString) {
+
+        String[] parts = consumptionString.split(" ");
+        if(parts.length != 2 || !parts[1].endsWith("Wh")) return null;
+        int steps = List.of("", "k", "M", "G", "T").indexOf(parts[1].substring(0, parts[1].length() - 2));
+        if(steps < 0) return null;
+
+        double value;
+        try {
+            value = Double.parseDouble(parts[0]);
+        } catch(NumberFormatException e) {
+            return null;
+        }
+        int decimals = parts[0].indexOf('.') < 0 ? 0 : parts[0].length() - parts[0].indexOf('.') - 1;
+
+        // Find a consumption with this string, the parsed value can be off by one because of the rounding
+        long center = Math.round(value * Math.pow(1000, steps));
+        if(!hasConsumptionString(center, decimals, consumptionString)) {
+            if(hasConsumptionString(center - 1, decimals, consumptionString)) {
+                center--;
+            } else if(hasConsumptionString(center + 1, decimals, consumptionString)) {
+                center++;
+            } else {
+                return null;
             }
         }
 
-        return random;
+        return formatter.getRange(center, decimals);
+
+    }
+
+    /**
+     * Returns whether a consumption has a given consumption string
+     *
+     * @param consumption       the consumption in Wh
+     * @param amountOfDecimals  the amount of decimals of the consumption string
+     * @param consumptionString the consumption string
+     * @return true if createConsumptionString gives the consumption string for the consumption, false otherwise
+     */
+    private boolean hasConsumptionString(long consumption, int amountOfDecimals, String consumptionString) {
+
+        return consumption >= 0 && createConsumptionString(consumption, amountOfDecimals).equals(consumptionString);
 
     }
 
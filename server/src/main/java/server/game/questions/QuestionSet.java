@@ -0,0 +1,51 @@
+package server.game.questions;
+
+import commons.Question;
+
+import java.util.List;
+
+/**
+ * The questions of a game, together with the seed they were generated with
+ */
+public class QuestionSet {
+
+    private final long seed;
+    private final List<Question> questions;
+
+    /**
+     * Creates a question set
+     *
+     * @param seed      the seed with which the questions were generated
+     * @param questions the questions of the game
+     */
+    public QuestionSet(long seed, List<Question> questions) {
+
+        this.seed = seed;
+        this.questions = questions;
+
+    }
+
+    /**
+     * Returns the seed with which the questions were generated, the same questions are generated again with this seed
+     * as long as the activities do not change
+     *
+     * @return the seed of the questions
+     */
+    public long getSeed() {
+
+        return seed;
+
+    }
+
+    /**
+     * Returns the questions of the game
+     *
+     * @return the questions
+     */
+    public List<Question> getQuestions() {
+
+        return questions;
+
+    }
+
+}
@@ -0,0 +1,286 @@
+package server.game.questions;
+
+import commons.Question;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * A bounded pool of question sets (the 20 questions of a game) that are generated in the background, so that a
+ * game can start without waiting for the question generation. Whenever a set is taken, background workers generate a
+ * new one until the pool is full again. If the pool is empty, the questions are generated on the calling thread.
+ * The players of a game get the set with the fewest activities that they have seen recently.
+ */
+@Component
+public class QuestionSetPool {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(QuestionSetPool.class);
+
+    /**
+     * The minimum amount of questions per question type in every set
+     */
+    private static final int MIN_QUESTIONS_PER_TYPE = 2;
+
+    private final QuestionGenerator questionGenerator;
+    private final SeenActivities seenActivities;
+    private final int depth;
+    private final BlockingQueue<QuestionSet> sets;
+    private final ExecutorService workers;
+
+    private final AtomicInteger pendingRefills;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+
+    /**
+     * Creates the question set pool, which remembers the seen activities of the players for a day
+     *
+     * @param questionGenerator the generator that generates the questions
+     * @param depth             the maximum amount of sets that are kept ready, if this is not positive, no sets are
+     *                          generated in the background
+     * @param refillThreads     the amount of background workers that generate sets at the same time
+     */
+    public QuestionSetPool(QuestionGenerator questionGenerator, int depth, int refillThreads) {
+
+        this(questionGenerator, new SeenActivities(24), depth, refillThreads);
+
+    }
+
+    /**
+     * Creates the question set pool
+     *
+     * @param questionGenerator the generator that generates the questions
+     * @param seenActivities    the activities that the players have seen recently
+     * @param depth             the maximum amount of sets that are kept ready, if this is not positive, no sets are
+     *                          generated in the background
+     * @param refillThreads     the amount of background workers that generate sets at the same time
+     */
+    @Autowired
+    public QuestionSetPool(QuestionGenerator questionGenerator,
+                           SeenActivities seenActivities,
+                           @Value("${game.question-pool.depth:4}") int depth,
+                           @Value("${game.question-pool.refill-threads:1}") int refillThreads) {
+
+        this.questionGenerator = questionGenerator;
+        this.seenActivities = seenActivities;
+        this.depth = Math.max(0, depth);
+        this.sets = new ArrayBlockingQueue<>(Math.max(1, this.depth));
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = this.depth > 0 ? Executors.newFixedThreadPool(Math.max(1, refillThreads), runnable -> {
+            Thread thread = new Thread(runnable, "question-pool-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+
+        this.pendingRefills = new AtomicInteger();
+        this.hits = new AtomicLong();
+        this.misses = new AtomicLong();
+
+    }
+
+    /**
+     * Starts filling the pool in the background
+     */
+    @PostConstruct
+    public void fill() {
+
+        requestRefills();
+
+    }
+
+    /**
+     * Takes a set of questions for a new game. A set from the pool is returned if there is one, otherwise the set is
+     * generated on the calling thread.
+     *
+     * @return the questions of the game and their seed, or null if they could not be generated
+     */
+    public QuestionSet take() {
+
+        return take(List.of());
+
+    }
+
+    /**
+     * Takes a set of questions for a new game of the given players. Of the sets in the pool, the set with the fewest
+     * activities that the players have seen is returned. If the pool is empty, the set is generated on the calling
+     * thread, while skipping the activities that the players have seen. The activities of the set are recorded as
+     * seen by the players.
+     *
+     * @param usernames the usernames of the players of the game
+     * @return the questions of the game and their seed, or null if they could not be generated
+     */
+    public QuestionSet take(Collection<String> usernames) {
+
+        Predicate<Question> seen = seenActivities.seenBy(usernames);
+        QuestionSet set = pollLeastSeen(seen);
+        if(set != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+
+        requestRefills();
+
+        if(set == null) {
+            set = questionGenerator.generateQuestionSet(MIN_QUESTIONS_PER_TYPE, seen);
+        }
+        if(set != null) {
+            seenActivities.record(usernames, set.getQuestions());
+        }
+        return set;
+
+    }
+
+    /**
+     * Removes the set with the fewest seen activities from the pool
+     *
+     * @param seen whether the players have seen the activity of a question
+     * @return the set with the fewest seen activities, or null if the pool is empty
+     */
+    private QuestionSet pollLeastSeen(Predicate<Question> seen) {
+
+        QuestionSet best = null;
+        int bestSeen = Integer.MAX_VALUE;
+        for(QuestionSet set : sets) {
+            int seenQuestions = 0;
+            for(Question question : set.getQuestions()) {
+                if(seen.test(question)) seenQuestions++;
+            }
+            if(seenQuestions < bestSeen) {
+                best = set;
+                bestSeen = seenQuestions;
+                if(seenQuestions == 0) break;
+            }
+        }
+
+        if(best != null && sets.remove(best)) return best;
+        // The set was taken by another game in the meantime
+        return sets.poll();
+
+    }
+
+    /**
+     * Submits background refills until the pool is full once the submitted refills are done
+     */
+    private void requestRefills() {
+
+        if(workers == null) return;
+
+        // The missing refills are reserved at once, so refills that finish in the meantime do not cause more refills
+        // than the pool can hold
+        int pending;
+        int missing;
+        do {
+            pending = pendingRefills.get();
+            missing = depth - sets.size() - pending;
+            if(missing <= 0) return;
+        } while(!pendingRefills.compareAndSet(pending, pending + missing));
+
+        for(int i = 0; i < missing; i++) {
+            try {
+                workers.execute(this::refill);
+            } catch(RejectedExecutionException e) {
+                // The pool is shutting down
+                pendingRefills.addAndGet(i - missing);
+                return;
+            }
+        }
+
+    }
+
+    /**
+     * Generates a set of questions and adds it to the pool, executed by the background workers
+     */
+    private void refill() {
+
+        QuestionSet set = null;
+        try {
+            set = questionGenerator.generateQuestionSet(MIN_QUESTIONS_PER_TYPE);
+            if(set != null) {
+                sets.offer(set);
+            }
+        } catch(RuntimeException e) {
+            LOGGER.warn("Could not generate a question set for the pool", e);
+        } finally {
+            pendingRefills.decrementAndGet();
+        }
+
+        // If no set could be generated (e.g. there are not enough activities), the pool is only refilled again when
+        // a set is taken, instead of retrying over and over
+        if(set != null) {
+            requestRefills();
+        }
+
+    }
+
+    /**
+     * Returns the amount of sets that are ready to be taken
+     *
+     * @return the amount of sets in the pool
+     */
+    public int getAvailableSets() {
+
+        return sets.size();
+
+    }
+
+    /**
+     * Returns the maximum amount of sets that are kept ready
+     *
+     * @return the depth of the pool
+     */
+    public int getDepth() {
+
+        return depth;
+
+    }
+
+    /**
+     * Returns how many times a set could be taken from the pool
+     *
+     * @return the amount of pool hits
+     */
+    public long getHits() {
+
+        return hits.get();
+
+    }
+
+    /**
+     * Returns how many times the pool was empty, so the set had to be generated when the game started
+     *
+     * @return the amount of pool misses
+     */
+    public long getMisses() {
+
+        return misses.get();
+
+    }
+
+    /**
+     * Stops the background workers
+     */
+    @PreDestroy
+    public void shutdown() {
+
+        if(workers != null) {
+            workers.shutdownNow();
+        }
+
+    }
+
+}
@@ -0,0 +1,222 @@
+package server.game.questions;
+
+import commons.Question;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import server.database.PlayerSeenActivities;
+import server.database.SeenActivitiesDB;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Remembers which activities every player has seen recently, so that returning players do not get the same
+ * activities game after game. Every player gets a SeenActivityFilter of a fixed size, so checking whether a player
+ * has seen the activity of a question does not need the database. The filters can be stored in the database, so that
+ * they are kept when the server restarts. They are loaded and stored by a background thread, so the threads that
+ * start the games never wait for the database.
+ */
+@Component
+public class SeenActivities {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SeenActivities.class);
+
+    /**
+     * The amount of recorded games after which the filters that forgot everything are removed
+     */
+    private static final int CLEANUP_INTERVAL = 256;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5L;
+
+    private final SeenActivitiesDB seenActivitiesDB;
+    private final long decayMilliseconds;
+    private final boolean persist;
+    // Loads and stores the filters in order, so a filter is only stored after the stored one has been loaded
+    private final ExecutorService storage;
+
+    private final Map<String, SeenActivityFilter> filters;
+    private final AtomicInteger recordsUntilCleanup;
+
+    /**
+     * Creates the seen activities, which are only kept in memory
+     *
+     * @param decayHours the time in hours after which seen activities start to be forgotten
+     */
+    public SeenActivities(long decayHours) {
+
+        this(null, decayHours, false);
+
+    }
+
+    /**
+     * Creates the seen activities
+     *
+     * @param seenActivitiesDB the database in which the seen activities are stored
+     * @param decayHours       the time in hours after which seen activities start to be forgotten, they are
+     *                         forgotten after twice this time
+     * @param persist          whether the seen activities are stored in the database
+     */
+    @Autowired
+    public SeenActivities(SeenActivitiesDB seenActivitiesDB,
+                          @Value("${game.seen-activities.decay-hours:24}") long decayHours,
+                          @Value("${game.seen-activities.persist:false}") boolean persist) {
+
+        this.seenActivitiesDB = seenActivitiesDB;
+        this.decayMilliseconds = Math.max(1, decayHours) * 3600000L;
+        this.persist = persist && seenActivitiesDB != null;
+        this.storage = this.persist ? Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "seen-activities-storage");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+        this.filters = new ConcurrentHashMap<>();
+        this.recordsUntilCleanup = new AtomicInteger(CLEANUP_INTERVAL);
+
+    }
+
+    /**
+     * Returns a check whether any of the given players has seen the main activity of a question. The filters of the
+     * players are looked up once, so every check takes constant time per player.
+     *
+     * @param usernames the usernames of the players
+     * @return a predicate that is true for the questions of which the activity was probably seen by a player
+     */
+    public Predicate<Question> seenBy(Collection<String> usernames) {
+
+        List<SeenActivityFilter> playerFilters = new ArrayList<>(usernames.size());
+        for(String username : usernames) {
+            playerFilters.add(getFilter(username));
+        }
+        if(playerFilters.isEmpty()) return question -> false;
+
+        return question -> {
+            long now = System.currentTimeMillis();
+            for(SeenActivityFilter filter : playerFilters) {
+                if(filter.mightContain(question.activityTitle, now)) return true;
+            }
+            return false;
+        };
+
+    }
+
+    /**
+     * Records that the given players are shown the main activities of the given questions. The filters are stored in
+     * the background.
+     *
+     * @param usernames the usernames of the players
+     * @param questions the questions that are shown to the players
+     */
+    public void record(Collection<String> usernames, List<Question> questions) {
+
+        long now = System.currentTimeMillis();
+        List<PlayerSeenActivities> changed = new ArrayList<>(usernames.size());
+        for(String username : usernames) {
+            SeenActivityFilter filter = getFilter(username);
+            for(Question question : questions) {
+                filter.add(question.activityTitle, now);
+            }
+            if(persist) {
+                changed.add(new PlayerSeenActivities(username, filter.toBytes()));
+            }
+        }
+        if(!changed.isEmpty()) {
+            inBackground(() -> seenActivitiesDB.saveAll(changed));
+        }
+
+        if(recordsUntilCleanup.decrementAndGet() <= 0) {
+            recordsUntilCleanup.set(CLEANUP_INTERVAL);
+            filters.values().removeIf(filter -> filter.isExpired(now));
+        }
+
+    }
+
+    /**
+     * Returns the amount of players of which the seen activities are in memory
+     *
+     * @return the amount of players
+     */
+    public int getPlayerCount() {
+
+        return filters.size();
+
+    }
+
+    /**
+     * Returns the filter of a player, which is created if it is not in memory. The stored filter of the player is
+     * loaded in the background and merged into the new filter, so until then the player might see an activity again.
+     *
+     * @param username the username of the player
+     * @return the filter of the player
+     */
+    private SeenActivityFilter getFilter(String username) {
+
+        SeenActivityFilter filter = filters.get(username);
+        if(filter != null) return filter;
+
+        filter = new SeenActivityFilter(decayMilliseconds, System.currentTimeMillis());
+        SeenActivityFilter existing = filters.putIfAbsent(username, filter);
+        if(existing != null) return existing;
+
+        if(persist) {
+            SeenActivityFilter created = filter;
+            inBackground(() -> seenActivitiesDB.findById(username)
+                    .map(stored -> SeenActivityFilter.fromBytes(stored.filter, decayMilliseconds))
+                    .ifPresent(stored -> created.merge(stored, System.currentTimeMillis())));
+        }
+        return filter;
+
+    }
+
+    /**
+     * Loads or stores filters on the background thread, a failure only means that the filters are not kept
+     *
+     * @param task the database access
+     */
+    private void inBackground(Runnable task) {
+
+        try {
+            storage.execute(() -> {
+                try {
+                    task.run();
+                } catch(RuntimeException e) {
+                    LOGGER.warn("Could not load or store the seen activities of a player", e);
+                }
+            });
+        } catch(RejectedExecutionException e) {
+            // The server is shutting down
+        }
+
+    }
+
+    /**
+     * Stops the background thread after the filters that are still queued have been stored
+     */
+    @PreDestroy
+    public void shutdown() {
+
+        if(storage == null) return;
+
+        storage.shutdown();
+        try {
+            if(!storage.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                storage.shutdownNow();
+            }
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+    }
+
+}
@@ -0,0 +1,218 @@
+package server.game.questions;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A Bloom filter of the activities that a player has seen recently, identified by their title. It has a fixed size,
+ * so it never uses more memory, no matter how many games the player plays. It might claim that an activity was seen
+ * while it was not (with a few hundred activities this happens for about 2% of the activities), but never the other
+ * way around.
+ * The activities are recorded in the current generation of the filter. Once the current generation is older than the
+ * decay time, it becomes the previous generation, and the generation before is forgotten. So an activity is
+ * remembered at least for the decay time, and at most for twice the decay time.
+ */
+public class SeenActivityFilter {
+
+    /**
+     * The amount of bits of a generation of the filter
+     */
+    static final int BITS = 2048;
+    private static final int WORDS = BITS / 64;
+    private static final int HASHES = 3;
+    /**
+     * The size of the filter as bytes, i.e. the start time of the current generation and both generations
+     */
+    static final int SERIALIZED_SIZE = 8 + 2 * WORDS * 8;
+
+    private final long decayMilliseconds;
+    private long[] current;
+    private long[] previous;
+    private long currentStart;
+
+    /**
+     * Creates an empty filter
+     *
+     * @param decayMilliseconds the time in milliseconds after which the current generation becomes the previous one
+     * @param now               the current time in milliseconds
+     */
+    public SeenActivityFilter(long decayMilliseconds, long now) {
+
+        this(decayMilliseconds, now, new long[WORDS], new long[WORDS]);
+
+    }
+
+    /**
+     * Creates a filter from its generations
+     *
+     * @param decayMilliseconds the time in milliseconds after which the current generation becomes the previous one
+     * @param currentStart      the time in milliseconds at which the current generation started
+     * @param current           the bits of the current generation
+     * @param previous          the bits of the previous generation
+     */
+    private SeenActivityFilter(long decayMilliseconds, long currentStart, long[] current, long[] previous) {
+
+        this.decayMilliseconds = Math.max(1, decayMilliseconds);
+        this.currentStart = currentStart;
+        this.current = current;
+        this.previous = previous;
+
+    }
+
+    /**
+     * Records that an activity was seen
+     *
+     * @param activityTitle the title of the activity
+     * @param now           the current time in milliseconds
+     */
+    public synchronized void add(String activityTitle, long now) {
+
+        decay(now);
+        int hash = activityTitle.hashCode();
+        int step = mix(hash) | 1;
+        for(int i = 0; i < HASHES; i++) {
+            int bit = Math.floorMod(hash + i * step, BITS);
+            current[bit >>> 6] |= 1L << bit;
+        }
+
+    }
+
+    /**
+     * Checks whether an activity might have been seen, which takes constant time
+     *
+     * @param activityTitle the title of the activity
+     * @param now           the current time in milliseconds
+     * @return false if the activity was not seen recently, true if it probably was
+     */
+    public synchronized boolean mightContain(String activityTitle, long now) {
+
+        decay(now);
+        int hash = activityTitle.hashCode();
+        int step = mix(hash) | 1;
+        boolean inCurrent = true;
+        boolean inPrevious = true;
+        for(int i = 0; i < HASHES; i++) {
+            int bit = Math.floorMod(hash + i * step, BITS);
+            long mask = 1L << bit;
+            inCurrent &= (current[bit >>> 6] & mask) != 0;
+            inPrevious &= (previous[bit >>> 6] & mask) != 0;
+        }
+        return inCurrent || inPrevious;
+
+    }
+
+    /**
+     * Adds the activities of another filter to this one, e.g. the stored filter of a player that is loaded after the
+     * player already started a game. Both filters are decayed to the current time first, and the merged filter keeps
+     * the later start of the current generation, so no activity is forgotten earlier than in either filter.
+     *
+     * @param other the filter of which the activities are added
+     * @param now   the current time in milliseconds
+     */
+    public void merge(SeenActivityFilter other, long now) {
+
+        long otherStart;
+        long[] otherCurrent;
+        long[] otherPrevious;
+        synchronized(other) {
+            other.decay(now);
+            otherStart = other.currentStart;
+            otherCurrent = other.current.clone();
+            otherPrevious = other.previous.clone();
+        }
+
+        synchronized(this) {
+            decay(now);
+            for(int i = 0; i < WORDS; i++) {
+                current[i] |= otherCurrent[i];
+                previous[i] |= otherPrevious[i];
+            }
+            currentStart = Math.max(currentStart, otherStart);
+        }
+
+    }
+
+    /**
+     * Returns whether everything in this filter is forgotten, so that it can be removed
+     *
+     * @param now the current time in milliseconds
+     * @return true if the filter does not remember any activity anymore, false otherwise
+     */
+    public synchronized boolean isExpired(long now) {
+
+        return now - currentStart >= 2 * decayMilliseconds;
+
+    }
+
+    /**
+     * Converts this filter to bytes, so that it can be stored
+     *
+     * @return the bytes of this filter
+     */
+    public synchronized byte[] toBytes() {
+
+        ByteBuffer buffer = ByteBuffer.allocate(SERIALIZED_SIZE);
+        buffer.putLong(currentStart);
+        buffer.asLongBuffer().put(current).put(previous);
+        return buffer.array();
+
+    }
+
+    /**
+     * Creates a filter from the bytes of toBytes
+     *
+     * @param bytes             the bytes of the filter
+     * @param decayMilliseconds the time in milliseconds after which the current generation becomes the previous one
+     * @return the filter, or null if the bytes are not a filter
+     */
+    public static SeenActivityFilter fromBytes(byte[] bytes, long decayMilliseconds) {
+
+        if(bytes == null || bytes.length != SERIALIZED_SIZE) return null;
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        long currentStart = buffer.getLong();
+        long[] current = new long[WORDS];
+        long[] previous = new long[WORDS];
+        buffer.asLongBuffer().get(current).get(previous);
+        return new SeenActivityFilter(decayMilliseconds, currentStart, current, previous);
+
+    }
+
+    /**
+     * Moves on to a new generation if the current one is older than the decay time
+     *
+     * @param now the current time in milliseconds
+     */
+    private void decay(long now) {
+
+        long age = now - currentStart;
+        if(age < decayMilliseconds) return;
+
+        if(age >= 2 * decayMilliseconds) {
+            // The current generation would be forgotten as well
+            previous = new long[WORDS];
+        } else {
+            previous = current;
+        }
+        current = new long[WORDS];
+        currentStart = now;
+
+    }
+
+    /**
+     * Mixes the bits of a hash code, so that it can be used as a second hash code
+     *
+     * @param hash the hash code
+     * @return the mixed hash code
+     */
+    private static int mix(int hash) {
+
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return hash;
+
+    }
+
+}
@@ -12,8 +12,6 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.web.context.request.async.DeferredResult;
 import server.game.Game;
 import server.game.GameController;
-import server.game.GameUpdateManager;
-import server.game.questions.QuestionGenerator;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -113,11 +111,11 @@ class APIGameControllerTest {
     }
 
     @Test
-    void getAllQuestionsGameEqualsCurrentGame() throws Exception {
+    void getAllQuestionsGameInLobby() throws Exception {
         UUID uuid = new UUID(1122, 122);
         Game game = mock(Game.class);
         Mockito.when(gameController.getGame(uuid)).thenReturn(game);
-        Mockito.when(gameController.getCurrentGame()).thenReturn(game);
+        Mockito.when(game.isLobby()).thenReturn(true);
 
 
         String url = "/api/game/questions";
@@ -125,7 +123,8 @@ class APIGameControllerTest {
 
 
         verify(gameController, times(1)).getGame(uuid);
-        verify(gameController, times(1)).getCurrentGame();
+        verify(game, times(1)).isLobby();
+        verify(gameController, never()).getCurrentGame();
     }
 
 
@@ -135,12 +134,8 @@ class APIGameControllerTest {
         String username = "username";
         DeferredResult<ResponseEntity<GameUpdate>> result = new DeferredResult<>(40000L, ResponseEntity.internalServerError().build());
         Game game = mock(Game.class);
-        QuestionGenerator questionGenerator = mock(QuestionGenerator.class);
-        GameUpdateManager gameUpdateManager = mock(GameUpdateManager.class);
-        Game game1 = new Game(gameUpdateManager, questionGenerator);
 
         Mockito.when(gameController.getGame(uuid)).thenReturn(game);
-        Mockito.when(gameController.getCurrentGame()).thenReturn(game1);
         Mockito.when(game.containsPlayer(username)).thenReturn(true);
         doNothing().when(game).runDeferredResult(username, result);
 
@@ -148,7 +143,7 @@ class APIGameControllerTest {
         mockMvc.perform(get(url).param("gameID", uuid.toString()).param("username", username)).andExpect(status().isOk());
 
         verify(gameController, times(1)).getGame(uuid);
-        verify(gameController, times(1)).getCurrentGame();
+        verify(game, times(1)).isLobby();
         verify(game, times(1)).containsPlayer(username);
     }
 
@@ -163,13 +158,9 @@ class APIGameControllerTest {
         UUID uuid = new UUID(1122, 122);
         String username = "username";
         Game game = mock(Game.class);
-        QuestionGenerator questionGenerator = mock(QuestionGenerator.class);
-        GameUpdateManager gameUpdateManager = mock(GameUpdateManager.class);
-        Game game1 = new Game(gameUpdateManager, questionGenerator);
         String answer = "1";
 
         Mockito.when(gameController.getGame(uuid)).thenReturn(game);
-        Mockito.when(gameController.getCurrentGame()).thenReturn(game1);
         Mockito.when(game.containsPlayer(username)).thenReturn(true);
         doNothing().when(game).saveAnswer(username, Long.parseLong(answer));
 
@@ -177,7 +168,7 @@ class APIGameControllerTest {
         mockMvc.perform(post(url).param("gameID", uuid.toString()).param("playerName", username).param("answer", answer)).andExpect(status().isOk());
 
         verify(gameController, times(1)).getGame(uuid);
-        verify(gameController, times(1)).getCurrentGame();
+        verify(game, times(1)).isLobby();
         verify(game, times(1)).saveAnswer(username, Long.parseLong(answer));
     }
 
@@ -212,18 +203,19 @@ class APIGameControllerTest {
     }
 
     @Test
-    void answerGameCurrentGame() throws Exception {
+    void answerGameInLobby() throws Exception {
         UUID uuid = new UUID(1122, 122);
         String username = "username";
         Game game = mock(Game.class);
         Mockito.when(gameController.getGame(uuid)).thenReturn(game);
-        Mockito.when(gameController.getCurrentGame()).thenReturn(game);
+        Mockito.when(game.isLobby()).thenReturn(true);
 
 
         String url = "/api/game/answer";
         mockMvc.perform(post(url).param("gameID", uuid.toString()).param("playerName", username).param("answer", "1")).andExpect(status().isBadRequest());
         verify(gameController, times(1)).getGame(uuid);
-        verify(gameController, times(1)).getCurrentGame();
+        verify(game, times(1)).isLobby();
+        verify(game, never()).saveAnswer(username, 1L);
     }
 
     @Test
@@ -238,7 +230,7 @@ class APIGameControllerTest {
         String url = "/api/game/answer";
         mockMvc.perform(post(url).param("gameID", uuid.toString()).param("playerName", username).param("answer", "1")).andExpect(status().isBadRequest());
         verify(gameController, times(1)).getGame(uuid);
-        verify(gameController, times(1)).getCurrentGame();
+        verify(game, times(1)).isLobby();
         verify(game, times(1)).containsPlayer(username);
 
     }
@@ -286,11 +278,11 @@ class APIGameControllerTest {
     }
 
     @Test
-    void getAllPlayersTheSameGame() throws Exception {
+    void getAllPlayersGameInLobby() throws Exception {
         UUID uuid = new UUID(1122, 122);
         Game game = mock(Game.class);
         Mockito.when(gameController.getGame(uuid)).thenReturn(game);
-        Mockito.when(gameController.getCurrentGame()).thenReturn(game);
+        Mockito.when(game.isLobby()).thenReturn(true);
 
 
         String url = "/api/game/players";
@@ -298,7 +290,7 @@ class APIGameControllerTest {
 
 
         verify(gameController, times(1)).getGame(uuid);
-        verify(gameController, times(1)).getCurrentGame();
+        verify(game, times(1)).isLobby();
     }
 
     @Test
@@ -8,8 +8,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
-import server.database.ActivityDB;
 import server.database.ActivityDBController;
+import server.database.QuestionDBController;
+import server.database.QuestionRetention;
 
 import java.io.File;
 import java.util.ArrayList;
@@ -18,6 +19,7 @@ import java.util.List;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(AdminInterfaceController.class)
@@ -29,6 +31,12 @@ class AdminInterfaceControllerTest {
     @MockBean
     private ActivityDBController activityDBController;
 
+    @MockBean
+    private QuestionDBController questionDBController;
+
+    @MockBean
+    private QuestionRetention questionRetention;
+
 
     @Test
     void getAllActivities() throws Exception {
@@ -46,27 +54,23 @@ class AdminInterfaceControllerTest {
     @Test
     void edit() throws Exception {
         ObjectMapper objectMapper = new ObjectMapper();
-        ActivityDB activityDB = mock(ActivityDB.class);
         Activity activity = new Activity("1", "/path/to/image/", "Activity 1", 9);
-        Mockito.when(activityDBController.getInternalDB()).thenReturn(activityDB);
-        Mockito.when(activityDB.save(activity)).thenReturn(activity);
+        Mockito.when(activityDBController.save(activity)).thenReturn(activity);
         String url = "/debug/activities/edit";
         mockMvc.perform(post(url).content(objectMapper.writeValueAsString(activity)).contentType("application/json")).andExpect(status().isOk());
-        verify(activityDB, times(1)).save(activity);
-        verify(activityDBController, times(1)).getInternalDB();
+        verify(activityDBController, times(1)).save(activity);
+        verify(activityDBController, never()).getInternalDB();
 
     }
 
     @Test
     void delete() throws Exception {
         ObjectMapper objectMapper = new ObjectMapper();
-        ActivityDB activityDB = mock(ActivityDB.class);
         Activity activity = new Activity("1", "/path/to/image/", "Activity 1", 9);
-        Mockito.when(activityDBController.getInternalDB()).thenReturn(activityDB);
         String url = "/debug/activities/delete";
         mockMvc.perform(post(url).content(objectMapper.writeValueAsString(activity)).contentType("application/json")).andExpect(status().isOk());
-        verify(activityDB, times(1)).delete(activity);
-        verify(activityDBController, times(1)).getInternalDB();
+        verify(activityDBController, times(1)).delete(activity);
+        verify(activityDBController, never()).getInternalDB();
     }
 
     @Test
@@ -79,4 +83,24 @@ class AdminInterfaceControllerTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    void getQuestionStats() throws Exception {
+        Mockito.when(questionDBController.getQuestionCount()).thenReturn(20L);
+        Mockito.when(questionDBController.getAnswerOptionCount()).thenReturn(60L);
+        mockMvc.perform(get("/debug/questions/stats")).andExpect(status().isOk())
+                .andExpect(jsonPath("$.questions").value(20))
+                .andExpect(jsonPath("$.answerOptions").value(60));
+        verify(questionDBController, times(1)).getQuestionCount();
+    }
+
+    @Test
+    void getCatalogVersion() throws Exception {
+        Mockito.when(activityDBController.getCatalogVersion()).thenReturn(7L);
+        Mockito.when(activityDBController.getActivityCount()).thenReturn(3L);
+        mockMvc.perform(get("/debug/activities/version")).andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(7))
+                .andExpect(jsonPath("$.activities").value(3));
+        verify(activityDBController, times(1)).getCatalogVersion();
+    }
+
+}
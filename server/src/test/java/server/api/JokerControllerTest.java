@@ -32,6 +32,7 @@ class JokerControllerTest {
         UUID uuid = new UUID(1122, 122);
         Game game = mock(Game.class);
         Mockito.when(gameController.getGame(uuid)).thenReturn(game);
+        Mockito.when(game.containsPlayer(username)).thenReturn(true);
         Mockito.doNothing().when(game).useTimeJoker(username);
 
 
@@ -73,6 +74,7 @@ class JokerControllerTest {
         UUID uuid = new UUID(1122, 122);
         Game game = mock(Game.class);
         Mockito.when(gameController.getGame(uuid)).thenReturn(game);
+        Mockito.when(game.containsPlayer(username)).thenReturn(true);
         Mockito.doNothing().when(game).useQuestionJoker(username);
 
 
@@ -113,6 +115,7 @@ class JokerControllerTest {
         UUID uuid = new UUID(1122, 122);
         Game game = mock(Game.class);
         Mockito.when(gameController.getGame(uuid)).thenReturn(game);
+        Mockito.when(game.containsPlayer(username)).thenReturn(true);
         Mockito.doNothing().when(game).useScoreJoker(username);
 
 
@@ -147,4 +150,38 @@ class JokerControllerTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    void useTimeJokerGameInLobby() throws Exception {
+        String username = "username";
+        UUID uuid = new UUID(1122, 122);
+        Game game = mock(Game.class);
+        Mockito.when(gameController.getGame(uuid)).thenReturn(game);
+        Mockito.when(game.isLobby()).thenReturn(true);
+        Mockito.when(game.containsPlayer(username)).thenReturn(true);
+
+
+        String url = "/api/jokers/time";
+        mockMvc.perform(post(url).param("gameUUID", uuid.toString()).param("username", username)).andExpect(status().isBadRequest());
+
+
+        verify(game, never()).useTimeJoker(username);
+    }
+
+    @Test
+    void useTimeJokerNotInGame() throws Exception {
+        String username = "username";
+        UUID uuid = new UUID(1122, 122);
+        Game game = mock(Game.class);
+        Mockito.when(gameController.getGame(uuid)).thenReturn(game);
+        Mockito.when(game.containsPlayer(username)).thenReturn(false);
+
+
+        String url = "/api/jokers/time";
+        mockMvc.perform(post(url).param("gameUUID", uuid.toString()).param("username", username)).andExpect(status().isBadRequest());
+
+
+        verify(game, times(1)).containsPlayer(username);
+        verify(game, never()).useTimeJoker(username);
+    }
+
+}
@@ -5,11 +5,15 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import server.database.ActivityDBController;
 import server.database.QuestionDBController;
+import server.game.GameSeeds;
 import server.game.GameTestUtils;
 import server.game.questions.QuestionGenerator;
 import server.game.questions.QuestionGeneratorUtils;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -43,6 +47,7 @@ public class QuestionGeneratorTest {
         activityDBController.getInternalDB().save(activity1);
         activityDBController.getInternalDB().save(activity2);
         activityDBController.getInternalDB().save(activity3);
+        activityDBController.invalidate();
 
         Question q = questionGenerator.getWhichIsMoreQuestion();
 
@@ -66,6 +71,7 @@ public class QuestionGeneratorTest {
 
         activityDBController.getInternalDB().deleteAll();
         activityDBController.getInternalDB().save(new Activity("id", "imagePath", "title", 1));
+        activityDBController.invalidate();
 
         Question q = questionGenerator.getGeneralQuestion();
 
@@ -78,6 +84,7 @@ public class QuestionGeneratorTest {
     public void getWhichIsMoreQuestionNoActivities() {
 
         activityDBController.getInternalDB().deleteAll();
+        activityDBController.invalidate();
         Question q = questionGenerator.getWhichIsMoreQuestion();
 
         assertNull(q);
@@ -98,6 +105,7 @@ public class QuestionGeneratorTest {
         activityDBController.getInternalDB().save(activity3);
         activityDBController.getInternalDB().save(activity4);
         activityDBController.getInternalDB().save(activity5);
+        activityDBController.invalidate();
 
         Question q = questionGenerator.getComparisonQuestion();
 
@@ -116,9 +124,37 @@ public class QuestionGeneratorTest {
 
     }
 
+    @Test
+    public void testQuestionsWithoutPartners() {
+
+        // The consumptions are at least 30% apart, so there is no answer for a comparison question
+        activityDBController.getInternalDB().deleteAll();
+        long[] consumptions = {1, 2, 3, 5, 8, 12, 18, 27, 41, 61, 91, 137, 205, 308, 462};
+        for(int i = 0; i < consumptions.length; i++) {
+            activityDBController.getInternalDB()
+                    .save(new Activity("id" + i, "imagePath", "title" + i, consumptions[i]));
+        }
+        activityDBController.invalidate();
+        assertNull(questionGenerator.getComparisonQuestion());
+
+        // The other question types fill the game, even though comparison questions have a minimum
+        List<Question> questions = questionGenerator.generateGameQuestions(3);
+        assertEquals(20, questions.size());
+        assertTrue(questions.stream().noneMatch(q -> q instanceof ComparisonQuestion));
+
+        // Without two other consumptions in range, there is no which is more question either
+        activityDBController.getInternalDB().deleteAll();
+        activityDBController.getInternalDB().save(new Activity("id0", "imagePath", "title", 1));
+        activityDBController.getInternalDB().save(new Activity("id1", "imagePath", "title", 1000000));
+        activityDBController.invalidate();
+        assertNull(questionGenerator.getWhichIsMoreQuestion());
+
+    }
+
     @Test
     public void getComparisonNoActivities() {
         activityDBController.getInternalDB().deleteAll();
+        activityDBController.invalidate();
         Question q = questionGenerator.getComparisonQuestion();
 
         assertNull(q);
@@ -129,6 +165,7 @@ public class QuestionGeneratorTest {
 
         activityDBController.getInternalDB().deleteAll();
         activityDBController.getInternalDB().save(new Activity("id", "imagePath", "title", 0));
+        activityDBController.invalidate();
 
         Question q = questionGenerator.getEstimationQuestion();
 
@@ -141,6 +178,7 @@ public class QuestionGeneratorTest {
     public void getEstimationNoActivities() {
 
         activityDBController.getInternalDB().deleteAll();
+        activityDBController.invalidate();
         Question q = questionGenerator.getEstimationQuestion();
 
         assertNull(q);
@@ -160,6 +198,7 @@ public class QuestionGeneratorTest {
         activityDBController.getInternalDB().save(activity2);
         activityDBController.getInternalDB().save(activity3);
         activityDBController.getInternalDB().save(activity4);
+        activityDBController.invalidate();
 
         Question q = questionGenerator.getComparisonQuestion();
 
@@ -184,6 +223,7 @@ public class QuestionGeneratorTest {
 
         activityDBController.getInternalDB().deleteAll();
         activityDBController.getInternalDB().save(new Activity("id", "imagePath", "title", 9999999995L));
+        activityDBController.invalidate();
 
         Question q = questionGenerator.getEstimationQuestion();
         assertNull(q);
@@ -200,6 +240,7 @@ public class QuestionGeneratorTest {
         activityDBController.getInternalDB().save(activity1);
         activityDBController.getInternalDB().save(activity2);
         activityDBController.getInternalDB().save(activity3);
+        activityDBController.invalidate();
 
         Question moreExpensive = questionGenerator.getWhichIsMoreQuestion();
 
@@ -258,6 +299,115 @@ public class QuestionGeneratorTest {
 
     }
 
+    @Test
+    public void testParallelQuestionGeneration() {
+
+        activityDBController.getInternalDB().deleteAll();
+        GameTestUtils utils = new GameTestUtils();
+        utils.initActivityDB(activityDBController);
+        QuestionGenerator parallelGenerator = new QuestionGenerator(
+                new Random(1234567),
+                activityDBController,
+                questionDBController,
+                new QuestionGeneratorUtils(),
+                new GameSeeds(42),
+                true);
+
+        List<Question> questions = parallelGenerator.generateGameQuestions(3);
+
+        assertEquals(20, questions.size());
+        assertEquals(20, new HashSet<>(questions).size());
+        // Count the occurrences per question type
+        Map<Class<?>, Integer> count = new HashMap<>();
+        for(Question q : questions) {
+            count.merge(q.getClass(), 1, Integer::sum);
+            assertEquals(q, questionDBController.getById(q.questionId));
+        }
+        assertEquals(4, count.size());
+        for(int amount : count.values()) {
+            assertTrue(amount >= 3);
+        }
+
+    }
+
+    @Test
+    public void testSameSeedSameQuestions() {
+
+        activityDBController.getInternalDB().deleteAll();
+        GameTestUtils utils = new GameTestUtils();
+        utils.initActivityDB(activityDBController);
+        QuestionGenerator parallelGenerator = new QuestionGenerator(
+                new Random(),
+                activityDBController,
+                questionDBController,
+                new QuestionGeneratorUtils(),
+                new GameSeeds(42),
+                true);
+
+        for(long seed = 0; seed < 5; seed++) {
+            List<Question> first = questionGenerator.generateGameQuestions(3, seed);
+            List<Question> second = parallelGenerator.generateGameQuestions(3, seed);
+            assertEquals(20, first.size());
+            assertEquals(20, second.size());
+            for(int i = 0; i < first.size(); i++) {
+                // Only the ids of the questions differ
+                assertEquals(first.get(i), second.get(i));
+                assertEquals(first.get(i).answerOptions, second.get(i).answerOptions);
+                assertEquals(first.get(i).answer, second.get(i).answer);
+                assertNotEquals(first.get(i).questionId, second.get(i).questionId);
+            }
+        }
+
+    }
+
+    @Test
+    public void testGenerationPool() {
+
+        activityDBController.getInternalDB().deleteAll();
+        GameTestUtils utils = new GameTestUtils();
+        utils.initActivityDB(activityDBController);
+        QuestionGenerator parallelGenerator = new QuestionGenerator(
+                new Random(1234567),
+                activityDBController,
+                questionDBController,
+                new QuestionGeneratorUtils(),
+                new GameSeeds(42),
+                true,
+                1);
+
+        // The question types are generated on the pool of the generator, not on the calling thread
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        assertEquals(20, parallelGenerator.generateGameQuestions(3, 42L, question -> {
+            threads.add(Thread.currentThread().getName());
+            return false;
+        }).size());
+        assertEquals(Set.of("question-generation-0"), threads);
+
+        parallelGenerator.shutdown();
+        assertThrows(RejectedExecutionException.class, () -> parallelGenerator.generateGameQuestions(3));
+
+    }
+
+    @Test
+    public void testOnlyGameQuestionsAreSaved() {
+
+        activityDBController.getInternalDB().deleteAll();
+        GameTestUtils utils = new GameTestUtils();
+        utils.initActivityDB(activityDBController);
+
+        // Every other question is skipped because its activity was seen, the skipped questions are not saved
+        AtomicInteger generated = new AtomicInteger();
+        List<Question> questions = questionGenerator.generateGameQuestions(3, 42L,
+                question -> generated.incrementAndGet() % 2 == 0);
+        assertEquals(20, questions.size());
+        assertTrue(generated.get() > 20);
+        assertEquals(20, questionDBController.getQuestionCount());
+        for(Question question : questions) {
+            assertEquals(question, questionDBController.getById(question.questionId));
+        }
+
+    }
+
     @Test
     public void testGenerateGameQuestionsThrows() {
 
@@ -285,6 +435,7 @@ public class QuestionGeneratorTest {
         activityDBController.getInternalDB().save(activity2);
         activityDBController.getInternalDB().save(activity3);
         activityDBController.getInternalDB().save(activity4);
+        activityDBController.invalidate();
 
         Question moreExpensive = questionGenerator.getWhichIsMoreQuestion();
         List<String> allActivities = new ArrayList<>();
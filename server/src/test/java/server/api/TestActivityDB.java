@@ -3,7 +3,9 @@ package server.api;
 import commons.Activity;
 import org.springframework.data.domain.*;
 import org.springframework.data.repository.query.FluentQuery;
+import server.database.ActivityChanges;
 import server.database.ActivityDB;
+import server.database.ActivityFingerprint;
 
 import java.util.*;
 import java.util.function.Function;
@@ -13,7 +15,12 @@ import java.util.function.Function;
  */
 public class TestActivityDB implements ActivityDB {
 
+    private static final Comparator<Activity> BY_CONSUMPTION =
+            Comparator.comparingLong((Activity a) -> a.consumption).thenComparing(a -> a.id);
+
     private List<Activity> db;
+    private Map<String, Long> fingerprints;
+    private Long fileChecksum;
 
     /**
      * Creates a TestActivityDB
@@ -21,7 +28,92 @@ public class TestActivityDB implements ActivityDB {
     public TestActivityDB() {
 
         this.db = new ArrayList<>();
+        this.fingerprints = new HashMap<>();
+        this.fileChecksum = null;
+
+    }
+
+    @Override
+    public Activity findAtRank(long rank) {
+        return db.stream().sorted(BY_CONSUMPTION).skip(rank).findFirst().orElse(null);
+    }
+
+    @Override
+    public long countExclAndInRange(Collection<String> ids,
+                                    Collection<Long> consumptions,
+                                    long lower,
+                                    long upper) {
+        return db.stream().filter(a -> (!ids.contains(a.id) && !consumptions.contains(a.consumption)
+                && a.consumption <= upper && a.consumption >= lower)).count();
+    }
+
+    @Override
+    public long countConsumptionsExclAndInRange(Collection<Long> consumptions, long lower, long upper) {
+        return db.stream().filter(a -> (!consumptions.contains(a.consumption)
+                && a.consumption <= upper && a.consumption >= lower)).mapToLong(a -> a.consumption).distinct().count();
+    }
+
+    @Override
+    public Activity findExclAndInRangeAtRank(Collection<String> ids,
+                                             Collection<Long> consumptions,
+                                             long lower,
+                                             long upper,
+                                             long rank) {
+        return db.stream().filter(a -> (!ids.contains(a.id) && !consumptions.contains(a.consumption)
+                        && a.consumption <= upper && a.consumption >= lower))
+                .sorted(BY_CONSUMPTION).skip(rank).findFirst().orElse(null);
+    }
 
+    @Override
+    public List<String> findExistingIds(Collection<String> ids) {
+        List<String> existing = new ArrayList<>();
+        db.forEach(a -> {
+            if(ids.contains(a.id)) existing.add(a.id);
+        });
+        return existing;
+    }
+
+    @Override
+    public void insertAll(List<Activity> activities) {
+        db.addAll(activities);
+    }
+
+    @Override
+    public Map<String, Long> findFingerprints() {
+        return new HashMap<>(fingerprints);
+    }
+
+    @Override
+    public Map<String, Long> computeFingerprints() {
+        Map<String, Long> computed = new HashMap<>();
+        db.forEach(a -> computed.put(a.id, ActivityFingerprint.of(a)));
+        return computed;
+    }
+
+    @Override
+    public Long findFileChecksum() {
+        return fileChecksum;
+    }
+
+    @Override
+    public void applyChanges(ActivityChanges changes) {
+        db.removeIf(a -> changes.getDeletes().contains(a.id));
+        changes.getDeletes().forEach(fingerprints::remove);
+        db.addAll(changes.getInserts());
+        for(Activity updated : changes.getUpdates()) {
+            db.replaceAll(a -> a.id.equals(updated.id) ? updated : a);
+        }
+        fingerprints.putAll(changes.getNewFingerprints());
+        fingerprints.putAll(changes.getChangedFingerprints());
+        if(changes.isComplete()) {
+            fileChecksum = changes.getFileChecksum();
+        }
+    }
+
+    @Override
+    public void clearFingerprints() {
+        fingerprints.clear();
+        fileChecksum = null;
     }
 
     @Override
@@ -85,7 +177,7 @@ public class TestActivityDB implements ActivityDB {
 
     @Override
     public void delete(Activity entity) {
-
+        db.remove(entity);
     }
 
     @Override
@@ -151,7 +243,7 @@ public class TestActivityDB implements ActivityDB {
 
     @Override
     public void deleteAllInBatch() {
-
+        db = new ArrayList<>();
     }
 
     @Override
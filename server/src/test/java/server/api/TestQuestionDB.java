@@ -9,7 +9,9 @@ import org.springframework.data.repository.query.FluentQuery;
 import server.database.QuestionDB;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.function.Function;
@@ -20,6 +22,7 @@ import java.util.function.Function;
 public class TestQuestionDB implements QuestionDB {
 
     private List<Question> db;
+    private Map<UUID, Long> creationTimes;
 
     /**
      * Creates a TestQuestionDB
@@ -27,9 +30,20 @@ public class TestQuestionDB implements QuestionDB {
     public TestQuestionDB() {
 
         this.db = new ArrayList<>();
+        this.creationTimes = new HashMap<>();
 
     }
 
+    /**
+     * Changes the time at which a question was stored
+     *
+     * @param questionId the id of the question
+     * @param createdAt  the time in milliseconds at which the question was stored
+     */
+    public void setCreatedAt(UUID questionId, long createdAt) {
+        creationTimes.put(questionId, createdAt);
+    }
+
     @Override
     public List<Question> findAll() {
         return db;
@@ -94,7 +108,10 @@ public class TestQuestionDB implements QuestionDB {
 
     @Override
     public <S extends Question> List<S> saveAll(Iterable<S> entities) {
-        return null;
+        List<S> saved = new ArrayList<>();
+        entities.forEach(saved::add);
+        db.addAll(saved);
+        return saved;
     }
 
     @Override
@@ -134,7 +151,7 @@ public class TestQuestionDB implements QuestionDB {
 
     @Override
     public void deleteAllInBatch() {
-
+        db = new ArrayList<>();
     }
 
     @Override
@@ -177,6 +194,38 @@ public class TestQuestionDB implements QuestionDB {
         return false;
     }
 
+    @Override
+    public void saveWithCreationTime(List<Question> questions) {
+        long now = System.currentTimeMillis();
+        for(Question question : questions) {
+            save(question);
+            creationTimes.put(question.questionId, now);
+        }
+    }
+
+    @Override
+    public int deleteCreatedBefore(long cutoff) {
+        int size = db.size();
+        db.removeIf(q -> creationTimes.containsKey(q.questionId) && creationTimes.get(q.questionId) < cutoff);
+        creationTimes.values().removeIf(createdAt -> createdAt < cutoff);
+        return size - db.size();
+    }
+
+    @Override
+    public void truncateAnswerOptions() {
+
+    }
+
+    @Override
+    public void truncateCreationTimes() {
+        creationTimes.clear();
+    }
+
+    @Override
+    public long countAnswerOptions() {
+        return db.stream().mapToLong(q -> q.answerOptions.size()).sum();
+    }
+
     @Override
     public <S extends Question, R> R findBy(Example<S> example, Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
         return null;
@@ -13,6 +13,8 @@ import server.database.ScoreDBController;
 import server.game.FakeApplicationContext;
 import server.game.FakeSimpMessagingTemplate;
 import server.game.GameController;
+import server.game.GameLifecycleManager;
+import server.game.GameShards;
 import server.game.GameUpdateManager;
 
 import java.util.Optional;
@@ -213,7 +215,15 @@ public class UserControllerTest {
 
         public TestGameController(FakeSimpMessagingTemplate messagingTemplate, ScoreController scoreController) {
 
-            super(new GameUpdateManager(messagingTemplate), scoreController);
+            this(messagingTemplate, scoreController, new GameShards(1));
+
+        }
+
+        private TestGameController(FakeSimpMessagingTemplate messagingTemplate, ScoreController scoreController,
+                                   GameShards gameShards) {
+
+            super(new GameUpdateManager(messagingTemplate), scoreController, gameShards,
+                    new GameLifecycleManager(gameShards, 60000, 120000, 10000));
             FakeApplicationContext context = new FakeApplicationContext();
             context.setFakeMessagingTemplate(messagingTemplate);
             super.setApplicationContext(context);
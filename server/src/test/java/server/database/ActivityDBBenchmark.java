@@ -0,0 +1,193 @@
+package server.database;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the random selection with ORDER BY RAND() to the count and random rank of ActivityDB on an in-memory H2
+ * database. Run it with the environment variable BENCHMARK=true, the results are printed.
+ */
+@EnabledIfEnvironmentVariable(named = "BENCHMARK", matches = "true")
+class ActivityDBBenchmark {
+
+    private static final int[] SIZES = {1000, 100000, 1000000};
+    private static final int QUERIES = 50;
+
+    private static final String OLD_RANDOM =
+            "SELECT ID FROM ACTIVITY ORDER BY RAND() LIMIT 1";
+    private static final String OLD_IN_RANGE =
+            "SELECT ID FROM ACTIVITY WHERE CONSUMPTION BETWEEN ? AND ? ORDER BY RAND() LIMIT 1";
+    private static final String COUNT =
+            "SELECT COUNT(*) FROM ACTIVITY";
+    private static final String NEW_RANDOM =
+            "SELECT * FROM ACTIVITY ORDER BY CONSUMPTION, ID LIMIT 1 OFFSET ?";
+    private static final String COUNT_IN_RANGE =
+            "SELECT COUNT(*) FROM ACTIVITY WHERE CONSUMPTION BETWEEN ? AND ?";
+    private static final String NEW_IN_RANGE =
+            "SELECT * FROM ACTIVITY WHERE CONSUMPTION BETWEEN ? AND ? ORDER BY CONSUMPTION, ID LIMIT 1 OFFSET ?";
+
+    @Test
+    public void benchmark() throws SQLException {
+
+        for(int size : SIZES) {
+            try(Connection connection = DriverManager.getConnection("jdbc:h2:mem:benchmark" + size)) {
+                fill(connection, size);
+                run(connection, size, "no index");
+                try(Statement statement = connection.createStatement()) {
+                    statement.execute("CREATE INDEX IDX_ACTIVITY_CONSUMPTION ON ACTIVITY(CONSUMPTION, ID)");
+                }
+                run(connection, size, "index");
+            }
+        }
+
+    }
+
+    /**
+     * Creates the activity table and fills it with activities with random consumptions
+     *
+     * @param connection the connection to the database
+     * @param size       the amount of activities
+     * @throws SQLException if a statement fails
+     */
+    private void fill(Connection connection, int size) throws SQLException {
+
+        try(Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE ACTIVITY(ID BIGINT PRIMARY KEY, TITLE VARCHAR(255), "
+                    + "CONSUMPTION BIGINT, SOURCE VARCHAR(255), IMAGE_PATH VARCHAR(255))");
+        }
+
+        Random random = new Random(42);
+        connection.setAutoCommit(false);
+        try(PreparedStatement insert = connection.prepareStatement("INSERT INTO ACTIVITY VALUES (?, ?, ?, ?, ?)")) {
+            for(int i = 0; i < size; i++) {
+                insert.setLong(1, i);
+                insert.setString(2, "Activity " + i);
+                insert.setLong(3, 1 + (long) (Math.pow(10, 10 * random.nextDouble())));
+                insert.setString(4, "source");
+                insert.setString(5, "image.png");
+                insert.addBatch();
+                if(i % 10000 == 9999) insert.executeBatch();
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+
+    }
+
+    /**
+     * Times the old and new queries and prints the average time per query
+     *
+     * @param connection the connection to the database
+     * @param size       the amount of activities
+     * @param label      the description of the indexes of the table
+     * @throws SQLException if a statement fails
+     */
+    private void run(Connection connection, int size, String label) throws SQLException {
+
+        Random random = new Random(42);
+        long lower = 1000;
+        long upper = 100000;
+
+        long start = System.nanoTime();
+        try(PreparedStatement query = connection.prepareStatement(OLD_RANDOM)) {
+            for(int i = 0; i < QUERIES; i++) {
+                assertTrue(hasRow(query));
+            }
+        }
+        long oldRandom = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        try(PreparedStatement count = connection.prepareStatement(COUNT);
+            PreparedStatement query = connection.prepareStatement(NEW_RANDOM)) {
+            for(int i = 0; i < QUERIES; i++) {
+                query.setLong(1, random.nextInt((int) count(count)));
+                assertTrue(hasRow(query));
+            }
+        }
+        long newRandom = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        try(PreparedStatement query = connection.prepareStatement(OLD_IN_RANGE)) {
+            query.setLong(1, lower);
+            query.setLong(2, upper);
+            for(int i = 0; i < QUERIES; i++) {
+                assertTrue(hasRow(query));
+            }
+        }
+        long oldInRange = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        try(PreparedStatement count = connection.prepareStatement(COUNT_IN_RANGE);
+            PreparedStatement query = connection.prepareStatement(NEW_IN_RANGE)) {
+            count.setLong(1, lower);
+            count.setLong(2, upper);
+            query.setLong(1, lower);
+            query.setLong(2, upper);
+            for(int i = 0; i < QUERIES; i++) {
+                query.setLong(3, random.nextInt((int) count(count)));
+                assertTrue(hasRow(query));
+            }
+        }
+        long newInRange = System.nanoTime() - start;
+
+        System.out.printf("%d activities, %s: random %.3f ms -> %.3f ms, in range %.3f ms -> %.3f ms%n",
+                size, label, millisPerQuery(oldRandom), millisPerQuery(newRandom),
+                millisPerQuery(oldInRange), millisPerQuery(newInRange));
+
+    }
+
+    /**
+     * Executes a query and checks whether it returned a row
+     *
+     * @param query the query
+     * @return true if the query returned a row, false otherwise
+     * @throws SQLException if the query fails
+     */
+    private boolean hasRow(PreparedStatement query) throws SQLException {
+
+        try(ResultSet result = query.executeQuery()) {
+            return result.next();
+        }
+
+    }
+
+    /**
+     * Executes a count query
+     *
+     * @param query the query
+     * @return the count
+     * @throws SQLException if the query fails
+     */
+    private long count(PreparedStatement query) throws SQLException {
+
+        try(ResultSet result = query.executeQuery()) {
+            assertTrue(result.next());
+            return result.getLong(1);
+        }
+
+    }
+
+    /**
+     * Converts the total time of the queries to the average time per query
+     *
+     * @param nanos the total time in nanoseconds
+     * @return the average time in milliseconds
+     */
+    private double millisPerQuery(long nanos) {
+
+        return nanos / 1e6 / QUERIES;
+
+    }
+
+}
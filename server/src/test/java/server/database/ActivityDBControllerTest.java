@@ -0,0 +1,215 @@
+package server.database;
+
+import commons.Activity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
+import server.api.TestActivityDB;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ActivityDBControllerTest {
+
+    @TempDir
+    Path directory;
+
+    private TestActivityDB activityDB;
+    private ActivityDBController controller;
+    private File file;
+
+    @BeforeEach
+    public void setup() throws IOException {
+
+        this.activityDB = new TestActivityDB();
+        this.controller = new ActivityDBController(activityDB);
+        this.file = directory.resolve("activities.json").toFile();
+        Files.writeString(file.toPath(), "[" +
+                "{\"id\": \"1\", \"image_path\": \"a.png\", \"title\": \"changed\", \"consumption_in_wh\": 10}," +
+                "{\"id\": \"2\", \"image_path\": \"b.png\", \"title\": \"second\", \"consumption_in_wh\": 20}," +
+                "{\"id\": \"2\", \"image_path\": \"b.png\", \"title\": \"duplicate\", \"consumption_in_wh\": 30}," +
+                "{\"id\": \"3\", \"image_path\": \"c.png\", \"title\": \"third\", \"consumption_in_wh\": 40}]");
+
+    }
+
+    @Test
+    public void testUpdateKeepsExistingActivities() {
+
+        controller.save(new Activity("1", "a.png", "first", 10));
+
+        assertEquals(2, controller.update(file));
+        assertEquals(3, controller.listAll().size());
+        // Activities that are in the database, or earlier in the file, are not replaced
+        assertEquals("first", controller.getInternalDB().findById("1").orElseThrow().title);
+        assertEquals("second", controller.getInternalDB().findById("2").orElseThrow().title);
+
+        // Importing the same file again does not insert anything
+        assertEquals(0, controller.update(file));
+        assertEquals(3, controller.getIndex().size());
+
+    }
+
+    @Test
+    public void testForceReload() {
+
+        controller.save(new Activity("4", "d.png", "fourth", 10));
+
+        controller.forceReload(file);
+        assertEquals(3, controller.listAll().size());
+        assertTrue(controller.getInternalDB().findById("4").isEmpty());
+        assertEquals("changed", controller.getInternalDB().findById("1").orElseThrow().title);
+
+    }
+
+    @Test
+    public void testUpdateSkipsMalformedActivities() throws IOException {
+
+        Files.writeString(file.toPath(), "[" +
+                "{\"id\": \"1\", \"image_path\": \"a.png\", \"title\": \"first\", \"consumption_in_wh\": 10}," +
+                "{\"id\": \"2\", \"image_path\": \"b.png\", \"title\": \"second\", \"consumption_in_wh\": []}," +
+                "{\"id\": \"3\", \"image_path\": \"c.png\", \"title\": \"third\", \"consumption_in_wh\": 30}]");
+
+        assertEquals(2, controller.update(file));
+        assertTrue(controller.getInternalDB().findById("2").isEmpty());
+
+    }
+
+    @Test
+    public void testSynchronize() throws IOException {
+
+        ActivityChanges changes = controller.synchronize(file);
+        assertEquals(3, changes.getInsertCount());
+        assertEquals(3, controller.listAll().size());
+        assertEquals("second", activityDB.findById("2").orElseThrow().title);
+
+        // The file did not change, so nothing is done
+        assertNull(controller.synchronize(file));
+
+        Files.writeString(file.toPath(), "[" +
+                "{\"id\": \"1\", \"image_path\": \"a.png\", \"title\": \"changed\", \"consumption_in_wh\": 11}," +
+                "{\"id\": \"2\", \"image_path\": \"b.png\", \"title\": \"second\", \"consumption_in_wh\": 20}," +
+                "{\"id\": \"5\", \"image_path\": \"e.png\", \"title\": \"fifth\", \"consumption_in_wh\": 50}]");
+        changes = controller.synchronize(file);
+        assertEquals(1, changes.getInsertCount());
+        assertEquals(1, changes.getUpdateCount());
+        assertEquals(1, changes.getDeleteCount());
+        assertEquals(new Activity("5", "e.png", "fifth", 50), activityDB.findById("5").orElseThrow());
+        assertEquals(11, activityDB.findById("1").orElseThrow().consumption);
+        assertTrue(activityDB.findById("3").isEmpty());
+        assertEquals(3, controller.getIndex().size());
+
+        // An activity that was edited since the import is reset to the one in the file
+        controller.save(new Activity("2", "b.png", "edited", 20));
+        changes = controller.synchronize(file);
+        assertEquals(1, changes.getUpdateCount());
+        assertEquals(0, changes.getInsertCount());
+        assertEquals(0, changes.getDeleteCount());
+        assertEquals("second", activityDB.findById("2").orElseThrow().title);
+
+    }
+
+    @Test
+    public void testSynchronizeInParts() throws IOException {
+
+        // The changes are written in parts of a limited size, all in a single transaction
+        List<Integer> parts = new ArrayList<>();
+        List<Boolean> rollbacks = new ArrayList<>();
+        controller = new ActivityDBController(new TestActivityDB() {
+            @Override
+            public void applyChanges(ActivityChanges changes) {
+                parts.add(changes.size());
+                super.applyChanges(changes);
+            }
+        }, recordTransactions(rollbacks), true);
+        StringBuilder json = new StringBuilder("[");
+        for(int i = 0; i < 6000; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"id\": \"").append(i)
+                    .append("\", \"image_path\": \"a.png\", \"title\": \"a\", \"consumption_in_wh\": 10}");
+        }
+        Files.writeString(file.toPath(), json.append("]").toString());
+
+        ActivityChanges changes = controller.synchronize(file);
+        assertEquals(6000, changes.getInsertCount());
+        assertEquals(6000, controller.listAll().size());
+        assertEquals(3, parts.size());
+        assertTrue(parts.stream().allMatch(size -> size <= 5000));
+        assertEquals(List.of(false), rollbacks);
+        // The file is only marked as imported after the last part
+        assertNull(controller.synchronize(file));
+
+    }
+
+    @Test
+    public void testSynchronizeBrokenFile() throws IOException {
+
+        List<Boolean> rollbacks = new ArrayList<>();
+        controller = new ActivityDBController(activityDB, recordTransactions(rollbacks), true);
+        controller.synchronize(file);
+        Files.writeString(file.toPath(), "[" +
+                "{\"id\": \"1\", \"image_path\": \"a.png\", \"title\": \"first\", \"consumption_in_wh\": 10},");
+
+        // The rest of the catalog is not deleted because the file ends too early, and the transaction is rolled back
+        assertNull(controller.synchronize(file));
+        assertEquals(3, controller.listAll().size());
+        assertEquals(List.of(false, true), rollbacks);
+
+    }
+
+    @Test
+    public void testCatalogKeepsVersion() throws IOException {
+
+        controller.synchronize(file);
+        ActivityCatalog catalog = controller.getCatalog();
+        long version = controller.getCatalogVersion();
+        assertSame(controller.getIndex(), catalog);
+        assertEquals(version, controller.getIndex().getVersion());
+
+        controller.save(new Activity("4", "d.png", "fourth", 40));
+        assertTrue(controller.getCatalogVersion() > version);
+        assertEquals(4, controller.getActivityCount());
+
+        Files.writeString(file.toPath(), "[" +
+                "{\"id\": \"5\", \"image_path\": \"e.png\", \"title\": \"fifth\", \"consumption_in_wh\": 50}]");
+        controller.synchronize(file);
+        assertEquals(1, controller.getActivityCount());
+        assertEquals(controller.getCatalogVersion(), controller.getIndex().getVersion());
+
+        // The catalog still selects from the activities at the time it was taken
+        ActivityIndex index = (ActivityIndex) catalog;
+        assertEquals(version, index.getVersion());
+        assertEquals(3, index.size());
+        assertNotEquals("5", catalog.getRandomActivity(new Random(42)).id);
+
+    }
+
+    /**
+     * Creates transactions that only run their callback, and record whether they were rolled back
+     *
+     * @param rollbacks the list to which whether a transaction was rolled back is added
+     * @return the transactions
+     */
+    private TransactionOperations recordTransactions(List<Boolean> rollbacks) {
+
+        return new TransactionOperations() {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                SimpleTransactionStatus status = new SimpleTransactionStatus();
+                T result = action.doInTransaction(status);
+                rollbacks.add(status.isRollbackOnly());
+                return result;
+            }
+        };
+
+    }
+
+}
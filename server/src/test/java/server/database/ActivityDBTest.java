@@ -0,0 +1,127 @@
+package server.database;
+
+import commons.Activity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import server.api.TestActivityDB;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ActivityDBTest {
+
+    private static final int DRAWS = 20000;
+
+    private TestActivityDB activityDB;
+    private Random random;
+
+    @BeforeEach
+    public void setup() {
+
+        this.activityDB = new TestActivityDB();
+        // The consumptions span many orders of magnitude and have large gaps, some activities share a consumption
+        long[] consumptions = {1, 2, 2, 3, 1000, 1001, 1000000, 5000000000L, 5000000000L, 9000000000L};
+        for(int i = 0; i < consumptions.length; i++) {
+            activityDB.save(new Activity("id" + i, "imagePath", "title" + i, consumptions[i]));
+        }
+        this.random = new Random(42);
+
+    }
+
+    @Test
+    public void testRandomActivityIsUniform() {
+
+        Map<String, Integer> counts = new HashMap<>();
+        for(int i = 0; i < DRAWS; i++) {
+            counts.merge(activityDB.getRandomActivity(random).id, 1, Integer::sum);
+        }
+        assertUniform(counts, 10);
+
+    }
+
+    @Test
+    public void testInRangeIsUniform() {
+
+        Map<String, Integer> counts = new HashMap<>();
+        for(int i = 0; i < DRAWS; i++) {
+            Activity a = activityDB.getActivityExclAndInRange(List.of("id1"), List.of(1000L), 0, 6000000000L,
+                    random);
+            counts.merge(a.id, 1, Integer::sum);
+        }
+        // id1 is excluded by its id and id4 by its consumption, id9 is out of the range
+        assertUniform(counts, 7);
+        assertFalse(counts.containsKey("id1"));
+        assertFalse(counts.containsKey("id4"));
+        assertFalse(counts.containsKey("id9"));
+
+    }
+
+    @Test
+    public void testRandomActivitiesAreDistinctAndUniform() {
+
+        Map<String, Integer> counts = new HashMap<>();
+        for(int i = 0; i < DRAWS / 3; i++) {
+            List<Activity> three = activityDB.getRandomActivities(3, random);
+            assertEquals(3, new HashSet<>(three).size());
+            three.forEach(a -> counts.merge(a.id, 1, Integer::sum));
+        }
+        assertUniform(counts, 10);
+
+        assertEquals(10, activityDB.getRandomActivities(20, random).size());
+
+    }
+
+    @Test
+    public void testCatalogOnlySelectsActivitiesWithPartners() {
+
+        ActivityDBCatalog catalog = new ActivityDBCatalog(activityDB);
+        for(int i = 0; i < 100; i++) {
+            // The activities with consumptions 1, 3, 1000000 and 9000000000 have no other activity within 10%
+            Activity main = catalog.getRandomComparisonActivity(random);
+            assertTrue(Set.of("id1", "id2", "id4", "id5", "id7", "id8").contains(main.id), main.id);
+            // Only the consumptions up to 500 have two other consumptions in their range
+            Activity first = catalog.getRandomWhichIsMoreActivity(random);
+            assertTrue(first.consumption <= 3, first.id);
+        }
+
+        // Without partners, the catalog gives up instead of drawing forever
+        activityDB.deleteAll();
+        activityDB.save(new Activity("lonely", "imagePath", "title", 100));
+        assertNull(catalog.getRandomComparisonActivity(random));
+        assertNull(catalog.getRandomWhichIsMoreActivity(random));
+
+    }
+
+    @Test
+    public void testEmpty() {
+
+        activityDB.deleteAll();
+        assertNull(activityDB.getRandomActivity(random));
+        assertNull(activityDB.getActivityExclAndInRange(List.of(), List.of(), 0, Long.MAX_VALUE, random));
+        assertEquals(List.of(), activityDB.getRandomActivities(5, random));
+        assertNull(activityDB.getActivityExclAndInRange(List.of(), List.of(), 10, 0, random));
+
+    }
+
+    /**
+     * Asserts that every activity is selected within 15% of the expected amount of times
+     *
+     * @param counts     the amount of times every activity was selected, by its id
+     * @param activities the amount of activities that can be selected
+     */
+    private void assertUniform(Map<String, Integer> counts, int activities) {
+
+        assertEquals(activities, counts.size());
+        int total = counts.values().stream().mapToInt(Integer::intValue).sum();
+        double expected = (double) total / activities;
+        counts.forEach((id, count) -> assertEquals(expected, count, expected * 0.15, id));
+
+    }
+
+}
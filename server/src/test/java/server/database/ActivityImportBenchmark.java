@@ -0,0 +1,140 @@
+package server.database;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import commons.Activity;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.api.io.TempDir;
+import server.api.TestActivityDB;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Imports a synthetic activity file of a few hundred megabytes, and compares the peak heap usage of the streaming
+ * import to reading the whole file at once. Run it with the environment variable BENCHMARK=true, the size of the
+ * file in megabytes can be set with BENCHMARK_IMPORT_MB (300 by default). The results are printed.
+ */
+@EnabledIfEnvironmentVariable(named = "BENCHMARK", matches = "true")
+class ActivityImportBenchmark {
+
+    @TempDir
+    Path directory;
+
+    /**
+     * An activity database that only counts the inserted activities, so the database does not use the heap
+     */
+    private static class CountingActivityDB extends TestActivityDB {
+
+        private long inserted = 0;
+
+        @Override
+        public List<String> findExistingIds(Collection<String> ids) {
+            return List.of();
+        }
+
+        @Override
+        public void insertAll(List<Activity> activities) {
+            inserted += activities.size();
+        }
+
+    }
+
+    @Test
+    public void benchmark() throws IOException {
+
+        String size = System.getenv("BENCHMARK_IMPORT_MB");
+        long megabytes = size == null ? 300 : Long.parseLong(size);
+        File file = directory.resolve("activities.json").toFile();
+        long activities = write(file, megabytes * 1024 * 1024);
+
+        CountingActivityDB db = new CountingActivityDB();
+        ActivityDBController controller = new ActivityDBController(db);
+        resetPeakHeap();
+        long start = System.nanoTime();
+        assertEquals(activities, controller.update(file));
+        long duration = Math.max(1, (System.nanoTime() - start) / 1000000);
+        System.out.printf("Streaming import of %d MB (%d activities): %d ms, %d activities/s, peak heap %d MB%n",
+                file.length() >> 20, activities, duration, activities * 1000 / duration, peakHeap() >> 20);
+
+        resetPeakHeap();
+        start = System.nanoTime();
+        try {
+            Activity[] all = new ObjectMapper().readValue(file, Activity[].class);
+            duration = Math.max(1, (System.nanoTime() - start) / 1000000);
+            System.out.printf("Reading the whole file: %d activities, %d ms, peak heap %d MB%n",
+                    all.length, duration, peakHeap() >> 20);
+        } catch(OutOfMemoryError e) {
+            System.out.println("Reading the whole file: out of memory");
+        }
+
+    }
+
+    /**
+     * Writes a synthetic activity file
+     *
+     * @param file  the file to write
+     * @param bytes the approximate size of the file
+     * @return the amount of activities in the file
+     * @throws IOException if the file cannot be written
+     */
+    private long write(File file, long bytes) throws IOException {
+
+        long activities = 0;
+        long written = 1;
+        try(BufferedWriter writer = Files.newBufferedWriter(file.toPath())) {
+            writer.write('[');
+            while(written < bytes) {
+                String activity = (activities > 0 ? "," : "")
+                        + "{\"id\": \"" + activities + "\", \"image_path\": \"" + activities % 100 + "/image.png\", "
+                        + "\"title\": \"Synthetic activity number " + activities + "\", "
+                        + "\"consumption_in_wh\": " + (activities * 7919 % 100000000) + ", "
+                        + "\"source\": \"https://example.com/activities/" + activities + "\"}\n";
+                writer.write(activity);
+                written += activity.length();
+                activities++;
+            }
+            writer.write(']');
+        }
+        return activities;
+
+    }
+
+    /**
+     * Resets the peak usage of the heap, after a garbage collection
+     */
+    private void resetPeakHeap() {
+
+        System.gc();
+        for(MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if(pool.getType() == MemoryType.HEAP) pool.resetPeakUsage();
+        }
+
+    }
+
+    /**
+     * Returns the peak usage of the heap since it was reset
+     *
+     * @return the sum of the peak usages of the heap memory pools in bytes
+     */
+    private long peakHeap() {
+
+        long peak = 0;
+        for(MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if(pool.getType() == MemoryType.HEAP) peak += pool.getPeakUsage().getUsed();
+        }
+        return peak;
+
+    }
+
+}
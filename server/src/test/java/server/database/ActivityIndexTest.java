@@ -0,0 +1,279 @@
+package server.database;
+
+import commons.Activity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import server.api.TestActivityDB;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ActivityIndexTest {
+
+    private List<Activity> activities;
+    private ActivityIndex index;
+    private Random random;
+
+    @BeforeEach
+    public void setup() {
+
+        this.activities = new ArrayList<>();
+        for(int i = 0; i < 20; i++) {
+            activities.add(new Activity("id" + i, "imagePath", "title" + i, (i * 37L) % 20 * 10));
+        }
+        this.index = new ActivityIndex(activities);
+        this.random = new Random(42);
+
+    }
+
+    @Test
+    public void testEmptyIndex() {
+
+        ActivityIndex empty = new ActivityIndex(List.of());
+        assertEquals(0, empty.size());
+        assertNull(empty.getRandomActivity(random));
+        assertNull(empty.getActivityExclAndInRange(List.of(), List.of(), 0, Long.MAX_VALUE, random));
+        assertEquals(List.of(), empty.getRandomActivities(5, random));
+
+    }
+
+    @Test
+    public void testRandomActivity() {
+
+        Set<Activity> seen = new HashSet<>();
+        for(int i = 0; i < 1000; i++) {
+            Activity a = index.getRandomActivity(random);
+            assertTrue(activities.contains(a));
+            seen.add(a);
+        }
+        assertEquals(20, seen.size());
+
+    }
+
+    @Test
+    public void testRandomActivities() {
+
+        List<Activity> five = index.getRandomActivities(5, random);
+        assertEquals(5, five.size());
+        assertEquals(5, new HashSet<>(five).size());
+
+        List<Activity> all = index.getRandomActivities(50, random);
+        assertEquals(20, all.size());
+        assertEquals(new HashSet<>(activities), new HashSet<>(all));
+
+    }
+
+    @Test
+    public void testInRange() {
+
+        Set<Activity> seen = new HashSet<>();
+        for(int i = 0; i < 1000; i++) {
+            Activity a = index.getActivityExclAndInRange(List.of(), List.of(), 50, 80, random);
+            assertTrue(a.consumption >= 50 && a.consumption <= 80);
+            seen.add(a);
+        }
+        // 50, 60, 70 and 80
+        assertEquals(4, seen.size());
+
+        assertNull(index.getActivityExclAndInRange(List.of(), List.of(), 51, 59, random));
+        assertNull(index.getActivityExclAndInRange(List.of(), List.of(), 80, 50, random));
+        assertNull(index.getActivityExclAndInRange(List.of(), List.of(), 1000, Long.MAX_VALUE, random));
+        assertNotNull(index.getActivityExclAndInRange(List.of(), List.of(), Long.MIN_VALUE, 0, random));
+
+    }
+
+    @Test
+    public void testExclusions() {
+
+        for(int i = 0; i < 1000; i++) {
+            Activity a = index.getActivityExclAndInRange(List.of("id0"), List.of(10L, 20L), 0, 30, random);
+            assertNotNull(a);
+            assertEquals(30, a.consumption);
+        }
+
+        List<String> allIds = new ArrayList<>();
+        activities.forEach(a -> allIds.add(a.id));
+        assertNull(index.getActivityExclAndInRange(allIds, List.of(), 0, Long.MAX_VALUE, random));
+        assertNull(index.getActivityExclAndInRange(List.of("id0"), List.of(10L, 20L, 30L), 0, 30, random));
+
+    }
+
+    @Test
+    public void testConsumptionStrings() {
+
+        ActivityIndex large = new ActivityIndex(List.of(
+                new Activity("id0", "imagePath", "title0", 1234),
+                new Activity("id1", "imagePath", "title1", 1234),
+                new Activity("id2", "imagePath", "title2", 5600000)));
+
+        assertEquals("1.23 kWh", large.getConsumptionString(1234));
+        // The same string is returned every time for a consumption in the catalog
+        assertSame(large.getConsumptionString(1234), large.getConsumptionString(1234));
+        assertEquals("5.60 MWh", large.getConsumptionString(5600000));
+        // Other consumptions are formatted when they are needed
+        assertEquals("10 Wh", large.getConsumptionString(10));
+
+    }
+
+    @Test
+    public void testControllerRebuildsIndex() {
+
+        ActivityDBController controller = new ActivityDBController(new TestActivityDB());
+        assertNull(controller.getRandomActivity());
+
+        controller.save(new Activity("id", "imagePath", "title", 100));
+        assertEquals(1, controller.getIndex().size());
+        assertEquals("id", controller.getRandomActivity().id);
+
+        controller.getInternalDB().save(new Activity("id2", "imagePath", "title", 200));
+        assertNull(controller.getActivityExclAndInRange(List.of(), List.of(), 150, 250));
+        // Changes made directly on the database are only used after the index is invalidated
+        controller.invalidate();
+        assertEquals("id2", controller.getActivityExclAndInRange(List.of(), List.of(), 150, 250).id);
+
+        controller.delete(new Activity("id", "imagePath", "title", 100));
+        assertEquals(1, controller.getIndex().size());
+        assertNull(controller.getActivityExclAndInRange(List.of(), List.of(), 0, 150));
+
+    }
+
+    @Test
+    public void testIndexBuiltDuringChangeIsDiscarded() {
+
+        AtomicReference<ActivityDBController> controller = new AtomicReference<>();
+        TestActivityDB activityDB = new TestActivityDB() {
+            @Override
+            public List<Activity> findAll() {
+                List<Activity> found = new ArrayList<>(super.findAll());
+                // An activity is saved after the activities are read, while the first index is built from them
+                if(found.size() == 1) controller.get().save(new Activity("id2", "imagePath", "title", 200));
+                return found;
+            }
+        };
+        activityDB.save(new Activity("id", "imagePath", "title", 100));
+        controller.set(new ActivityDBController(activityDB));
+
+        ActivityIndex index = controller.get().getIndex();
+        assertEquals(2, index.size());
+        assertEquals(controller.get().getCatalogVersion(), index.getVersion());
+
+    }
+
+    @Test
+    public void testBands() {
+
+        for(Activity activity : activities) {
+            for(ActivityBand band : ActivityBand.values()) {
+                long[] bounds = band.getBounds(activity.consumption);
+                long expected = activities.stream()
+                        .filter(a -> a.consumption >= bounds[0] && a.consumption <= bounds[1]).count();
+                assertEquals(expected, index.getBandSize(activity, band));
+
+                Activity chosen = index.getActivityInBand(activity, band, List.of(), List.of(), random);
+                if(expected == 0) {
+                    assertNull(chosen);
+                } else {
+                    assertTrue(chosen.consumption >= bounds[0] && chosen.consumption <= bounds[1]);
+                }
+            }
+        }
+
+    }
+
+    @Test
+    public void testComparisonActivities() {
+
+        ActivityIndex comparison = new ActivityIndex(List.of(
+                new Activity("1", "imagePath", "title1", 100),
+                new Activity("2", "imagePath", "title2", 65),
+                new Activity("3", "imagePath", "title3", 135),
+                new Activity("4", "imagePath", "title4", 101),
+                new Activity("5", "imagePath", "title5", 99)));
+
+        Set<String> mains = new HashSet<>();
+        for(int i = 0; i < 1000; i++) {
+            Activity main = comparison.getRandomComparisonActivity(random);
+            mains.add(main.id);
+            Activity answer = comparison.getComparisonAnswer(main, random);
+            assertNotEquals(main.id, answer.id);
+            assertTrue(Math.abs(main.consumption - answer.consumption) <= 2);
+        }
+        // Only 1, 4 and 5 have an answer with enough answer options
+        assertEquals(Set.of("1", "4", "5"), mains);
+
+        assertNull(new ActivityIndex(List.of(new Activity("1", "imagePath", "title1", 100)))
+                .getRandomComparisonActivity(random));
+
+    }
+
+    @Test
+    public void testWhichIsMoreActivities() {
+
+        ActivityIndex whichIsMore = new ActivityIndex(List.of(
+                new Activity("1", "imagePath", "title1", 200),
+                new Activity("2", "imagePath", "title2", 260),
+                new Activity("3", "imagePath", "title3", 260),
+                new Activity("4", "imagePath", "title4", 187),
+                new Activity("5", "imagePath", "title5", 5000)));
+
+        Set<String> firsts = new HashSet<>();
+        for(int i = 0; i < 1000; i++) {
+            firsts.add(whichIsMore.getRandomWhichIsMoreActivity(random).id);
+        }
+        // 5 is the only activity in its range, 2 and 3 need the two other consumptions
+        assertEquals(Set.of("1", "2", "3", "4"), firsts);
+
+        assertNull(whichIsMore.withoutActivity("1", 1).getRandomWhichIsMoreActivity(random));
+
+    }
+
+    @Test
+    public void testIncrementalUpdates() {
+
+        List<Activity> catalog = new ArrayList<>(activities);
+        ActivityIndex updated = index;
+        for(int i = 1; i <= 200; i++) {
+            if(random.nextBoolean() && !catalog.isEmpty()) {
+                Activity removed = catalog.remove(random.nextInt(catalog.size()));
+                updated = updated.withoutActivity(removed.id, i);
+            } else {
+                // Either a new activity, or a changed consumption of an existing one
+                String id = "id" + random.nextInt(40);
+                Activity added = new Activity(id, "imagePath", "title", random.nextInt(40) * 5L);
+                catalog.removeIf(a -> a.id.equals(id));
+                catalog.add(added);
+                updated = updated.withActivity(added, i);
+            }
+        }
+
+        ActivityIndex rebuilt = new ActivityIndex(catalog, 200);
+        assertEquals(rebuilt.size(), updated.size());
+        assertEquals(200, updated.getVersion());
+        for(Activity activity : catalog) {
+            for(ActivityBand band : ActivityBand.values()) {
+                assertEquals(rebuilt.getBandSize(activity, band), updated.getBandSize(activity, band));
+            }
+        }
+
+        Set<Activity> rebuiltComparison = new HashSet<>();
+        Set<Activity> updatedComparison = new HashSet<>();
+        for(int i = 0; i < 2000; i++) {
+            rebuiltComparison.add(rebuilt.getRandomComparisonActivity(random));
+            updatedComparison.add(updated.getRandomComparisonActivity(random));
+        }
+        assertEquals(rebuiltComparison, updatedComparison);
+
+        // The previous index is not changed
+        assertEquals(20, index.size());
+        assertSame(index, index.withoutActivity("unknown", 1));
+        assertEquals(0, index.getVersion());
+
+    }
+
+}
@@ -0,0 +1,100 @@
+package server.database;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import commons.Activity;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ActivityStreamReaderTest {
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Writes a json file and reads all activities from it
+     *
+     * @param json   the content of the file
+     * @param reader the reader is stored in the first element, so that the skipped activities can be checked
+     * @return the activities that were read
+     * @throws IOException if the file cannot be written or read
+     */
+    private List<Activity> readAll(String json, ActivityStreamReader[] reader) throws IOException {
+
+        File file = directory.resolve("activities.json").toFile();
+        Files.writeString(file.toPath(), json);
+
+        List<Activity> activities = new ArrayList<>();
+        try(ActivityStreamReader r = new ActivityStreamReader(file, new ObjectMapper())) {
+            reader[0] = r;
+            Activity a;
+            while((a = r.next()) != null) {
+                activities.add(a);
+            }
+        }
+        return activities;
+
+    }
+
+    @Test
+    public void testRead() throws IOException {
+
+        ActivityStreamReader[] reader = new ActivityStreamReader[1];
+        List<Activity> activities = readAll("[" +
+                "{\"id\": \"1\", \"image_path\": \"a.png\", \"title\": \"first\", \"consumption_in_wh\": 10}," +
+                "{\"id\": \"2\", \"image_path\": \"b.png\", \"title\": \"second\", \"consumption_in_wh\": 20," +
+                "\"source\": \"unknown properties are ignored\"}]", reader);
+
+        assertEquals(List.of(new Activity("1", "a.png", "first", 10), new Activity("2", "b.png", "second", 20)),
+                activities);
+        assertEquals(0, reader[0].getSkipped());
+
+    }
+
+    @Test
+    public void testSkipMalformedActivities() throws IOException {
+
+        ActivityStreamReader[] reader = new ActivityStreamReader[1];
+        List<Activity> activities = readAll("[" +
+                "{\"id\": \"1\", \"image_path\": \"a.png\", \"title\": \"first\", \"consumption_in_wh\": \"a lot\"}," +
+                "{\"image_path\": \"b.png\", \"title\": \"no id\", \"consumption_in_wh\": 20}," +
+                "42," +
+                "{\"id\": \"4\", \"image_path\": \"d.png\", \"title\": \"fourth\", \"consumption_in_wh\": 40}]", reader);
+
+        assertEquals(List.of(new Activity("4", "d.png", "fourth", 40)), activities);
+        assertEquals(3, reader[0].getSkipped());
+
+    }
+
+    @Test
+    public void testStopAtBrokenJson() throws IOException {
+
+        ActivityStreamReader[] reader = new ActivityStreamReader[1];
+        List<Activity> activities = readAll("[" +
+                "{\"id\": \"1\", \"image_path\": \"a.png\", \"title\": \"first\", \"consumption_in_wh\": 10}," +
+                "{\"id\": \"2\", \"image_path\": \"b.png\", \"title\": \"second\" \"consumption_in_wh\": 20}," +
+                "{\"id\": \"3\", \"image_path\": \"c.png\", \"title\": \"third\", \"consumption_in_wh\": 30}]", reader);
+
+        assertEquals(List.of(new Activity("1", "a.png", "first", 10)), activities);
+        assertEquals(1, reader[0].getSkipped());
+
+    }
+
+    @Test
+    public void testNoArray() throws IOException {
+
+        File file = directory.resolve("activity.json").toFile();
+        Files.writeString(file.toPath(), "{\"id\": \"1\"}");
+        assertThrows(IOException.class, () -> new ActivityStreamReader(file, new ObjectMapper()));
+
+    }
+
+}
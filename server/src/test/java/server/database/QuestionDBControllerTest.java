@@ -0,0 +1,217 @@
+package server.database;
+
+import commons.Activity;
+import commons.GeneralQuestion;
+import commons.Question;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import server.api.TestQuestionDB;
+import server.database.QuestionDBController.OverflowPolicy;
+import server.database.QuestionDBController.PersistenceMode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QuestionDBControllerTest {
+
+    private QuestionDBController controller;
+
+    /**
+     * Stops the background thread of the controller of the test
+     */
+    @AfterEach
+    public void tearDown() {
+
+        if(controller != null) {
+            controller.shutdown();
+        }
+
+    }
+
+    /**
+     * Creates a question with a random id
+     *
+     * @return the created question
+     */
+    private Question createQuestion() {
+
+        return new GeneralQuestion(new Activity("id", "imagePath", "title", 1), List.of("1", "2", "3"), 1);
+
+    }
+
+    @Test
+    public void testSynchronous() {
+
+        TestQuestionDB db = new TestQuestionDB();
+        controller = new QuestionDBController(db);
+        Question question = createQuestion();
+        controller.add(question);
+
+        assertTrue(db.findById(question.questionId).isPresent());
+        assertEquals(question, controller.getById(question.questionId));
+
+    }
+
+    @Test
+    public void testWriteBehind() {
+
+        TestQuestionDB db = new TestQuestionDB();
+        controller = new QuestionDBController(db, PersistenceMode.WRITE_BEHIND, 100, 4, OverflowPolicy.WRITE_THROUGH);
+        List<Question> questions = new ArrayList<>();
+        for(int i = 0; i < 20; i++) {
+            Question question = createQuestion();
+            questions.add(question);
+            controller.add(question);
+        }
+
+        controller.shutdown();
+
+        assertEquals(0, controller.getPendingWrites());
+        assertEquals(0, controller.getDroppedQuestions());
+        for(Question question : questions) {
+            assertTrue(db.findById(question.questionId).isPresent());
+            assertEquals(question, controller.getById(question.questionId));
+        }
+
+    }
+
+    @Test
+    public void testDisabled() {
+
+        TestQuestionDB db = new TestQuestionDB();
+        controller = new QuestionDBController(db, PersistenceMode.DISABLED, 100, 4, OverflowPolicy.WRITE_THROUGH);
+        Question question = createQuestion();
+        controller.add(question);
+
+        assertEquals(0, db.count());
+        assertNull(controller.getById(question.questionId));
+
+    }
+
+    @Test
+    public void testOverflowDrop() throws InterruptedException {
+
+        BlockingQuestionDB db = new BlockingQuestionDB();
+        controller = new QuestionDBController(db, PersistenceMode.WRITE_BEHIND, 1, 1, OverflowPolicy.DROP);
+
+        controller.add(createQuestion());
+        assertTrue(db.writing.await(5, TimeUnit.SECONDS));
+        Question queued = createQuestion();
+        controller.add(queued);
+        controller.add(createQuestion());
+
+        assertEquals(1, controller.getPendingWrites());
+        assertEquals(1, controller.getDroppedQuestions());
+        assertEquals(queued, controller.getById(queued.questionId));
+
+        db.release.countDown();
+        controller.shutdown();
+        assertEquals(2, db.count());
+
+    }
+
+    @Test
+    public void testOverflowWriteThrough() throws InterruptedException {
+
+        BlockingQuestionDB db = new BlockingQuestionDB();
+        controller = new QuestionDBController(db, PersistenceMode.WRITE_BEHIND, 1, 1, OverflowPolicy.WRITE_THROUGH);
+
+        controller.add(createQuestion());
+        assertTrue(db.writing.await(5, TimeUnit.SECONDS));
+        controller.add(createQuestion());
+        Question overflow = createQuestion();
+        controller.add(overflow);
+
+        assertTrue(db.findById(overflow.questionId).isPresent());
+        assertEquals(0, controller.getDroppedQuestions());
+
+        db.release.countDown();
+        controller.shutdown();
+        assertEquals(3, db.count());
+
+    }
+
+    @Test
+    public void testClear() {
+
+        TestQuestionDB db = new TestQuestionDB();
+        controller = new QuestionDBController(db);
+        for(int i = 0; i < 5; i++) {
+            controller.add(createQuestion());
+        }
+        assertEquals(5, controller.getQuestionCount());
+        assertEquals(15, controller.getAnswerOptionCount());
+
+        controller.clear();
+        assertEquals(0, controller.getQuestionCount());
+
+    }
+
+    @Test
+    public void testDeleteCreatedBefore() {
+
+        TestQuestionDB db = new TestQuestionDB();
+        controller = new QuestionDBController(db);
+        Question old = createQuestion();
+        Question recent = createQuestion();
+        controller.add(old);
+        controller.add(recent);
+        db.setCreatedAt(old.questionId, 1000L);
+        db.setCreatedAt(recent.questionId, 3000L);
+
+        assertEquals(1, controller.deleteCreatedBefore(2000L));
+        assertNull(controller.getById(old.questionId));
+        assertEquals(recent, controller.getById(recent.questionId));
+
+    }
+
+    @Test
+    public void testRetention() {
+
+        TestQuestionDB db = new TestQuestionDB();
+        controller = new QuestionDBController(db);
+        QuestionRetention retention = new QuestionRetention(controller, 60000L, 0L);
+        Question old = createQuestion();
+        controller.add(old);
+        db.setCreatedAt(old.questionId, System.currentTimeMillis() - 120000L);
+        controller.add(createQuestion());
+
+        assertEquals(1, retention.compact());
+        assertEquals(1, controller.getQuestionCount());
+        assertEquals(1, retention.getCompactions());
+        assertEquals(1, retention.getDeletedQuestions());
+        retention.shutdown();
+
+    }
+
+    /**
+     * A question database of which the batch writes of the background thread block until they are released
+     */
+    private static class BlockingQuestionDB extends TestQuestionDB {
+
+        private final CountDownLatch writing = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public void saveWithCreationTime(List<Question> questions) {
+            // A question that is written through on the calling thread does not block
+            if(Thread.currentThread().getName().equals("question-writer")) {
+                writing.countDown();
+                try {
+                    release.await();
+                } catch(InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            synchronized(this) {
+                super.saveWithCreationTime(questions);
+            }
+        }
+
+    }
+
+}
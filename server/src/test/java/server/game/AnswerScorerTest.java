@@ -0,0 +1,94 @@
+package server.game;
+
+import commons.Activity;
+import commons.AnswerResponseEntity;
+import commons.EstimationQuestion;
+import commons.GeneralQuestion;
+import commons.Question;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AnswerScorerTest {
+
+    @Test
+    public void testMultipleChoicePointsForEveryTime() {
+
+        for(int time = -100; time <= 16000; time++) {
+            assertEquals(AnswerResponseEntity.dynamicPointsMultipleChoice(true, time),
+                    AnswerScorer.multipleChoicePoints(true, time));
+            assertEquals(0, AnswerScorer.multipleChoicePoints(false, time));
+        }
+
+    }
+
+    @Test
+    public void testEstimationPoints() {
+
+        Random random = new Random(42);
+        for(int i = 0; i < 100000; i++) {
+            long correctAnswer = 1 + random.nextInt(100000);
+            // Mostly answers close to the correct answer, as only those get points
+            long answer = random.nextBoolean() ? correctAnswer + random.nextInt(41) - 20
+                    : (long) (correctAnswer * (0.7 + 0.6 * random.nextDouble()));
+            int time = random.nextInt(15001);
+
+            assertEquals(AnswerResponseEntity.dynamicPointsEstimation(correctAnswer - answer, answer, time),
+                    AnswerScorer.estimationPoints(correctAnswer - answer, answer, time));
+        }
+
+    }
+
+    @Test
+    public void testEstimationPointsEdgeCases() {
+
+        long[][] cases = {{0, 0}, {0, 1}, {1, 0}, {-1, 5}, {5, -1}, {100, 100}, {Long.MAX_VALUE, 1}};
+        for(long[] c : cases) {
+            for(int time : new int[] {0, 3149, 3150, 15000, 20000}) {
+                assertEquals(AnswerResponseEntity.dynamicPointsEstimation(c[0] - c[1], c[1], time),
+                        AnswerScorer.estimationPoints(c[0] - c[1], c[1], time));
+            }
+        }
+
+    }
+
+    @Test
+    public void testBatchMatchesGenerateAnswerResponseEntity() {
+
+        Random random = new Random(7);
+        Activity activity = new Activity("1", "path", "title", 4000);
+        List<Question> questions = List.of(
+                new GeneralQuestion(activity, List.of("a", "b", "c"), 2),
+                new EstimationQuestion(activity, List.of("3000", "5000")));
+
+        int count = 1000;
+        boolean[] answered = new boolean[count];
+        long[] answers = new long[count];
+        int[] answerTimes = new int[count];
+        int[] points = new int[count];
+
+        for(Question question : questions) {
+            for(int slot = 0; slot < count; slot++) {
+                answered[slot] = random.nextInt(4) != 0;
+                answers[slot] = question instanceof EstimationQuestion ? 3500 + random.nextInt(1001) : random.nextInt(3);
+                answerTimes[slot] = random.nextInt(15001);
+            }
+
+            AnswerScorer.score(question, answered, answers, answerTimes, count, points);
+
+            for(int slot = 0; slot < count; slot++) {
+                AnswerResponseEntity expected = answered[slot]
+                        ? AnswerResponseEntity.generateAnswerResponseEntity(question, answers[slot], answerTimes[slot])
+                        : AnswerResponseEntity.generateAnswerResponseEntity(question, -1, 0);
+                long answer = answered[slot] ? answers[slot] : -1;
+
+                assertEquals(expected, AnswerScorer.createResponse(question, answer, points[slot]));
+            }
+        }
+
+    }
+
+}
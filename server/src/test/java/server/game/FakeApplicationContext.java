@@ -16,6 +16,7 @@ import server.database.ActivityDBController;
 import server.database.QuestionDBController;
 import server.game.questions.QuestionGenerator;
 import server.game.questions.QuestionGeneratorUtils;
+import server.game.questions.QuestionSetPool;
 
 import java.io.IOException;
 import java.lang.annotation.Annotation;
@@ -198,7 +199,7 @@ public class FakeApplicationContext implements ApplicationContext {
                     activityDBController,
                     questionDBController,
                     generatorUtils);
-            return (T) new Game(new GameUpdateManager(template), questionGenerator);
+            return (T) new Game(new GameUpdateManager(template), new QuestionSetPool(questionGenerator, 0, 0));
 
         }
 
@@ -35,7 +35,9 @@ public class GameControllerTest {
         this.gameUpdateManager = new GameUpdateManager(this.simpMessagingTemplate);
 
         ScoreController scoreController = new ScoreController(new ScoreDBController(new TestScoreDB()));
-        this.gameController = new GameController(this.gameUpdateManager, scoreController);
+        GameShards gameShards = new GameShards(2);
+        this.gameController = new GameController(this.gameUpdateManager, scoreController, gameShards,
+                new GameLifecycleManager(gameShards, 60000, 120000, 10000));
         this.gameController.setApplicationContext(context);
         this.gameController.init();
 
@@ -49,7 +51,7 @@ public class GameControllerTest {
 
         try {
 
-            Field gamesField = GameController.class.getDeclaredField("runningGames");
+            Field gamesField = GameController.class.getDeclaredField("gameShards");
             gamesField.setAccessible(true);
             assertNotNull(gamesField.get(gameController));
 
@@ -231,6 +233,47 @@ public class GameControllerTest {
 
     }
 
+    @Test
+    public void testStopGameCancelsTimers() {
+
+        Player player1 = new Player("P1");
+        GameUpdateFullPlayerList gameUpdate = (GameUpdateFullPlayerList) gameController.createSinglePlayerGame(player1);
+        UUID uuid = gameUpdate.getGameUUID();
+
+        // The single player game is started after a delay, so its start is pending
+        assertEquals(1, gameController.getPendingTimers());
+
+        gameController.removePlayerFromGame(player1, uuid);
+
+        assertNull(gameController.getGame(uuid));
+        assertEquals(0, gameController.getPendingTimers());
+        assertEquals(1, gameController.getLifecycleManager().getReapedGames());
+
+    }
+
+    @Test
+    public void testGamesArePlacedOnLeastLoadedShard() {
+
+        // The current game is on one of the two shards, the single player game has to be placed on the other one
+        Game currentGame = gameController.getCurrentGame();
+        gameController.addPlayerToCurrentGame(new Player("P1"));
+
+        GameUpdateFullPlayerList gameUpdate =
+                (GameUpdateFullPlayerList) gameController.createSinglePlayerGame(new Player("P2"));
+        Game singlePlayerGame = gameController.getGame(gameUpdate.getGameUUID());
+
+        List<GameShard> shards = gameController.getShards();
+        assertEquals(2, shards.size());
+        assertEquals(1, shards.get(0).getGameCount());
+        assertEquals(1, shards.get(1).getGameCount());
+        assertNotNull(singlePlayerGame);
+
+        GameShard currentGameShard = shards.get(0).getGame(currentGame.getUUID()) != null ? shards.get(0) : shards.get(1);
+        assertSame(currentGame, currentGameShard.getGame(currentGame.getUUID()));
+        assertNull(currentGameShard.getGame(singlePlayerGame.getUUID()));
+
+    }
+
     @Test
     public void getScoreControllerTest() {
         ScoreController sc = gameController.getScoreController();
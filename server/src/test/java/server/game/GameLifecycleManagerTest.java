@@ -0,0 +1,109 @@
+package server.game;
+
+import commons.Player;
+import commons.gameupdate.GameUpdateFullPlayerList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import server.api.ScoreController;
+import server.api.TestScoreDB;
+import server.database.ScoreDBController;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameLifecycleManagerTest {
+
+    private GameShards gameShards;
+    private GameUpdateManager gameUpdateManager;
+
+    @BeforeEach
+    public void setup() {
+
+        this.gameShards = new GameShards(1);
+        this.gameUpdateManager = new GameUpdateManager(new FakeSimpMessagingTemplate());
+
+    }
+
+    /**
+     * Stops the schedulers of the shards after every test
+     */
+    @AfterEach
+    public void tearDown() {
+
+        this.gameShards.shutdown();
+
+    }
+
+    /**
+     * Creates a game controller that uses the specified lifecycle manager
+     *
+     * @param lifecycleManager the lifecycle manager
+     * @return the game controller
+     */
+    private GameController createGameController(GameLifecycleManager lifecycleManager) {
+
+        FakeSimpMessagingTemplate template = new FakeSimpMessagingTemplate();
+        FakeApplicationContext context = new FakeApplicationContext();
+        context.setFakeMessagingTemplate(template);
+
+        ScoreController scoreController = new ScoreController(new ScoreDBController(new TestScoreDB()));
+        GameController gameController = new GameController(gameUpdateManager, scoreController, gameShards, lifecycleManager);
+        gameController.setApplicationContext(context);
+        gameController.init();
+        return gameController;
+
+    }
+
+    @Test
+    public void testShouldReap() {
+
+        GameLifecycleManager lifecycleManager = new GameLifecycleManager(gameShards, 1000, 2000, 60000);
+
+        Game game = new Game(gameUpdateManager, null);
+        game.setScheduler(gameShards.getShards().get(0).getScheduler());
+        long now = Game.now();
+
+        // The game in the waiting room is never reaped
+        assertEquals(GameState.LOBBY, game.getState());
+        assertFalse(lifecycleManager.shouldReap(game, now + 1000000));
+
+        // A running game is reaped if there were no long polls for too long
+        game.start(60000);
+        assertEquals(GameState.RUNNING, game.getState());
+        assertFalse(lifecycleManager.shouldReap(game, game.getLastLongPollTime() + 2000));
+        assertTrue(lifecycleManager.shouldReap(game, game.getLastLongPollTime() + 2001));
+
+        game.cancel();
+        assertEquals(GameState.REAPED, game.getState());
+        assertTrue(lifecycleManager.shouldReap(game, now));
+
+    }
+
+    @Test
+    public void testReapAbandonedGame() throws InterruptedException {
+
+        GameLifecycleManager lifecycleManager = new GameLifecycleManager(gameShards, 0, 0, 60000);
+        GameController gameController = createGameController(lifecycleManager);
+
+        Player player = new Player("P1");
+        UUID uuid = ((GameUpdateFullPlayerList) gameController.createSinglePlayerGame(player)).getGameUUID();
+
+        assertEquals(2, lifecycleManager.getLiveGames());
+
+        Thread.sleep(10);
+        lifecycleManager.reap(gameShards.getShards().get(0), gameController::stopGame);
+
+        // Only the single player game is reaped, the current game stays in the waiting room
+        assertNull(gameController.getGame(uuid));
+        assertNotNull(gameController.getGame(gameController.getCurrentGameUUID()));
+        assertEquals(GameState.LOBBY, gameController.getCurrentGame().getState());
+        assertEquals(1, lifecycleManager.getLiveGames());
+        assertEquals(0, lifecycleManager.getFinishedGames());
+        assertEquals(1, lifecycleManager.getReapedGames());
+        assertEquals(0, gameController.getPendingTimers());
+
+    }
+
+}
@@ -0,0 +1,96 @@
+package server.game;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameMailboxTest {
+
+    private GameScheduler gameScheduler;
+    private GameMailbox mailbox;
+
+    @BeforeEach
+    public void setup() {
+
+        this.gameScheduler = new GameScheduler(4);
+        this.mailbox = new GameMailbox(gameScheduler);
+
+    }
+
+    /**
+     * Stops the scheduler after every test
+     */
+    @AfterEach
+    public void tearDown() {
+
+        this.gameScheduler.shutdown();
+
+    }
+
+    @Test
+    public void testCommandsAreExecutedInOrder() throws InterruptedException {
+
+        List<Integer> executed = new ArrayList<>();
+        CountDownLatch latch = new CountDownLatch(1000);
+        for(int i = 0; i < 1000; i++) {
+            int command = i;
+            mailbox.execute(() -> {
+                executed.add(command);
+                latch.countDown();
+            });
+        }
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        for(int i = 0; i < 1000; i++) {
+            assertEquals(i, executed.get(i));
+        }
+
+    }
+
+    @Test
+    public void testCommandsAreNotExecutedConcurrently() throws InterruptedException {
+
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(400);
+
+        for(int i = 0; i < 4; i++) {
+            gameScheduler.execute(() -> {
+                for(int j = 0; j < 100; j++) {
+                    mailbox.execute(() -> {
+                        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                        running.decrementAndGet();
+                        latch.countDown();
+                    });
+                }
+            });
+        }
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(1, maxRunning.get());
+        assertFalse(mailbox.hasPendingCommands());
+
+    }
+
+    @Test
+    public void testFailingCommandDoesNotStopMailbox() throws InterruptedException {
+
+        CountDownLatch latch = new CountDownLatch(1);
+        mailbox.execute(() -> {
+            throw new IllegalStateException("test");
+        });
+        mailbox.execute(latch::countDown);
+
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+
+    }
+
+}
@@ -0,0 +1,65 @@
+package server.game;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameRandomTest {
+
+    @Test
+    public void testSameSeedSameNumbers() {
+
+        GameRandom first = new GameRandom(42);
+        GameRandom second = new GameRandom(42);
+        for(int i = 0; i < 1000; i++) {
+            assertEquals(first.nextInt(100), second.nextInt(100));
+            assertEquals(first.nextLong(), second.nextLong());
+            assertEquals(first.nextDouble(), second.nextDouble());
+            assertEquals(first.nextBoolean(), second.nextBoolean());
+        }
+
+    }
+
+    @Test
+    public void testBounds() {
+
+        GameRandom random = new GameRandom(42);
+        for(int i = 0; i < 1000; i++) {
+            int number = random.nextInt(7);
+            assertTrue(number >= 0 && number < 7);
+            double fraction = random.nextDouble();
+            assertTrue(fraction >= 0 && fraction < 1);
+        }
+        assertThrows(IllegalArgumentException.class, () -> random.nextInt(0));
+
+    }
+
+    @Test
+    public void testSplit() {
+
+        GameRandom random = new GameRandom(42);
+        GameRandom split = random.split();
+        GameRandom sameSplit = new GameRandom(42).split();
+        // The split generator only depends on the state of the generator when it is split
+        for(int i = 0; i < 100; i++) {
+            random.nextLong();
+            assertEquals(sameSplit.nextLong(), split.nextLong());
+        }
+        assertNotEquals(new GameRandom(42).nextLong(), new GameRandom(42).split().nextLong());
+
+    }
+
+    @Test
+    public void testGameSeeds() {
+
+        GameSeeds seeds = new GameSeeds(42);
+        GameSeeds sameSeeds = new GameSeeds(42);
+        assertEquals(42, seeds.getServerSeed());
+        for(int i = 0; i < 100; i++) {
+            assertEquals(sameSeeds.next(), seeds.next());
+        }
+        assertNotEquals(0, new GameSeeds(0).getServerSeed());
+
+    }
+
+}
@@ -0,0 +1,72 @@
+package server.game;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameSchedulerTest {
+
+    private GameScheduler gameScheduler;
+
+    @BeforeEach
+    public void setup() {
+
+        this.gameScheduler = new GameScheduler(2);
+
+    }
+
+    /**
+     * Stops the scheduler after every test
+     */
+    @AfterEach
+    public void tearDown() {
+
+        this.gameScheduler.shutdown();
+
+    }
+
+    @Test
+    public void testScheduleExecutesTask() throws InterruptedException {
+
+        CountDownLatch latch = new CountDownLatch(1);
+        gameScheduler.schedule(latch::countDown, 10);
+
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+
+    }
+
+    @Test
+    public void testPendingTimers() {
+
+        ScheduledFuture<?> first = gameScheduler.schedule(() -> { }, 60000);
+        ScheduledFuture<?> second = gameScheduler.schedule(() -> { }, 60000);
+        assertEquals(2, gameScheduler.getPendingTimers());
+
+        first.cancel(false);
+        assertEquals(1, gameScheduler.getPendingTimers());
+
+        second.cancel(false);
+        assertEquals(0, gameScheduler.getPendingTimers());
+
+    }
+
+    @Test
+    public void testThreadCountStaysFlat() throws InterruptedException {
+
+        CountDownLatch latch = new CountDownLatch(100);
+        for(int i = 0; i < 100; i++) {
+            gameScheduler.schedule(latch::countDown, 1);
+        }
+
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        assertTrue(gameScheduler.getThreadCount() <= 2);
+
+    }
+
+}
@@ -0,0 +1,171 @@
+package server.game;
+
+import commons.Player;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import server.game.questions.QuestionSet;
+import server.game.questions.QuestionSetPool;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameShardsTest {
+
+    private GameShards gameShards;
+
+    @BeforeEach
+    public void setup() {
+
+        this.gameShards = new GameShards(4);
+
+    }
+
+    /**
+     * Stops the schedulers of the shards after every test
+     */
+    @AfterEach
+    public void tearDown() {
+
+        this.gameShards.shutdown();
+
+    }
+
+    /**
+     * Creates a game with the specified UUID
+     *
+     * @param uuid the UUID of the game
+     * @return the new game
+     */
+    private Game createGame(UUID uuid) {
+
+        Game game = new Game(new GameUpdateManager(new FakeSimpMessagingTemplate()), null);
+        game.setUUID(uuid);
+        return game;
+
+    }
+
+    @Test
+    public void testShardCount() {
+
+        assertEquals(4, gameShards.getShards().size());
+        for(int i = 0; i < 4; i++) {
+            assertEquals(i, gameShards.getShards().get(i).getIndex());
+        }
+
+    }
+
+    @Test
+    public void testShardsHaveOwnBlockingExecutors() throws Exception {
+
+        Set<ExecutorService> executors = new HashSet<>();
+        for(GameShard shard : gameShards.getShards()) {
+            executors.add(shard.getBlockingExecutor());
+            // The threads are named after their shard
+            String name = shard.getBlockingExecutor().submit(() -> Thread.currentThread().getName())
+                    .get(5, TimeUnit.SECONDS);
+            assertTrue(name.startsWith("game-blocking-" + shard.getIndex() + "-"), name);
+        }
+        assertEquals(4, executors.size());
+
+        gameShards.shutdown();
+        assertTrue(gameShards.getShards().stream().allMatch(shard -> shard.getBlockingExecutor().isShutdown()));
+
+    }
+
+    @Test
+    public void testCreateUUIDBelongsToShard() {
+
+        for(GameShard shard : gameShards.getShards()) {
+            for(int i = 0; i < 10; i++) {
+                assertSame(shard, gameShards.shardOf(gameShards.createUUID(shard)));
+            }
+        }
+
+    }
+
+    @Test
+    public void testGetGame() {
+
+        GameShard shard = gameShards.getShards().get(2);
+        Game game = createGame(gameShards.createUUID(shard));
+        shard.addGame(game);
+
+        assertSame(game, gameShards.getGame(game.getUUID()));
+        assertNull(gameShards.getGame(UUID.randomUUID()));
+
+        assertTrue(shard.removeGame(game.getUUID()));
+        assertFalse(shard.removeGame(game.getUUID()));
+        assertNull(gameShards.getGame(game.getUUID()));
+
+    }
+
+    @Test
+    public void testLeastLoadedShard() {
+
+        for(int i = 0; i < 3; i++) {
+            GameShard shard = gameShards.getShards().get(i);
+            Game game = createGame(gameShards.createUUID(shard));
+            game.addPlayer(new Player("P" + i));
+            shard.addGame(game);
+        }
+
+        assertEquals(3, gameShards.getLeastLoadedShard().getIndex());
+
+        // A shard with an empty game is still less loaded than a shard with players
+        GameShard last = gameShards.getShards().get(3);
+        last.addGame(createGame(gameShards.createUUID(last)));
+        assertEquals(3, gameShards.getLeastLoadedShard().getIndex());
+        assertEquals(0, last.getPlayerCount());
+        assertEquals(1, last.getGameCount());
+
+    }
+
+    @Test
+    public void testBlockingWorkDoesNotStallShard() throws InterruptedException {
+
+        CountDownLatch generated = new CountDownLatch(1);
+        QuestionSetPool slowPool = new QuestionSetPool(null, 0, 0) {
+            @Override
+            public QuestionSet take(Collection<String> usernames) {
+                try {
+                    generated.await();
+                } catch(InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return null;
+            }
+        };
+
+        GameShard shard = gameShards.getShards().get(0);
+        Game game = new Game(new GameUpdateManager(new FakeSimpMessagingTemplate()), slowPool);
+        game.setUUID(gameShards.createUUID(shard));
+        game.setScheduler(shard.getScheduler());
+        game.setBlockingExecutor(shard.getBlockingExecutor());
+        shard.addGame(game);
+        game.start();
+
+        // While the questions of the game are generated, the thread of the shard still executes other work
+        CountDownLatch executed = new CountDownLatch(1);
+        shard.getScheduler().schedule(executed::countDown, 50);
+        assertTrue(executed.await(5, TimeUnit.SECONDS));
+        assertEquals(GameState.RUNNING, game.getState());
+
+        // Once the generation is done, the result is handled by the game
+        generated.countDown();
+        for(int i = 0; i < 500 && game.getState() != GameState.FINISHED; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(GameState.FINISHED, game.getState());
+        assertNull(game.getQuestions());
+
+    }
+
+}
@@ -9,9 +9,11 @@ import server.database.ActivityDBController;
 import server.database.QuestionDBController;
 import server.game.questions.QuestionGenerator;
 import server.game.questions.QuestionGeneratorUtils;
+import server.game.questions.QuestionSetPool;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.UUID;
 
@@ -28,6 +30,7 @@ public class GameTest {
     private ActivityDBController activityDBController;
     private QuestionDBController questionDBController;
     private QuestionGenerator questionGenerator;
+    private QuestionSetPool questionSetPool;
     private QuestionGeneratorUtils utils;
 
     @BeforeEach
@@ -46,9 +49,11 @@ public class GameTest {
                 activityDBController,
                 questionDBController,
                 utils);
+        // Without a pool depth, the questions are generated when the game starts
+        questionSetPool = new QuestionSetPool(questionGenerator, 0, 0);
 
 
-        this.game = new Game(new GameUpdateManager(new FakeSimpMessagingTemplate()), questionGenerator);
+        this.game = new Game(new GameUpdateManager(new FakeSimpMessagingTemplate()), questionSetPool);
         this.game.setUUID(uuid);
         this.game.setGameType(GameType.MULTIPLAYER);
 
@@ -133,7 +138,7 @@ public class GameTest {
         assertEquals(game, game);
         assertEquals(game.hashCode(), game.hashCode());
 
-        Game game2 = new Game(new GameUpdateManager(new FakeSimpMessagingTemplate()), questionGenerator);
+        Game game2 = new Game(new GameUpdateManager(new FakeSimpMessagingTemplate()), questionSetPool);
         game2.setUUID(uuid);
         game2.setGameType(GameType.MULTIPLAYER);
         assertEquals(game, game2);
@@ -144,37 +149,26 @@ public class GameTest {
         assertEquals(game, game2);
         assertEquals(game.hashCode(), game2.hashCode());
 
+        // Only the UUID identifies a game, its type and players do not matter
+        Game game3 = new Game(new GameUpdateManager(new FakeSimpMessagingTemplate()), questionSetPool);
+        game3.setUUID(uuid);
+        game3.setGameType(GameType.SINGLEPLAYER);
+        game3.addPlayer(player2);
+        assertEquals(game, game3);
+        assertEquals(game.hashCode(), game3.hashCode());
+
     }
 
     @Test
     public void testEqualsAndHashCodeNotEqual() {
 
-        Game game0 = new Game(new GameUpdateManager(new FakeSimpMessagingTemplate()), questionGenerator);
-        game0.setUUID(uuid);
-        game0.setGameType(GameType.SINGLEPLAYER);
-        assertNotEquals(game, game0);
-        assertNotEquals(game.hashCode(), game0.hashCode());
-
-        Game game2 = new Game(new GameUpdateManager(new FakeSimpMessagingTemplate()), questionGenerator);
+        Game game2 = new Game(new GameUpdateManager(new FakeSimpMessagingTemplate()), questionSetPool);
         game2.setUUID(UUID.randomUUID());
         game2.setGameType(GameType.MULTIPLAYER);
         assertNotEquals(game, game2);
         assertNotEquals(game.hashCode(), game2.hashCode());
-
-        Game game3 = new Game(new GameUpdateManager(new FakeSimpMessagingTemplate()), questionGenerator);
-        game3.setUUID(uuid);
-        game3.setGameType(GameType.MULTIPLAYER);
-        game3.addPlayer(player1);
-        assertNotEquals(game, game3);
-        assertNotEquals(game.hashCode(), game3.hashCode());
-
-        Game game4 = new Game(new GameUpdateManager(new FakeSimpMessagingTemplate()), questionGenerator);
-        game4.setUUID(uuid);
-        game4.setGameType(GameType.MULTIPLAYER);
-        game.addPlayer(player1);
-        game4.addPlayer(player2);
-        assertNotEquals(game, game4);
-        assertNotEquals(game.hashCode(), game4.hashCode());
+        assertNotEquals(game, null);
+        assertNotEquals(game, uuid);
 
     }
 
@@ -185,14 +179,17 @@ public class GameTest {
         assertTrue(s.contains("\n"));
         assertTrue(s.contains("uuid"));
         assertTrue(s.contains("gameType"));
-        assertTrue(s.contains("players"));
+        assertTrue(s.contains("state"));
+        assertTrue(s.contains("playerCount=0"));
+        assertTrue(s.contains("currentQuestionIdx"));
         assertFalse(s.contains("gameUpdateManager"));
+        assertFalse(s.contains("questions"));
     }
 
     @Test
     public void saveScoreToLeaderboard() {
         game.saveScoreToLeaderboard(100, "user");
-        int points = game.getLeaderboard().get("user").getScore();
+        int points = game.getScore("user");
         assertEquals(100, points);
     }
 
@@ -228,4 +225,47 @@ public class GameTest {
         assertEquals(GameType.MULTIPLAYER, game.getGameType());
     }
 
+    @Test
+    public void testAnswerDeadlines() {
+        game.addPlayer(player1);
+        game.addPlayer(player2);
+        game.startQuestionAt(1000);
+
+        // The deadline is the end of the question, answers after it are rejected
+        assertTrue(game.applyAnswer("P1", 1, 16000));
+        assertFalse(game.applyAnswer("P2", 1, 16001));
+        assertFalse(game.applyAnswer("P3", 1, 2000));
+    }
+
+    @Test
+    public void testTimeJokerFactors() {
+        Player player3 = new Player("P3");
+        game.addPlayer(player1);
+        game.addPlayer(player2);
+        game.addPlayer(player3);
+        game.startQuestionAt(1000);
+
+        // The first time joker of a question halves the remaining time of the other players
+        Map<String, Long> times = game.applyTimeJoker("P1", 6000);
+        assertEquals(Map.of("P1", 10000L, "P2", 5000L, "P3", 5000L), times);
+
+        // Later time jokers of the same question take a smaller part of the remaining time
+        times = game.applyTimeJoker("P2", 7000);
+        assertEquals(Map.of("P1", 5850L, "P2", 4000L, "P3", 2600L), times);
+
+        // The answers are checked against the shortened deadlines
+        assertTrue(game.applyAnswer("P1", 1, 12850));
+        assertTrue(game.applyAnswer("P2", 1, 11000));
+        assertFalse(game.applyAnswer("P3", 1, 9601));
+
+        // Once the deadlines have passed, the remaining times are zero instead of negative
+        times = game.applyTimeJoker("P1", 14000);
+        assertEquals(Map.of("P1", 0L, "P2", 0L, "P3", 0L), times);
+
+        // The next question starts with the full time and the first time joker halves it again
+        game.startQuestionAt(20000);
+        times = game.applyTimeJoker("P3", 20000);
+        assertEquals(Map.of("P1", 7500L, "P2", 7500L, "P3", 15000L), times);
+    }
+
 }
@@ -34,6 +34,7 @@ public class GameTestUtils {
         activityDBController.getInternalDB().save(new Activity("id18", "imagePath", "18", 2244));
         activityDBController.getInternalDB().save(new Activity("id19", "imagePath", "19", 34));
         activityDBController.getInternalDB().save(new Activity("id20", "imagePath", "20", 320));
+        activityDBController.invalidate();
 
     }
 
@@ -24,7 +24,7 @@ public class GameUpdateIncomingControllerTest {
 
         public FakeGameController() {
 
-            super(null, null);
+            super(null, null, null, null);
 
             this.gameStarted = false;
 
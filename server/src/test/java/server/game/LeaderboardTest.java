@@ -0,0 +1,116 @@
+package server.game;
+
+import commons.Score;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LeaderboardTest {
+
+    private Leaderboard leaderboard;
+
+    @BeforeEach
+    public void setup() {
+
+        this.leaderboard = new Leaderboard();
+
+    }
+
+    @Test
+    public void testEmpty() {
+
+        assertEquals(0, leaderboard.size());
+        assertEquals(List.of(), leaderboard.toList());
+        assertFalse(leaderboard.contains(0));
+        assertFalse(leaderboard.contains(PlayerTable.NO_SLOT));
+        assertEquals(0, leaderboard.getScore(0));
+        assertEquals(0, leaderboard.getRank(0));
+
+    }
+
+    @Test
+    public void testAddScore() {
+
+        leaderboard.addScore(0, "P1", 100);
+        leaderboard.addScore(1, "P2", 150);
+        leaderboard.addScore(0, "P1", 100);
+
+        assertEquals(2, leaderboard.size());
+        assertEquals(200, leaderboard.getScore(0));
+        assertEquals(150, leaderboard.getScore(1));
+        assertEquals(List.of(new Score("P1", 200), new Score("P2", 150)), leaderboard.toList());
+
+    }
+
+    @Test
+    public void testRankAndTies() {
+
+        leaderboard.addScore(0, "Charlie", 50);
+        leaderboard.addScore(1, "Bob", 80);
+        leaderboard.addScore(2, "Alice", 50);
+
+        assertEquals(1, leaderboard.getRank(1));
+        assertEquals(2, leaderboard.getRank(2));
+        assertEquals(3, leaderboard.getRank(0));
+        assertEquals(List.of(new Score("Bob", 80), new Score("Alice", 50)), leaderboard.getTopScores(2));
+        assertEquals(List.of(), leaderboard.getTopScores(0));
+
+    }
+
+    @Test
+    public void testMatchesSortedScores() {
+
+        Random random = new Random(42);
+        int[] expected = new int[300];
+        boolean[] present = new boolean[300];
+
+        for(int i = 0; i < 5000; i++) {
+            int slot = random.nextInt(300);
+            int points = random.nextInt(201);
+            leaderboard.addScore(slot, "P" + slot, points);
+            expected[slot] += points;
+            present[slot] = true;
+        }
+
+        List<Score> sorted = new ArrayList<>();
+        List<Integer> sortedSlots = new ArrayList<>();
+        for(int slot = 0; slot < 300; slot++) {
+            if(present[slot]) {
+                sorted.add(new Score("P" + slot, expected[slot]));
+            }
+        }
+        sorted.sort(Comparator.comparingInt(Score::getScore).reversed().thenComparing(Score::getUsername));
+        sorted.forEach(score -> sortedSlots.add(Integer.parseInt(score.getUsername().substring(1))));
+
+        assertEquals(sorted, leaderboard.toList());
+        assertEquals(sorted.subList(0, 10), leaderboard.getTopScores(10));
+        for(int i = 0; i < sortedSlots.size(); i++) {
+            assertEquals(i + 1, leaderboard.getRank(sortedSlots.get(i)));
+        }
+
+    }
+
+    @Test
+    public void testEquals() {
+
+        Leaderboard other = new Leaderboard();
+        leaderboard.addScore(0, "P1", 100);
+        leaderboard.addScore(1, "P2", 50);
+        other.addScore(0, "P2", 50);
+        other.addScore(1, "P1", 100);
+
+        assertEquals(leaderboard, other);
+        assertEquals(leaderboard.hashCode(), other.hashCode());
+
+        other.addScore(0, "P2", 1);
+        assertNotEquals(leaderboard, other);
+
+    }
+
+}
@@ -0,0 +1,122 @@
+package server.game;
+
+import commons.Player;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PlayerTableTest {
+
+    private PlayerTable playerTable;
+
+    @BeforeEach
+    public void setup() {
+
+        this.playerTable = new PlayerTable();
+
+    }
+
+    @Test
+    public void testSlotsInJoinOrder() {
+
+        for(int i = 0; i < 20; i++) {
+            assertEquals(i, playerTable.addPlayer(new Player("P" + i)));
+        }
+
+        assertEquals(20, playerTable.getPlayerCount());
+        assertEquals(new Player("P0"), playerTable.getPlayers().get(0));
+        assertEquals(new Player("P19"), playerTable.getPlayers().get(19));
+        assertEquals(7, playerTable.getSlot("P7"));
+        assertEquals(PlayerTable.NO_SLOT, playerTable.getSlot("P20"));
+
+    }
+
+    @Test
+    public void testRemoveKeepsSlot() {
+
+        Player player1 = new Player("P1");
+        Player player2 = new Player("P2");
+        playerTable.addPlayer(player1);
+        playerTable.addPlayer(player2);
+
+        assertTrue(playerTable.removePlayer("P1"));
+        assertFalse(playerTable.removePlayer("P1"));
+        assertFalse(playerTable.containsPlayer("P1"));
+        assertNull(playerTable.getPlayer("P1"));
+        assertEquals(List.of(player2), playerTable.getPlayers());
+
+        assertEquals(0, playerTable.addPlayer(player1));
+        assertEquals(List.of(player1, player2), playerTable.getPlayers());
+
+    }
+
+    @Test
+    public void testAnswers() {
+
+        int slot = playerTable.addPlayer(new Player("P1"));
+        assertFalse(playerTable.hasAnswered(slot));
+
+        playerTable.saveAnswer(slot, 3, 1200);
+        assertTrue(playerTable.hasAnswered(slot));
+        assertEquals(3, playerTable.getAnswer(slot));
+        assertEquals(1200, playerTable.getAnswerTime(slot));
+
+        playerTable.clearAnswers();
+        assertFalse(playerTable.hasAnswered(slot));
+
+    }
+
+    @Test
+    public void testShortenDeadlines() {
+
+        int slot1 = playerTable.addPlayer(new Player("P1"));
+        int slot2 = playerTable.addPlayer(new Player("P2"));
+        playerTable.resetDeadlines(15000);
+
+        Map<String, Long> times = playerTable.shortenDeadlines(slot1, 5000, 0.5);
+
+        assertEquals(Map.of("P1", 10000L, "P2", 5000L), times);
+        assertEquals(15000, playerTable.getDeadline(slot1));
+        assertEquals(10000, playerTable.getDeadline(slot2));
+
+    }
+
+    @Test
+    public void testScoreJoker() {
+
+        int slot = playerTable.addPlayer(new Player("P1"));
+        playerTable.resetScoreJokers();
+        assertFalse(playerTable.useScoreJoker(slot));
+
+        playerTable.armScoreJoker(slot);
+        assertTrue(playerTable.useScoreJoker(slot));
+        assertFalse(playerTable.useScoreJoker(slot));
+
+        // The joker can only be used once per game
+        playerTable.armScoreJoker(slot);
+        assertFalse(playerTable.useScoreJoker(slot));
+
+    }
+
+    @Test
+    public void testEquals() {
+
+        PlayerTable other = new PlayerTable();
+        playerTable.addPlayer(new Player("P1"));
+        playerTable.addPlayer(new Player("P2"));
+        other.addPlayer(new Player("P2"));
+        other.addPlayer(new Player("P1"));
+
+        assertEquals(playerTable, other);
+        assertEquals(playerTable.hashCode(), other.hashCode());
+
+        other.removePlayer("P1");
+        assertNotEquals(playerTable, other);
+
+    }
+
+}
@@ -0,0 +1,101 @@
+package server.game.questions;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsumptionFormatterTest {
+
+    private final ConsumptionFormatter formatter = new ConsumptionFormatter();
+
+    /**
+     * Creates the consumption string with String.format, like createConsumptionString did before the formatter
+     *
+     * @param consumption      the consumption in Wh
+     * @param amountOfDecimals the amount of decimals
+     * @return the consumption string
+     */
+    private String formatWithStringFormat(long consumption, int amountOfDecimals) {
+
+        if(consumption < 1000) return consumption + " Wh";
+        double doubleConsumption = (double) consumption;
+        int steps = 0;
+        while(doubleConsumption >= 1000.0 && steps < 4) {
+            doubleConsumption /= 1000.0;
+            steps++;
+        }
+        double roundingFactor = Math.pow(10, amountOfDecimals);
+        double rounded = ((double) Math.round(doubleConsumption * roundingFactor)) / roundingFactor;
+        return String.format(Locale.ENGLISH, "%." + amountOfDecimals + "f", rounded)
+                + " " + new String[]{"", "k", "M", "G", "T"}[steps] + "Wh";
+
+    }
+
+    @Test
+    public void testFormat() {
+
+        assertEquals("999 Wh", formatter.format(999, 2));
+        assertEquals("1.00 kWh", formatter.format(1000, 2));
+        assertEquals("1.05 kWh", formatter.format(1049, 2));
+        assertEquals("1000.00 kWh", formatter.format(999999, 2));
+        assertEquals("1.0 MWh", formatter.format(1000000, 1));
+        assertEquals("2 GWh", formatter.format(1500000000L, 0));
+        assertEquals("9223372.04 TWh", formatter.format(Long.MAX_VALUE, 2));
+
+        assertThrows(IllegalArgumentException.class, () -> formatter.format(-1, 2));
+        assertThrows(IllegalArgumentException.class, () -> formatter.format(1, -1));
+
+    }
+
+    @Test
+    public void testSameAsStringFormat() {
+
+        Random random = new Random(42);
+        for(int i = 0; i < 100000; i++) {
+            // Consumptions of every magnitude
+            long consumption = random.nextLong() >>> (1 + random.nextInt(63));
+            int decimals = random.nextInt(6);
+            assertEquals(formatWithStringFormat(consumption, decimals), formatter.format(consumption, decimals));
+        }
+        for(long consumption = 990; consumption < 20000; consumption++) {
+            assertEquals(formatWithStringFormat(consumption, 2), formatter.format(consumption, 2));
+        }
+        assertEquals(formatWithStringFormat(123456789L, 17), formatter.format(123456789L, 17));
+
+    }
+
+    @Test
+    public void testHaveSameString() {
+
+        Random random = new Random(42);
+        for(int i = 0; i < 10000; i++) {
+            long first = random.nextInt(3000000);
+            long second = first + random.nextInt(20000) - 10000;
+            if(second < 0) continue;
+            assertEquals(formatter.format(first, 2).equals(formatter.format(second, 2)),
+                    formatter.haveSameString(first, second, 2));
+        }
+
+    }
+
+    @Test
+    public void testGetRange() {
+
+        assertArrayEquals(new long[]{36, 36}, formatter.getRange(36, 2));
+
+        long[] range = formatter.getRange(1500000, 2);
+        assertTrue(range[0] <= 1500000 && range[1] >= 1500000);
+        assertEquals("1.50 MWh", formatter.format(range[0], 2));
+        assertEquals("1.50 MWh", formatter.format(range[1], 2));
+        assertNotEquals("1.50 MWh", formatter.format(range[0] - 1, 2));
+        assertNotEquals("1.50 MWh", formatter.format(range[1] + 1, 2));
+
+        range = formatter.getRange(Long.MAX_VALUE, 2);
+        assertEquals(Long.MAX_VALUE, range[1]);
+
+    }
+
+}
@@ -0,0 +1,131 @@
+package server.game.questions;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntervalSamplerTest {
+
+    @Test
+    public void testNoExclusions() {
+
+        IntervalSampler sampler = new IntervalSampler(10, 20, List.of());
+
+        assertEquals(10, sampler.getAllowedSize());
+        assertEquals(1.0, sampler.getAllowedFraction());
+        assertFalse(sampler.isEmpty());
+        // Same as lower + random * (upper - lower)
+        assertEquals(15, sampler.sample(new SameNumber(0.5)));
+
+    }
+
+    @Test
+    public void testMergesExclusions() {
+
+        // Overlapping, adjacent, duplicate and outside ranges
+        IntervalSampler sampler = new IntervalSampler(0, 100, List.of(
+                new long[]{50, 60}, new long[]{10, 20}, new long[]{15, 30}, new long[]{31, 35},
+                new long[]{50, 60}, new long[]{200, 300}, new long[]{-10, -1}, new long[]{90, 80}
+        ));
+
+        List<long[]> intervals = sampler.getAllowedIntervals();
+        assertEquals(3, intervals.size());
+        assertArrayEquals(new long[]{0, 9}, intervals.get(0));
+        assertArrayEquals(new long[]{36, 49}, intervals.get(1));
+        assertArrayEquals(new long[]{61, 99}, intervals.get(2));
+        assertEquals(10 + 14 + 39, sampler.getAllowedSize());
+        assertEquals(0.63, sampler.getAllowedFraction(), 0.0001);
+
+    }
+
+    @Test
+    public void testSampleMapsOntoAllowedNumbers() {
+
+        IntervalSampler sampler = new IntervalSampler(0, 10, List.of(new long[]{2, 7}));
+
+        // The allowed numbers are 0, 1, 8 and 9
+        assertEquals(0, sampler.sample(new SameNumber(0)));
+        assertEquals(1, sampler.sample(new SameNumber(0.49)));
+        assertEquals(8, sampler.sample(new SameNumber(0.5)));
+        assertEquals(9, sampler.sample(new SameNumber(0.99)));
+        assertEquals(10, sampler.sample(new SameNumber(1)));
+
+    }
+
+    @Test
+    public void testEqualBounds() {
+
+        IntervalSampler sampler = new IntervalSampler(5, 5, List.of());
+        assertEquals(5, sampler.sample(new SameNumber(0.5)));
+        assertEquals(1.0, sampler.getAllowedFraction());
+
+        sampler = new IntervalSampler(5, 5, List.of(new long[]{5, 5}));
+        assertTrue(sampler.isEmpty());
+        assertEquals(0.0, sampler.getAllowedFraction());
+
+    }
+
+    @Test
+    public void testEmpty() {
+
+        IntervalSampler sampler = new IntervalSampler(0, 10, List.of(new long[]{0, 4}, new long[]{5, 100}));
+
+        assertTrue(sampler.isEmpty());
+        assertEquals(0.0, sampler.getAllowedFraction());
+        assertThrows(IllegalStateException.class, () -> sampler.sample(new Random(42)));
+        assertThrows(IllegalArgumentException.class, () -> new IntervalSampler(10, 0, List.of()));
+
+    }
+
+    @Test
+    public void testLargeValues() {
+
+        IntervalSampler sampler = new IntervalSampler(0, Long.MAX_VALUE, List.of(new long[]{0, Long.MAX_VALUE - 2}));
+
+        assertEquals(1, sampler.getAllowedSize());
+        assertEquals(Long.MAX_VALUE - 1, sampler.sample(new Random(42)));
+
+    }
+
+    @Test
+    public void testUniform() {
+
+        IntervalSampler sampler = new IntervalSampler(0, 20, List.of(new long[]{3, 8}, new long[]{12, 16}));
+        Random random = new Random(42);
+        int[] counts = new int[20];
+        for(int i = 0; i < 90000; i++) {
+            counts[(int) sampler.sample(random)]++;
+        }
+
+        for(int i = 0; i < 20; i++) {
+            if((i >= 3 && i <= 8) || (i >= 12 && i <= 16)) {
+                assertEquals(0, counts[i]);
+            } else {
+                assertTrue(counts[i] > 9500 && counts[i] < 10500);
+            }
+        }
+
+    }
+
+    /**
+     * Class used as a non-random Random instance, that only returns a specific number.
+     */
+    private static class SameNumber extends Random {
+
+        private final double value;
+
+        SameNumber(double value) {
+            this.value = value;
+        }
+
+        @Override
+        public double nextDouble() {
+            return value;
+        }
+
+    }
+
+}
@@ -171,6 +171,24 @@ class QuestionGeneratorUtilsTest {
 
     }
 
+    @Test
+    public void testRandomWithExclusionSingleDraw() {
+
+        // Everything below 0.05 would be rounded to 0, so the first number that can be drawn is 0.05 -> 0.1
+        assertEquals(0.1, utils.getRandomWithExclusion(new RandomSameNumber(0), 0, 1, 0));
+        // Everything from 0.95 would be rounded to 1
+        assertEquals(0.9, utils.getRandomWithExclusion(new RandomSameNumber(0.9999), 0, 1, 1));
+
+        Random random = new Random(42);
+        for(int i = 0; i < 1000; i++) {
+            double r = utils.getRandomWithExclusion(random, 0, 3, 1, 2);
+            assertTrue(r != 1.0 && r != 2.0 && r >= 0 && r <= 3);
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> utils.getRandomWithExclusion(random, 0.96, 1.04, 1));
+
+    }
+
     @Test
     public void testGetBoundsEstimationQuestionSmall() {
 
@@ -365,50 +383,87 @@ class QuestionGeneratorUtilsTest {
     @Test
     public void randomLongInRangeExclInSIExcl() {
 
-        // Here we test for cases in which the generated value FIRST is in the SI String exclusion, then on second try
-        // it is not anymore.
+        // Here we test that the single random number is mapped onto the numbers that are not excluded by the SI
+        // String exclusion.
 
         // Case where it is the same value that is also in the exclusion list for the long values
-        Random random = new RandomTwoNumbers(0.01, 1);
-        // On the first try it should try with 0.01 -> results in 1 as the generated value -> this is not a valid value
-        // Then on second try it should try with 1 -> results in 100 which is valid -> so we test for 100
+        // The allowed numbers are 0 and 2 - 99, so 0.02 results in 2 (1.98 numbers into the allowed numbers)
+        assertEquals(0,
+                utils.randomLongInRangeExcl(0, 100, new RandomSameNumber(0.005), List.of("1 Wh"), List.of(1L), 0.5));
+        assertEquals(2,
+                utils.randomLongInRangeExcl(0, 100, new RandomSameNumber(0.02), List.of("1 Wh"), List.of(1L), 0.5));
+        // Like before, the upper bound is only returned if the random number is 1
         assertEquals(100,
-                utils.randomLongInRangeExcl(0, 100, random, List.of("1 Wh"), List.of(1L), 0.5));
+                utils.randomLongInRangeExcl(0, 100, new RandomSameNumber(1), List.of("1 Wh"), List.of(1L), 0.5));
 
         // Case where it is NOT the same value that is in the exclusion list for the long values, but the SI
         // string is the same
-        random = new RandomTwoNumbers(0.01, 0.5);
-        // On the first try it should try with 0.01 -> results in 1001000 as the generated value
-        // -> this is not a valid value as it's SI string is 1.00 MWh, but it is not equal to 1000000
-        // Then on second try it should try with 0.5 -> results in 1500000 which is valid -> so we test for 1500000
-        assertEquals(1500000,
-                utils.randomLongInRangeExcl(
-                        1000000, 2000000, random,
-                        List.of("1.00 MWh"), List.of(1000000L), 0.1));
+        long[] range = utils.getConsumptionRange("1.50 MWh");
+        Random random = new Random(42);
+        for(int i = 0; i < 1000; i++) {
+            long generated = utils.randomLongInRangeExcl(1000000, 2000000, random, List.of("1.50 MWh"), List.of(), 0.1);
+            assertNotEquals("1.50 MWh", utils.createConsumptionString(generated));
+            assertTrue(generated < range[0] || generated > range[1]);
+        }
 
     }
 
     @Test
     public void randomLongInRangeExclInExclRange() {
 
-        // Here we test for cases in which the generated value FIRST is in the excluded ranges, then on second try
-        // it is not anymore.
+        // Here we test that the single random number is mapped onto the numbers outside the excluded ranges.
 
-        // Case where it is in the exclusion list directly (not +/- range)
-        Random random = new RandomTwoNumbers(0.01, 1);
-        // On the first try it should try with 0.01 -> results in 110 as the generated value -> this is not a valid value
-        // Then on second try it should try with 1 -> results in 200 which is valid -> so we test for 200
+        // Case where the range around the exclusion is [55, 165], so the allowed numbers are 166 - 199
+        assertEquals(166,
+                utils.randomLongInRangeExcl(100, 200, new RandomSameNumber(0), List.of(), List.of(110L), 0.5));
         assertEquals(200,
-                utils.randomLongInRangeExcl(100, 200, random, List.of(), List.of(110L), 0.5));
+                utils.randomLongInRangeExcl(100, 200, new RandomSameNumber(1), List.of(), List.of(110L), 0.5));
+
+        // Case where the range around the exclusion is [70, 130], so the allowed numbers are 131 - 199
+        // 0.5 results in 34.5 numbers into the allowed numbers -> 165
+        assertEquals(165,
+                utils.randomLongInRangeExcl(100, 200, new RandomSameNumber(0.5), List.of(), List.of(100L), 0.3));
+
+        // If all numbers are excluded, no number can be generated
+        assertThrows(IllegalArgumentException.class, () -> {
+            utils.randomLongInRangeExcl(100, 200, new RandomSameNumber(0.5), List.of(), List.of(150L), 0.5);
+        });
+
+    }
 
-        // Case where it is NOT the same value that is in the exclusion list for the long values, and
-        // only in the range around it
-        random = new RandomTwoNumbers(0.01, 0.5);
-        // On the first try it should try with 0.01 -> results in 110 as the generated value
-        // -> this is not a valid value as it is bigger than 70 and smaller than 130 (range that is excluded)
-        // Then on second try it should try with 0.5 -> results in 150 which is valid -> so we test for 150
-        assertEquals(150,
-                utils.randomLongInRangeExcl(100, 200, random, List.of(), List.of(100L), 0.3));
+    @Test
+    public void randomLongInRangeExclUniform() {
+
+        // Every number that is not excluded should be equally likely
+        Random random = new Random(42);
+        int[] counts = new int[10];
+        for(int i = 0; i < 80000; i++) {
+            counts[(int) utils.randomLongInRangeExcl(0, 10, random, List.of("7 Wh"), List.of(3L), 0)]++;
+        }
+        for(int i = 0; i < 10; i++) {
+            if(i == 3 || i == 7) {
+                assertEquals(0, counts[i]);
+            } else {
+                assertTrue(counts[i] > 9500 && counts[i] < 10500);
+            }
+        }
+
+    }
+
+    @Test
+    public void testGetConsumptionRange() {
+
+        assertArrayEquals(new long[]{36, 36}, utils.getConsumptionRange("36 Wh"));
+        long[] range = utils.getConsumptionRange("1.00 MWh");
+        assertEquals("1.00 MWh", utils.createConsumptionString(range[0]));
+        assertEquals("1.00 MWh", utils.createConsumptionString(range[1]));
+        assertNotEquals("1.00 MWh", utils.createConsumptionString(range[0] - 1));
+        assertNotEquals("1.00 MWh", utils.createConsumptionString(range[1] + 1));
+        assertTrue(range[0] <= 1000000 && range[1] >= 1004000);
+
+        assertNull(utils.getConsumptionRange("1.50 Wh"));
+        assertNull(utils.getConsumptionRange("1.00 XWh"));
+        assertNull(utils.getConsumptionRange("abc"));
 
     }
 
@@ -435,38 +490,6 @@ class QuestionGeneratorUtilsTest {
 
     }
 
-    /**
-     * Class used as a non-random Random instance, that returns a specific number in turn with another specific number.
-     */
-    private class RandomTwoNumbers extends Random {
-
-        private final double[] retVals; // length should be 2
-        private boolean firstsTurn; // if the first number is next (true) or the second (false)
-
-        /**
-         * Constructor to set the number it returns.
-         */
-        public RandomTwoNumbers(double val1, double val2) {
-
-            firstsTurn = true;
-            this.retVals = new double[]{val1, val2};
-
-        }
-
-        @Override
-        public double nextDouble() {
-
-            if(firstsTurn) {
-                firstsTurn = false;
-                return retVals[1];
-            }
-            firstsTurn = true;
-            return retVals[0];
-
-        }
-
-    }
-
     /**
      * Class used as a non-random Random instance, that only returns a specific number.
      */
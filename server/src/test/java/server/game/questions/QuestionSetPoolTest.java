@@ -0,0 +1,159 @@
+package server.game.questions;
+
+import commons.Activity;
+import commons.GeneralQuestion;
+import commons.Question;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuestionSetPoolTest {
+
+    private QuestionSetPool pool;
+
+    /**
+     * Stops the background workers of the pool of the test
+     */
+    @AfterEach
+    public void tearDown() {
+
+        if(pool != null) {
+            pool.shutdown();
+        }
+
+    }
+
+    @Test
+    public void testWithoutDepthGeneratesOnTake() {
+
+        CountingGenerator generator = new CountingGenerator(true);
+        pool = new QuestionSetPool(generator, 0, 1);
+        pool.fill();
+
+        assertEquals(0, generator.calls.get());
+        assertNotNull(pool.take());
+        assertEquals(1, generator.calls.get());
+        assertEquals(0, pool.getHits());
+        assertEquals(1, pool.getMisses());
+        assertEquals(0, pool.getAvailableSets());
+
+    }
+
+    @Test
+    public void testTakeFromFilledPool() throws InterruptedException {
+
+        CountingGenerator generator = new CountingGenerator(true);
+        pool = new QuestionSetPool(generator, 2, 2);
+        pool.fill();
+        waitFor(() -> pool.getAvailableSets() == 2);
+
+        assertEquals(2, pool.getDepth());
+        assertNotNull(pool.take());
+        assertEquals(1, pool.getHits());
+        assertEquals(0, pool.getMisses());
+
+        // The taken set is replaced in the background
+        waitFor(() -> pool.getAvailableSets() == 2);
+        assertEquals(3, generator.calls.get());
+
+    }
+
+    @Test
+    public void testFailedGenerationIsNotRetried() throws InterruptedException {
+
+        CountingGenerator generator = new CountingGenerator(false);
+        pool = new QuestionSetPool(generator, 2, 1);
+        pool.fill();
+        waitFor(() -> generator.calls.get() == 2);
+        Thread.sleep(50);
+        assertEquals(2, generator.calls.get());
+
+        // Taking a set generates one on the calling thread and requests at most two refills again
+        assertNull(pool.take());
+        assertEquals(1, pool.getMisses());
+        Thread.sleep(50);
+        assertTrue(generator.calls.get() <= 5);
+        assertEquals(0, pool.getAvailableSets());
+
+    }
+
+    @Test
+    public void testTakeLeastSeen() throws InterruptedException {
+
+        CountingGenerator generator = new CountingGenerator(true);
+        SeenActivities seenActivities = new SeenActivities(24);
+        seenActivities.record(List.of("alice"), List.of(question("title1")));
+        pool = new QuestionSetPool(generator, seenActivities, 2, 1);
+        pool.fill();
+        waitFor(() -> pool.getAvailableSets() == 2);
+
+        // Alice has seen the activity of the first set, so she gets the second one
+        QuestionSet set = pool.take(List.of("alice", "bob"));
+        assertEquals("title2", set.getQuestions().get(0).activityTitle);
+        assertEquals(1, pool.getHits());
+
+        // The activities of the set are recorded for both players
+        assertTrue(seenActivities.seenBy(List.of("bob")).test(question("title2")));
+        assertFalse(seenActivities.seenBy(List.of("bob")).test(question("title1")));
+        assertEquals(2, seenActivities.getPlayerCount());
+
+    }
+
+    /**
+     * Creates a question about an activity with the given title
+     *
+     * @param title the title of the activity
+     * @return the question
+     */
+    private static Question question(String title) {
+
+        return new GeneralQuestion(new Activity("id", "imagePath", title, 1), List.of("1", "2", "3"), 1);
+
+    }
+
+    /**
+     * Waits until a condition is fulfilled, the test fails if this takes more than 5 seconds
+     *
+     * @param condition the condition to wait for
+     * @throws InterruptedException if the waiting thread is interrupted
+     */
+    private void waitFor(BooleanSupplier condition) throws InterruptedException {
+
+        long deadline = System.currentTimeMillis() + 5000L;
+        while(!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out");
+            Thread.sleep(5);
+        }
+
+    }
+
+    /**
+     * A question generator that counts how many sets are generated, without using a database
+     */
+    private static class CountingGenerator extends QuestionGenerator {
+
+        private final AtomicInteger calls = new AtomicInteger();
+        private final boolean succeeds;
+
+        CountingGenerator(boolean succeeds) {
+            super(null, null, null, null);
+            this.succeeds = succeeds;
+        }
+
+        @Override
+        public QuestionSet generateQuestionSet(int minPerQuestionType, Predicate<Question> seen) {
+            calls.incrementAndGet();
+            if(!succeeds) return null;
+            int call = calls.get();
+            return new QuestionSet(call, List.of(question("title" + call)));
+        }
+
+    }
+
+}
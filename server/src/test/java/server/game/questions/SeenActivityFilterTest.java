@@ -0,0 +1,96 @@
+package server.game.questions;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeenActivityFilterTest {
+
+    private static final long DAY = 24 * 3600000L;
+
+    @Test
+    public void testAddAndContain() {
+
+        SeenActivityFilter filter = new SeenActivityFilter(DAY, 0);
+        for(int i = 0; i < 200; i++) {
+            filter.add("Activity " + i, 0);
+        }
+        for(int i = 0; i < 200; i++) {
+            assertTrue(filter.mightContain("Activity " + i, 0));
+        }
+
+        // Only a few activities that were not seen are reported as seen
+        int falsePositives = 0;
+        for(int i = 200; i < 10200; i++) {
+            if(filter.mightContain("Activity " + i, 0)) falsePositives++;
+        }
+        assertTrue(falsePositives < 500, "Too many false positives: " + falsePositives);
+
+    }
+
+    @Test
+    public void testDecay() {
+
+        SeenActivityFilter filter = new SeenActivityFilter(DAY, 0);
+        filter.add("first", 0);
+        assertFalse(filter.isExpired(DAY));
+
+        // After the decay time, the activity is still remembered in the previous generation
+        filter.add("second", DAY);
+        assertTrue(filter.mightContain("first", DAY + 1));
+        assertTrue(filter.mightContain("second", DAY + 1));
+
+        // After another decay time, only the activities of the last generation are remembered
+        assertFalse(filter.mightContain("first", 2 * DAY + 1));
+        assertTrue(filter.mightContain("second", 2 * DAY + 1));
+
+        assertFalse(filter.isExpired(3 * DAY));
+        assertTrue(filter.isExpired(4 * DAY + 1));
+        assertFalse(filter.mightContain("second", 4 * DAY + 1));
+
+    }
+
+    @Test
+    public void testBytes() {
+
+        SeenActivityFilter filter = new SeenActivityFilter(DAY, 0);
+        filter.add("first", 0);
+        filter.add("second", DAY);
+
+        byte[] bytes = filter.toBytes();
+        assertEquals(SeenActivityFilter.SERIALIZED_SIZE, bytes.length);
+        SeenActivityFilter restored = SeenActivityFilter.fromBytes(bytes, DAY);
+        assertNotNull(restored);
+        assertTrue(restored.mightContain("first", DAY));
+        assertTrue(restored.mightContain("second", DAY));
+        assertArrayEquals(bytes, restored.toBytes());
+
+        assertNull(SeenActivityFilter.fromBytes(null, DAY));
+        assertNull(SeenActivityFilter.fromBytes(new byte[3], DAY));
+
+    }
+
+    @Test
+    public void testMerge() {
+
+        SeenActivityFilter stored = new SeenActivityFilter(DAY, 0);
+        stored.add("first", 0);
+        stored.add("second", DAY);
+
+        // A new filter that was already used before the stored one was loaded
+        SeenActivityFilter filter = new SeenActivityFilter(DAY, DAY + 10);
+        filter.add("third", DAY + 10);
+        filter.merge(stored, DAY + 20);
+
+        assertTrue(filter.mightContain("first", DAY + 20));
+        assertTrue(filter.mightContain("second", DAY + 20));
+        assertTrue(filter.mightContain("third", DAY + 20));
+
+        // The merged filter keeps the later generation start, so the activities of the new filter are not forgotten
+        // earlier than in the new filter itself
+        assertTrue(filter.mightContain("third", 2 * DAY + 5));
+        assertFalse(filter.isExpired(3 * DAY));
+
+    }
+
+}